@@ -0,0 +1,117 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.Criteria;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.benchmark.model.Cat;
+import com.blazebit.persistence.benchmark.model.Person;
+import com.blazebit.persistence.benchmark.view.CatUpdateView;
+import com.blazebit.persistence.benchmark.view.CatSimpleView;
+import com.blazebit.persistence.benchmark.view.CatView;
+import com.blazebit.persistence.benchmark.view.PersonView;
+import com.blazebit.persistence.benchmark.view.PersonWithKittensView;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+/**
+ * Shared benchmark state that boots an H2 backed persistence unit along with the criteria builder factory
+ * and the entity view manager and populates a configurable amount of test data.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    @Param({ "100" })
+    public int personCount;
+    @Param({ "10" })
+    public int catsPerPerson;
+
+    private EntityManagerFactory emf;
+    private CriteriaBuilderFactory cbf;
+    private EntityViewManager evm;
+    private Long firstCatId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emf = Persistence.createEntityManagerFactory("benchmark");
+        cbf = Criteria.getDefault().createCriteriaBuilderFactory(emf);
+
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(PersonView.class);
+        cfg.addEntityView(CatView.class);
+        cfg.addEntityView(CatUpdateView.class);
+        cfg.addEntityView(CatSimpleView.class);
+        cfg.addEntityView(PersonWithKittensView.class);
+        evm = cfg.createEntityViewManager(cbf);
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            for (int i = 0; i < personCount; i++) {
+                Person person = new Person("Person " + i);
+                em.persist(person);
+                for (int j = 0; j < catsPerPerson; j++) {
+                    Cat cat = new Cat("Cat " + i + "-" + j, j, person);
+                    em.persist(cat);
+                    if (firstCatId == null) {
+                        firstCatId = cat.getId();
+                    }
+                }
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (emf != null) {
+            emf.close();
+        }
+    }
+
+    public EntityManagerFactory getEntityManagerFactory() {
+        return emf;
+    }
+
+    public CriteriaBuilderFactory getCriteriaBuilderFactory() {
+        return cbf;
+    }
+
+    public EntityViewManager getEntityViewManager() {
+        return evm;
+    }
+
+    public Long getFirstCatId() {
+        return firstCatId;
+    }
+}
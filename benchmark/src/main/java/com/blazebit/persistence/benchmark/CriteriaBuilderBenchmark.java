@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.benchmark.model.Cat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a criteria builder and rendering it to a JPQL query string.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CriteriaBuilderBenchmark {
+
+    @Benchmark
+    public String buildSimpleQuery(BenchmarkContext context) {
+        EntityManager em = context.getEntityManagerFactory().createEntityManager();
+        try {
+            CriteriaBuilderFactory cbf = context.getCriteriaBuilderFactory();
+            CriteriaBuilder<Cat> cb = cbf.create(em, Cat.class, "c")
+                    .where("c.age").gt(5)
+                    .where("c.owner.name").like().value("Person%").noEscape()
+                    .orderByAsc("c.id");
+            return cb.getQueryString();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public String buildGroupByQuery(BenchmarkContext context) {
+        EntityManager em = context.getEntityManagerFactory().createEntityManager();
+        try {
+            CriteriaBuilderFactory cbf = context.getCriteriaBuilderFactory();
+            CriteriaBuilder<Tuple> cb = cbf.create(em, Tuple.class)
+                    .from(Cat.class, "c")
+                    .select("c.owner.name")
+                    .select("COUNT(c.id)")
+                    .select("AVG(c.age)")
+                    .groupBy("c.owner.name")
+                    .having("COUNT(c.id)").gt(1L)
+                    .orderByDesc("c.owner.name");
+            return cb.getQueryString();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public String buildPaginatedQuery(BenchmarkContext context) {
+        EntityManager em = context.getEntityManagerFactory().createEntityManager();
+        try {
+            CriteriaBuilderFactory cbf = context.getCriteriaBuilderFactory();
+            return cbf.create(em, Cat.class, "c")
+                    .where("c.name").isNotNull()
+                    .orderByAsc("c.name")
+                    .orderByAsc("c.id")
+                    .page(20, 10)
+                    .getQueryString();
+        } finally {
+            em.close();
+        }
+    }
+}
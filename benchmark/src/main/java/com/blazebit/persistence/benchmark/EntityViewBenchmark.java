@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.benchmark.model.Cat;
+import com.blazebit.persistence.benchmark.model.Person;
+import com.blazebit.persistence.benchmark.view.CatView;
+import com.blazebit.persistence.benchmark.view.PersonWithKittensView;
+import com.blazebit.persistence.parser.JsonParser;
+import com.blazebit.persistence.view.EntityViewSetting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures applying entity view settings, rendering the resulting query and building flat and collection view objects from result tuples.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityViewBenchmark {
+
+    private static final String JSON = "[{\"f0\":\"1\",\"f1\":\"Cat 1\",\"f2\":\"3\"},{\"f0\":\"2\",\"f1\":\"Cat \\\"2\\\"\",\"f2\":\"4\"},{\"f0\":\"3\",\"f1\":null,\"f2\":\"5\"}]";
+
+    @Benchmark
+    public String applySetting(BenchmarkContext context) {
+        EntityManager em = context.getEntityManagerFactory().createEntityManager();
+        try {
+            CriteriaBuilder<Cat> cb = context.getCriteriaBuilderFactory().create(em, Cat.class, "c");
+            return context.getEntityViewManager().applySetting(EntityViewSetting.create(CatView.class), cb).getQueryString();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<CatView> fetchViews(BenchmarkContext context) {
+        EntityManager em = context.getEntityManagerFactory().createEntityManager();
+        try {
+            CriteriaBuilder<Cat> cb = context.getCriteriaBuilderFactory().create(em, Cat.class, "c")
+                    .orderByAsc("c.id");
+            return context.getEntityViewManager().applySetting(EntityViewSetting.create(CatView.class, 0, 100), cb).getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<PersonWithKittensView> fetchCollectionViews(BenchmarkContext context) {
+        EntityManager em = context.getEntityManagerFactory().createEntityManager();
+        try {
+            CriteriaBuilder<Person> cb = context.getCriteriaBuilderFactory().create(em, Person.class, "p")
+                    .orderByAsc("p.id");
+            return context.getEntityViewManager().applySetting(EntityViewSetting.create(PersonWithKittensView.class, 0, 10), cb).getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<Object[]> parseJson() {
+        return JsonParser.parseStringOnly(JSON, "f0", "f1", "f2");
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.benchmark.view.CatUpdateView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures flushing a dirty updatable entity view. Loading and modifying the view happens in the per invocation setup,
+ * so only the flush and the commit are measured.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityViewUpdaterBenchmark {
+
+    private int counter;
+    private EntityManager em;
+    private CatUpdateView view;
+
+    @Setup(Level.Invocation)
+    public void loadDirtyView(BenchmarkContext context) {
+        em = context.getEntityManagerFactory().createEntityManager();
+        em.getTransaction().begin();
+        view = context.getEntityViewManager().find(em, CatUpdateView.class, context.getFirstCatId());
+        view.setName("Cat " + counter++);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeEntityManager() {
+        if (em.getTransaction().isActive()) {
+            em.getTransaction().rollback();
+        }
+        em.close();
+    }
+
+    @Benchmark
+    public CatUpdateView flushDirtyView(BenchmarkContext context) {
+        context.getEntityViewManager().save(em, view);
+        em.getTransaction().commit();
+        return view;
+    }
+}
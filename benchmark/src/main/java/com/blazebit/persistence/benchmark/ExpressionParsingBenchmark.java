@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.parser.FunctionKind;
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import com.blazebit.persistence.parser.expression.SimpleCachingExpressionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of JPQL.next expressions with and without the expression cache.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionParsingBenchmark {
+
+    private static final String EXPRESSION = "CASE WHEN c.age > 10 AND c.owner.name LIKE 'P%' THEN COALESCE(c.name, 'unknown') ELSE UPPER(c.name) END";
+
+    private ExpressionFactory expressionFactory;
+    private ExpressionFactory cachingExpressionFactory;
+
+    @Setup
+    public void setup() {
+        expressionFactory = new ExpressionFactoryImpl(Collections.<String, FunctionKind>emptyMap(), true, true);
+        cachingExpressionFactory = new SimpleCachingExpressionFactory(expressionFactory);
+    }
+
+    @Benchmark
+    public Expression parseUncached() {
+        return expressionFactory.createSimpleExpression(EXPRESSION, false);
+    }
+
+    @Benchmark
+    public Expression parseCached() {
+        return cachingExpressionFactory.createSimpleExpression(EXPRESSION, false);
+    }
+}
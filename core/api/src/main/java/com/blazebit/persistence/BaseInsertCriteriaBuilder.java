@@ -42,5 +42,19 @@ public interface BaseInsertCriteriaBuilder<T, X extends BaseInsertCriteriaBuilde
      * @return The query builder for chaining calls
      */
     public SelectBuilder<X> bind(String attribute);
-    
+
+    /**
+     * Starts a builder for handling conflicts of the inserted rows with existing rows based on the unique constraint of the given attributes.
+     * The conflict handling is rendered as ON CONFLICT clause, ON DUPLICATE KEY UPDATE clause or as MERGE statement
+     * depending on the {@link com.blazebit.persistence.spi.DbmsDialect#getUpsertStyle()}.
+     * Note that the conflict attributes are ignored for DBMS that use the ON DUPLICATE KEY UPDATE clause.
+     *
+     * @param attributes The attributes that are covered by the unique constraint
+     * @return The on conflict builder
+     * @throws IllegalArgumentException If no or unknown attributes are given
+     * @throws IllegalStateException If the DBMS does not support conflict handling for this statement
+     * @since 1.6.9
+     */
+    public OnConflictBuilder<X> onConflict(String... attributes);
+
 }
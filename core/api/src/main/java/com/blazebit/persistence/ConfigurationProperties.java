@@ -108,6 +108,16 @@ public final class ConfigurationProperties {
      */
     public static final String EXPRESSION_CACHE_CLASS = "com.blazebit.persistence.expression.cache_class";
 
+    /**
+     * The maximum number of entries per expression cache name when using a bounded expression cache implementation like
+     * <code>com.blazebit.persistence.parser.expression.BoundedExpressionCache</code>.
+     * The maximum size for a specific cache can be configured by appending <code>.</code> and the cache name to the property name.
+     * Default is <code>2048</code>.
+     *
+     * @since 1.6.9
+     */
+    public static final String EXPRESSION_CACHE_MAX_SIZE = "com.blazebit.persistence.expression.cache_max_size";
+
     /**
      * If set to false, tuples of a VALUES clause with all null values won't be filtered out.
      * Valid values for this property are <code>true</code> or <code>false</code>.
@@ -192,6 +202,82 @@ public final class ConfigurationProperties {
      */
     public static final String QUERY_PLAN_CACHE_ENABLED = "com.blazebit.persistence.query_plan_cache_enabled";
 
+    /**
+     * The maximum number of query plans that are cached per persistence unit for queries that require SQL replacement.
+     * Valid values for this property are positive integers.
+     * Default is <code>2048</code>.
+     * This configuration option currently only takes effect when Hibernate is used as JPA provider.
+     *
+     * This is a configuration only property and can not be changed for a criteria builder.
+     *
+     * @since 1.6.9
+     */
+    public static final String QUERY_PLAN_CACHE_MAX_SIZE = "com.blazebit.persistence.query_plan_cache_max_size";
+
+    /**
+     * If set to true, parameter lists of IN predicates are padded to the next power of two size by repeating the last element
+     * and VALUES clauses created from a collection use the next power of two as number of elements.
+     * This reduces the number of distinct query strings and thus the number of query plans that have to be cached.
+     * Valid values for this property are <code>true</code> and <code>false</code>.
+     * Default is <code>false</code>.
+     *
+     * The property can be changed for a criteria builder before constructing a query.
+     *
+     * @since 1.6.9
+     */
+    public static final String PARAMETER_LIST_PADDING = "com.blazebit.persistence.parameter_list_padding";
+
+    /**
+     * The maximum number of counts that are cached by the {@link com.blazebit.persistence.spi.CountQueryCache} for paginated criteria builders
+     * that opted into count query caching via {@link PaginatedCriteriaBuilder#withCountQueryCache(boolean)}.
+     * When the maximum size is exceeded, the least recently used entry is evicted.
+     * Valid values for this property are positive integers.
+     * Default is <code>1024</code>.
+     *
+     * This is a configuration only property and can not be changed for a criteria builder.
+     *
+     * @since 1.6.9
+     */
+    public static final String COUNT_QUERY_CACHE_MAX_SIZE = "com.blazebit.persistence.count_query_cache_max_size";
+
+    /**
+     * The time to live in milliseconds of counts cached by the {@link com.blazebit.persistence.spi.CountQueryCache}.
+     * Valid values for this property are positive integers.
+     * Default is <code>60000</code>.
+     *
+     * This is a configuration only property and can not be changed for a criteria builder.
+     *
+     * @since 1.6.9
+     */
+    public static final String COUNT_QUERY_CACHE_TTL = "com.blazebit.persistence.count_query_cache_ttl";
+
+    /**
+     * The maximum number of count queries that are executed concurrently for paginated criteria builders
+     * that opted into parallel count queries via {@link PaginatedCriteriaBuilder#withParallelCountQuery(javax.persistence.EntityManagerFactory)}.
+     * Every concurrently executed count query requires an additional connection, so this value should be lower than the connection pool size.
+     * When the maximum is reached, the count query is executed sequentially on the entity manager of the query.
+     * The count queries run on virtual threads when the JDK supports them and otherwise on a platform thread pool of this size.
+     * Valid values for this property are positive integers.
+     * Default is <code>4</code>.
+     *
+     * This is a configuration only property and can not be changed for a criteria builder.
+     *
+     * @since 1.6.9
+     */
+    public static final String PARALLEL_COUNT_QUERY_MAX_THREADS = "com.blazebit.persistence.parallel_count_query_max_threads";
+
+    /**
+     * The time in milliseconds to wait for a parallel count query after the id and object queries finished.
+     * When the count query didn't finish in time, it is cancelled and executed sequentially on the entity manager of the query.
+     * Valid values for this property are positive integers.
+     * Default is <code>5000</code>.
+     *
+     * This is a configuration only property and can not be changed for a criteria builder.
+     *
+     * @since 1.6.9
+     */
+    public static final String PARALLEL_COUNT_QUERY_TIMEOUT = "com.blazebit.persistence.parallel_count_query_timeout";
+
     /**
      * If set to true, JPA Criteria predicates are wrapped in a negation predicate instead of copied with negation being propagated.
      * Valid values for this property are <code>true</code> and <code>false</code>.
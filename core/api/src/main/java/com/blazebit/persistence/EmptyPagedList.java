@@ -42,6 +42,16 @@ class EmptyPagedList<T> implements PagedList<T>, Serializable {
         return 0;
     }
 
+    @Override
+    public boolean isTotalSizeCached() {
+        return false;
+    }
+
+    @Override
+    public boolean isTotalSizeEstimated() {
+        return false;
+    }
+
     @Override
     public int getPage() {
         return 0;
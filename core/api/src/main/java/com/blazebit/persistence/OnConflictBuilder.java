@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+/**
+ * A builder for defining the action to take when an insert statement conflicts with an existing row.
+ *
+ * @param <X> The result type which is returned after the action was defined
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public interface OnConflictBuilder<X> {
+
+    /**
+     * Skips the insertion of rows that conflict with existing rows.
+     *
+     * @return The query builder for chaining calls
+     */
+    public X doNothing();
+
+    /**
+     * Updates the given attributes of the conflicting existing rows with the values that would have been inserted.
+     * If no attributes are given, all bound attributes except for the conflict attributes are updated.
+     *
+     * @param attributes The bound attributes that should be updated
+     * @return The query builder for chaining calls
+     * @throws IllegalArgumentException If an attribute is unknown or one of the conflict attributes
+     */
+    public X doUpdate(String... attributes);
+}
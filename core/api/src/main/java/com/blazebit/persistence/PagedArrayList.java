@@ -33,6 +33,8 @@ public class PagedArrayList<T> extends ArrayList<T> implements PagedList<T> {
 
     private final KeysetPage keyset;
     private final long totalSize;
+    private final boolean totalSizeCached;
+    private final boolean totalSizeEstimated;
     private final int page;
     private final int totalPages;
     private final int firstResult;
@@ -47,8 +49,25 @@ public class PagedArrayList<T> extends ArrayList<T> implements PagedList<T> {
      * @param maxResults  The maximum result count for a page
      */
     public PagedArrayList(KeysetPage keyset, long totalSize, int firstResult, int maxResults) {
+        this(keyset, totalSize, false, false, firstResult, maxResults);
+    }
+
+    /**
+     * Constructs a new empty paged array list.
+     *
+     * @param keyset             The keyset page for this page
+     * @param totalSize          The total size of the result
+     * @param totalSizeCached    Whether the total size was served from a cache
+     * @param totalSizeEstimated Whether the total size is an estimate
+     * @param firstResult        The first result index within the overall result
+     * @param maxResults         The maximum result count for a page
+     * @since 1.6.9
+     */
+    public PagedArrayList(KeysetPage keyset, long totalSize, boolean totalSizeCached, boolean totalSizeEstimated, int firstResult, int maxResults) {
         this.keyset = keyset;
         this.totalSize = totalSize;
+        this.totalSizeCached = totalSizeCached;
+        this.totalSizeEstimated = totalSizeEstimated;
         this.page = (int) Math.floor((firstResult == -1 ? 0 : firstResult) * 1d / maxResults) + 1;
         this.totalPages = totalSize < 1 ? 0 : (int) Math.ceil(totalSize * 1d / maxResults);
         this.firstResult = firstResult;
@@ -65,9 +84,27 @@ public class PagedArrayList<T> extends ArrayList<T> implements PagedList<T> {
      * @param maxResults  The maximum result count for a page
      */
     public PagedArrayList(Collection<? extends T> collection, KeysetPage keyset, long totalSize, int firstResult, int maxResults) {
+        this(collection, keyset, totalSize, false, false, firstResult, maxResults);
+    }
+
+    /**
+     * Constructs a new paged array list from the given collection.
+     *
+     * @param collection         The collection of elements for this page
+     * @param keyset             The keyset page for this page
+     * @param totalSize          The total size of the result
+     * @param totalSizeCached    Whether the total size was served from a cache
+     * @param totalSizeEstimated Whether the total size is an estimate
+     * @param firstResult        The first result index within the overall result
+     * @param maxResults         The maximum result count for a page
+     * @since 1.6.9
+     */
+    public PagedArrayList(Collection<? extends T> collection, KeysetPage keyset, long totalSize, boolean totalSizeCached, boolean totalSizeEstimated, int firstResult, int maxResults) {
         super(collection);
         this.keyset = keyset;
         this.totalSize = totalSize;
+        this.totalSizeCached = totalSizeCached;
+        this.totalSizeEstimated = totalSizeEstimated;
         this.page = (int) Math.floor((firstResult == -1 ? 0 : firstResult) * 1d / maxResults) + 1;
         this.totalPages = totalSize < 1 ? 0 : (int) Math.ceil(totalSize * 1d / maxResults);
         this.firstResult = firstResult;
@@ -84,6 +121,16 @@ public class PagedArrayList<T> extends ArrayList<T> implements PagedList<T> {
         return totalSize;
     }
 
+    @Override
+    public boolean isTotalSizeCached() {
+        return totalSizeCached;
+    }
+
+    @Override
+    public boolean isTotalSizeEstimated() {
+        return totalSizeEstimated;
+    }
+
     @Override
     public int getPage() {
         return page;
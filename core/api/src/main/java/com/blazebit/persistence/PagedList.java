@@ -50,6 +50,25 @@ public interface PagedList<T> extends List<T> {
      */
     public long getTotalSize();
 
+    /**
+     * Returns whether the total size was served from the count query cache and thus might be stale,
+     * or if it was computed by executing a count query.
+     *
+     * @return true if the total size was served from the count query cache, false otherwise
+     * @see PaginatedCriteriaBuilder#withCountQueryCache(boolean)
+     * @since 1.6.9
+     */
+    public boolean isTotalSizeCached();
+
+    /**
+     * Returns whether the total size is an estimate based on database statistics rather than an exact count.
+     *
+     * @return true if the total size is an estimate, false otherwise
+     * @see PaginatedCriteriaBuilder#withEstimatedCount(boolean)
+     * @since 1.6.9
+     */
+    public boolean isTotalSizeEstimated();
+
     /**
      * Returns the number of this page, numbered from 1.
      * 
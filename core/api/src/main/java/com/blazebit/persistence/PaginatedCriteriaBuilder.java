@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence;
 
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.TypedQuery;
 
 /**
@@ -118,6 +119,82 @@ public interface PaginatedCriteriaBuilder<T> extends FullQueryBuilder<T, Paginat
      */
     public boolean isWithCountQuery();
 
+    /**
+     * Enables or disables the use of the {@link com.blazebit.persistence.spi.CountQueryCache} for the count query.
+     * When enabled, the total size is served from the cache if a count for the same count query and parameter values
+     * was cached and has not expired or was invalidated yet. Use {@link PagedList#isTotalSizeCached()} to find out if the
+     * total size of a result list is cached or exact.
+     *
+     * Enabling the count query cache disables the inlining of the count query as that would always compute the count.
+     * The count query cache can't be used when paginating to a page by entity id.
+     *
+     * @param withCountQueryCache true to enable, false to disable the use of the count query cache
+     * @return The query builder for chaining calls
+     * @since 1.6.9
+     */
+    public PaginatedCriteriaBuilder<T> withCountQueryCache(boolean withCountQueryCache);
+
+    /**
+     * Returns whether the use of the count query cache is enabled or not.
+     *
+     * @return true when enabled, false otherwise
+     * @since 1.6.9
+     */
+    public boolean isWithCountQueryCache();
+
+    /**
+     * Enables or disables the use of the row count estimate from the query plan of the count query as total size.
+     * The estimate is only used if the {@link com.blazebit.persistence.spi.DbmsDialect} can explain the SQL of the count query,
+     * which requires a count query without CTEs or entity functions. Otherwise, or if the query plan contains no estimate,
+     * the configured count query is executed, which can be limited through {@link #withBoundedCount(long)}.
+     * Use {@link PagedList#isTotalSizeEstimated()} to find out if the total size of a result list is estimated or exact.
+     *
+     * Enabling estimated counts disables the inlining of the count query as that would always compute the count.
+     * Estimated counts can't be used when paginating to a page by entity id.
+     *
+     * @param withEstimatedCount true to enable, false to disable the use of row count estimates
+     * @return The query builder for chaining calls
+     * @since 1.6.9
+     */
+    public PaginatedCriteriaBuilder<T> withEstimatedCount(boolean withEstimatedCount);
+
+    /**
+     * Returns whether the use of row count estimates is enabled or not.
+     *
+     * @return true when enabled, false otherwise
+     * @since 1.6.9
+     */
+    public boolean isWithEstimatedCount();
+
+    /**
+     * Enables or disables the execution of the count query concurrently to the id and object queries.
+     * When enabled, the count query is executed through an {@link javax.persistence.EntityManager} created from the given
+     * {@link EntityManagerFactory} i.e. on a separate connection, so that the latency for fetching a page is the maximum of
+     * the count and data query execution times rather than their sum. The count query is executed on a bounded thread pool of the criteria builder factory,
+     * which is configured via {@link ConfigurationProperties#PARALLEL_COUNT_QUERY_MAX_THREADS}. Since every parallel count query requires an additional connection,
+     * the count query is executed sequentially if all threads are busy or if it didn't finish within {@link ConfigurationProperties#PARALLEL_COUNT_QUERY_TIMEOUT}
+     * after the data queries.
+     *
+     * Since the count query runs on a separate connection, it only sees committed data and no pending changes of the current persistence context.
+     * The count query is only executed concurrently if it doesn't require CTEs, entity functions or a bounded count and
+     * is not served from the count query cache or a row count estimate. Otherwise the count query is executed as usual.
+     * Enabling the parallel count query disables the inlining of the count query. The parallel count query can't be used
+     * when paginating to a page by entity id.
+     *
+     * @param entityManagerFactory The entity manager factory to create entity managers for the count query or <code>null</code> to disable
+     * @return The query builder for chaining calls
+     * @since 1.6.9
+     */
+    public PaginatedCriteriaBuilder<T> withParallelCountQuery(EntityManagerFactory entityManagerFactory);
+
+    /**
+     * Returns the entity manager factory that is used for executing the count query concurrently or <code>null</code> if disabled.
+     *
+     * @return The entity manager factory for the parallel count query or <code>null</code>
+     * @since 1.6.9
+     */
+    public EntityManagerFactory getParallelCountQueryEntityManagerFactory();
+
     /**
      * Sets the maximum value up to which a count query should count.
      *
@@ -170,6 +247,34 @@ public interface PaginatedCriteriaBuilder<T> extends FullQueryBuilder<T, Paginat
      */
     public int getHighestKeysetOffset();
 
+    /**
+     * Sets the number of identifiers of the rows following the page that the id query should fetch ahead.
+     * The prefetched identifiers and keysets are returned as part of a {@link PrefetchedKeysetPage} by {@link PagedList#getKeysetPage()}.
+     * When paginating to the next page with that keyset page, the id query is skipped if enough identifiers were prefetched,
+     * so that sequential scrolling only requires the object query for every page that was prefetched.
+     *
+     * Note that rows inserted after the prefetch are not visible on the prefetched pages and rows deleted after the prefetch
+     * lead to smaller pages. A prefetch size greater than 0 enables keyset extraction, forces the use of a separate id query
+     * and disables the inlining of the count query. Prefetching is not done when going to the previous page or when a highest keyset offset is set.
+     *
+     * <b>Security note:</b> the object query loads the prefetched identifiers without applying the restrictions of the query again.
+     * A {@link PrefetchedKeysetPage} must therefore only ever be passed back as it was returned by a previous page of the same query
+     * and must never be constructed or deserialized from untrusted input like request parameters, as that would allow to load arbitrary rows.
+     *
+     * @param prefetchSize the number of identifiers to fetch ahead or 0 to disable prefetching
+     * @return The query builder for chaining calls
+     * @since 1.6.9
+     */
+    public PaginatedCriteriaBuilder<T> withKeysetPrefetch(int prefetchSize);
+
+    /**
+     * Returns the number of identifiers of the rows following the page that the id query fetches ahead.
+     *
+     * @return the number of identifiers to fetch ahead
+     * @since 1.6.9
+     */
+    public int getKeysetPrefetch();
+
     /**
      * Forces the inlining of an id query into the object query.
      *
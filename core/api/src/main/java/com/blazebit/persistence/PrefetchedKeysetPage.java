@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A {@link KeysetPage} that additionally carries the identifiers and keysets of the rows following the page,
+ * which were fetched ahead by the id query of the page. Paginating to the next page with such a keyset page allows to skip the id query.
+ *
+ * <b>Security note:</b> the rows of the prefetched identifiers are loaded without applying the restrictions of the query again.
+ * Only pass back instances that were returned by a previous page of the same query, and never construct or deserialize instances
+ * from untrusted input like request parameters, as a forged instance would allow to load rows that the restrictions of the query exclude.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ * @see PaginatedCriteriaBuilder#withKeysetPrefetch(int)
+ */
+public class PrefetchedKeysetPage extends DefaultKeysetPage {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Serializable> prefetchedIds;
+    private final List<Keyset> prefetchedKeysets;
+    private final boolean prefetchedAll;
+
+    /**
+     * Creates a new {@link PrefetchedKeysetPage}.
+     *
+     * @param firstResult The first result
+     * @param maxResults The max results
+     * @param lowest The lowest keyset
+     * @param highest The highest keyset
+     * @param keysets All extracted keysets
+     * @param prefetchedIds The identifiers of the rows following the page
+     * @param prefetchedKeysets The keysets of the rows following the page
+     * @param prefetchedAll Whether the prefetched identifiers contain all rows following the page
+     */
+    public PrefetchedKeysetPage(int firstResult, int maxResults, Serializable[] lowest, Serializable[] highest, Serializable[][] keysets, List<Serializable> prefetchedIds, List<Keyset> prefetchedKeysets, boolean prefetchedAll) {
+        super(firstResult, maxResults, lowest, highest, keysets);
+        this.prefetchedIds = prefetchedIds;
+        this.prefetchedKeysets = prefetchedKeysets;
+        this.prefetchedAll = prefetchedAll;
+    }
+
+    /**
+     * Creates a new {@link PrefetchedKeysetPage}.
+     *
+     * @param firstResult The first result
+     * @param maxResults The max results
+     * @param lowest The lowest keyset
+     * @param highest The highest keyset
+     * @param keysets All extracted keysets
+     * @param prefetchedIds The identifiers of the rows following the page
+     * @param prefetchedKeysets The keysets of the rows following the page
+     * @param prefetchedAll Whether the prefetched identifiers contain all rows following the page
+     */
+    public PrefetchedKeysetPage(int firstResult, int maxResults, Keyset lowest, Keyset highest, List<Keyset> keysets, List<Serializable> prefetchedIds, List<Keyset> prefetchedKeysets, boolean prefetchedAll) {
+        super(firstResult, maxResults, lowest, highest, keysets);
+        this.prefetchedIds = prefetchedIds;
+        this.prefetchedKeysets = prefetchedKeysets;
+        this.prefetchedAll = prefetchedAll;
+    }
+
+    /**
+     * Returns the identifiers of the rows following the page in order. An identifier is an array if multiple identifier expressions are used.
+     *
+     * @return The identifiers of the rows following the page
+     */
+    public List<Serializable> getPrefetchedIds() {
+        return prefetchedIds;
+    }
+
+    /**
+     * Returns the keysets of the rows following the page in the same order as {@link #getPrefetchedIds()}.
+     *
+     * @return The keysets of the rows following the page
+     */
+    public List<Keyset> getPrefetchedKeysets() {
+        return prefetchedKeysets;
+    }
+
+    /**
+     * Returns whether the prefetched identifiers contain all rows following the page i.e. whether the end of the result was reached.
+     *
+     * @return True if all rows following the page were prefetched, false otherwise
+     */
+    public boolean isPrefetchedAll() {
+        return prefetchedAll;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+import java.util.stream.Stream;
+
+/**
+ * An object builder that can't build objects from single tuples, but is capable of reducing a stream of tuples to a stream of objects.
+ * This is used for streaming results with object builders that would otherwise require the whole result list in {@link #buildList(java.util.List)}.
+ *
+ * @param <T> The type that this builder produces
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public interface StreamingObjectBuilder<T> extends ObjectBuilder<T> {
+
+    /**
+     * Transforms the given tuple stream to a stream of objects of the target type <code>T</code>.
+     * Implementations should consume the tuple stream lazily, so that only the tuples for the objects currently being built are kept in memory.
+     * The tuples of an object are expected to be adjacent, so a query using a streaming object builder must be ordered by a unique order by item.
+     *
+     * @param tupleStream The stream of result tuples
+     * @return The stream of target objects
+     */
+    public Stream<T> buildStream(Stream<Object[]> tupleStream);
+}
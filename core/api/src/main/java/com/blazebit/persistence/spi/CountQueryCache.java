@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blazebit.persistence.spi;
+
+/**
+ * A cache for the results of count queries of paginated criteria builders that opted into count query caching via
+ * {@link com.blazebit.persistence.PaginatedCriteriaBuilder#withCountQueryCache(boolean)}.
+ * Entries are keyed by the count query string and a snapshot of the bound parameter values and expire after a configurable time to live.
+ * The cache can be accessed via {@link com.blazebit.persistence.CriteriaBuilderFactory#getService(Class)} to invalidate entries
+ * e.g. after data modifications that affect the counts.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public interface CountQueryCache {
+
+    /**
+     * Invalidates all cached counts of queries that use the given entity type or one of its super or sub types in a join, subquery or CTE.
+     *
+     * @param entityClass The entity class for which to invalidate the cached counts
+     */
+    public void invalidate(Class<?> entityClass);
+
+    /**
+     * Invalidates all cached counts.
+     */
+    public void invalidateAll();
+
+    /**
+     * Returns the number of cached counts, possibly including expired entries that were not yet cleaned up.
+     *
+     * @return the number of cached counts
+     */
+    public int getSize();
+
+    /**
+     * Returns the number of count query executions that could be avoided by using a cached count.
+     *
+     * @return the hit count
+     */
+    public long getHitCount();
+
+    /**
+     * Returns the number of count query executions that had to be done because no valid cached count was available.
+     *
+     * @return the miss count
+     */
+    public long getMissCount();
+}
@@ -125,6 +125,24 @@ public interface CriteriaBuilderConfiguration {
      */
     public List<EntityManagerFactoryIntegrator> getEntityManagerIntegrators();
 
+    /**
+     * Registers the given query instrumentation that is notified about the durations of query building, execution and flushing.
+     * Only a single instrumentation can be registered, a previously registered instrumentation is replaced.
+     *
+     * @param queryInstrumentation The query instrumentation or <code>null</code> to disable instrumentation
+     * @return this for method chaining
+     * @since 1.6.9
+     */
+    public CriteriaBuilderConfiguration registerQueryInstrumentation(QueryInstrumentation queryInstrumentation);
+
+    /**
+     * Returns the registered query instrumentation or <code>null</code> if none is registered.
+     *
+     * @return The registered query instrumentation or <code>null</code>
+     * @since 1.6.9
+     */
+    public QueryInstrumentation getQueryInstrumentation();
+
     /**
      * Creates a new {@linkplain CriteriaBuilderFactory} based on this configuration.
      *
@@ -371,6 +371,47 @@ public interface DbmsDialect {
      */
     public UpdateJoinStyle getUpdateJoinStyle();
 
+    /**
+     * Returns the upsert style that is supported by the dbms.
+     *
+     * @return the upsert style that is supported by the dbms
+     * @since 1.6.9
+     */
+    public UpsertStyle getUpsertStyle();
+
+    /**
+     * Applies the conflict handling to the given insert statement SQL of the form <code>insert into table(columns) select ...</code>.
+     * Depending on the {@link #getUpsertStyle()}, a clause is appended or the statement is rewritten to a MERGE statement.
+     *
+     * @param sqlSb The insert statement SQL
+     * @param dmlAffectedTable The table into which is inserted
+     * @param conflictColumns The columns of the unique constraint for which conflicts should be handled
+     * @param updateColumns The columns to update on a conflict or <code>null</code> if conflicting rows should be skipped
+     * @since 1.6.9
+     */
+    public void appendUpsert(StringBuilder sqlSb, String dmlAffectedTable, String[] conflictColumns, String[] updateColumns);
+
+    /**
+     * Returns a SQL statement that produces the query plan of the given count query SQL or null if the dbms can't estimate the row count of the query.
+     * The JDBC parameter markers of the count query SQL are not bound, so the statement must not require parameter values.
+     * The estimated row count is extracted from the result list of the statement through {@link #extractRowCountEstimate(List)}.
+     *
+     * @param countSql The SQL of a count query
+     * @param databaseMajorVersion The major version of the database as reported by the JDBC driver or -1 if unknown
+     * @return The SQL statement producing the query plan or null
+     * @since 1.6.9
+     */
+    public String getRowCountEstimateSql(String countSql, int databaseMajorVersion);
+
+    /**
+     * Extracts the estimated number of rows that the count query counts from the result list of the statement returned by {@link #getRowCountEstimateSql(String, int)}.
+     *
+     * @param queryPlan The result list of the query plan statement
+     * @return The estimated row count or -1 if no estimate is available
+     * @since 1.6.9
+     */
+    public long extractRowCountEstimate(List<?> queryPlan);
+
     /**
      * Returns true if the multiset implementation for the dbms supports exists and supports arbitrary length.
      *
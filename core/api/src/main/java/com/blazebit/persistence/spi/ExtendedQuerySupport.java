@@ -75,6 +75,15 @@ public interface ExtendedQuerySupport {
      */
     public boolean getSqlContainsLimit();
 
+    /**
+     * Returns the major version of the database as reported by the {@link java.sql.DatabaseMetaData} of the connection of the entity manager.
+     *
+     * @param em The entity manager
+     * @return The major version of the database or -1 if unknown
+     * @since 1.6.9
+     */
+    public int getDatabaseMajorVersion(EntityManager em);
+
     /**
      * Returns the cascading SQL delete queries for the given query object.
      *
@@ -179,6 +188,26 @@ public interface ExtendedQuerySupport {
      */
     public int executeUpdate(ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String sqlOverride, boolean queryPlanCacheEnabled);
 
+    /**
+     * Returns whether the JPA provider supports executing modification queries as JDBC batch through {@link #executeBatchUpdate(EntityManager, List)}.
+     *
+     * @return Whether batch updates are supported
+     * @since 1.6.9
+     */
+    public boolean supportsBatchUpdate();
+
+    /**
+     * Executes the given modification queries as a single JDBC batch and returns the update counts.
+     * All queries must have the same query string and may only differ in their parameter values.
+     * An update count might be {@link java.sql.Statement#SUCCESS_NO_INFO} if the JDBC driver doesn't report the count for batched statements.
+     *
+     * @param em The entity manager the queries are associated to
+     * @param queries The modification queries to execute
+     * @return The update counts of the queries in the order of the given queries
+     * @since 1.6.9
+     */
+    public int[] executeBatchUpdate(EntityManager em, List<Query> queries);
+
     /**
      * Executes and returns the returning result of the Query by replacing the SQL with the given overriding SQL query.
      *
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.spi;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A dependency free {@link QueryInstrumentation} that collects a histogram with exponential buckets per {@link QueryPhase}.
+ * The bucket upper bounds start at one micro second and double up to roughly 16 seconds, durations above that are counted in an overflow bucket.
+ * Metric systems can scrape the state via {@link #getSnapshot(QueryPhase)} or {@link #getSnapshots()}.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class HistogramQueryInstrumentation implements QueryInstrumentation {
+
+    private static final int BUCKET_COUNT = 25;
+    private static final long[] BUCKET_UPPER_BOUNDS;
+
+    static {
+        long[] bounds = new long[BUCKET_COUNT];
+        long bound = 1000L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            bounds[i] = bound;
+            bound <<= 1;
+        }
+        BUCKET_UPPER_BOUNDS = bounds;
+    }
+
+    private final Map<QueryPhase, PhaseHistogram> histograms;
+
+    /**
+     * Creates a new empty histogram instrumentation.
+     */
+    public HistogramQueryInstrumentation() {
+        Map<QueryPhase, PhaseHistogram> histograms = new EnumMap<>(QueryPhase.class);
+        for (QueryPhase phase : QueryPhase.values()) {
+            histograms.put(phase, new PhaseHistogram());
+        }
+        this.histograms = histograms;
+    }
+
+    @Override
+    public void record(QueryPhase phase, long durationNanos) {
+        histograms.get(phase).record(durationNanos);
+    }
+
+    /**
+     * Returns a snapshot of the histogram for the given phase.
+     *
+     * @param phase The phase
+     * @return The snapshot
+     */
+    public Snapshot getSnapshot(QueryPhase phase) {
+        return histograms.get(phase).snapshot();
+    }
+
+    /**
+     * Returns snapshots of the histograms for all phases.
+     *
+     * @return The snapshots
+     */
+    public Map<QueryPhase, Snapshot> getSnapshots() {
+        Map<QueryPhase, Snapshot> snapshots = new EnumMap<>(QueryPhase.class);
+        for (Map.Entry<QueryPhase, PhaseHistogram> entry : histograms.entrySet()) {
+            snapshots.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return Collections.unmodifiableMap(snapshots);
+    }
+
+    /**
+     * Resets all histograms.
+     */
+    public void reset() {
+        for (PhaseHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Returns the bucket index for the given duration.
+     *
+     * @param durationNanos The duration in nano seconds
+     * @return The bucket index
+     */
+    static int bucketIndex(long durationNanos) {
+        int index = Arrays.binarySearch(BUCKET_UPPER_BOUNDS, durationNanos);
+        if (index < 0) {
+            return -index - 1;
+        }
+        return index;
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.6.9
+     */
+    private static final class PhaseHistogram {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT + 1);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long durationNanos) {
+            if (durationNanos < 0) {
+                durationNanos = 0;
+            }
+            buckets.incrementAndGet(bucketIndex(durationNanos));
+            count.incrementAndGet();
+            totalNanos.addAndGet(durationNanos);
+            long max;
+            do {
+                max = maxNanos.get();
+            } while (durationNanos > max && !maxNanos.compareAndSet(max, durationNanos));
+        }
+
+        Snapshot snapshot() {
+            long[] bucketCounts = new long[BUCKET_COUNT + 1];
+            for (int i = 0; i < bucketCounts.length; i++) {
+                bucketCounts[i] = buckets.get(i);
+            }
+            return new Snapshot(count.get(), totalNanos.get(), maxNanos.get(), bucketCounts);
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT + 1; i++) {
+                buckets.set(i, 0L);
+            }
+            count.set(0L);
+            totalNanos.set(0L);
+            maxNanos.set(0L);
+        }
+    }
+
+    /**
+     * A point in time view of a histogram. Since recording is not synchronized with snapshot creation,
+     * the count might be slightly off from the sum of the bucket counts under concurrent load.
+     *
+     * @author Christian Beikov
+     * @since 1.6.9
+     */
+    public static final class Snapshot {
+
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] bucketCounts;
+
+        Snapshot(long count, long totalNanos, long maxNanos, long[] bucketCounts) {
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.bucketCounts = bucketCounts;
+        }
+
+        /**
+         * Returns the number of recorded durations.
+         *
+         * @return The number of recorded durations
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the sum of all recorded durations in nano seconds.
+         *
+         * @return The sum of all recorded durations
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * Returns the maximum recorded duration in nano seconds.
+         *
+         * @return The maximum recorded duration
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Returns the inclusive upper bounds in nano seconds of the buckets. The overflow bucket has no bound.
+         *
+         * @return The bucket upper bounds
+         */
+        public long[] getBucketUpperBounds() {
+            return BUCKET_UPPER_BOUNDS.clone();
+        }
+
+        /**
+         * Returns the non-cumulative counts per bucket. The last element is the overflow bucket.
+         *
+         * @return The bucket counts
+         */
+        public long[] getBucketCounts() {
+            return bucketCounts.clone();
+        }
+
+        /**
+         * Returns an estimate for the duration at the given percentile, based on the bucket upper bounds.
+         *
+         * @param percentile The percentile between 0 and 1
+         * @return The estimated duration in nano seconds
+         */
+        public long getPercentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 1) {
+                throw new IllegalArgumentException("Invalid percentile: " + percentile);
+            }
+            long total = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                total += bucketCounts[i];
+            }
+            if (total == 0) {
+                return 0L;
+            }
+            long threshold = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += bucketCounts[i];
+                if (seen >= threshold) {
+                    return Math.min(BUCKET_UPPER_BOUNDS[i], maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "count=" + count +
+                    ", totalNanos=" + totalNanos +
+                    ", maxNanos=" + maxNanos +
+                    '}';
+        }
+    }
+}
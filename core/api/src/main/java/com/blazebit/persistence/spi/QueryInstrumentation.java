@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.spi;
+
+/**
+ * A listener that is notified about the duration of the various phases of query building, execution and entity view flushing.
+ * Implementations must be thread safe and should be cheap, as they are invoked on the hot path.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ * @see HistogramQueryInstrumentation
+ */
+public interface QueryInstrumentation {
+
+    /**
+     * Records that the given phase finished after the given amount of nano seconds.
+     *
+     * @param phase The phase that finished
+     * @param durationNanos The duration of the phase in nano seconds
+     */
+    public void record(QueryPhase phase, long durationNanos);
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.spi;
+
+/**
+ * The phases of a query or flush for which a {@link QueryInstrumentation} is notified.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public enum QueryPhase {
+    /**
+     * Creating the JPA query object from a query builder, including rendering.
+     */
+    BUILD,
+    /**
+     * Rendering the JPQL query string of a query builder.
+     */
+    RENDER,
+    /**
+     * Looking up a query plan that was found in the query plan cache.
+     */
+    PLAN_CACHE_HIT,
+    /**
+     * Looking up a query plan that was not found in the query plan cache, including the creation of the plan.
+     */
+    PLAN_CACHE_MISS,
+    /**
+     * Executing a query and fetching the results, including object building.
+     * For result streams, only the execution of the statement is covered as the results are fetched lazily.
+     */
+    EXECUTE,
+    /**
+     * Transforming result tuples to objects through an object builder.
+     */
+    OBJECT_BUILD,
+    /**
+     * Flushing an updatable entity view.
+     */
+    FLUSH;
+}
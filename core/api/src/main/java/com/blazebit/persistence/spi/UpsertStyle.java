@@ -0,0 +1,42 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.spi;
+
+/**
+ * The possible upsert styles i.e. how conflicts of an insert statement are handled.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public enum UpsertStyle {
+    /**
+     * No support for conflict handling.
+     */
+    NONE,
+    /**
+     * The ON CONFLICT clause.
+     */
+    ON_CONFLICT,
+    /**
+     * The ON DUPLICATE KEY UPDATE clause.
+     */
+    ON_DUPLICATE_KEY,
+    /**
+     * Requires a MERGE statement.
+     */
+    MERGE;
+}
@@ -41,6 +41,7 @@ import com.blazebit.persistence.ReturningModificationCriteriaBuilderFactory;
 import com.blazebit.persistence.SelectRecursiveCTECriteriaBuilder;
 import com.blazebit.persistence.SimpleCaseWhenStarterBuilder;
 import com.blazebit.persistence.StartOngoingSetOperationCTECriteriaBuilder;
+import com.blazebit.persistence.StreamingObjectBuilder;
 import com.blazebit.persistence.SubqueryBuilder;
 import com.blazebit.persistence.SubqueryInitiator;
 import com.blazebit.persistence.WhereOrBuilder;
@@ -85,6 +86,8 @@ import com.blazebit.persistence.parser.expression.Expression;
 import com.blazebit.persistence.parser.expression.ExpressionCopyContext;
 import com.blazebit.persistence.parser.expression.ExpressionCopyContextMap;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionOptimizer;
+import com.blazebit.persistence.parser.expression.ExpressionTreeSupport;
 import com.blazebit.persistence.parser.expression.FunctionExpression;
 import com.blazebit.persistence.parser.expression.NumericLiteral;
 import com.blazebit.persistence.parser.expression.NumericType;
@@ -111,6 +114,8 @@ import com.blazebit.persistence.spi.LateralStyle;
 import com.blazebit.persistence.spi.ServiceProvider;
 import com.blazebit.persistence.spi.SetOperationType;
 import com.blazebit.persistence.spi.ValuesStrategy;
+import com.blazebit.persistence.spi.QueryInstrumentation;
+import com.blazebit.persistence.spi.QueryPhase;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Parameter;
@@ -153,9 +158,10 @@ import java.util.Set;
  * @author Moritz Becker
  * @since 1.0.0
  */
-public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, SetReturn, SubquerySetReturn, FinalSetReturn extends BaseFinalSetOperationBuilderImpl<?, ?, ?>> implements ServiceProvider, ConfigurationSource {
+public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, SetReturn, SubquerySetReturn, FinalSetReturn extends BaseFinalSetOperationBuilderImpl<?, ?, ?>> implements ServiceProvider, ConfigurationSource, ExpressionTreeSupport {
 
     public static final String ID_PARAM_NAME = "ids";
+    private static final ExpressionOptimizer EXPRESSION_OPTIMIZER = new ExpressionOptimizer();
 
     protected final MainQuery mainQuery;
     protected final QueryContext queryContext;
@@ -872,29 +878,38 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     }
 
     public <T> BuilderType fromValues(Class<T> valueClass, String alias, Collection<T> values) {
-        BuilderType result = fromValues(valueClass, alias, values.size());
+        BuilderType result = fromValues(valueClass, alias, getValuesCount(values));
         setParameter(alias, values);
         return result;
     }
 
     public BuilderType fromValues(Class<?> entityBaseClass, String attributeName, String alias, Collection<?> values) {
-        BuilderType result = fromValues(entityBaseClass, attributeName, alias, values.size());
+        BuilderType result = fromValues(entityBaseClass, attributeName, alias, getValuesCount(values));
         setParameter(alias, values);
         return result;
     }
 
     public <T> BuilderType fromIdentifiableValues(Class<T> valueClass, String alias, Collection<T> values) {
-        BuilderType result = fromIdentifiableValues(valueClass, alias, values.size());
+        BuilderType result = fromIdentifiableValues(valueClass, alias, getValuesCount(values));
         setParameter(alias, values);
         return result;
     }
 
     public <T> BuilderType fromIdentifiableValues(Class<T> valueClass, String identifierAttribute, String alias, Collection<T> values) {
-        BuilderType result = fromIdentifiableValues(valueClass, identifierAttribute, alias, values.size());
+        BuilderType result = fromIdentifiableValues(valueClass, identifierAttribute, alias, getValuesCount(values));
         setParameter(alias, values);
         return result;
     }
 
+    private int getValuesCount(Collection<?> values) {
+        QueryConfiguration queryConfiguration = mainQuery.getQueryConfiguration();
+        // Padding is only possible when the surplus null tuples are filtered out again
+        if (queryConfiguration.isParameterListPaddingEnabled() && queryConfiguration.isValuesClauseFilterNullsEnabled()) {
+            return ParameterManager.getPaddedSize(values.size());
+        }
+        return values.size();
+    }
+
     public BuilderType fromIdentifiableValues(Class<?> valueClass, String alias, int valueCount) {
         return fromIdentifiableValues(valueClass, null, alias, valueCount);
     }
@@ -1303,6 +1318,17 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     @SuppressWarnings("unchecked")
     public BuilderType select(String expression, String selectAlias) {
         Expression expr = expressionFactory.createSimpleExpression(expression, false);
+        select(expr, selectAlias);
+        return (BuilderType) this;
+    }
+
+    @Override
+    public void selectExpression(Expression expression, String selectAlias) {
+        select(optimizeExpressionTree(expression), selectAlias);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void select(Expression expr, String selectAlias) {
         if (selectAlias != null && selectAlias.isEmpty()) {
             throw new IllegalArgumentException("selectAlias");
         }
@@ -1313,7 +1339,15 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
             // TODO: don't know if we should override this here
             resultType = (Class<QueryResultType>) Tuple.class;
         }
-        return (BuilderType) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Expression> E optimizeExpressionTree(E expression) {
+        // Parsed expressions are optimized by the expression factory, so we do the same for expression trees
+        if (mainQuery.getQueryConfiguration().isExpressionOptimizationEnabled()) {
+            return (E) expression.accept(EXPRESSION_OPTIMIZER);
+        }
+        return expression;
     }
 
     public SubqueryInitiator<BuilderType> selectSubquery() {
@@ -1515,6 +1549,15 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         return (BuilderType) this;
     }
 
+    @Override
+    public void setWherePredicate(Predicate predicate) {
+        // Unlike setWhereExpressionSubqueries, this doesn't register subquery initiators or treat type restrictions.
+        // That is only safe because ExpressionTreeFactory.isSupportedPredicate admits nothing but plain paths and parameters,
+        // so widening the supported expressions requires adding the respective bookkeeping here
+        prepareForModification(ClauseType.WHERE);
+        whereManager.restrictSetExpression(optimizeExpressionTree(predicate));
+    }
+
     @SuppressWarnings("unchecked")
     public MultipleSubqueryInitiator<BuilderType> setWhereExpressionSubqueries(String expression) {
         prepareForModification(ClauseType.WHERE);
@@ -1803,6 +1846,16 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         return (BuilderType) this;
     }
 
+    @Override
+    public void orderByExpression(Expression expression, boolean ascending, boolean nullFirst) {
+        if (mainQuery.getQueryConfiguration().isCompatibleModeEnabled() && !(expression instanceof PathExpression)) {
+            // Compatible mode only allows paths, so let the parser report the error
+            orderBy(expression.toString(), ascending, nullFirst);
+        } else {
+            orderBy(optimizeExpressionTree(expression), ascending, nullFirst);
+        }
+    }
+
     private void orderBy(Expression expression, boolean ascending, boolean nullFirst) {
         prepareForModification(ClauseType.ORDER_BY);
         verifyBuilderEnded();
@@ -2823,13 +2876,30 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     }
 
     public String getQueryString() {
+        long start = startInstrumentation();
         prepareAndCheck();
-        return getExternalQueryString();
+        String queryString = getExternalQueryString();
+        endInstrumentation(QueryPhase.RENDER, start);
+        return queryString;
     }
     
     protected String getBaseQueryStringWithCheck(StringBuilder lateralSb, JoinNode lateralJoinNode) {
+        long start = startInstrumentation();
         prepareAndCheck();
-        return getBaseQueryString(lateralSb, lateralJoinNode);
+        String queryString = getBaseQueryString(lateralSb, lateralJoinNode);
+        endInstrumentation(QueryPhase.RENDER, start);
+        return queryString;
+    }
+
+    protected final long startInstrumentation() {
+        return cbf.getQueryInstrumentation() == null ? 0L : System.nanoTime();
+    }
+
+    protected final void endInstrumentation(QueryPhase phase, long start) {
+        QueryInstrumentation queryInstrumentation = cbf.getQueryInstrumentation();
+        if (queryInstrumentation != null) {
+            queryInstrumentation.record(phase, System.nanoTime() - start);
+        }
     }
 
     protected final TypedQuery<QueryResultType> getTypedQueryForFinalOperationBuilder() {
@@ -3691,6 +3761,19 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         });
     }
 
+    /**
+     * Returns whether the last order by item is unique for a query root, which implies that the tuples of a query root are adjacent in the result.
+     *
+     * @return true if the last order by item is unique for a query root, false otherwise
+     */
+    protected boolean hasResultUniqueOrderBy() {
+        if (!orderByManager.hasOrderBys()) {
+            return false;
+        }
+        List<OrderByExpression> orderByExpressions = orderByManager.getOrderByExpressions(false, whereManager.rootPredicate.getPredicate(), hasGroupBy ? Arrays.asList(getGroupByIdentifierExpressions()) : Collections.<ResolvedExpression>emptyList(), null);
+        return !orderByExpressions.isEmpty() && orderByExpressions.get(orderByExpressions.size() - 1).isResultUnique();
+    }
+
     protected ResolvedExpression[] getGroupByIdentifierExpressions() {
         if (cachedGroupByIdentifierExpressions == null) {
             Set<ResolvedExpression> resolvedExpressions = groupByManager.getCollectedGroupByClauses().keySet();
@@ -3995,7 +4078,9 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     protected final TypedQuery<QueryResultType> applyObjectBuilder(TypedQuery<?> query) {
         ObjectBuilder<QueryResultType> selectObjectBuilder = selectManager.getSelectObjectBuilder();
         if (selectObjectBuilder != null) {
-            return new ObjectBuilderTypedQuery<>(query, query instanceof AbstractCustomQuery<?> ? null : parameterManager.getCriteriaNameMapping(), selectObjectBuilder);
+            // Streaming object builders reduce adjacent tuples of the same root, so the tuples of a root must not be interleaved with others
+            boolean uniquelyOrdered = !(selectObjectBuilder instanceof StreamingObjectBuilder<?>) || hasResultUniqueOrderBy();
+            return new ObjectBuilderTypedQuery<>(query, query instanceof AbstractCustomQuery<?> ? null : parameterManager.getCriteriaNameMapping(), selectObjectBuilder, cbf.getQueryInstrumentation(), uniquelyOrdered);
         } else if (parameterManager.getCriteriaNameMapping() != null) {
             return new TypedQueryWrapper<>((TypedQuery<QueryResultType>) query, parameterManager.getCriteriaNameMapping());
         } else {
@@ -56,6 +56,7 @@ import com.blazebit.persistence.parser.util.TypeUtils;
 import com.blazebit.persistence.spi.AttributeAccessor;
 import com.blazebit.persistence.spi.JpaMetamodelAccessor;
 
+import javax.persistence.EntityManager;
 import javax.persistence.Parameter;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
@@ -165,6 +166,36 @@ public abstract class AbstractFullQueryBuilder<T, X extends FullQueryBuilder<T,
         return newBuilder;
     }
 
+    /**
+     * Copies this query builder including the select items and parameter values for the given entity manager.
+     * This is useful for query builders that act as template for building queries of the same shape with different parameter values.
+     * The returned query builder uses the given object builder, which must not apply any select items, for result transformation.
+     *
+     * @param entityManager The entity manager for the copy
+     * @param resultClass The result class of the copy
+     * @param objectBuilder The object builder for the copy or <code>null</code>
+     * @param <Y> The result type
+     * @return The copy of this query builder
+     * @since 1.6.9
+     */
+    public <Y> CriteriaBuilderImpl<Y> copyCriteriaBuilder(EntityManager entityManager, Class<Y> resultClass, ObjectBuilder<Y> objectBuilder) {
+        if (createdPaginatedBuilder) {
+            throw new IllegalStateException("Calling copy() on a CriteriaBuilder that was transformed to a PaginatedCriteriaBuilder is not allowed.");
+        }
+        prepareAndCheck();
+        MainQuery mainQuery = cbf.createMainQuery(entityManager);
+        mainQuery.copyConfiguration(this.mainQuery.getQueryConfiguration());
+        CriteriaBuilderImpl<Y> newBuilder = new CriteriaBuilderImpl<Y>(mainQuery, true, resultClass, null);
+        newBuilder.fromClassExplicitlySet = true;
+
+        newBuilder.applyFrom(this, true, true, true, true, Collections.<ClauseType>emptySet(), Collections.<JoinNode>emptySet(), new IdentityHashMap<JoinManager, JoinManager>(), ExpressionCopyContext.EMPTY);
+        if (objectBuilder != null) {
+            newBuilder.selectManager.setObjectBuilder(objectBuilder);
+        }
+
+        return newBuilder;
+    }
+
     @Override
     public CriteriaBuilder<Object[]> createPageIdQuery(int firstResult, int maxResults, String identifierExpression) {
         return createPageIdQuery(null, firstResult, maxResults, getIdentifierExpressionsToUse(identifierExpression, null));
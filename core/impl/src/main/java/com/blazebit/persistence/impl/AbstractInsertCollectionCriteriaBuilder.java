@@ -17,6 +17,7 @@
 package com.blazebit.persistence.impl;
 
 import com.blazebit.persistence.BaseInsertCriteriaBuilder;
+import com.blazebit.persistence.OnConflictBuilder;
 import com.blazebit.persistence.ReturningBuilder;
 import com.blazebit.persistence.ReturningObjectBuilder;
 import com.blazebit.persistence.ReturningResult;
@@ -119,6 +120,11 @@ public abstract class AbstractInsertCollectionCriteriaBuilder<T, X extends BaseI
         }
     }
 
+    @Override
+    public OnConflictBuilder<X> onConflict(String... attributes) {
+        throw new UnsupportedOperationException("Conflict handling is not supported for collection insert statements!");
+    }
+
     @Override
     protected void addBind(String attributeName) {
         if (attributeName.equalsIgnoreCase(keyFunctionExpression)) {
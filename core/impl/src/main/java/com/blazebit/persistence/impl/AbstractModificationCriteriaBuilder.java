@@ -43,6 +43,7 @@ import com.blazebit.persistence.spi.ExtendedAttribute;
 import com.blazebit.persistence.spi.ExtendedManagedType;
 import com.blazebit.persistence.spi.JoinTable;
 import com.blazebit.persistence.spi.JpaMetamodelAccessor;
+import com.blazebit.persistence.spi.QueryPhase;
 
 import javax.persistence.Query;
 import javax.persistence.Tuple;
@@ -186,7 +187,10 @@ public abstract class AbstractModificationCriteriaBuilder<T, X extends BaseModif
 
     @Override
     public Query getQuery() {
-        return getQuery(null);
+        long start = startInstrumentation();
+        Query query = getQuery(null);
+        endInstrumentation(QueryPhase.BUILD, start);
+        return query;
     }
 
     @Override
@@ -252,7 +256,11 @@ public abstract class AbstractModificationCriteriaBuilder<T, X extends BaseModif
     }
 
     public int executeUpdate() {
-        return getQuery().executeUpdate();
+        Query query = getQuery();
+        long start = startInstrumentation();
+        int updateCount = query.executeUpdate();
+        endInstrumentation(QueryPhase.EXECUTE, start);
+        return updateCount;
     }
     
     @Override
@@ -392,23 +400,16 @@ public abstract class AbstractModificationCriteriaBuilder<T, X extends BaseModif
         List<EntityFunctionNode> entityFunctionNodes = getEntityFunctionNodes(baseQuery, 0);
         boolean shouldRenderCteNodes = renderCteNodes(false);
         List<CTENode> ctes = shouldRenderCteNodes ? getCteNodes(false) : Collections.EMPTY_LIST;
-        QuerySpecification querySpecification = new ModificationQuerySpecification(
-                this,
+        QuerySpecification querySpecification = createReturningQuerySpecification(
                 baseQuery,
                 exampleQuery,
-                parameterManager.getParameterImpls(),
                 parameterListNames,
                 keyRestrictedLeftJoinAliases,
                 entityFunctionNodes,
-                mainQuery.cteManager.isRecursive(),
                 ctes,
                 shouldRenderCteNodes,
-                false,
                 returningColumns,
-                objectBuilder,
-                null,
-                returningAttributeBindingMap,
-                mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled()
+                objectBuilder
         );
 
         CustomReturningSQLTypedQuery query = new CustomReturningSQLTypedQuery<R>(
@@ -425,6 +426,28 @@ public abstract class AbstractModificationCriteriaBuilder<T, X extends BaseModif
         parameterManager.parameterizeQuery(query);
         return query;
     }
+
+    protected <R> QuerySpecification createReturningQuerySpecification(Query baseQuery, TypedQuery<Object[]> exampleQuery, Set<String> parameterListNames, List<String> keyRestrictedLeftJoinAliases, List<EntityFunctionNode> entityFunctionNodes,
+                                                                       List<CTENode> ctes, boolean shouldRenderCteNodes, String[] returningColumns, ReturningObjectBuilder<R> objectBuilder) {
+        return new ModificationQuerySpecification(
+                this,
+                baseQuery,
+                exampleQuery,
+                parameterManager.getParameterImpls(),
+                parameterListNames,
+                keyRestrictedLeftJoinAliases,
+                entityFunctionNodes,
+                mainQuery.cteManager.isRecursive(),
+                ctes,
+                shouldRenderCteNodes,
+                false,
+                returningColumns,
+                objectBuilder,
+                null,
+                returningAttributeBindingMap,
+                mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled()
+        );
+    }
     
     private List<List<Attribute<?, ?>>> getAndCheckReturningAttributes() {
         int attributeCount = returningAttributes.size();
@@ -24,6 +24,7 @@ import javax.persistence.TypedQuery;
 import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.Queryable;
 import com.blazebit.persistence.spi.DbmsStatementType;
+import com.blazebit.persistence.spi.QueryPhase;
 
 /**
  *
@@ -50,22 +51,38 @@ public abstract class AbstractQueryBuilder<T, X extends Queryable<T, X>, Z, W, F
 
     @Override
     public TypedQuery<T> getQuery() {
-        return getTypedQuery(null, null);
+        long start = startInstrumentation();
+        TypedQuery<T> query = getTypedQuery(null, null);
+        endInstrumentation(QueryPhase.BUILD, start);
+        return query;
     }
 
     @Override
     public List<T> getResultList() {
-        return getQuery().getResultList();
+        TypedQuery<T> query = getQuery();
+        long start = startInstrumentation();
+        List<T> resultList = query.getResultList();
+        endInstrumentation(QueryPhase.EXECUTE, start);
+        return resultList;
     }
 
     @Override
     public T getSingleResult() {
-        return getQuery().getSingleResult();
+        TypedQuery<T> query = getQuery();
+        long start = startInstrumentation();
+        T result = query.getSingleResult();
+        endInstrumentation(QueryPhase.EXECUTE, start);
+        return result;
     }
 
     @Override
     public Stream<T> getResultStream() {
-        return getQuery().getResultStream();
+        TypedQuery<T> query = getQuery();
+        // Only the statement execution is measured, rows are fetched lazily while the stream is consumed
+        long start = startInstrumentation();
+        Stream<T> resultStream = query.getResultStream();
+        endInstrumentation(QueryPhase.EXECUTE, start);
+        return resultStream;
     }
 
 }
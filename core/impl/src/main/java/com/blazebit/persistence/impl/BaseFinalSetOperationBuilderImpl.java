@@ -40,6 +40,7 @@ import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
 import com.blazebit.persistence.spi.DbmsStatementType;
 import com.blazebit.persistence.spi.OrderByElement;
 import com.blazebit.persistence.spi.SetOperationType;
+import com.blazebit.persistence.spi.QueryPhase;
 
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
@@ -113,6 +114,12 @@ public abstract class BaseFinalSetOperationBuilderImpl<T, X extends BaseFinalSet
         return (X) this;
     }
 
+    @Override
+    public void orderByExpression(Expression expression, boolean ascending, boolean nullFirst) {
+        // Order by items of set operations are resolved by their string representation
+        orderBy(expression.toString(), ascending, nullFirst);
+    }
+
     private boolean isNullable(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder, String expression) {
         if (queryBuilder instanceof BaseFinalSetOperationBuilderImpl<?, ?, ?>) {
             SetOperationManager setOpManager = ((BaseFinalSetOperationBuilderImpl<?, ?, ?>) queryBuilder).setOperationManager;
@@ -451,6 +458,12 @@ public abstract class BaseFinalSetOperationBuilderImpl<T, X extends BaseFinalSet
         return applyObjectBuilder(query);
     }
 
+    @Override
+    protected boolean hasResultUniqueOrderBy() {
+        // The order by items refer to the select aliases of the set operands, so we can't reason about uniqueness
+        return false;
+    }
+
     @Override
     protected boolean needsSqlReplacement(Set<JoinNode> keyRestrictedLeftJoins) {
         if (setOperationManager.getStartQueryBuilder().needsSqlReplacement(setOperationManager.getStartQueryBuilder().getKeyRestrictedLeftJoins())) {
@@ -500,18 +513,34 @@ public abstract class BaseFinalSetOperationBuilderImpl<T, X extends BaseFinalSet
 
     @Override
     public TypedQuery<T> getQuery() {
-        return getTypedQuery(null, null);
+        long start = startInstrumentation();
+        TypedQuery<T> query = getTypedQuery(null, null);
+        endInstrumentation(QueryPhase.BUILD, start);
+        return query;
     }
 
     public List<T> getResultList() {
-        return getTypedQuery(null, null).getResultList();
+        TypedQuery<T> query = getQuery();
+        long start = startInstrumentation();
+        List<T> resultList = query.getResultList();
+        endInstrumentation(QueryPhase.EXECUTE, start);
+        return resultList;
     }
 
     public T getSingleResult() {
-        return getTypedQuery(null, null).getSingleResult();
+        TypedQuery<T> query = getQuery();
+        long start = startInstrumentation();
+        T result = query.getSingleResult();
+        endInstrumentation(QueryPhase.EXECUTE, start);
+        return result;
     }
 
     public Stream<T> getResultStream() {
-        return getTypedQuery(null, null).getResultStream();
+        TypedQuery<T> query = getQuery();
+        // Only the statement execution is measured, rows are fetched lazily while the stream is consumed
+        long start = startInstrumentation();
+        Stream<T> resultStream = query.getResultStream();
+        endInstrumentation(QueryPhase.EXECUTE, start);
+        return resultStream;
     }
 }
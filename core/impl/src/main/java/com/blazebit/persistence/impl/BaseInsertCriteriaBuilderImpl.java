@@ -17,6 +17,7 @@
 package com.blazebit.persistence.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -24,18 +25,24 @@ import java.util.Set;
 import java.util.TreeMap;
 
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 
 import com.blazebit.persistence.BaseInsertCriteriaBuilder;
+import com.blazebit.persistence.OnConflictBuilder;
 import com.blazebit.persistence.ReturningBuilder;
+import com.blazebit.persistence.ReturningObjectBuilder;
 import com.blazebit.persistence.SelectBuilder;
 import com.blazebit.persistence.impl.query.CTENode;
 import com.blazebit.persistence.impl.query.CustomSQLQuery;
 import com.blazebit.persistence.impl.query.EntityFunctionNode;
+import com.blazebit.persistence.impl.query.InsertModificationQuerySpecification;
 import com.blazebit.persistence.impl.query.ModificationQuerySpecification;
 import com.blazebit.persistence.impl.query.QuerySpecification;
 import com.blazebit.persistence.parser.expression.ExpressionCopyContext;
 import com.blazebit.persistence.spi.DbmsModificationState;
 import com.blazebit.persistence.spi.DbmsStatementType;
+import com.blazebit.persistence.spi.ExtendedManagedType;
+import com.blazebit.persistence.spi.UpsertStyle;
 
 /**
  *
@@ -46,6 +53,8 @@ import com.blazebit.persistence.spi.DbmsStatementType;
 public abstract class BaseInsertCriteriaBuilderImpl<T, X extends BaseInsertCriteriaBuilder<T, X>, Y> extends AbstractModificationCriteriaBuilder<T, X, Y> implements BaseInsertCriteriaBuilder<T, X>, SelectBuilder<X> {
 
     protected final Map<String, Integer> bindingMap = new TreeMap<>();
+    private String[] conflictAttributes;
+    private String[] conflictUpdateAttributes;
 
     public BaseInsertCriteriaBuilderImpl(MainQuery mainQuery, QueryContext queryContext, boolean isMainQuery, Class<T> clazz, CTEManager.CTEKey cteKey, Class<?> cteClass, Y result, CTEBuilderListener listener) {
         super(mainQuery, queryContext, isMainQuery, DbmsStatementType.INSERT, clazz, null, cteKey, cteClass, result, listener);
@@ -58,6 +67,8 @@ public abstract class BaseInsertCriteriaBuilderImpl<T, X extends BaseInsertCrite
     public BaseInsertCriteriaBuilderImpl(BaseInsertCriteriaBuilderImpl<T, X, Y> builder, MainQuery mainQuery, QueryContext queryContext, Map<JoinManager, JoinManager> joinManagerMapping, ExpressionCopyContext copyContext) {
         super(builder, mainQuery, queryContext, joinManagerMapping, copyContext);
         bindingMap.putAll(builder.bindingMap);
+        this.conflictAttributes = builder.conflictAttributes;
+        this.conflictUpdateAttributes = builder.conflictUpdateAttributes;
     }
 
     @Override
@@ -69,7 +80,8 @@ public abstract class BaseInsertCriteriaBuilderImpl<T, X extends BaseInsertCrite
     @SuppressWarnings("unchecked")
     public X bind(String attributeName, Object value) {
         addBind(attributeName);
-        selectManager.select(parameterManager.addParameterExpression(value, ClauseType.SELECT, this), null);
+        // A collection value is the value of a single attribute rather than a parameter list
+        selectManager.select(parameterManager.addParameterExpression(value, false, ClauseType.SELECT, this), null);
         
         return (X) this;
     }
@@ -80,6 +92,42 @@ public abstract class BaseInsertCriteriaBuilderImpl<T, X extends BaseInsertCrite
         return this;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public OnConflictBuilder<X> onConflict(String... attributes) {
+        if (attributes == null) {
+            throw new NullPointerException("attributes");
+        }
+        if (mainQuery.dbmsDialect.getUpsertStyle() == UpsertStyle.NONE) {
+            throw new IllegalStateException("The dbms dialect does not support conflict handling for insert statements!");
+        }
+        // Not every dbms can infer the conflict target, so we require it to behave the same on every dbms
+        if (attributes.length == 0) {
+            throw new IllegalArgumentException("Conflict handling requires at least one conflict attribute!");
+        }
+        if (this instanceof ReturningBuilder && mainQuery.dbmsDialect.getUpsertStyle() != UpsertStyle.ON_CONFLICT) {
+            throw new IllegalStateException("Conflict handling for insert statements in CTEs is only supported for dbms supporting the ON CONFLICT clause!");
+        }
+        checkConflictAttributes(attributes);
+        return new OnConflictBuilderImpl<X>(this, (X) this, attributes);
+    }
+
+    void setConflictHandling(String[] conflictAttributes, String[] conflictUpdateAttributes) {
+        if (conflictUpdateAttributes != null) {
+            checkConflictAttributes(conflictUpdateAttributes);
+            List<String> conflictAttributeList = Arrays.asList(conflictAttributes);
+            for (String updateAttribute : conflictUpdateAttributes) {
+                // A MERGE statement can't update the columns it matches on
+                if (conflictAttributeList.contains(updateAttribute)) {
+                    throw new IllegalArgumentException("The conflict attribute [" + updateAttribute + "] can't be updated on conflict!");
+                }
+            }
+        }
+        prepareForModification(ClauseType.SELECT);
+        this.conflictAttributes = conflictAttributes;
+        this.conflictUpdateAttributes = conflictUpdateAttributes;
+    }
+
     protected void addBind(String attributeName) {
         // NOTE: We are not resolving embedded properties, because hibernate does not support them
         // Just do that to assert the attribute exists
@@ -151,6 +199,77 @@ public abstract class BaseInsertCriteriaBuilderImpl<T, X extends BaseInsertCrite
         
         sbSelectFrom.append(")\n");
         buildSelectBaseQueryString(sbSelectFrom, externalRepresentation);
+        if (externalRepresentation && conflictAttributes != null) {
+            appendConflictHandling(sbSelectFrom);
+        }
+    }
+
+    private void appendConflictHandling(StringBuilder sbSelectFrom) {
+        sbSelectFrom.append(" ON CONFLICT(");
+        for (int i = 0; i < conflictAttributes.length; i++) {
+            if (i != 0) {
+                sbSelectFrom.append(", ");
+            }
+            sbSelectFrom.append(conflictAttributes[i]);
+        }
+        sbSelectFrom.append(')');
+        List<String> updateAttributes = getConflictUpdateAttributes();
+        if (updateAttributes == null) {
+            sbSelectFrom.append(" DO NOTHING");
+        } else {
+            sbSelectFrom.append(" DO UPDATE SET ");
+            for (int i = 0; i < updateAttributes.size(); i++) {
+                if (i != 0) {
+                    sbSelectFrom.append(", ");
+                }
+                String attribute = updateAttributes.get(i);
+                sbSelectFrom.append(attribute).append(" = EXCLUDED.").append(attribute);
+            }
+        }
+    }
+
+    private void checkConflictAttributes(String[] attributes) {
+        ExtendedManagedType<?> extendedManagedType = mainQuery.metamodel.getManagedType(ExtendedManagedType.class, entityType);
+        for (String attributeName : attributes) {
+            if (attributeName == null) {
+                throw new NullPointerException("attributeName");
+            }
+            if (!extendedManagedType.getOwnedSingularAttributes().containsKey(attributeName)) {
+                throw new IllegalArgumentException("Attribute '" + attributeName + "' does not exist on '" + entityType.getName() + "'!");
+            }
+        }
+    }
+
+    private List<String> getConflictUpdateAttributes() {
+        if (conflictUpdateAttributes == null) {
+            return null;
+        }
+        List<String> updateAttributes;
+        if (conflictUpdateAttributes.length == 0) {
+            updateAttributes = new ArrayList<>(bindingMap.keySet());
+            for (String conflictAttribute : conflictAttributes) {
+                updateAttributes.remove(conflictAttribute);
+            }
+        } else {
+            updateAttributes = new ArrayList<>(conflictUpdateAttributes.length);
+            for (String updateAttribute : conflictUpdateAttributes) {
+                if (!bindingMap.containsKey(updateAttribute)) {
+                    throw new IllegalArgumentException("The attribute [" + updateAttribute + "] can't be updated on conflict because it is not bound!");
+                }
+                updateAttributes.add(updateAttribute);
+            }
+        }
+        // Nothing left to update means we can skip the conflicting row
+        return updateAttributes.isEmpty() ? null : updateAttributes;
+    }
+
+    private String[] getColumns(List<String> attributes) {
+        ExtendedManagedType<?> extendedManagedType = mainQuery.metamodel.getManagedType(ExtendedManagedType.class, entityType);
+        List<String> columns = new ArrayList<>(attributes.size());
+        for (String attribute : attributes) {
+            Collections.addAll(columns, extendedManagedType.getAttribute(attribute).getColumnNames());
+        }
+        return columns.toArray(new String[columns.size()]);
     }
 
     protected void buildSelectBaseQueryString(StringBuilder sbSelectFrom, boolean externalRepresentation) {
@@ -187,24 +306,52 @@ public abstract class BaseInsertCriteriaBuilderImpl<T, X extends BaseInsertCrite
         boolean shouldRenderCteNodes = renderCteNodes(isEmbedded);
         List<CTENode> ctes = shouldRenderCteNodes ? getCteNodes(isEmbedded) : Collections.EMPTY_LIST;
 
-        QuerySpecification querySpecification = new ModificationQuerySpecification(
-                this,
-                baseQuery,
-                getCountExampleQuery(),
-                parameterManager.getParameterImpls(),
-                parameterListNames,
-                keyRestrictedLeftJoinAliases,
-                entityFunctionNodes,
-                mainQuery.cteManager.isRecursive(),
-                ctes,
-                shouldRenderCteNodes,
-                isEmbedded,
-                returningColumns,
-                null,
-                includedModificationStates,
-                returningAttributeBindingMap,
-                mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled()
-        );
+        QuerySpecification querySpecification;
+        if (conflictAttributes == null) {
+            querySpecification = new ModificationQuerySpecification(
+                    this,
+                    baseQuery,
+                    getCountExampleQuery(),
+                    parameterManager.getParameterImpls(),
+                    parameterListNames,
+                    keyRestrictedLeftJoinAliases,
+                    entityFunctionNodes,
+                    mainQuery.cteManager.isRecursive(),
+                    ctes,
+                    shouldRenderCteNodes,
+                    isEmbedded,
+                    returningColumns,
+                    null,
+                    includedModificationStates,
+                    returningAttributeBindingMap,
+                    mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled()
+            );
+        } else {
+            if (hasLimit()) {
+                throw new IllegalStateException("Limiting an insert statement with conflict handling is not supported!");
+            }
+            List<String> updateAttributes = getConflictUpdateAttributes();
+            querySpecification = new InsertModificationQuerySpecification(
+                    this,
+                    baseQuery,
+                    getCountExampleQuery(),
+                    parameterManager.getParameterImpls(),
+                    parameterListNames,
+                    keyRestrictedLeftJoinAliases,
+                    entityFunctionNodes,
+                    mainQuery.cteManager.isRecursive(),
+                    ctes,
+                    shouldRenderCteNodes,
+                    isEmbedded,
+                    returningColumns,
+                    null,
+                    includedModificationStates,
+                    returningAttributeBindingMap,
+                    mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled(),
+                    getColumns(Arrays.asList(conflictAttributes)),
+                    updateAttributes == null ? null : getColumns(updateAttributes)
+            );
+        }
 
         CustomSQLQuery query = new CustomSQLQuery(
                 querySpecification,
@@ -223,4 +370,40 @@ public abstract class BaseInsertCriteriaBuilderImpl<T, X extends BaseInsertCrite
         return query;
     }
 
+    @Override
+    protected <R> QuerySpecification createReturningQuerySpecification(Query baseQuery, TypedQuery<Object[]> exampleQuery, Set<String> parameterListNames, List<String> keyRestrictedLeftJoinAliases, List<EntityFunctionNode> entityFunctionNodes,
+                                                                       List<CTENode> ctes, boolean shouldRenderCteNodes, String[] returningColumns, ReturningObjectBuilder<R> objectBuilder) {
+        if (conflictAttributes == null) {
+            return super.createReturningQuerySpecification(baseQuery, exampleQuery, parameterListNames, keyRestrictedLeftJoinAliases, entityFunctionNodes, ctes, shouldRenderCteNodes, returningColumns, objectBuilder);
+        }
+        // Only the ON CONFLICT clause can be followed by a returning clause, a MERGE or ON DUPLICATE KEY statement can't return the affected rows
+        if (mainQuery.dbmsDialect.getUpsertStyle() != UpsertStyle.ON_CONFLICT) {
+            throw new UnsupportedOperationException("Returning values from an insert statement with conflict handling is only supported for dbms supporting the ON CONFLICT clause!");
+        }
+        if (hasLimit()) {
+            throw new IllegalStateException("Limiting an insert statement with conflict handling is not supported!");
+        }
+        List<String> updateAttributes = getConflictUpdateAttributes();
+        return new InsertModificationQuerySpecification(
+                this,
+                baseQuery,
+                exampleQuery,
+                parameterManager.getParameterImpls(),
+                parameterListNames,
+                keyRestrictedLeftJoinAliases,
+                entityFunctionNodes,
+                mainQuery.cteManager.isRecursive(),
+                ctes,
+                shouldRenderCteNodes,
+                false,
+                returningColumns,
+                objectBuilder,
+                null,
+                returningAttributeBindingMap,
+                mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled(),
+                getColumns(Arrays.asList(conflictAttributes)),
+                updateAttributes == null ? null : getColumns(updateAttributes)
+        );
+    }
+
 }
@@ -111,7 +111,8 @@ public abstract class BaseUpdateCriteriaBuilderImpl<T, X extends BaseUpdateCrite
     public X set(String attributeName, Object value) {
         verifyBuilderEnded();
         addAttribute(attributeName);
-        Expression attributeExpression = parameterManager.addParameterExpression(value, ClauseType.SET, this);
+        // A collection value is the value of a single attribute rather than a parameter list
+        Expression attributeExpression = parameterManager.addParameterExpression(value, false, ClauseType.SET, this);
         selectManager.select(attributeExpression, null);
         return (X) this;
     }
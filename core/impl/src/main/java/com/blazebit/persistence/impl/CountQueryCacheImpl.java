@@ -0,0 +1,275 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.parser.EntityMetamodel;
+import com.blazebit.persistence.spi.CountQueryCache;
+import com.blazebit.persistence.spi.JpaProvider;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded count query cache that evicts the least recently used entries and expires entries after a time to live.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class CountQueryCacheImpl implements CountQueryCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+    public static final long DEFAULT_TTL = 60000L;
+
+    private final EntityMetamodel metamodel;
+    private final JpaProvider jpaProvider;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public CountQueryCacheImpl(Map<String, String> properties, EntityMetamodel metamodel, JpaProvider jpaProvider) {
+        this(
+                metamodel,
+                jpaProvider,
+                (int) parsePositive(ConfigurationProperties.COUNT_QUERY_CACHE_MAX_SIZE, properties.get(ConfigurationProperties.COUNT_QUERY_CACHE_MAX_SIZE), DEFAULT_MAX_SIZE),
+                parsePositive(ConfigurationProperties.COUNT_QUERY_CACHE_TTL, properties.get(ConfigurationProperties.COUNT_QUERY_CACHE_TTL), DEFAULT_TTL)
+        );
+    }
+
+    public CountQueryCacheImpl(EntityMetamodel metamodel, JpaProvider jpaProvider, final int maxSize, long ttlMillis) {
+        this.metamodel = metamodel;
+        this.jpaProvider = jpaProvider;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Creates a key for the given count query string and parameter values.
+     * The parameter values are snapshotted, so that the key does not retain entities or observe later mutations.
+     *
+     * @param queryString The count query string
+     * @param parameterValues The bound parameter values
+     * @return the key
+     */
+    public Key createKey(String queryString, Map<String, Object> parameterValues) {
+        Map<String, Object> snapshot = new HashMap<>(parameterValues.size());
+        for (Map.Entry<String, Object> entry : parameterValues.entrySet()) {
+            snapshot.put(entry.getKey(), snapshot(entry.getValue()));
+        }
+        return new Key(queryString, snapshot);
+    }
+
+    private Object snapshot(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof Collection<?>) {
+            Collection<?> collection = (Collection<?>) value;
+            List<Object> list = new ArrayList<>(collection.size());
+            for (Object element : collection) {
+                list.add(snapshot(element));
+            }
+            return list;
+        } else if (value instanceof Date) {
+            return ((Date) value).clone();
+        } else if (value instanceof Calendar) {
+            return ((Calendar) value).clone();
+        }
+        Class<?> entityClass = getEntityClass(value.getClass());
+        if (entityClass == null) {
+            return value;
+        }
+        // Entities are represented by their identifier, so we don't keep managed instances reachable through the cache
+        return new AbstractMap.SimpleImmutableEntry<Class<?>, Object>(entityClass, snapshot(jpaProvider.getIdentifier(value)));
+    }
+
+    private Class<?> getEntityClass(Class<?> valueClass) {
+        // Walk up the hierarchy to also handle proxies of entities
+        for (Class<?> c = valueClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            if (metamodel.getEntity(c) != null) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the cached count for the given key or <code>null</code> if there is no valid cached count.
+     *
+     * @param key The key
+     * @return the cached count or <code>null</code>
+     */
+    public Long get(Key key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.count;
+    }
+
+    /**
+     * Caches the given count for the key.
+     *
+     * @param key The key
+     * @param count The count
+     * @param entityTypes The entity types of the count query which are used for invalidation
+     */
+    public void put(Key key, long count, Set<Class<?>> entityTypes) {
+        Entry entry = new Entry(count, System.nanoTime() + ttlNanos, entityTypes);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    @Override
+    public void invalidate(Class<?> entityClass) {
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                for (Class<?> entityType : iterator.next().entityTypes) {
+                    if (entityType.isAssignableFrom(entityClass) || entityClass.isAssignableFrom(entityType)) {
+                        iterator.remove();
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    static long parsePositive(String propertyName, String value, long defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            long longValue = Long.parseLong(value.trim());
+            if (longValue > 0) {
+                return longValue;
+            }
+        } catch (NumberFormatException ex) {
+            // Fall through
+        }
+        throw new IllegalArgumentException("Illegal value '" + value + "' for positive integer property '" + propertyName + "'");
+    }
+
+    /**
+     * The cache key consisting of the count query string and the bound parameter values.
+     *
+     * @author Christian Beikov
+     * @since 1.6.9
+     */
+    public static final class Key {
+
+        private final String queryString;
+        private final Map<String, Object> parameterValues;
+        private final int hash;
+
+        private Key(String queryString, Map<String, Object> parameterValues) {
+            this.queryString = queryString;
+            this.parameterValues = parameterValues;
+            this.hash = 31 * queryString.hashCode() + parameterValues.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash && queryString.equals(key.queryString) && parameterValues.equals(key.parameterValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.6.9
+     */
+    private static final class Entry {
+
+        private final long count;
+        private final long expiresAt;
+        private final Set<Class<?>> entityTypes;
+
+        public Entry(long count, long expiresAt, Set<Class<?>> entityTypes) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+            this.entityTypes = entityTypes;
+        }
+    }
+}
@@ -397,6 +397,7 @@ import com.blazebit.persistence.impl.function.repeat.ReplicateRepeatFunction;
 import com.blazebit.persistence.impl.function.replace.ReplaceFunction;
 import com.blazebit.persistence.impl.function.rowvalue.RowValueComparisonFunction;
 import com.blazebit.persistence.impl.function.rowvalue.RowValueSubqueryComparisonFunction;
+import com.blazebit.persistence.impl.function.rowvalue.RowValueSubqueryExistsFunction;
 import com.blazebit.persistence.impl.function.set.SetFunction;
 import com.blazebit.persistence.impl.function.stringjsonagg.AbstractStringJsonAggFunction;
 import com.blazebit.persistence.impl.function.stringjsonagg.GroupConcatBasedStringJsonAggFunction;
@@ -529,6 +530,7 @@ import com.blazebit.persistence.spi.JpqlFunctionKind;
 import com.blazebit.persistence.spi.JpqlMacro;
 import com.blazebit.persistence.spi.LateralStyle;
 import com.blazebit.persistence.spi.PackageOpener;
+import com.blazebit.persistence.spi.QueryInstrumentation;
 import com.blazebit.persistence.spi.SetOperationType;
 
 import javax.persistence.EntityManagerFactory;
@@ -565,6 +567,7 @@ public class CriteriaBuilderConfigurationImpl implements CriteriaBuilderConfigur
     private PackageOpener packageOpener;
     private Properties properties = new Properties();
     private ExtendedQuerySupport extendedQuerySupport;
+    private QueryInstrumentation queryInstrumentation;
 
     public CriteriaBuilderConfigurationImpl(PackageOpener packageOpener) {
         this.packageOpener = packageOpener;
@@ -1414,6 +1417,11 @@ public class CriteriaBuilderConfigurationImpl implements CriteriaBuilderConfigur
         jpqlFunctionGroup.add(null, new RowValueSubqueryComparisonFunction());
         registerFunction(jpqlFunctionGroup);
 
+        // row values subquery exists emulation
+        jpqlFunctionGroup = new JpqlFunctionGroup(RowValueSubqueryExistsFunction.FUNCTION_NAME, false);
+        jpqlFunctionGroup.add(null, new RowValueSubqueryExistsFunction());
+        registerFunction(jpqlFunctionGroup);
+
         // alias function
         jpqlFunctionGroup = new JpqlFunctionGroup(AliasFunction.FUNCTION_NAME, false);
         jpqlFunctionGroup.add(null, new AliasFunction());
@@ -1940,6 +1948,17 @@ public class CriteriaBuilderConfigurationImpl implements CriteriaBuilderConfigur
         return packageOpener;
     }
 
+    @Override
+    public CriteriaBuilderConfiguration registerQueryInstrumentation(QueryInstrumentation queryInstrumentation) {
+        this.queryInstrumentation = queryInstrumentation;
+        return this;
+    }
+
+    @Override
+    public QueryInstrumentation getQueryInstrumentation() {
+        return queryInstrumentation;
+    }
+
     @Override
     public CriteriaBuilderConfiguration registerFunction(JpqlFunctionGroup jpqlFunctionGroup) {
         String functionName = jpqlFunctionGroup.getName().toLowerCase();
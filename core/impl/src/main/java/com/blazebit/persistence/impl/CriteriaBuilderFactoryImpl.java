@@ -31,6 +31,7 @@ import com.blazebit.persistence.parser.expression.MacroConfiguration;
 import com.blazebit.persistence.parser.expression.SimpleCachingExpressionFactory;
 import com.blazebit.persistence.parser.expression.SubqueryExpressionFactory;
 import com.blazebit.persistence.spi.ConfigurationSource;
+import com.blazebit.persistence.spi.CountQueryCache;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.EntityManagerFactoryIntegrator;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
@@ -40,6 +41,7 @@ import com.blazebit.persistence.spi.JpqlFunction;
 import com.blazebit.persistence.spi.JpqlFunctionGroup;
 import com.blazebit.persistence.spi.JpqlFunctionKind;
 import com.blazebit.persistence.spi.PackageOpener;
+import com.blazebit.persistence.spi.QueryInstrumentation;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -61,6 +63,9 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
     private final EntityMetamodelImpl metamodel;
     private final AssociationParameterTransformerFactory transientEntityParameterTransformerFactory;
     private final ExtendedQuerySupport extendedQuerySupport;
+    private final QueryInstrumentation queryInstrumentation;
+    private final CountQueryCacheImpl countQueryCache;
+    private final ParallelCountQueryExecutor parallelCountQueryExecutor;
     private final Map<String, FunctionKind> functions;
     private final Map<Class<?>, String> namedTypes;
     private final ExpressionCache expressionCache;
@@ -75,6 +80,7 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
     private final Map<String, String> registeredFunctionNames;
     private final JpaProviderFactory configuredJpaProviderFactory;
     private final JpaProvider jpaProvider;
+    private volatile Integer databaseMajorVersion;
 
     public CriteriaBuilderFactoryImpl(CriteriaBuilderConfigurationImpl config, EntityManagerFactory entityManagerFactory) {
         List<EntityManagerFactoryIntegrator> integrators = config.getEntityManagerIntegrators();
@@ -112,12 +118,15 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
 
         this.transientEntityParameterTransformerFactory = new TransientEntityAssociationParameterTransformerFactory(metamodel, new AssociationToIdParameterTransformer(jpaProvider));
         this.extendedQuerySupport = config.getExtendedQuerySupport();
+        this.queryInstrumentation = config.getQueryInstrumentation();
+        this.countQueryCache = new CountQueryCacheImpl((Map<String, String>) (Map<?, ?>) config.getProperties(), metamodel, jpaProvider);
+        this.parallelCountQueryExecutor = new ParallelCountQueryExecutor((Map<String, String>) (Map<?, ?>) config.getProperties());
         this.functions = resolveFunctions(config.getFunctions(), configuredRegisteredFunctions);
         this.registeredFunctionNames = caseInsensitiveFunctions(configuredRegisteredFunctions);
         this.namedTypes = resolveNamedTypes(config.getNamedTypes());
 
         ExpressionFactory originalExpressionFactory = new ExpressionFactoryImpl(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), metamodel.getEnumTypesForLiterals(), !compatibleMode, optimize);
-        this.expressionCache = createCache(queryConfiguration.getExpressionCacheClass());
+        this.expressionCache = createCache(queryConfiguration.getExpressionCacheClass(), (Map<String, String>) (Map<?, ?>) config.getProperties());
         ExpressionFactory cachingExpressionFactory = new SimpleCachingExpressionFactory(originalExpressionFactory, expressionCache);
         ExpressionFactory cachingSubqueryExpressionFactory = new SimpleCachingExpressionFactory(new SubqueryExpressionFactory(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), metamodel.getEnumTypesForLiterals(), !compatibleMode, optimize, originalExpressionFactory));
         this.macroConfiguration = MacroConfiguration.of(JpqlMacroAdapter.createMacros(config.getMacros(), cachingExpressionFactory));
@@ -126,9 +135,15 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         this.subqueryExpressionFactory = new JpqlMacroAwareExpressionFactory(cachingSubqueryExpressionFactory, macroStorage);
     }
 
-    private ExpressionCache createCache(String className) {
+    private ExpressionCache createCache(String className, Map<String, String> properties) {
         try {
-            return (ExpressionCache) Class.forName(className).newInstance();
+            Class<?> cacheClass = Class.forName(className);
+            try {
+                // Caches that accept the configuration properties can configure themselves e.g. to apply size bounds
+                return (ExpressionCache) cacheClass.getConstructor(Map.class).newInstance(properties);
+            } catch (NoSuchMethodException ex) {
+                return (ExpressionCache) cacheClass.newInstance();
+            }
         } catch (Exception ex) {
             throw new IllegalArgumentException("Could not instantiate expression cache: " + className, ex);
         }
@@ -212,6 +227,28 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         return extendedQuerySupport;
     }
 
+    public int getDatabaseMajorVersion(EntityManager em) {
+        Integer version = databaseMajorVersion;
+        if (version == null) {
+            // The database of a factory doesn't change, so it's fine if concurrent callers determine the version multiple times
+            version = extendedQuerySupport == null ? -1 : extendedQuerySupport.getDatabaseMajorVersion(em);
+            databaseMajorVersion = version;
+        }
+        return version;
+    }
+
+    public QueryInstrumentation getQueryInstrumentation() {
+        return queryInstrumentation;
+    }
+
+    public CountQueryCacheImpl getCountQueryCache() {
+        return countQueryCache;
+    }
+
+    public ParallelCountQueryExecutor getParallelCountQueryExecutor() {
+        return parallelCountQueryExecutor;
+    }
+
     public Map<String, FunctionKind> getFunctions() {
         return functions;
     }
@@ -364,6 +401,10 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
             return (T) configuredJpaProviderFactory;
         } else if (JpaProvider.class.equals(serviceClass)) {
             return (T) jpaProvider;
+        } else if (QueryInstrumentation.class.equals(serviceClass)) {
+            return (T) queryInstrumentation;
+        } else if (CountQueryCache.class.equals(serviceClass)) {
+            return (T) countQueryCache;
         } else if (ExpressionCache.class.equals(serviceClass)) {
             return (T) expressionCache;
         } else if (Metamodel.class.isAssignableFrom(serviceClass)) {
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.spi.DbmsDialect;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+/**
+ * Estimates the row count of a count query through the query plan of its SQL.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class EstimatedCountQuery {
+
+    private final EntityManager em;
+    private final CriteriaBuilderFactoryImpl cbf;
+    private final DbmsDialect dbmsDialect;
+    private final String queryString;
+
+    public EstimatedCountQuery(EntityManager em, CriteriaBuilderFactoryImpl cbf, DbmsDialect dbmsDialect, String queryString) {
+        this.em = em;
+        this.cbf = cbf;
+        this.dbmsDialect = dbmsDialect;
+        this.queryString = queryString;
+    }
+
+    public long getEstimatedCount(Query countQuery) {
+        // A bounded count query renders custom SQL, so we explain the unbounded JPQL count query instead
+        Query query = queryString == null ? countQuery : em.createQuery(queryString);
+        String countSql = cbf.getExtendedQuerySupport().getSql(em, query);
+        String estimateSql = dbmsDialect.getRowCountEstimateSql(countSql, cbf.getDatabaseMajorVersion(em));
+        if (estimateSql == null) {
+            return -1L;
+        }
+        return dbmsDialect.extractRowCountEstimate(em.createNativeQuery(estimateSql).getResultList());
+    }
+}
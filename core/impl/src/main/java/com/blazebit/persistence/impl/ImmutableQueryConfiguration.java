@@ -32,6 +32,7 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
     private final boolean compatibleModeEnabled;
     private final boolean expressionOptimizationEnabled;
     private final String expressionCacheClass;
+    private final int queryPlanCacheMaxSize;
 
     private final boolean returningClauseCaseSensitive;
     private final boolean sizeToCountTransformationEnabled;
@@ -41,6 +42,7 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
     private final boolean valuesClauseFilterNullsEnabled;
     private final boolean parameterAsLiteralRenderingEnabled;
     private final boolean optimizedKeysetPredicateRenderingEnabled;
+    private final boolean parameterListPaddingEnabled;
     private final Boolean inlineIdQuery;
     private final Boolean inlineCountQuery;
     private final Boolean inlineCtes;
@@ -50,6 +52,7 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         this.compatibleModeEnabled = PropertyUtils.getAsBooleanProperty(properties, ConfigurationProperties.COMPATIBLE_MODE, false);
         this.expressionOptimizationEnabled = PropertyUtils.getAsBooleanProperty(properties, ConfigurationProperties.EXPRESSION_OPTIMIZATION, true);
         this.expressionCacheClass = properties.get(ConfigurationProperties.EXPRESSION_CACHE_CLASS);
+        this.queryPlanCacheMaxSize = Integer.parseInt(getProperty(properties, ConfigurationProperties.QUERY_PLAN_CACHE_MAX_SIZE, "2048"));
 
         this.returningClauseCaseSensitive =                 getBooleanProperty(properties, ConfigurationProperties.RETURNING_CLAUSE_CASE_SENSITIVE,     "false");
         this.sizeToCountTransformationEnabled =             getBooleanProperty(properties, ConfigurationProperties.SIZE_TO_COUNT_TRANSFORMATION,        "true");
@@ -59,6 +62,7 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         this.valuesClauseFilterNullsEnabled =               getBooleanProperty(properties, ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS,          "true");
         this.parameterAsLiteralRenderingEnabled =           getBooleanProperty(properties, ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING,      "true");
         this.optimizedKeysetPredicateRenderingEnabled =     getBooleanProperty(properties, ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING,"true");
+        this.parameterListPaddingEnabled =                  getBooleanProperty(properties, ConfigurationProperties.PARAMETER_LIST_PADDING,              "false");
         String inlineIdQuery =                              getProperty(properties, ConfigurationProperties.INLINE_ID_QUERY,                            "auto");
         String inlineCountQuery =                           getProperty(properties, ConfigurationProperties.INLINE_COUNT_QUERY,                         "auto");
         String inlineCtes =                                 getProperty(properties, ConfigurationProperties.INLINE_CTES,                                "auto");
@@ -88,6 +92,11 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         return expressionCacheClass;
     }
 
+    @Override
+    public int getQueryPlanCacheMaxSize() {
+        return queryPlanCacheMaxSize;
+    }
+
     @Override
     public boolean isCountTransformationEnabled() {
         return sizeToCountTransformationEnabled;
@@ -123,6 +132,11 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         return optimizedKeysetPredicateRenderingEnabled;
     }
 
+    @Override
+    public boolean isParameterListPaddingEnabled() {
+        return parameterListPaddingEnabled;
+    }
+
     @Override
     public Boolean getInlineIdQueryEnabled() {
         return inlineIdQuery;
@@ -167,10 +181,12 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
             case ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS: return Boolean.toString(valuesClauseFilterNullsEnabled);
             case ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING: return Boolean.toString(parameterAsLiteralRenderingEnabled);
             case ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING: return Boolean.toString(optimizedKeysetPredicateRenderingEnabled);
+            case ConfigurationProperties.PARAMETER_LIST_PADDING: return Boolean.toString(parameterListPaddingEnabled);
             case ConfigurationProperties.INLINE_ID_QUERY: return inlineIdQuery == null ? "auto" : Boolean.toString(inlineIdQuery);
             case ConfigurationProperties.INLINE_COUNT_QUERY: return inlineIdQuery == null ? "auto" : Boolean.toString(inlineIdQuery);
             case ConfigurationProperties.INLINE_CTES: return inlineCtes == null ? "auto" : Boolean.toString(inlineCtes);
             case ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED: return Boolean.toString(queryPlanCacheEnabled);
+            case ConfigurationProperties.QUERY_PLAN_CACHE_MAX_SIZE: return Integer.toString(queryPlanCacheMaxSize);
             default: return null;
         }
     }
@@ -189,10 +205,12 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         properties.put(ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS, Boolean.toString(valuesClauseFilterNullsEnabled));
         properties.put(ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING, Boolean.toString(parameterAsLiteralRenderingEnabled));
         properties.put(ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING, Boolean.toString(optimizedKeysetPredicateRenderingEnabled));
+        properties.put(ConfigurationProperties.PARAMETER_LIST_PADDING, Boolean.toString(parameterListPaddingEnabled));
         properties.put(ConfigurationProperties.INLINE_ID_QUERY, getInlineIdQueryEnabled() == null ? "auto" : Boolean.toString(getInlineIdQueryEnabled()));
         properties.put(ConfigurationProperties.INLINE_COUNT_QUERY, getInlineCountQueryEnabled() == null ? "auto" : Boolean.toString(getInlineCountQueryEnabled()));
         properties.put(ConfigurationProperties.INLINE_CTES, getInlineCtesEnabled() == null ? "auto" : Boolean.toString(getInlineCtesEnabled()));
         properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED, Boolean.toString(queryPlanCacheEnabled));
+        properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_MAX_SIZE, Integer.toString(queryPlanCacheMaxSize));
         return properties;
     }
 
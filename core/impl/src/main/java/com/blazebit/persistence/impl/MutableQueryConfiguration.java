@@ -39,16 +39,19 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
     private boolean valuesClauseFilterNullsEnabled;
     private boolean parameterAsLiteralRenderingEnabled;
     private boolean optimizedKeysetPredicateRenderingEnabled;
+    private boolean parameterListPaddingEnabled;
     private boolean cacheable;
     private Boolean inlineIdQuery;
     private Boolean inlineCountQuery;
     private Boolean inlineCtes;
     private boolean queryPlanCacheEnabled;
+    private final int queryPlanCacheMaxSize;
 
     public MutableQueryConfiguration(QueryConfiguration queryConfiguration) {
         this.compatibleModeEnabled = queryConfiguration.isCompatibleModeEnabled();
         this.expressionOptimizationEnabled = queryConfiguration.isExpressionOptimizationEnabled();
         this.expressionCacheClass = queryConfiguration.getExpressionCacheClass();
+        this.queryPlanCacheMaxSize = queryConfiguration.getQueryPlanCacheMaxSize();
         this.returningClauseCaseSensitive = queryConfiguration.isReturningClauseCaseSensitive();
         this.sizeToCountTransformationEnabled = queryConfiguration.isCountTransformationEnabled();
         this.implicitGroupByFromSelectEnabled = queryConfiguration.isImplicitGroupByFromSelectEnabled();
@@ -57,6 +60,7 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
         this.valuesClauseFilterNullsEnabled = queryConfiguration.isValuesClauseFilterNullsEnabled();
         this.parameterAsLiteralRenderingEnabled = queryConfiguration.isParameterAsLiteralRenderingEnabled();
         this.optimizedKeysetPredicateRenderingEnabled = queryConfiguration.isOptimizedKeysetPredicateRenderingEnabled();
+        this.parameterListPaddingEnabled = queryConfiguration.isParameterListPaddingEnabled();
         this.cacheable = queryConfiguration.isCacheable();
         this.inlineIdQuery = queryConfiguration.getInlineIdQueryEnabled();
         this.inlineCountQuery = queryConfiguration.getInlineCountQueryEnabled();
@@ -83,6 +87,11 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
         return expressionCacheClass;
     }
 
+    @Override
+    public int getQueryPlanCacheMaxSize() {
+        return queryPlanCacheMaxSize;
+    }
+
     @Override
     public boolean isCountTransformationEnabled() {
         return sizeToCountTransformationEnabled;
@@ -118,6 +127,11 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
         return optimizedKeysetPredicateRenderingEnabled;
     }
 
+    @Override
+    public boolean isParameterListPaddingEnabled() {
+        return parameterListPaddingEnabled;
+    }
+
     @Override
     public Boolean getInlineIdQueryEnabled() {
         return inlineIdQuery;
@@ -170,10 +184,14 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
             case ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS:            valuesClauseFilterNullsEnabled = booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING:        parameterAsLiteralRenderingEnabled = booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING:  optimizedKeysetPredicateRenderingEnabled = booleanOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.PARAMETER_LIST_PADDING:                parameterListPaddingEnabled = booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.INLINE_ID_QUERY:                       inlineIdQuery = "auto".equalsIgnoreCase(propertyValue) ? null : booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.INLINE_COUNT_QUERY:                    inlineCountQuery = "auto".equalsIgnoreCase(propertyValue) ? null : booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.INLINE_CTES:                           inlineCtes = "auto".equalsIgnoreCase(propertyValue) ? null : booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED:              queryPlanCacheEnabled = booleanOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.QUERY_PLAN_CACHE_MAX_SIZE:             throw propertySetNotAllowed(propertyName);
+            case ConfigurationProperties.COUNT_QUERY_CACHE_MAX_SIZE:            throw propertySetNotAllowed(propertyName);
+            case ConfigurationProperties.COUNT_QUERY_CACHE_TTL:                 throw propertySetNotAllowed(propertyName);
             default: break;
         }
         // CHECKSTYLE:ON: OneStatementPerLine
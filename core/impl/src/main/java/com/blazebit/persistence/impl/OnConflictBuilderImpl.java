@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.OnConflictBuilder;
+
+/**
+ *
+ * @param <X> The result type
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class OnConflictBuilderImpl<X> implements OnConflictBuilder<X> {
+
+    private final BaseInsertCriteriaBuilderImpl<?, ?, ?> builder;
+    private final X result;
+    private final String[] conflictAttributes;
+
+    public OnConflictBuilderImpl(BaseInsertCriteriaBuilderImpl<?, ?, ?> builder, X result, String[] conflictAttributes) {
+        this.builder = builder;
+        this.result = result;
+        this.conflictAttributes = conflictAttributes;
+    }
+
+    @Override
+    public X doNothing() {
+        builder.setConflictHandling(conflictAttributes, null);
+        return result;
+    }
+
+    @Override
+    public X doUpdate(String... attributes) {
+        if (attributes == null) {
+            throw new NullPointerException("attributes");
+        }
+        builder.setConflictHandling(conflictAttributes, attributes);
+        return result;
+    }
+}
@@ -42,6 +42,7 @@ import com.blazebit.persistence.impl.function.limit.LimitFunction;
 import com.blazebit.persistence.impl.function.pageposition.PagePositionFunction;
 import com.blazebit.persistence.impl.function.querywrapper.QueryWrapperFunction;
 import com.blazebit.persistence.impl.function.rowvalue.RowValueSubqueryComparisonFunction;
+import com.blazebit.persistence.impl.function.rowvalue.RowValueSubqueryExistsFunction;
 import com.blazebit.persistence.impl.keyset.KeysetMode;
 import com.blazebit.persistence.impl.keyset.KeysetPaginationHelper;
 import com.blazebit.persistence.impl.keyset.SimpleKeysetLink;
@@ -60,14 +61,18 @@ import com.blazebit.persistence.parser.expression.NumericType;
 import com.blazebit.persistence.parser.expression.PathExpression;
 import com.blazebit.persistence.parser.expression.StringLiteral;
 import com.blazebit.persistence.parser.expression.SubqueryExpression;
+import com.blazebit.persistence.parser.expression.VisitorAdapter;
 import com.blazebit.persistence.parser.predicate.CompoundPredicate;
 import com.blazebit.persistence.parser.predicate.EqPredicate;
 import com.blazebit.persistence.parser.predicate.InPredicate;
 import com.blazebit.persistence.parser.predicate.Predicate;
 import com.blazebit.persistence.spi.AttributeAccessor;
+import com.blazebit.persistence.spi.QueryPhase;
 
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.Parameter;
 import javax.persistence.TypedQuery;
+import javax.persistence.metamodel.EntityType;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -75,6 +80,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -94,11 +100,15 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     private boolean keysetExtraction;
     private boolean withExtractAllKeysets = false;
     private boolean withCountQuery = true;
+    private boolean withCountQueryCache = false;
+    private boolean withEstimatedCount = false;
+    private EntityManagerFactory parallelCountEntityManagerFactory;
     private boolean withForceIdQuery = false;
     private Boolean withInlineIdQuery;
     private boolean withInlineCountQuery;
     private long maximumCount = Long.MAX_VALUE;
     private int highestOffset = 0;
+    private int keysetPrefetch = 0;
     private final KeysetPage keysetPage;
     private final ResolvedExpression[] identifierExpressions;
 
@@ -169,8 +179,12 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         builder.withKeysetExtraction(keysetExtraction);
         builder.withExtractAllKeysets(withExtractAllKeysets);
         builder.withCountQuery(withCountQuery);
+        builder.withCountQueryCache(withCountQueryCache);
+        builder.withEstimatedCount(withEstimatedCount);
+        builder.withParallelCountQuery(parallelCountEntityManagerFactory);
         builder.withForceIdQuery(withForceIdQuery);
         builder.withHighestKeysetOffset(highestOffset);
+        builder.withKeysetPrefetch(keysetPrefetch);
         return builder;
     }
 
@@ -303,6 +317,60 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         return withCountQuery;
     }
 
+    @Override
+    public PaginatedCriteriaBuilder<T> withCountQueryCache(boolean withCountQueryCache) {
+        if (withCountQueryCache) {
+            if (entityId != null) {
+                throw new IllegalStateException("Can't use the count query cache when paginating to a page by entity id!");
+            }
+            // An inlined count query always computes the count, so we have to use a separate count query
+            withInlineCountQuery(false);
+        }
+        this.withCountQueryCache = withCountQueryCache;
+        return this;
+    }
+
+    @Override
+    public boolean isWithCountQueryCache() {
+        return withCountQueryCache;
+    }
+
+    @Override
+    public PaginatedCriteriaBuilder<T> withEstimatedCount(boolean withEstimatedCount) {
+        if (withEstimatedCount) {
+            if (entityId != null) {
+                throw new IllegalStateException("Can't use estimated counts when paginating to a page by entity id!");
+            }
+            // An inlined count query always computes the count, so we have to use a separate count query
+            withInlineCountQuery(false);
+        }
+        this.withEstimatedCount = withEstimatedCount;
+        return this;
+    }
+
+    @Override
+    public boolean isWithEstimatedCount() {
+        return withEstimatedCount;
+    }
+
+    @Override
+    public PaginatedCriteriaBuilder<T> withParallelCountQuery(EntityManagerFactory entityManagerFactory) {
+        if (entityManagerFactory != null) {
+            if (entityId != null) {
+                throw new IllegalStateException("Can't use a parallel count query when paginating to a page by entity id!");
+            }
+            // An inlined count query can't be executed concurrently, so we have to use a separate count query
+            withInlineCountQuery(false);
+        }
+        this.parallelCountEntityManagerFactory = entityManagerFactory;
+        return this;
+    }
+
+    @Override
+    public EntityManagerFactory getParallelCountQueryEntityManagerFactory() {
+        return parallelCountEntityManagerFactory;
+    }
+
     @Override
     public PaginatedCriteriaBuilder<T> withBoundedCount(long maximumCount) {
         if (this.maximumCount != maximumCount) {
@@ -339,6 +407,30 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         return highestOffset;
     }
 
+    @Override
+    public PaginatedCriteriaBuilder<T> withKeysetPrefetch(int prefetchSize) {
+        if (prefetchSize < 0) {
+            throw new IllegalArgumentException("prefetchSize may not be negative");
+        }
+        if (prefetchSize > 0) {
+            // The prefetched rows are read from the id query which must also contain the keyset and no count
+            withInlineIdQuery(false);
+            withInlineCountQuery(false);
+            if (!keysetExtraction || !withForceIdQuery) {
+                prepareForModification(ClauseType.SELECT);
+            }
+            this.keysetExtraction = true;
+            this.withForceIdQuery = true;
+        }
+        this.keysetPrefetch = prefetchSize;
+        return this;
+    }
+
+    @Override
+    public int getKeysetPrefetch() {
+        return keysetPrefetch;
+    }
+
     @Override
     public PaginatedCriteriaBuilder<T> withInlineIdQuery(boolean withInlineIdQuery) {
         if (withInlineIdQuery) {
@@ -346,12 +438,8 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
                 throw new IllegalStateException("Can't inline the id query because the JPA provider does not support subqueries in functions");
             } else if (!mainQuery.jpaProvider.supportsSubqueryAliasShadowing()) {
                 throw new IllegalStateException("Can't inline the id query because the JPA provider does not support subquery alias shadowing!");
-            } else if ((!mainQuery.dbmsDialect.supportsRowValueConstructor() || !mainQuery.jpaProvider.supportsNonScalarSubquery()) && getIdentifierExpressionsToUse().length != 1) {
-                if (!mainQuery.jpaProvider.supportsNonScalarSubquery()) {
-                    throw new IllegalStateException("Can't inline the id query because pagination is based on multiple identifier expressions but the JPA provider does not support non-scalar subqueries!");
-                } else {
-                    throw new IllegalStateException("Can't inline the id query because pagination is based on multiple identifier expressions but the database does not support the row value constructor syntax!");
-                }
+            } else if (!mainQuery.jpaProvider.supportsNonScalarSubquery() && getIdentifierExpressionsToUse().length != 1) {
+                throw new IllegalStateException("Can't inline the id query because pagination is based on multiple identifier expressions but the JPA provider does not support non-scalar subqueries!");
             }
         }
         if (this.withInlineIdQuery != null && this.withInlineIdQuery != withInlineIdQuery) {
@@ -366,7 +454,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         if (withInlineIdQuery == null) {
             // To support EclipseLink, we first need a way to get around the subquery alias shadowing issue i.e. an automatic renaming
             // TODO: we could emulate the LIMIT function with window functions to get around jpaProvider.supportsSubqueryInFunction() for EclipseLink
-            // TODO: we could emulate row value constructor support by using an EXISTS predicate and a nested subquery for Oracle and MSSQL and EclipseLink
+            // Without row value constructor support, the id query can only be inlined through an EXISTS predicate emulation which has to be enabled explicitly
             if (mainQuery.getQueryConfiguration().getInlineIdQueryEnabled() == null) {
                 withInlineIdQuery = mainQuery.jpaProvider.supportsSubqueryInFunction() && mainQuery.jpaProvider.supportsSubqueryAliasShadowing()
                         && (getIdentifierExpressionsToUse().length == 1 || mainQuery.dbmsDialect.supportsRowValueConstructor() && mainQuery.jpaProvider.supportsNonScalarSubquery());
@@ -389,6 +477,12 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
                 throw new IllegalStateException("Can't inline the count query when paginating to a page by entity id!");
             } else if (!mainQuery.jpaProvider.supportsSubqueryAliasShadowing()) {
                 throw new IllegalStateException("Can't inline the count query because the JPA provider does not support subquery alias shadowing!");
+            } else if (withCountQueryCache) {
+                throw new IllegalStateException("Can't inline the count query when the count query cache is used!");
+            } else if (withEstimatedCount) {
+                throw new IllegalStateException("Can't inline the count query when estimated counts are used!");
+            } else if (parallelCountEntityManagerFactory != null) {
+                throw new IllegalStateException("Can't inline the count query when a parallel count query is used!");
             }
         }
         if (this.withInlineCountQuery != withInlineCountQuery) {
@@ -518,6 +612,13 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
 
     @Override
     public PaginatedTypedQueryImpl<T> getQuery() {
+        long start = startInstrumentation();
+        PaginatedTypedQueryImpl<T> query = buildPaginatedQuery();
+        endInstrumentation(QueryPhase.BUILD, start);
+        return query;
+    }
+
+    private PaginatedTypedQueryImpl<T> buildPaginatedQuery() {
         prepareAndCheck();
         // We can only use the query directly if we have no ctes, entity functions or hibernate bugs
         Set<JoinNode> keyRestrictedLeftJoins = getKeyRestrictedLeftJoins();
@@ -582,6 +683,40 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             objectBuilder = entry.getValue();
             inlinedIdQuery = isWithInlineIdQuery() && (hasCollections || withForceIdQuery);
         }
+        CountQueryCacheImpl countQueryCache = null;
+        String countQueryCacheString = null;
+        Set<Class<?>> countQueryEntityTypes = null;
+        if (withCountQueryCache && firstResult < maximumCount && withCountQuery) {
+            countQueryCache = mainQuery.cbf.getCountQueryCache();
+            // The external representation also contains the CTEs, so it identifies the count query
+            countQueryCacheString = getExternalPageCountQueryString();
+            countQueryEntityTypes = getCountQueryEntityTypes();
+        }
+        EstimatedCountQuery estimatedCountQuery = null;
+        // Only the SQL of a plain JPQL count query can be explained
+        if (withEstimatedCount && firstResult < maximumCount && withCountQuery && normalQueryMode && isEmpty(keyRestrictedLeftJoins, COUNT_QUERY_CLAUSE_EXCLUSIONS)
+                && mainQuery.cbf.getExtendedQuerySupport() != null) {
+            estimatedCountQuery = new EstimatedCountQuery(
+                    em,
+                    mainQuery.cbf,
+                    mainQuery.dbmsDialect,
+                    maximumCount == Long.MAX_VALUE ? null : countQueryString
+            );
+        }
+        ParallelCountQuery parallelCountQuery = null;
+        // Only a plain JPQL count query can be recreated on a different entity manager
+        if (parallelCountEntityManagerFactory != null && firstResult < maximumCount && withCountQuery && normalQueryMode && maximumCount == Long.MAX_VALUE
+                && isEmpty(keyRestrictedLeftJoins, COUNT_QUERY_CLAUSE_EXCLUSIONS)) {
+            parallelCountQuery = new ParallelCountQuery(
+                    parallelCountEntityManagerFactory,
+                    mainQuery.cbf.getParallelCountQueryExecutor(),
+                    countQueryString,
+                    mainQuery.metamodel,
+                    mainQuery.jpaProvider,
+                    isCacheable(),
+                    parameterManager.getParameterImpls()
+            );
+        }
         PaginatedTypedQueryImpl<T> query = new PaginatedTypedQueryImpl<>(
                 withExtractAllKeysets,
                 firstResult < maximumCount && withCountQuery,
@@ -603,14 +738,66 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
                 keysetPage,
                 forceFirstResult,
                 inlinedIdQuery,
-                inlinedCountQuery
+                inlinedCountQuery,
+                countQueryCache,
+                countQueryCacheString,
+                countQueryEntityTypes,
+                estimatedCountQuery,
+                highestOffset == 0 ? keysetPrefetch : 0,
+                parallelCountQuery
         );
         return query;
     }
 
+    private Set<Class<?>> getCountQueryEntityTypes() {
+        Set<Class<?>> entityTypes = new HashSet<>();
+        for (CTEInfo cteInfo : mainQuery.cteManager.getCtes()) {
+            entityTypes.add(cteInfo.cteType.getJavaType());
+            collectEntityTypes(entityTypes, cteInfo.nonRecursiveCriteriaBuilder);
+            if (cteInfo.recursiveCriteriaBuilder != null) {
+                collectEntityTypes(entityTypes, cteInfo.recursiveCriteriaBuilder);
+            }
+        }
+        collectEntityTypes(entityTypes, this);
+        return entityTypes;
+    }
+
+    private static void collectEntityTypes(final Set<Class<?>> entityTypes, AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder) {
+        if (queryBuilder instanceof BaseFinalSetOperationBuilderImpl<?, ?, ?>) {
+            SetOperationManager setOperationManager = ((BaseFinalSetOperationBuilderImpl<?, ?, ?>) queryBuilder).setOperationManager;
+            if (setOperationManager.getStartQueryBuilder() != null) {
+                collectEntityTypes(entityTypes, setOperationManager.getStartQueryBuilder());
+            }
+            for (AbstractCommonQueryBuilder<?, ?, ?, ?, ?> setOperation : setOperationManager.getSetOperations()) {
+                collectEntityTypes(entityTypes, setOperation);
+            }
+        }
+        queryBuilder.joinManager.acceptVisitor(new JoinNodeVisitor() {
+            @Override
+            public void visit(JoinNode node) {
+                if (node.getType() instanceof EntityType<?>) {
+                    entityTypes.add(node.getType().getJavaType());
+                }
+            }
+        });
+        // Subqueries e.g. in the WHERE clause also restrict the count, so their entity types must invalidate the cached count too
+        queryBuilder.applyVisitor(new VisitorAdapter() {
+            @Override
+            public void visit(SubqueryExpression expression) {
+                if (expression.getSubquery() instanceof AbstractCommonQueryBuilder<?, ?, ?, ?, ?>) {
+                    collectEntityTypes(entityTypes, (AbstractCommonQueryBuilder<?, ?, ?, ?, ?>) expression.getSubquery());
+                }
+            }
+        });
+    }
+
     @Override
     public PagedList<T> getResultList() {
-        return getQuery().getResultList();
+        PaginatedTypedQueryImpl<T> query = getQuery();
+        long start = startInstrumentation();
+        PagedList<T> resultList = query.getResultList();
+        endInstrumentation(QueryPhase.EXECUTE, start);
+        return resultList;
     }
 
     @Override
@@ -1000,7 +1187,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         }
 
         if (transformerObjectBuilder != null) {
-            query = new ObjectBuilderTypedQuery<>(query, query instanceof AbstractCustomQuery<?> ? null : parameterManager.getCriteriaNameMapping(), transformerObjectBuilder);
+            query = new ObjectBuilderTypedQuery<>(query, query instanceof AbstractCustomQuery<?> ? null : parameterManager.getCriteriaNameMapping(), transformerObjectBuilder, cbf.getQueryInstrumentation());
         } else if (parameterManager.getCriteriaNameMapping() != null) {
             if (!(query instanceof CustomSQLTypedQuery<?>)) {
                 query = new TypedQueryWrapper<>(query, parameterManager.getCriteriaNameMapping());
@@ -1169,7 +1356,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         queryGenerator.setClauseType(ClauseType.SELECT);
         ResolvedExpression[] identifierExpressionsToUse = getIdentifierExpressionsToUse();
 
-        if (aliasFunction && !externalRepresentation && needsNewIdList) {
+        if (aliasFunction && !externalRepresentation && (needsNewIdList || isRowValueExistsEmulation(identifierExpressionsToUse.length))) {
             for (int i = 0; i < identifierExpressionsToUse.length; i++) {
                 sbSelectFrom.append(mainQuery.jpaProvider.getCustomFunctionInvocation(AliasFunction.FUNCTION_NAME, 1));
                 identifierExpressionsToUse[i].getExpression().accept(queryGenerator);
@@ -1542,6 +1729,26 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
                 } else if (!mainQuery.jpaProvider.supportsSubqueryLimitOffset()) {
                     sbSelectFrom.append(')');
                 }
+            } else if (isRowValueExistsEmulation(identifierExpressions.length)) {
+                // The subquery select items are aliased with synthetic column names which are compared to the identifiers
+                sbSelectFrom.append(mainQuery.jpaProvider.getCustomFunctionInvocation(RowValueSubqueryExistsFunction.FUNCTION_NAME, 1));
+                for (int j = 0; j < identifierExpressions.length; j++) {
+                    identifierExpressions[j].getExpression().accept(queryGenerator);
+                    sbSelectFrom.append(',');
+                }
+
+                if (mainQuery.jpaProvider.supportsSubqueryLimitOffset()) {
+                    appendPageIdQueryAsSubquery(sbSelectFrom, externalRepresentation);
+                } else {
+                    sbSelectFrom.append(mainQuery.jpaProvider.getCustomFunctionInvocation(LimitFunction.FUNCTION_NAME, 1));
+                    appendPageIdQueryAsSubquery(sbSelectFrom, externalRepresentation);
+                    sbSelectFrom.append(',').append(maxResults);
+                    if (firstResult != 0 && (keysetMode == KeysetMode.NONE || keysetManager.getKeysetLink().getKeyset().getTuple() == null)) {
+                        sbSelectFrom.append(',').append(firstResult);
+                    }
+                    sbSelectFrom.append(')');
+                }
+                sbSelectFrom.append(") = 0");
             } else {
                 sbSelectFrom.append(mainQuery.jpaProvider.getCustomFunctionInvocation(RowValueSubqueryComparisonFunction.FUNCTION_NAME, 1))
                         .append('\'').append("IN").append('\'');
@@ -1580,6 +1787,10 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         queryGenerator.setQueryBuffer(original);
     }
 
+    private boolean isRowValueExistsEmulation(int identifierCount) {
+        return identifierCount > 1 && !mainQuery.dbmsDialect.supportsRowValueConstructor();
+    }
+
     @Override
     public PaginatedCriteriaBuilder<T> distinct() {
         throw new IllegalStateException("Calling distinct() on a PaginatedCriteriaBuilder is not allowed.");
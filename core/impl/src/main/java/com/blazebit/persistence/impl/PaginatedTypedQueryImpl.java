@@ -16,14 +16,17 @@
 
 package com.blazebit.persistence.impl;
 
+import com.blazebit.persistence.Keyset;
 import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.PagedArrayList;
 import com.blazebit.persistence.PagedList;
 import com.blazebit.persistence.PaginatedTypedQuery;
+import com.blazebit.persistence.PrefetchedKeysetPage;
 import com.blazebit.persistence.impl.builder.object.CountExtractionObjectBuilder;
 import com.blazebit.persistence.impl.builder.object.KeysetExtractionObjectBuilder;
 import com.blazebit.persistence.impl.keyset.KeysetMode;
+import com.blazebit.persistence.DefaultKeyset;
 import com.blazebit.persistence.DefaultKeysetPage;
 import com.blazebit.persistence.impl.keyset.KeysetPaginationHelper;
 import com.blazebit.persistence.impl.util.SetView;
@@ -50,6 +53,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 /**
  * @author Christian Beikov
@@ -81,9 +85,17 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
     private final boolean forceFirstResult;
     private final boolean inlinedIdQuery;
     private final boolean inlinedCountQuery;
+    private final CountQueryCacheImpl countQueryCache;
+    private final String countQueryCacheString;
+    private final Set<Class<?>> countQueryEntityTypes;
+    private final EstimatedCountQuery estimatedCountQuery;
+    private final int keysetPrefetch;
+    private final ParallelCountQuery parallelCountQuery;
 
     public PaginatedTypedQueryImpl(boolean withExtractAllKeysets, boolean withCount, boolean boundedCount, int highestOffset, TypedQuery<?> countQuery, TypedQuery<?> idQuery, TypedQuery<X> objectQuery, ObjectBuilder<X> objectBuilder, Collection<ParameterManager.ParameterImpl<?>> parameters, Map<ParameterExpression<?>, String> criteriaNameMapping,
-                                   Object entityId, int firstResult, int pageSize, int identifierCount, boolean needsNewIdList, int[] keysetToSelectIndexMapping, KeysetMode keysetMode, KeysetPage keysetPage, boolean forceFirstResult, boolean inlinedIdQuery, boolean inlinedCountQuery) {
+                                   Object entityId, int firstResult, int pageSize, int identifierCount, boolean needsNewIdList, int[] keysetToSelectIndexMapping, KeysetMode keysetMode, KeysetPage keysetPage, boolean forceFirstResult, boolean inlinedIdQuery, boolean inlinedCountQuery,
+                                   CountQueryCacheImpl countQueryCache, String countQueryCacheString, Set<Class<?>> countQueryEntityTypes, EstimatedCountQuery estimatedCountQuery, int keysetPrefetch,
+                                   ParallelCountQuery parallelCountQuery) {
         this.withExtractAllKeysets = withExtractAllKeysets;
         this.withCount = withCount;
         this.boundedCount = boundedCount;
@@ -104,6 +116,12 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         this.forceFirstResult = forceFirstResult;
         this.inlinedIdQuery = inlinedIdQuery;
         this.inlinedCountQuery = inlinedCountQuery;
+        this.countQueryCache = countQueryCache;
+        this.countQueryCacheString = countQueryCacheString;
+        this.countQueryEntityTypes = countQueryEntityTypes;
+        this.estimatedCountQuery = estimatedCountQuery;
+        this.keysetPrefetch = keysetPrefetch;
+        this.parallelCountQuery = parallelCountQuery;
         this.criteriaNameMapping = criteriaNameMapping;
 
         Map<String, Parameter<?>> params = new HashMap<>(parameters.size());
@@ -176,7 +194,55 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
 
     @Override
     public long getTotalCount() {
-        return ((Number) countQuery.getSingleResult()).longValue();
+        if (countQueryCache != null) {
+            Long cachedCount = countQueryCache.get(getCountQueryCacheKey());
+            if (cachedCount != null) {
+                return cachedCount;
+            }
+        }
+        return executeCountQuery();
+    }
+
+    private long executeCountQuery() {
+        long count = ((Number) countQuery.getSingleResult()).longValue();
+        if (countQueryCache != null) {
+            countQueryCache.put(getCountQueryCacheKey(), count, countQueryEntityTypes);
+        }
+        return count;
+    }
+
+    private PrefetchedKeysetPage getPrefetchedKeysetPage(int firstRow) {
+        // The identifiers can only be reused if the keyset page was prefetched for exactly the rows that follow
+        if (keysetPrefetch == 0 || keysetMode != KeysetMode.NEXT || forceFirstResult || !(keysetPage instanceof PrefetchedKeysetPage)
+                || keysetPage.getFirstResult() + keysetPage.getMaxResults() != firstRow) {
+            return null;
+        }
+        PrefetchedKeysetPage prefetchedKeysetPage = (PrefetchedKeysetPage) keysetPage;
+        if (prefetchedKeysetPage.getPrefetchedIds().size() < pageSize && !prefetchedKeysetPage.isPrefetchedAll()) {
+            return null;
+        }
+        return prefetchedKeysetPage;
+    }
+
+    private Object extractId(Object row) {
+        if (identifierCount > 1) {
+            Object[] tuple = (Object[]) row;
+            Object[] id = new Object[identifierCount];
+            System.arraycopy(tuple, 0, id, 0, identifierCount);
+            return id;
+        } else if (row instanceof Object[]) {
+            return ((Object[]) row)[0];
+        }
+        return row;
+    }
+
+    private CountQueryCacheImpl.Key getCountQueryCacheKey() {
+        Set<Parameter<?>> countQueryParameters = countQuery.getParameters();
+        Map<String, Object> parameterValues = new HashMap<>(countQueryParameters.size());
+        for (Parameter<?> parameter : countQueryParameters) {
+            parameterValues.put(getParameterName(parameter), countQuery.isBound(parameter) ? countQuery.getParameterValue(parameter) : null);
+        }
+        return countQueryCache.createKey(countQueryCacheString, parameterValues);
     }
 
     @Override
@@ -192,9 +258,35 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         int queryFirstResult = firstResult;
         int firstRow = firstResult;
         long totalSize = -1L;
+        boolean totalSizeCached = false;
+        boolean totalSizeEstimated = false;
         if (withCount && !inlinedCountQuery) {
             if (entityId == null) {
-                totalSize = ((Number) countQuery.getSingleResult()).longValue();
+                if (estimatedCountQuery != null) {
+                    long estimatedCount = estimatedCountQuery.getEstimatedCount(countQuery);
+                    // Missing statistics or an empty table estimate are unreliable, so we rather count in that case
+                    if (estimatedCount > 0L) {
+                        totalSize = estimatedCount;
+                        totalSizeEstimated = true;
+                    }
+                }
+                if (!totalSizeEstimated && countQueryCache != null) {
+                    Long cachedCount = countQueryCache.get(getCountQueryCacheKey());
+                    if (cachedCount != null) {
+                        totalSize = cachedCount;
+                        totalSizeCached = true;
+                    }
+                }
+                if (!totalSizeEstimated && !totalSizeCached) {
+                    if (parallelCountQuery != null) {
+                        Future<Long> countFuture = parallelCountQuery.submit(countQuery, criteriaNameMapping);
+                        // If all threads for parallel count queries are busy, we rather count sequentially than waiting for another connection
+                        if (countFuture != null) {
+                            return getResultListWithParallelCount(countFuture, queryFirstResult, firstRow);
+                        }
+                    }
+                    totalSize = executeCountQuery();
+                }
             } else {
                 Object[] result = (Object[]) countQuery.getSingleResult();
                 totalSize = ((Number) result[0]).longValue();
@@ -212,24 +304,68 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         }
 
         if (totalSize == 0L) {
-            return new PagedArrayList<X>(null, totalSize, queryFirstResult, pageSize);
+            return new PagedArrayList<X>(null, totalSize, totalSizeCached, totalSizeEstimated, queryFirstResult, pageSize);
         }
 
-        return getResultList(queryFirstResult, firstRow, totalSize);
+        return getResultList(queryFirstResult, firstRow, totalSize, totalSizeCached, totalSizeEstimated);
     }
 
     private PagedList<X> getResultList(int queryFirstResult, int firstRow, long totalSize) {
+        return getResultList(queryFirstResult, firstRow, totalSize, false, false);
+    }
+
+    private PagedList<X> getResultListWithParallelCount(Future<Long> countFuture, int queryFirstResult, int firstRow) {
+        PagedList<X> resultList;
+        try {
+            // The total size is only known after the count query finished, so we must not count again if the page is empty
+            resultList = getResultList(queryFirstResult, firstRow, -1L, false, false, false);
+        } catch (RuntimeException ex) {
+            countFuture.cancel(true);
+            throw ex;
+        }
+        Long count = parallelCountQuery.getCount(countFuture);
+        long totalSize;
+        if (count == null) {
+            // The count query didn't finish in time e.g. because it is waiting for a connection, so we count on our own connection
+            totalSize = executeCountQuery();
+        } else {
+            totalSize = count;
+            if (countQueryCache != null) {
+                countQueryCache.put(getCountQueryCacheKey(), totalSize, countQueryEntityTypes);
+            }
+        }
+        if (totalSize == 0L) {
+            return new PagedArrayList<X>(null, totalSize, queryFirstResult, pageSize);
+        }
+        totalSize = Math.max(totalSize, firstRow + resultList.size());
+        return new PagedArrayList<X>(resultList, resultList.getKeysetPage(), totalSize, false, false, queryFirstResult, pageSize);
+    }
+
+    private PagedList<X> getResultList(int queryFirstResult, int firstRow, long totalSize, boolean totalSizeCached, boolean totalSizeEstimated) {
+        return getResultList(queryFirstResult, firstRow, totalSize, totalSizeCached, totalSizeEstimated, withCount);
+    }
+
+    private PagedList<X> getResultList(int queryFirstResult, int firstRow, long totalSize, boolean totalSizeCached, boolean totalSizeEstimated, boolean countIfEmpty) {
         if (idQuery != null) {
-            idQuery.setMaxResults(pageSize);
+            PrefetchedKeysetPage prefetchedKeysetPage = getPrefetchedKeysetPage(firstRow);
+            // When going to the previous page, the id query returns the rows in reverse order, so we only prefetch when going forward
+            boolean prefetch = keysetPrefetch > 0 && keysetMode != KeysetMode.PREVIOUS;
+            List<?> ids;
+            if (prefetchedKeysetPage == null) {
+                idQuery.setMaxResults(prefetch ? pageSize + keysetPrefetch : pageSize);
 
-            if (forceFirstResult || keysetMode == KeysetMode.NONE) {
-                idQuery.setFirstResult(firstRow);
+                if (forceFirstResult || keysetMode == KeysetMode.NONE) {
+                    idQuery.setFirstResult(firstRow);
+                } else {
+                    idQuery.setFirstResult(0);
+                }
+
+                ids = idQuery.getResultList();
             } else {
-                idQuery.setFirstResult(0);
+                List<Serializable> prefetchedIds = prefetchedKeysetPage.getPrefetchedIds();
+                ids = prefetchedIds.subList(0, Math.min(pageSize, prefetchedIds.size()));
             }
 
-            List<?> ids = idQuery.getResultList();
-
             if (ids.isEmpty()) {
                 KeysetPage newKeysetPage = null;
                 if (keysetMode == KeysetMode.NEXT) {
@@ -237,7 +373,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                     newKeysetPage = keysetPage;
                 }
                 long size;
-                if (withCount && totalSize == -1) {
+                if (countIfEmpty && totalSize == -1) {
                     size = getTotalCount();
                 } else {
                     size = totalSize;
@@ -249,14 +385,52 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                         size = Math.max(size, firstRow);
                     }
                 }
-                return new PagedArrayList<X>(newKeysetPage, size, queryFirstResult, pageSize);
+                return new PagedArrayList<X>(newKeysetPage, size, totalSizeCached, totalSizeEstimated, queryFirstResult, pageSize);
             }
 
             Serializable[] lowest = null;
             Serializable[] highest = null;
             Serializable[][] keysets = null;
+            List<Serializable> prefetchedIds = null;
+            List<Keyset> prefetchedKeysets = null;
+            boolean prefetchedAll = false;
+
+            if (prefetchedKeysetPage != null) {
+                // The prefetched identifiers are already extracted, so we only have to take the keysets for the page
+                List<Keyset> remainingKeysets = prefetchedKeysetPage.getPrefetchedKeysets();
+                int size = ids.size();
+                lowest = remainingKeysets.get(0).getTuple();
+                highest = remainingKeysets.get(size - 1).getTuple();
+                if (withExtractAllKeysets) {
+                    keysets = new Serializable[size][];
+                    for (int i = 0; i < size; i++) {
+                        keysets[i] = remainingKeysets.get(i).getTuple();
+                    }
+                }
+                List<Serializable> remainingIds = prefetchedKeysetPage.getPrefetchedIds();
+                prefetchedIds = new ArrayList<>(remainingIds.subList(size, remainingIds.size()));
+                prefetchedKeysets = new ArrayList<>(remainingKeysets.subList(size, remainingKeysets.size()));
+                prefetchedAll = prefetchedKeysetPage.isPrefetchedAll();
+            } else if (prefetch) {
+                prefetchedAll = ids.size() < pageSize + keysetPrefetch;
+                int prefetchedSize = Math.max(0, ids.size() - pageSize);
+                prefetchedIds = new ArrayList<>(prefetchedSize);
+                prefetchedKeysets = new ArrayList<>(prefetchedSize);
+                if (prefetchedSize != 0) {
+                    for (int i = pageSize; i < ids.size(); i++) {
+                        Object row = ids.get(i);
+                        prefetchedIds.add((Serializable) extractId(row));
+                        if (row instanceof Object[]) {
+                            prefetchedKeysets.add(new DefaultKeyset(KeysetPaginationHelper.extractKey((Object[]) row, keysetToSelectIndexMapping, keysetSuffix)));
+                        } else {
+                            prefetchedKeysets.add(new DefaultKeyset(new Serializable[]{ (Serializable) row }));
+                        }
+                    }
+                    ids = ids.subList(0, pageSize);
+                }
+            }
 
-            if (needsNewIdList) {
+            if (prefetchedKeysetPage == null && needsNewIdList) {
                 if (keysetToSelectIndexMapping != null) {
                     int keysetPageSize = pageSize - highestOffset;
                     int size = Math.min(ids.size(), keysetPageSize);
@@ -316,26 +490,12 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                     totalSize = (long) first[first.length - 1];
                 }
                 List<Object> newIds = new ArrayList<Object>(ids.size());
-                if (identifierCount > 1) {
-                    for (int i = 0; i < ids.size(); i++) {
-                        Object[] tuple = (Object[]) ids.get(i);
-                        Object newId = new Object[identifierCount];
-                        System.arraycopy(tuple, 0, newId, 0, identifierCount);
-                        newIds.add(newId);
-                    }
-                } else {
-                    for (int i = 0; i < ids.size(); i++) {
-                        Object o = ids.get(i);
-                        if (o instanceof Object[]) {
-                            newIds.add(((Object[]) o)[0]);
-                        } else {
-                            newIds.add(o);
-                        }
-                    }
+                for (int i = 0; i < ids.size(); i++) {
+                    newIds.add(extractId(ids.get(i)));
                 }
 
                 ids = newIds;
-            } else if (inlinedCountQuery) {
+            } else if (prefetchedKeysetPage == null && inlinedCountQuery) {
                 Object[] first = (Object[]) ids.get(0);
                 int newSize = first.length - 1;
                 totalSize = (long) first[first.length - 1];
@@ -381,13 +541,17 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
             KeysetPage newKeyset = null;
 
             if (keysetToSelectIndexMapping != null) {
-                newKeyset = new DefaultKeysetPage(firstRow, pageSize, lowest, highest, keysets);
+                if (prefetchedIds == null) {
+                    newKeyset = new DefaultKeysetPage(firstRow, pageSize, lowest, highest, keysets);
+                } else {
+                    newKeyset = new PrefetchedKeysetPage(firstRow, pageSize, lowest, highest, keysets, prefetchedIds, prefetchedKeysets, prefetchedAll);
+                }
             }
 
             totalSize = Math.max(totalSize, firstRow + ids.size());
             List<X> queryResultList = objectQuery.getResultList();
 
-            PagedList<X> pagedResultList = new PagedArrayList<X>(queryResultList, newKeyset, totalSize, queryFirstResult, pageSize);
+            PagedList<X> pagedResultList = new PagedArrayList<X>(queryResultList, newKeyset, totalSize, totalSizeCached, totalSizeEstimated, queryFirstResult, pageSize);
             return pagedResultList;
         } else {
             if (!inlinedIdQuery) {
@@ -412,7 +576,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                 if (totalSize == -1) {
                     if (inlinedCountQuery && firstRow == 0) {
                         totalSize = 0L;
-                    } else if (withCount) {
+                    } else if (countIfEmpty) {
                         totalSize = getTotalCount();
                     }
                 }
@@ -424,7 +588,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                     }
                 }
 
-                return new PagedArrayList<X>(newKeysetPage, totalSize, queryFirstResult, pageSize);
+                return new PagedArrayList<X>(newKeysetPage, totalSize, totalSizeCached, totalSizeEstimated, queryFirstResult, pageSize);
             }
 
             if (keysetMode == KeysetMode.PREVIOUS) {
@@ -465,7 +629,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
 
             totalSize = Math.max(totalSize, firstRow + result.size());
 
-            PagedList<X> pagedResultList = new PagedArrayList<X>(result, newKeyset, totalSize, queryFirstResult, pageSize);
+            PagedList<X> pagedResultList = new PagedArrayList<X>(result, newKeyset, totalSize, totalSizeCached, totalSizeEstimated, queryFirstResult, pageSize);
             return pagedResultList;
         }
     }
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blazebit.persistence.impl;
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.parser.EntityMetamodel;
+import com.blazebit.persistence.spi.JpaProvider;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Parameter;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+import javax.persistence.criteria.ParameterExpression;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executes a JPQL count query through a separate entity manager on a {@link ParallelCountQueryExecutor}.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class ParallelCountQuery {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ParallelCountQueryExecutor executor;
+    private final String queryString;
+    private final EntityMetamodel metamodel;
+    private final JpaProvider jpaProvider;
+    private final boolean cacheable;
+    private final Map<String, ParameterManager.ParameterImpl<?>> parameters;
+
+    public ParallelCountQuery(EntityManagerFactory entityManagerFactory, ParallelCountQueryExecutor executor, String queryString, EntityMetamodel metamodel, JpaProvider jpaProvider,
+                              boolean cacheable, Collection<ParameterManager.ParameterImpl<?>> parameters) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.executor = executor;
+        this.queryString = queryString;
+        this.metamodel = metamodel;
+        this.jpaProvider = jpaProvider;
+        this.cacheable = cacheable;
+        Map<String, ParameterManager.ParameterImpl<?>> parameterMap = new HashMap<>(parameters.size());
+        for (ParameterManager.ParameterImpl<?> parameter : parameters) {
+            parameterMap.put(parameter.getName() == null ? parameter.getPosition().toString() : parameter.getName(), parameter);
+        }
+        this.parameters = parameterMap;
+    }
+
+    /**
+     * Submits the count query for execution or returns <code>null</code> if the count query has to be executed sequentially.
+     *
+     * @param countQuery The count query of the current entity manager from which the parameter values are taken
+     * @param criteriaNameMapping The mapping of criteria parameters to parameter names
+     * @return The future for the count or <code>null</code>
+     */
+    public Future<Long> submit(Query countQuery, Map<ParameterExpression<?>, String> criteriaNameMapping) {
+        // The parameter values must be read on the calling thread as the count query is not thread safe
+        final Map<String, Object> namedParameterValues = new HashMap<>();
+        final Map<Integer, Object> positionalParameterValues = new HashMap<>();
+        for (Parameter<?> parameter : countQuery.getParameters()) {
+            if (!countQuery.isBound(parameter)) {
+                continue;
+            }
+            String name = parameter.getName();
+            if (name == null && criteriaNameMapping != null && parameter instanceof ParameterExpression<?>) {
+                name = criteriaNameMapping.get(parameter);
+            }
+            // The bound values already went through the parameter value transformers, so we only have to retain the binding type
+            Object value = toBindValue(name == null ? String.valueOf(parameter.getPosition()) : name, countQuery.getParameterValue(parameter));
+            if (name == null) {
+                positionalParameterValues.put(parameter.getPosition(), value);
+            } else {
+                namedParameterValues.put(name, value);
+            }
+        }
+
+        return executor.submit(new Callable<Long>() {
+            @Override
+            public Long call() {
+                EntityManager em = entityManagerFactory.createEntityManager();
+                try {
+                    Query query = em.createQuery(queryString);
+                    if (cacheable) {
+                        jpaProvider.setCacheable(query);
+                    }
+                    for (Map.Entry<String, Object> entry : namedParameterValues.entrySet()) {
+                        Object value = entry.getValue();
+                        if (value instanceof ParameterManager.ParameterValue) {
+                            ((ParameterManager.ParameterValue) value).bind(query, entry.getKey());
+                        } else {
+                            query.setParameter(entry.getKey(), resolveEntityReferences(em, value));
+                        }
+                    }
+                    for (Map.Entry<Integer, Object> entry : positionalParameterValues.entrySet()) {
+                        Object value = entry.getValue();
+                        if (value instanceof ParameterManager.ParameterValue) {
+                            ((ParameterManager.ParameterValue) value).bind(query, entry.getKey());
+                        } else {
+                            query.setParameter(entry.getKey(), resolveEntityReferences(em, value));
+                        }
+                    }
+                    return ((Number) query.getSingleResult()).longValue();
+                } finally {
+                    em.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the count of the given future or <code>null</code> if the count query didn't finish within the timeout,
+     * in which case it is cancelled and the count query has to be executed sequentially.
+     *
+     * @param countFuture The future returned by {@link #submit(Query, Map)}
+     * @return The count or <code>null</code>
+     */
+    public Long getCount(Future<Long> countFuture) {
+        try {
+            return countFuture.get(executor.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            countFuture.cancel(true);
+            return null;
+        } catch (InterruptedException ex) {
+            countFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PersistenceException("Interrupted while waiting for the parallel count query", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PersistenceException("The parallel count query failed", cause);
+        }
+    }
+
+    private Object toBindValue(String parameterName, Object value) {
+        ParameterManager.ParameterImpl<?> parameter = parameters.get(parameterName);
+        ParameterManager.ParameterValue parameterValue = parameter == null ? null : parameter.getParameterValue();
+        if (parameterValue != null && !(parameterValue instanceof ParameterManager.ValuesParameterWrapper)
+                && (value == null || parameterValue.getValueType().isInstance(value))) {
+            // Temporal values must be bound with the same temporal type
+            return parameterValue.copy().withValue(value);
+        }
+        if (value instanceof Collection<?>) {
+            Collection<?> values = (Collection<?>) value;
+            List<Object> list = new ArrayList<>(values.size());
+            for (Object element : values) {
+                list.add(toEntityReference(element));
+            }
+            return list;
+        }
+        return toEntityReference(value);
+    }
+
+    private Object toEntityReference(Object value) {
+        if (value == null) {
+            return null;
+        }
+        // Entities are managed by the persistence context of the calling thread, so we only pass on the identifier
+        for (Class<?> c = value.getClass(); c != Object.class; c = c.getSuperclass()) {
+            if (metamodel.getEntity(c) != null) {
+                Object id = jpaProvider.getIdentifier(value);
+                return id == null ? value : new EntityReference(c, id);
+            }
+        }
+        return value;
+    }
+
+    private static Object resolveEntityReferences(EntityManager em, Object value) {
+        if (value instanceof EntityReference) {
+            return ((EntityReference) value).getReference(em);
+        } else if (value instanceof List<?>) {
+            List<?> values = (List<?>) value;
+            List<Object> list = new ArrayList<>(values.size());
+            for (Object element : values) {
+                list.add(element instanceof EntityReference ? ((EntityReference) element).getReference(em) : element);
+            }
+            return list;
+        }
+        return value;
+    }
+
+    /**
+     * The identifier of an entity that is resolved to a reference in the entity manager of the count query.
+     *
+     * @author Christian Beikov
+     * @since 1.6.9
+     */
+    private static final class EntityReference {
+
+        private final Class<?> entityClass;
+        private final Object id;
+
+        public EntityReference(Class<?> entityClass, Object id) {
+            this.entityClass = entityClass;
+            this.id = id;
+        }
+
+        public Object getReference(EntityManager em) {
+            return em.getReference(entityClass, id);
+        }
+    }
+}
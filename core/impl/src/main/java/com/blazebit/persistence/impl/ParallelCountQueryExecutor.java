@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.ConfigurationProperties;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded executor for parallel count queries that is owned by a criteria builder factory.
+ * Since every running count query holds a connection, the number of concurrently running count queries is bounded and no tasks are queued.
+ * On JDKs that support virtual threads, every count query runs on a new virtual thread and the concurrency is bounded by a semaphore.
+ * On older JDKs, a bounded platform thread pool is used whose idle threads terminate after a keep alive time,
+ * so the executor doesn't retain threads beyond the usage of the factory.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class ParallelCountQueryExecutor {
+
+    public static final int DEFAULT_MAX_THREADS = 4;
+    public static final long DEFAULT_TIMEOUT = 5000L;
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+    private static final String THREAD_NAME_PREFIX = "blaze-persistence-parallel-count-query-";
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = createVirtualThreadFactory();
+
+    private final int maxThreads;
+    private final long timeoutMillis;
+    private final ThreadFactory virtualThreadFactory;
+    private final Semaphore permits;
+    private volatile ThreadPoolExecutor executor;
+
+    public ParallelCountQueryExecutor(Map<String, String> properties) {
+        this(
+                (int) CountQueryCacheImpl.parsePositive(ConfigurationProperties.PARALLEL_COUNT_QUERY_MAX_THREADS, properties.get(ConfigurationProperties.PARALLEL_COUNT_QUERY_MAX_THREADS), DEFAULT_MAX_THREADS),
+                CountQueryCacheImpl.parsePositive(ConfigurationProperties.PARALLEL_COUNT_QUERY_TIMEOUT, properties.get(ConfigurationProperties.PARALLEL_COUNT_QUERY_TIMEOUT), DEFAULT_TIMEOUT)
+        );
+    }
+
+    public ParallelCountQueryExecutor(int maxThreads, long timeoutMillis) {
+        this(maxThreads, timeoutMillis, VIRTUAL_THREAD_FACTORY);
+    }
+
+    ParallelCountQueryExecutor(int maxThreads, long timeoutMillis, ThreadFactory virtualThreadFactory) {
+        this.maxThreads = maxThreads;
+        this.timeoutMillis = timeoutMillis;
+        this.virtualThreadFactory = virtualThreadFactory;
+        this.permits = virtualThreadFactory == null ? null : new Semaphore(maxThreads);
+    }
+
+    /**
+     * Submits the given task for execution or returns <code>null</code> if all threads are busy,
+     * in which case the caller should execute the count query sequentially.
+     *
+     * @param callable The task to execute
+     * @param <T> The result type
+     * @return The future for the task or <code>null</code> if the task was rejected
+     */
+    public <T> FutureTask<T> submit(Callable<T> callable) {
+        if (virtualThreadFactory == null) {
+            FutureTask<T> task = new FutureTask<>(callable);
+            try {
+                getExecutor().execute(task);
+            } catch (RejectedExecutionException ex) {
+                return null;
+            }
+            return task;
+        }
+
+        // Never wait for a permit, as the caller can execute the count query sequentially instead
+        if (!permits.tryAcquire()) {
+            return null;
+        }
+        final FutureTask<T> task = new FutureTask<>(callable);
+        try {
+            virtualThreadFactory.newThread(new Runnable() {
+                @Override
+                public void run() {
+                    // Release the permit only after the count query finished, even if the task was cancelled while running
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                }
+            }).start();
+        } catch (RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+        return task;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Returns whether count queries are executed on virtual threads.
+     *
+     * @return whether count queries are executed on virtual threads
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualThreadFactory != null;
+    }
+
+    private ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor executor = this.executor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = this.executor;
+                if (executor == null) {
+                    final AtomicInteger threadCounter = new AtomicInteger();
+                    executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, THREAD_NAME_PREFIX + threadCounter.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                    executor.allowCoreThreadTimeOut(true);
+                    this.executor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static ThreadFactory createVirtualThreadFactory() {
+        // Virtual threads are only available as of Java 21, so we resolve Thread.ofVirtual().name(prefix, 1).factory() reflectively
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX, 1L);
+            Method factoryMethod = builderClass.getMethod("factory");
+            return (ThreadFactory) factoryMethod.invoke(builder);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+}
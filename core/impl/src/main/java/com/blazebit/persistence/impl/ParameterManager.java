@@ -64,6 +64,7 @@ public class ParameterManager {
     }
 
     private int counter;
+    private final MainQuery mainQuery;
     private final JpaProvider jpaProvider;
     private final EntityMetamodel entityMetamodel;
     private final Map<String, ParameterImpl<?>> parameters = new TreeMap<>();
@@ -73,7 +74,8 @@ public class ParameterManager {
     private Map<javax.persistence.criteria.ParameterExpression<?>, String> criteriaNameMapping;
     private int positionalOffset = -1; // Records the last positional parameter index that was used
 
-    public ParameterManager(JpaProvider jpaProvider, EntityMetamodel entityMetamodel) {
+    public ParameterManager(MainQuery mainQuery, JpaProvider jpaProvider, EntityMetamodel entityMetamodel) {
+        this.mainQuery = mainQuery;
         this.jpaProvider = jpaProvider;
         this.entityMetamodel = entityMetamodel;
         this.parameterRegistrationVisitor = new ParameterRegistrationVisitor(this);
@@ -163,7 +165,8 @@ public class ParameterManager {
             }
 
             parameterMapping.put(oldParameterName, newParameterName);
-            addParameterMapping(newParameterName, paramValue, param.isImplicit());
+            // Retain the collection flag of the parameter as the value might not be set
+            addParameterMapping(newParameterName, paramValue, param.isCollectionValued(), param.isImplicit());
         }
 
         for (Map.Entry<String, String> entry : parameterManager.valuesParameters.entrySet()) {
@@ -214,6 +217,7 @@ public class ParameterManager {
     }
 
     void parameterizeQuery(Query q, String skippedParameterPrefix) {
+        boolean parameterListPadding = mainQuery.getQueryConfiguration().isParameterListPaddingEnabled();
         Set<String> requestedValueParameters = new HashSet<String>();
         for (Parameter<?> p : q.getParameters()) {
             String parameterName = p.getName();
@@ -245,7 +249,7 @@ public class ParameterManager {
                     q.setParameter(parameterName, parameter.getValue());
                 }
             } else {
-                parameter.bind(q);
+                parameter.bind(q, parameterListPadding);
             }
         }
 
@@ -255,6 +259,39 @@ public class ParameterManager {
         }
     }
 
+    /**
+     * Returns the next power of two that is greater or equal to the given size, which is used as size bucket
+     * for collection valued parameters and VALUES clauses when parameter list padding is enabled.
+     *
+     * @param size The size of the collection
+     * @return The padded size
+     */
+    static int getPaddedSize(int size) {
+        if (size < 2) {
+            return size;
+        }
+        int highestOneBit = Integer.highestOneBit(size);
+        if (highestOneBit == size) {
+            return size;
+        }
+        return highestOneBit << 1;
+    }
+
+    static Collection<?> padParameterList(Collection<?> values) {
+        int size = values.size();
+        int paddedSize = getPaddedSize(size);
+        if (size == paddedSize) {
+            return values;
+        }
+        List<Object> list = new ArrayList<>(paddedSize);
+        list.addAll(values);
+        Object lastValue = list.get(size - 1);
+        for (int i = size; i < paddedSize; i++) {
+            list.add(lastValue);
+        }
+        return list;
+    }
+
     public ParameterImpl<?> getParameter(String parameterName) {
         if (parameterName == null) {
             throw new NullPointerException("parameterName");
@@ -365,8 +402,12 @@ public class ParameterManager {
     }
 
     public ParameterExpression addParameterExpression(Object o, ClauseType clause, AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder) {
-        String name = addParameter(o, o instanceof Collection, clause, queryBuilder);
-        return new ParameterExpression(name, o, o instanceof Collection);
+        return addParameterExpression(o, o instanceof Collection, clause, queryBuilder);
+    }
+
+    public ParameterExpression addParameterExpression(Object o, boolean collectionValued, ClauseType clause, AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder) {
+        String name = addParameter(o, collectionValued, clause, queryBuilder);
+        return new ParameterExpression(name, o, collectionValued);
     }
 
     private String addParameter(Object o, boolean collectionValued, ClauseType clause, AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder) {
@@ -379,14 +420,18 @@ public class ParameterManager {
     }
 
     public void addParameterMapping(String parameterName, Object o, boolean implicit) {
+        addParameterMapping(parameterName, o, o instanceof Collection, implicit);
+    }
+
+    private void addParameterMapping(String parameterName, Object o, boolean collectionValued, boolean implicit) {
         if (parameterName == null) {
             throw new NullPointerException("parameterName");
         }
         Integer position = determinePositionalOffset(parameterName);
         if (position == null) {
-            parameters.put(parameterName, new ParameterImpl<>(parameterName, o instanceof Collection, implicit, o));
+            parameters.put(parameterName, new ParameterImpl<>(parameterName, collectionValued, implicit, o));
         } else {
-            parameters.put(parameterName, new ParameterImpl<>(position, o instanceof Collection, implicit, o));
+            parameters.put(parameterName, new ParameterImpl<>(position, collectionValued, implicit, o));
         }
     }
 
@@ -695,6 +740,14 @@ public class ParameterManager {
             }
         }
 
+        /**
+         * Removes the value of the parameter without applying the transformer, so that copies of the query don't retain it.
+         */
+        public void clearValue() {
+            this.valueSet = false;
+            this.value = null;
+        }
+
         @SuppressWarnings("unchecked")
         private T transform(T value) {
             if (value instanceof Collection<?>) {
@@ -725,6 +778,10 @@ public class ParameterManager {
         }
 
         public void bind(Query q) {
+            bind(q, false);
+        }
+
+        public void bind(Query q, boolean parameterListPadding) {
             if (valueSet) {
                 if (value instanceof ParameterValue) {
                     if (name == null) {
@@ -733,10 +790,16 @@ public class ParameterManager {
                         ((ParameterValue) value).bind(q, name);
                     }
                 } else {
+                    Object boundValue = value;
+                    if (parameterListPadding && collectionValued && boundValue instanceof Collection<?>) {
+                        // Repeating the last element keeps the semantics of IN predicates but reduces the distinct query strings
+                        // Only collection valued parameters i.e. parameter lists are padded, not collection values of converted attributes
+                        boundValue = padParameterList((Collection<?>) boundValue);
+                    }
                     if (name == null) {
-                        q.setParameter(position, value);
+                        q.setParameter(position, boundValue);
                     } else {
-                        q.setParameter(name, value);
+                        q.setParameter(name, boundValue);
                     }
                 }
             }
@@ -33,6 +33,8 @@ public interface QueryConfiguration {
 
     public String getExpressionCacheClass();
 
+    public int getQueryPlanCacheMaxSize();
+
     public boolean isCountTransformationEnabled();
 
     public boolean isImplicitGroupByFromSelectEnabled();
@@ -47,6 +49,8 @@ public interface QueryConfiguration {
 
     public boolean isOptimizedKeysetPredicateRenderingEnabled();
 
+    public boolean isParameterListPaddingEnabled();
+
     public Boolean getInlineIdQueryEnabled();
 
     public Boolean getInlineCountQueryEnabled();
@@ -630,6 +630,11 @@ public class SelectManager<T> extends AbstractManager<SelectInfo> {
         this.objectBuilder = (ObjectBuilder<T>) objectBuilder;
     }
 
+    @SuppressWarnings("unchecked")
+    void setObjectBuilder(ObjectBuilder<?> objectBuilder) {
+        this.objectBuilder = (ObjectBuilder<T>) objectBuilder;
+    }
+
     void setDefaultSelect(Map<JoinNode, JoinNode> nodeMapping, List<SelectInfo> selectInfos, ExpressionCopyContext copyContext) {
         if (!this.selectInfos.isEmpty()) {
             throw new IllegalStateException("Can't set default select when explicit select items are already set!");
@@ -26,6 +26,7 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.*;
 
+import com.blazebit.persistence.impl.util.QuoteMode;
 import com.blazebit.persistence.impl.util.SqlUtils;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.DbmsLimitHandler;
@@ -36,6 +37,7 @@ import com.blazebit.persistence.spi.LateralStyle;
 import com.blazebit.persistence.spi.OrderByElement;
 import com.blazebit.persistence.spi.SetOperationType;
 import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.spi.UpsertStyle;
 import com.blazebit.persistence.spi.ValuesStrategy;
 
 /**
@@ -182,6 +184,128 @@ public class DefaultDbmsDialect implements DbmsDialect {
         return UpdateJoinStyle.NONE;
     }
 
+    @Override
+    public UpsertStyle getUpsertStyle() {
+        return UpsertStyle.NONE;
+    }
+
+    @Override
+    public void appendUpsert(StringBuilder sqlSb, String dmlAffectedTable, String[] conflictColumns, String[] updateColumns) {
+        if (getUpsertStyle() != UpsertStyle.MERGE) {
+            throw new IllegalStateException("The dbms does not support conflict handling for insert statements!");
+        }
+        if (conflictColumns.length == 0) {
+            throw new IllegalArgumentException("Conflict handling via a MERGE statement requires conflict attributes!");
+        }
+        int columnsStartIndex = sqlSb.indexOf("(", SqlUtils.INTO_FINDER.indexIn(sqlSb));
+        int columnsEndIndex = sqlSb.indexOf(")", columnsStartIndex);
+        String[] insertColumns = getInsertColumns(sqlSb);
+        String select = sqlSb.substring(columnsEndIndex + 1).trim();
+        String table = dmlAffectedTable.trim();
+
+        sqlSb.setLength(0);
+        sqlSb.append("merge into ").append(table).append(" t_ using ");
+        appendMergeSource(sqlSb, select, insertColumns);
+        sqlSb.append(" on (");
+        for (int i = 0; i < conflictColumns.length; i++) {
+            if (i != 0) {
+                sqlSb.append(" and ");
+            }
+            sqlSb.append("t_.").append(conflictColumns[i]).append(" = s_.").append(conflictColumns[i]);
+        }
+        sqlSb.append(')');
+
+        if (updateColumns != null && updateColumns.length != 0) {
+            sqlSb.append(" when matched then update set ");
+            for (int i = 0; i < updateColumns.length; i++) {
+                if (i != 0) {
+                    sqlSb.append(", ");
+                }
+                sqlSb.append(updateColumns[i]).append(" = s_.").append(updateColumns[i]);
+            }
+        }
+
+        sqlSb.append(" when not matched then insert (");
+        for (int i = 0; i < insertColumns.length; i++) {
+            if (i != 0) {
+                sqlSb.append(", ");
+            }
+            sqlSb.append(insertColumns[i]);
+        }
+        sqlSb.append(") values (");
+        for (int i = 0; i < insertColumns.length; i++) {
+            if (i != 0) {
+                sqlSb.append(", ");
+            }
+            sqlSb.append("s_.").append(insertColumns[i]);
+        }
+        sqlSb.append(')');
+    }
+
+    @Override
+    public String getRowCountEstimateSql(String countSql, int databaseMajorVersion) {
+        return null;
+    }
+
+    @Override
+    public long extractRowCountEstimate(List<?> queryPlan) {
+        return -1L;
+    }
+
+    /**
+     * Replaces the JDBC parameter markers outside of literals and quoted identifiers with the given prefix followed by the 1-based parameter position.
+     *
+     * @param sql The SQL
+     * @param markerPrefix The prefix for the replaced parameter markers or null to only detect parameter markers
+     * @return The SQL with replaced parameter markers or null if the SQL contains parameter markers and the prefix is null
+     */
+    protected static String replaceParameterMarkers(String sql, String markerPrefix) {
+        StringBuilder sb = null;
+        QuoteMode mode = QuoteMode.NONE;
+        int parameterCount = 0;
+        int lastIndex = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            mode = mode.onChar(c);
+            if (c == '?' && mode == QuoteMode.NONE) {
+                if (markerPrefix == null) {
+                    return null;
+                }
+                if (sb == null) {
+                    sb = new StringBuilder(sql.length() + 16);
+                }
+                sb.append(sql, lastIndex, i).append(markerPrefix).append(++parameterCount);
+                lastIndex = i + 1;
+            }
+        }
+        if (sb == null) {
+            return sql;
+        }
+        return sb.append(sql, lastIndex, sql.length()).toString();
+    }
+
+    protected void appendMergeSource(StringBuilder sqlSb, String select, String[] columns) {
+        sqlSb.append('(').append(select).append(") s_(");
+        for (int i = 0; i < columns.length; i++) {
+            if (i != 0) {
+                sqlSb.append(", ");
+            }
+            sqlSb.append(columns[i]);
+        }
+        sqlSb.append(')');
+    }
+
+    protected static String[] getInsertColumns(CharSequence insertSql) {
+        String sql = insertSql.toString();
+        int columnsStartIndex = sql.indexOf('(', SqlUtils.INTO_FINDER.indexIn(sql));
+        int columnsEndIndex = sql.indexOf(')', columnsStartIndex);
+        String[] columns = sql.substring(columnsStartIndex + 1, columnsEndIndex).split(",");
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = columns[i].trim();
+        }
+        return columns;
+    }
+
     @Override
     public boolean supportsArbitraryLengthMultiset() {
         return false;
@@ -24,6 +24,7 @@ import com.blazebit.persistence.spi.DbmsStatementType;
 import com.blazebit.persistence.spi.DeleteJoinStyle;
 import com.blazebit.persistence.spi.LateralStyle;
 import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.spi.UpsertStyle;
 import com.blazebit.persistence.spi.ValuesStrategy;
 
 /**
@@ -143,6 +144,11 @@ public class H2DbmsDialect extends DefaultDbmsDialect {
         return UpdateJoinStyle.MERGE;
     }
 
+    @Override
+    public UpsertStyle getUpsertStyle() {
+        return UpsertStyle.MERGE;
+    }
+
     @Override
     public Character getDefaultEscapeCharacter() {
         // H2 is non SQL-standard compliant in this regard
@@ -25,6 +25,7 @@ import com.blazebit.persistence.spi.LateralStyle;
 import com.blazebit.persistence.spi.OrderByElement;
 import com.blazebit.persistence.spi.SetOperationType;
 import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.spi.UpsertStyle;
 
 import java.util.Map;
 
@@ -78,6 +79,18 @@ public class MSSQLDbmsDialect extends DefaultDbmsDialect {
         return UpdateJoinStyle.FROM_ALIAS;
     }
 
+    @Override
+    public UpsertStyle getUpsertStyle() {
+        return UpsertStyle.MERGE;
+    }
+
+    @Override
+    public void appendUpsert(StringBuilder sqlSb, String dmlAffectedTable, String[] conflictColumns, String[] updateColumns) {
+        super.appendUpsert(sqlSb, dmlAffectedTable, conflictColumns, updateColumns);
+        // SQL Server requires MERGE statements to be terminated
+        sqlSb.append(';');
+    }
+
     @Override
     public boolean supportsArbitraryLengthMultiset() {
         return true;
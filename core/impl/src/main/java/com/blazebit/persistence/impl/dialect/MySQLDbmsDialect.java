@@ -21,9 +21,11 @@ import com.blazebit.persistence.spi.DeleteJoinStyle;
 import com.blazebit.persistence.spi.LateralStyle;
 import com.blazebit.persistence.spi.OrderByElement;
 import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.spi.UpsertStyle;
 import com.blazebit.persistence.spi.ValuesStrategy;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -34,6 +36,10 @@ import java.util.Map;
  */
 public class MySQLDbmsDialect extends DefaultDbmsDialect {
 
+    // The column positions in the tabular EXPLAIN output since MySQL 5.7
+    private static final int ROWS_COLUMN_INDEX = 9;
+    private static final int FILTERED_COLUMN_INDEX = 10;
+
     public MySQLDbmsDialect() {
         super(getSqlTypes());
     }
@@ -94,6 +100,57 @@ public class MySQLDbmsDialect extends DefaultDbmsDialect {
         return UpdateJoinStyle.REFERENCE;
     }
 
+    @Override
+    public UpsertStyle getUpsertStyle() {
+        return UpsertStyle.ON_DUPLICATE_KEY;
+    }
+
+    @Override
+    public void appendUpsert(StringBuilder sqlSb, String dmlAffectedTable, String[] conflictColumns, String[] updateColumns) {
+        // MySQL handles conflicts of any unique key, so the conflict columns are irrelevant
+        sqlSb.append(" on duplicate key update ");
+        if (updateColumns == null || updateColumns.length == 0) {
+            // Assigning a column to itself is a no-op which effectively skips the conflicting row
+            String column = conflictColumns.length == 0 ? getInsertColumns(sqlSb)[0] : conflictColumns[0];
+            sqlSb.append(column).append(" = ").append(column);
+        } else {
+            for (int i = 0; i < updateColumns.length; i++) {
+                if (i != 0) {
+                    sqlSb.append(", ");
+                }
+                sqlSb.append(updateColumns[i]).append(" = values(").append(updateColumns[i]).append(')');
+            }
+        }
+    }
+
+    @Override
+    public String getRowCountEstimateSql(String countSql, int databaseMajorVersion) {
+        // MySQL can't explain statements with unbound parameters
+        if (replaceParameterMarkers(countSql, null) == null) {
+            return null;
+        }
+        return "explain " + countSql;
+    }
+
+    @Override
+    public long extractRowCountEstimate(List<?> queryPlan) {
+        // The estimate is the product of the examined rows and the filtered percentage of every table of the join
+        double estimate = 1d;
+        for (Object row : queryPlan) {
+            Object[] columns = (Object[]) row;
+            Object rows = columns[ROWS_COLUMN_INDEX];
+            Object filtered = columns[FILTERED_COLUMN_INDEX];
+            if (rows == null) {
+                return -1L;
+            }
+            estimate *= ((Number) rows).doubleValue();
+            if (filtered != null) {
+                estimate *= ((Number) filtered).doubleValue() / 100d;
+            }
+        }
+        return queryPlan.isEmpty() ? -1L : (long) Math.ceil(estimate);
+    }
+
     @Override
     public Character getDefaultEscapeCharacter() {
         // MySQL is non SQL-standard compliant in this regard
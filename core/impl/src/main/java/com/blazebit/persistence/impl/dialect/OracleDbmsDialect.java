@@ -34,6 +34,7 @@ import com.blazebit.persistence.spi.DbmsStatementType;
 import com.blazebit.persistence.spi.DeleteJoinStyle;
 import com.blazebit.persistence.spi.SetOperationType;
 import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.spi.UpsertStyle;
 import com.blazebit.persistence.spi.ValuesStrategy;
 
 /**
@@ -165,6 +166,24 @@ public class OracleDbmsDialect extends DefaultDbmsDialect {
         return UpdateJoinStyle.MERGE;
     }
 
+    @Override
+    public UpsertStyle getUpsertStyle() {
+        return UpsertStyle.MERGE;
+    }
+
+    @Override
+    protected void appendMergeSource(StringBuilder sqlSb, String select, String[] columns) {
+        // Oracle does not support derived column lists for table aliases, but for subquery factoring
+        sqlSb.append("(with s_(");
+        for (int i = 0; i < columns.length; i++) {
+            if (i != 0) {
+                sqlSb.append(", ");
+            }
+            sqlSb.append(columns[i]);
+        }
+        sqlSb.append(") as (").append(select).append(") select * from s_) s_");
+    }
+
     @Override
     public Map<String, String> appendExtendedSql(StringBuilder sqlSb, DbmsStatementType statementType, boolean isSubquery, boolean isEmbedded, StringBuilder withClause, String limit, String offset, String dmlAffectedTable, String[] returningColumns, Map<DbmsModificationState, String> includedModificationStates) {
         boolean addParenthesis = isSubquery && sqlSb.length() > 0 && sqlSb.charAt(0) != '(';
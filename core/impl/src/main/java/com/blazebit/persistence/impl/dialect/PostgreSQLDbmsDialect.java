@@ -29,6 +29,7 @@ import com.blazebit.persistence.spi.DbmsStatementType;
 import com.blazebit.persistence.spi.DeleteJoinStyle;
 import com.blazebit.persistence.spi.SetOperationType;
 import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.spi.UpsertStyle;
 
 /**
  * @author Christian Beikov
@@ -53,6 +54,72 @@ public class PostgreSQLDbmsDialect extends DefaultDbmsDialect {
         return UpdateJoinStyle.FROM;
     }
 
+    @Override
+    public UpsertStyle getUpsertStyle() {
+        return UpsertStyle.ON_CONFLICT;
+    }
+
+    @Override
+    public void appendUpsert(StringBuilder sqlSb, String dmlAffectedTable, String[] conflictColumns, String[] updateColumns) {
+        sqlSb.append(" on conflict");
+        if (conflictColumns.length != 0) {
+            sqlSb.append(" (");
+            for (int i = 0; i < conflictColumns.length; i++) {
+                if (i != 0) {
+                    sqlSb.append(", ");
+                }
+                sqlSb.append(conflictColumns[i]);
+            }
+            sqlSb.append(')');
+        }
+
+        if (updateColumns == null || updateColumns.length == 0) {
+            sqlSb.append(" do nothing");
+        } else {
+            if (conflictColumns.length == 0) {
+                throw new IllegalArgumentException("Updating conflicting rows requires conflict attributes!");
+            }
+            sqlSb.append(" do update set ");
+            for (int i = 0; i < updateColumns.length; i++) {
+                if (i != 0) {
+                    sqlSb.append(", ");
+                }
+                sqlSb.append(updateColumns[i]).append(" = excluded.").append(updateColumns[i]);
+            }
+        }
+    }
+
+    @Override
+    public String getRowCountEstimateSql(String countSql, int databaseMajorVersion) {
+        // EXPLAIN (GENERIC_PLAN) was introduced in PostgreSQL 16
+        String sql = replaceParameterMarkers(countSql, databaseMajorVersion >= 16 ? "$" : null);
+        if (sql == null) {
+            return null;
+        } else if (sql == countSql) {
+            return "explain " + countSql;
+        }
+        // A generic plan doesn't need values for the numbered parameters
+        return "explain (generic_plan) " + sql;
+    }
+
+    @Override
+    public long extractRowCountEstimate(List<?> queryPlan) {
+        // The first line is the aggregate node of the count, the next node produces the rows that are counted
+        for (int i = 1; i < queryPlan.size(); i++) {
+            String line = String.valueOf(queryPlan.get(i));
+            int rowsIndex = line.indexOf(" rows=");
+            if (rowsIndex != -1) {
+                int start = rowsIndex + " rows=".length();
+                int end = start;
+                while (end < line.length() && Character.isDigit(line.charAt(end))) {
+                    end++;
+                }
+                return end == start ? -1L : Long.parseLong(line.substring(start, end));
+            }
+        }
+        return -1L;
+    }
+
     @Override
     public Character getDefaultEscapeCharacter() {
         // PostgreSQL is non SQL-standard compliant in this regard
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.function.rowvalue;
+
+import com.blazebit.persistence.impl.function.coltrunc.ColumnTruncFunction;
+import com.blazebit.persistence.spi.FunctionRenderContext;
+import com.blazebit.persistence.spi.JpqlFunction;
+
+/**
+ * Emulates an IN predicate for a row value and a subquery through an EXISTS predicate for DBMS that don't support row value constructors.
+ * The subquery select items must be aliased with the synthetic column names of the {@link ColumnTruncFunction}.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class RowValueSubqueryExistsFunction implements JpqlFunction {
+    public static final String FUNCTION_NAME = "exists_row_value_subquery";
+
+    @Override
+    public boolean hasArguments() {
+        return true;
+    }
+
+    @Override
+    public boolean hasParenthesesIfNoArguments() {
+        return true;
+    }
+
+    @Override
+    public Class<?> getReturnType(Class<?> firstArgumentType) {
+        return int.class;
+    }
+
+    @Override
+    public void render(FunctionRenderContext context) {
+        int subqueryIndex = context.getArgumentsSize() - 1;
+        context.addChunk("exists (select 1 from (");
+        context.addArgument(subqueryIndex);
+        context.addChunk(") tmp where ");
+        for (int argIdx = 0; argIdx < subqueryIndex; argIdx++) {
+            if (argIdx != 0) {
+                context.addChunk(" and ");
+            }
+            context.addChunk("tmp." + ColumnTruncFunction.SYNTHETIC_COLUMN_PREFIX + argIdx + " = ");
+            context.addArgument(argIdx);
+        }
+        context.addChunk(") and 0");
+    }
+
+}
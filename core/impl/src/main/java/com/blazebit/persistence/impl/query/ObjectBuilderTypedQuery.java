@@ -17,6 +17,9 @@
 package com.blazebit.persistence.impl.query;
 
 import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.StreamingObjectBuilder;
+import com.blazebit.persistence.spi.QueryInstrumentation;
+import com.blazebit.persistence.spi.QueryPhase;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -37,11 +40,19 @@ import javax.persistence.criteria.ParameterExpression;
 public class ObjectBuilderTypedQuery<X> extends TypedQueryWrapper<X> {
 
     private final ObjectBuilder<X> builder;
+    private final QueryInstrumentation queryInstrumentation;
+    private final boolean uniquelyOrdered;
+
+    public ObjectBuilderTypedQuery(TypedQuery<?> delegate, Map<ParameterExpression<?>, String> criteriaNameMapping, ObjectBuilder<X> builder, QueryInstrumentation queryInstrumentation) {
+        this(delegate, criteriaNameMapping, builder, queryInstrumentation, true);
+    }
 
     @SuppressWarnings("unchecked")
-    public ObjectBuilderTypedQuery(TypedQuery<?> delegate, Map<ParameterExpression<?>, String> criteriaNameMapping, ObjectBuilder<X> builder) {
+    public ObjectBuilderTypedQuery(TypedQuery<?> delegate, Map<ParameterExpression<?>, String> criteriaNameMapping, ObjectBuilder<X> builder, QueryInstrumentation queryInstrumentation, boolean uniquelyOrdered) {
         super((TypedQuery<X>) delegate, criteriaNameMapping);
         this.builder = builder;
+        this.queryInstrumentation = queryInstrumentation;
+        this.uniquelyOrdered = uniquelyOrdered;
     }
 
     @Override
@@ -61,6 +72,7 @@ public class ObjectBuilderTypedQuery<X> extends TypedQueryWrapper<X> {
     @Override
     public List<X> getResultList() {
         List<X> list = super.getResultList();
+        long start = queryInstrumentation == null ? 0L : System.nanoTime();
         int size = list.size();
         List<X> newList = new ArrayList<X>(size);
 
@@ -73,12 +85,37 @@ public class ObjectBuilderTypedQuery<X> extends TypedQueryWrapper<X> {
                 newList.add(builder.build(new Object[] { tuple }));
             }
         }
-        
-        return builder.buildList(newList);
+
+        List<X> resultList = builder.buildList(newList);
+        if (queryInstrumentation != null) {
+            queryInstrumentation.record(QueryPhase.OBJECT_BUILD, System.nanoTime() - start);
+        }
+        return resultList;
     }
 
     public Stream<X> getResultStream() {
+        if (builder instanceof StreamingObjectBuilder<?> && !uniquelyOrdered) {
+            throw new IllegalStateException("The order by items of the query builder are not guaranteed to keep the tuples of a query root together which is required for streaming! Consider also ordering by the entity identifier!");
+        }
         final Stream<X> resultStream = super.getResultStream();
+        if (builder instanceof StreamingObjectBuilder<?>) {
+            Stream<Object[]> tupleStream = resultStream.map(new Function<X, Object[]>() {
+                @Override
+                public Object[] apply(X tuple) {
+                    if (tuple instanceof Object[]) {
+                        return (Object[]) tuple;
+                    } else {
+                        return new Object[]{ tuple };
+                    }
+                }
+            });
+            return ((StreamingObjectBuilder<X>) builder).buildStream(tupleStream).onClose(new Runnable() {
+                @Override
+                public void run() {
+                    resultStream.close();
+                }
+            });
+        }
         return resultStream.map(new Function<X, X>() {
             @Override
             public X apply(X tuple) {
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+import com.blazebit.persistence.ConfigurationProperties;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An expression cache that bounds the number of entries per cache name and evicts the least recently used entries.
+ * Every cache is split into segments to reduce lock contention. The size of a cache can be configured via the property
+ * {@link ConfigurationProperties#EXPRESSION_CACHE_MAX_SIZE} and per cache name by appending <code>.cacheName</code> to the property name.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class BoundedExpressionCache<T> implements ExpressionCache<T> {
+
+    public static final int DEFAULT_MAX_SIZE = 2048;
+    private static final int SEGMENT_COUNT = 16;
+
+    private final ConcurrentMap<String, BoundedCache<T>> cacheManager;
+    private final Map<String, String> properties;
+    private final int defaultMaxSize;
+
+    public BoundedExpressionCache() {
+        this(Collections.<String, String>emptyMap());
+    }
+
+    public BoundedExpressionCache(Map<String, String> properties) {
+        this.cacheManager = new ConcurrentHashMap<>();
+        this.properties = properties;
+        this.defaultMaxSize = parseMaxSize(ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE, properties.get(ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE), DEFAULT_MAX_SIZE);
+    }
+
+    @Override
+    public T get(String cacheName, Key key) {
+        final BoundedCache<T> cache = cacheManager.get(cacheName);
+        if (cache == null) {
+            return null;
+        }
+        return cache.get(key);
+    }
+
+    @Override
+    public T putIfAbsent(String cacheName, Key key, T value) {
+        BoundedCache<T> cache = cacheManager.get(cacheName);
+
+        if (cache == null) {
+            String propertyName = ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE + "." + cacheName;
+            cache = new BoundedCache<>(parseMaxSize(propertyName, properties.get(propertyName), defaultMaxSize));
+            BoundedCache<T> oldCache = cacheManager.putIfAbsent(cacheName, cache);
+
+            if (oldCache != null) {
+                cache = oldCache;
+            }
+        }
+
+        return cache.putIfAbsent(key, value);
+    }
+
+    /**
+     * Returns the names of the caches that were created so far.
+     *
+     * @return the cache names
+     */
+    public Set<String> getCacheNames() {
+        return Collections.unmodifiableSet(cacheManager.keySet());
+    }
+
+    /**
+     * Returns the statistics for the cache with the given name or <code>null</code> if no such cache exists.
+     *
+     * @param cacheName The cache name
+     * @return the statistics of the cache
+     */
+    public Statistics getStatistics(String cacheName) {
+        BoundedCache<T> cache = cacheManager.get(cacheName);
+        if (cache == null) {
+            return null;
+        }
+        return cache.getStatistics();
+    }
+
+    /**
+     * Removes all entries from all caches and resets the statistics.
+     */
+    public void clear() {
+        cacheManager.clear();
+    }
+
+    private static int parseMaxSize(String propertyName, String value, int defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            int maxSize = Integer.parseInt(value.trim());
+            if (maxSize > 0) {
+                return maxSize;
+            }
+        } catch (NumberFormatException ex) {
+            // Fall through
+        }
+        throw new IllegalArgumentException("Illegal value '" + value + "' for positive integer property '" + propertyName + "'");
+    }
+
+    /**
+     * A snapshot of the statistics of a cache.
+     *
+     * @author Christian Beikov
+     * @since 1.6.9
+     */
+    public static final class Statistics {
+
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final int size;
+        private final int maxSize;
+
+        public Statistics(long hitCount, long missCount, long evictionCount, int size, int maxSize) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.size = size;
+            this.maxSize = maxSize;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public double getHitRatio() {
+            long requestCount = hitCount + missCount;
+            return requestCount == 0 ? 1.0d : (double) hitCount / requestCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{" +
+                    "hitCount=" + hitCount +
+                    ", missCount=" + missCount +
+                    ", evictionCount=" + evictionCount +
+                    ", size=" + size +
+                    ", maxSize=" + maxSize +
+                    '}';
+        }
+    }
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.6.9
+     */
+    private static final class BoundedCache<T> {
+
+        private final Segment<T>[] segments;
+        private final int maxSize;
+        private final AtomicLong hitCount = new AtomicLong();
+        private final AtomicLong missCount = new AtomicLong();
+        private final AtomicLong evictionCount = new AtomicLong();
+
+        @SuppressWarnings("unchecked")
+        public BoundedCache(int maxSize) {
+            // Small caches don't benefit from segmentation and would evict too eagerly
+            int segmentCount = Math.max(1, Math.min(SEGMENT_COUNT, maxSize / SEGMENT_COUNT));
+            int segmentMaxSize = (maxSize + segmentCount - 1) / segmentCount;
+            this.segments = new Segment[segmentCount];
+            this.maxSize = maxSize;
+            for (int i = 0; i < segmentCount; i++) {
+                segments[i] = new Segment<>(segmentMaxSize, evictionCount);
+            }
+        }
+
+        public T get(Key key) {
+            Segment<T> segment = segmentFor(key);
+            T value;
+            synchronized (segment) {
+                value = segment.get(key);
+            }
+            if (value == null) {
+                missCount.incrementAndGet();
+            } else {
+                hitCount.incrementAndGet();
+            }
+            return value;
+        }
+
+        public T putIfAbsent(Key key, T value) {
+            Segment<T> segment = segmentFor(key);
+            synchronized (segment) {
+                T oldValue = segment.get(key);
+                if (oldValue != null) {
+                    return oldValue;
+                }
+                segment.put(key, value);
+            }
+            return value;
+        }
+
+        public Statistics getStatistics() {
+            int size = 0;
+            for (Segment<T> segment : segments) {
+                synchronized (segment) {
+                    size += segment.size();
+                }
+            }
+            return new Statistics(hitCount.get(), missCount.get(), evictionCount.get(), size, maxSize);
+        }
+
+        private Segment<T> segmentFor(Key key) {
+            int h = key.hashCode();
+            // Spread the bits as the key hash code is not well distributed for similar expressions
+            h ^= (h >>> 16);
+            return segments[(h & Integer.MAX_VALUE) % segments.length];
+        }
+    }
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.6.9
+     */
+    private static final class Segment<T> extends LinkedHashMap<Key, T> {
+
+        private final int maxSize;
+        private final AtomicLong evictionCount;
+
+        public Segment(int maxSize, AtomicLong evictionCount) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+            this.evictionCount = evictionCount;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, T> eldest) {
+            if (size() > maxSize) {
+                evictionCount.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+import com.blazebit.persistence.parser.predicate.Predicate;
+
+/**
+ * A query builder that accepts already built expression trees, so that integrations that build expressions
+ * programmatically don't have to render expressions to strings which are then parsed again.
+ * The expression trees are owned by the query builder afterwards and must not be reused.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public interface ExpressionTreeSupport {
+
+    public void selectExpression(Expression expression, String selectAlias);
+
+    public void setWherePredicate(Predicate predicate);
+
+    public void orderByExpression(Expression expression, boolean ascending, boolean nullFirst);
+}
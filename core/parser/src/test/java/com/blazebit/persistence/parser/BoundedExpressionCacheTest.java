@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
+import com.blazebit.persistence.parser.expression.ExpressionCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class BoundedExpressionCacheTest {
+
+    private static final String CACHE_NAME = "test";
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE + "." + CACHE_NAME, "2");
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(properties);
+
+        cache.putIfAbsent(CACHE_NAME, key("a"), "a");
+        cache.putIfAbsent(CACHE_NAME, key("b"), "b");
+        // Access a so that b becomes the least recently used entry
+        Assert.assertEquals("a", cache.get(CACHE_NAME, key("a")));
+        cache.putIfAbsent(CACHE_NAME, key("c"), "c");
+
+        Assert.assertNull(cache.get(CACHE_NAME, key("b")));
+        Assert.assertEquals("a", cache.get(CACHE_NAME, key("a")));
+        Assert.assertEquals("c", cache.get(CACHE_NAME, key("c")));
+
+        BoundedExpressionCache.Statistics statistics = cache.getStatistics(CACHE_NAME);
+        Assert.assertEquals(2, statistics.getSize());
+        Assert.assertEquals(2, statistics.getMaxSize());
+        Assert.assertEquals(3, statistics.getHitCount());
+        Assert.assertEquals(1, statistics.getMissCount());
+        Assert.assertEquals(1, statistics.getEvictionCount());
+    }
+
+    @Test
+    public void testPutIfAbsentReturnsExistingValue() {
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>();
+
+        Assert.assertEquals("a", cache.putIfAbsent(CACHE_NAME, key("a"), "a"));
+        Assert.assertEquals("a", cache.putIfAbsent(CACHE_NAME, key("a"), "b"));
+        Assert.assertEquals(BoundedExpressionCache.DEFAULT_MAX_SIZE, cache.getStatistics(CACHE_NAME).getMaxSize());
+        Assert.assertNull(cache.getStatistics("unknown"));
+    }
+
+    @Test
+    public void testSizeIsBoundedWithSegments() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE, "256");
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(properties);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.putIfAbsent(CACHE_NAME, key("e" + i), "e" + i);
+        }
+
+        BoundedExpressionCache.Statistics statistics = cache.getStatistics(CACHE_NAME);
+        Assert.assertTrue(statistics.getSize() <= 256);
+        Assert.assertEquals(1000 - statistics.getSize(), statistics.getEvictionCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxSize() {
+        new BoundedExpressionCache<>(Collections.singletonMap(ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE, "0"));
+    }
+
+    private static ExpressionCache.Key key(String expression) {
+        return new ExpressionCache.Key(expression, false, false, false);
+    }
+}
@@ -25,6 +25,7 @@ import com.blazebit.persistence.spi.LateralStyle;
 import com.blazebit.persistence.spi.OrderByElement;
 import com.blazebit.persistence.spi.SetOperationType;
 import com.blazebit.persistence.spi.UpdateJoinStyle;
+import com.blazebit.persistence.spi.UpsertStyle;
 import com.blazebit.persistence.spi.ValuesStrategy;
 
 import java.sql.PreparedStatement;
@@ -232,6 +233,26 @@ public class DelegatingDbmsDialect implements DbmsDialect {
         return delegate.getUpdateJoinStyle();
     }
 
+    @Override
+    public UpsertStyle getUpsertStyle() {
+        return delegate.getUpsertStyle();
+    }
+
+    @Override
+    public void appendUpsert(StringBuilder sqlSb, String dmlAffectedTable, String[] conflictColumns, String[] updateColumns) {
+        delegate.appendUpsert(sqlSb, dmlAffectedTable, conflictColumns, updateColumns);
+    }
+
+    @Override
+    public String getRowCountEstimateSql(String countSql, int databaseMajorVersion) {
+        return delegate.getRowCountEstimateSql(countSql, databaseMajorVersion);
+    }
+
+    @Override
+    public long extractRowCountEstimate(List<?> queryPlan) {
+        return delegate.extractRowCountEstimate(queryPlan);
+    }
+
     @Override
     public boolean supportsArbitraryLengthMultiset() {
         return delegate.supportsArbitraryLengthMultiset();
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.FinalSetOperationCriteriaBuilder;
+import com.blazebit.persistence.integration.hibernate.base.HibernateExtendedQuerySupport;
+import com.blazebit.persistence.integration.hibernate.base.QueryPlanCacheStatistics;
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.testsuite.entity.Document;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class QueryPlanCacheStatisticsTest extends AbstractCoreTest {
+
+    @Test
+    public void countsHitsAndMissesOfRepeatedQueries() {
+        HibernateExtendedQuerySupport extendedQuerySupport = (HibernateExtendedQuerySupport) cbf.getService(ExtendedQuerySupport.class);
+        QueryPlanCacheStatistics before = extendedQuerySupport.getQueryPlanCacheStatistics(em);
+        long hitsBefore = before == null ? 0L : before.getHitCount();
+        long missesBefore = before == null ? 0L : before.getMissCount();
+
+        // Set operations require SQL replacement and thus go through the custom query plan cache
+        createSetOperation().getResultList();
+        QueryPlanCacheStatistics afterFirst = extendedQuerySupport.getQueryPlanCacheStatistics(em);
+        assertEquals(1L, afterFirst.getHitCount() - hitsBefore + afterFirst.getMissCount() - missesBefore);
+
+        createSetOperation().getResultList();
+        createSetOperation().getResultList();
+        QueryPlanCacheStatistics afterRepeated = extendedQuerySupport.getQueryPlanCacheStatistics(em);
+        assertEquals(afterFirst.getMissCount(), afterRepeated.getMissCount());
+        assertEquals(afterFirst.getHitCount() + 2L, afterRepeated.getHitCount());
+    }
+
+    private FinalSetOperationCriteriaBuilder<String> createSetOperation() {
+        return cbf.create(em, String.class)
+                .from(Document.class, "d1")
+                .select("d1.name")
+                .where("d1.name").eq("D1")
+            .unionAll()
+                .from(Document.class, "d2")
+                .select("d2.name")
+                .where("d2.name").eq("D2")
+            .endSet();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blazebit.persistence.impl;
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Base class for tests that work on the persons named <code>Karl1</code> to <code>KarlN</code>.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public abstract class AbstractPersonNamesTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                for (int i = 1; i <= getPersonCount(); i++) {
+                    em.persist(new Person("Karl" + i));
+                }
+            }
+        });
+    }
+
+    protected int getPersonCount() {
+        return 3;
+    }
+}
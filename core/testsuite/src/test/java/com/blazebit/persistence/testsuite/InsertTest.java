@@ -31,6 +31,8 @@ import org.junit.experimental.categories.Category;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.InsertCriteriaBuilder;
 import com.blazebit.persistence.ReturningResult;
+import com.blazebit.persistence.spi.UpsertStyle;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDB2;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoFirebird;
@@ -184,6 +186,148 @@ public class InsertTest extends AbstractCoreTest {
         });
     }
 
+    /* Conflict handling */
+
+    @Test
+    @Category({ NoSQLite.class, NoFirebird.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testOnConflictDoNothing() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                final InsertCriteriaBuilder<Person> cb = cbf.insert(em, Person.class);
+                cb.from(Person.class, "p");
+                cb.bind("id").select("p.id");
+                cb.bind("name").select("CONCAT(p.name,'_new')");
+                cb.bind("age").select("p.age");
+                cb.onConflict("id").doNothing();
+                String expected = "INSERT INTO Person(age, id, name)\n"
+                        + "SELECT p.age, p.id, CONCAT(p.name,'_new') FROM Person p ON CONFLICT(id) DO NOTHING";
+
+                assertEquals(expected, cb.getQueryString());
+
+                int updateCount = cb.executeUpdate();
+                assertEquals(0, updateCount);
+            }
+        });
+
+        em.clear();
+        assertEquals("P1", em.find(Person.class, p1.getId()).getName());
+        assertEquals("P2", em.find(Person.class, p2.getId()).getName());
+    }
+
+    @Test
+    @Category({ NoSQLite.class, NoFirebird.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testOnConflictDoUpdate() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                final InsertCriteriaBuilder<Person> cb = cbf.insert(em, Person.class);
+                cb.from(Person.class, "p");
+                cb.bind("id").select("p.id");
+                cb.bind("name").select("CONCAT(p.name,'_new')");
+                cb.bind("age").select("p.age");
+                cb.onConflict("id").doUpdate("name");
+                String expected = "INSERT INTO Person(age, id, name)\n"
+                        + "SELECT p.age, p.id, CONCAT(p.name,'_new') FROM Person p ON CONFLICT(id) DO UPDATE SET name = EXCLUDED.name";
+
+                assertEquals(expected, cb.getQueryString());
+
+                int updateCount = cb.executeUpdate();
+                // NOTE: MySQL reports two affected rows for every updated row
+                if (dbmsDialect.getUpsertStyle() == UpsertStyle.ON_DUPLICATE_KEY) {
+                    assertEquals(4, updateCount);
+                } else {
+                    assertEquals(2, updateCount);
+                }
+            }
+        });
+
+        em.clear();
+        assertEquals("P1_new", em.find(Person.class, p1.getId()).getName());
+        assertEquals("P2_new", em.find(Person.class, p2.getId()).getName());
+    }
+
+    // NOTE: MySQL does not support CTEs and DB2 does not support a WITH clause in front of a MERGE statement
+    @Test
+    @Category({ NoMySQL.class, NoMySQLOld.class, NoDB2.class, NoSQLite.class, NoFirebird.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testOnConflictDoUpdateWithCte() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                final InsertCriteriaBuilder<Person> cb = cbf.insert(em, Person.class);
+                cb.with(PersonCTE.class, false)
+                        .from(Person.class, "p")
+                        .bind("id").select("p.id")
+                        .bind("name").select("CONCAT(p.name,'_new')")
+                        .bind("age").select("p.age")
+                        .bind("idx").select("1")
+                        .bind("owner").select("p")
+                        .end();
+                cb.from(PersonCTE.class, "p");
+                cb.bind("id").select("p.id");
+                cb.bind("name").select("p.name");
+                cb.bind("age").select("p.age");
+                cb.onConflict("id").doUpdate("name");
+                String expected = "WITH PersonCTE(id, name, age, idx, owner.id) AS(\n"
+                        + "SELECT p.id, CONCAT(p.name,'_new'), p.age, 1, p.id FROM Person p\n"
+                        + ")\n"
+                        + "INSERT INTO Person(age, id, name)\n"
+                        + "SELECT p.age, p.id, p.name FROM PersonCTE p ON CONFLICT(id) DO UPDATE SET name = EXCLUDED.name";
+
+                assertEquals(expected, cb.getQueryString());
+
+                int updateCount = cb.executeUpdate();
+                assertEquals(2, updateCount);
+            }
+        });
+
+        em.clear();
+        assertEquals("P1_new", em.find(Person.class, p1.getId()).getName());
+        assertEquals("P2_new", em.find(Person.class, p2.getId()).getName());
+    }
+
+    @Test
+    @Category({ NoSQLite.class, NoFirebird.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testOnConflictValidation() {
+        final InsertCriteriaBuilder<Person> cb = cbf.insert(em, Person.class);
+        cb.from(Person.class, "p");
+        cb.bind("id").select("p.id");
+        cb.bind("name").select("p.name");
+        verifyException(cb, IllegalArgumentException.class, r -> r.onConflict());
+        verifyException(cb, IllegalArgumentException.class, r -> r.onConflict("nonExisting"));
+        verifyException(cb.onConflict("id"), IllegalArgumentException.class, r -> r.doUpdate("id"));
+        verifyException(cb.onConflict("id"), IllegalArgumentException.class, r -> r.doUpdate("nonExisting"));
+    }
+
+    // NOTE: Only the ON CONFLICT clause can be combined with a returning clause
+    @Test
+    @Category({ NoH2.class, NoOracle.class, NoMySQL.class, NoMySQLOld.class, NoMSSQL.class, NoSQLite.class, NoFirebird.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testOnConflictDoUpdateReturning() {
+        ReturningResult<Long> result = transactional(new TxWork<ReturningResult<Long>>() {
+            @Override
+            public ReturningResult<Long> work(EntityManager em) {
+                final InsertCriteriaBuilder<Person> cb = cbf.insert(em, Person.class);
+                cb.from(Person.class, "p");
+                cb.bind("id").select("p.id");
+                cb.bind("name").select("CONCAT(p.name,'_new')");
+                cb.bind("age").select("p.age");
+                cb.onConflict("id").doUpdate("name");
+                cb.orderByAsc("p.id");
+
+                return cb.executeWithReturning("id", Long.class);
+            }
+        });
+
+        assertEquals(2, result.getUpdateCount());
+        assertEquals(2, result.getResultList().size());
+        assertEquals(p1.getId(), result.getResultList().get(0));
+        assertEquals(p2.getId(), result.getResultList().get(1));
+
+        em.clear();
+        assertEquals("P1_new", em.find(Person.class, p1.getId()).getName());
+        assertEquals("P2_new", em.find(Person.class, p2.getId()).getName());
+    }
+
     /* Returning */
     
     // NOTE: H2 does not support returning all generated keys
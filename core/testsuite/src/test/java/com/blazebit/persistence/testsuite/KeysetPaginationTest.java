@@ -21,6 +21,7 @@ import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.PagedList;
 import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.PrefetchedKeysetPage;
 import com.blazebit.persistence.SelectBuilder;
 import com.blazebit.persistence.ConfigurationProperties;
 import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
@@ -36,6 +37,8 @@ import javax.persistence.Tuple;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Christian Beikov
@@ -118,6 +121,54 @@ public class KeysetPaginationTest extends AbstractCoreTest {
         assertEquals("doc5", result.getKeysetPage().getHighest().getTuple()[1]);
     }
 
+    @Test
+    public void testKeysetPrefetch() {
+        CriteriaBuilder<Tuple> crit = cbf.create(em, Tuple.class).from(Document.class, "d")
+                .select("d.name").select("d.owner.name");
+        crit.orderByDesc("d.owner.name")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id");
+
+        clearQueries();
+        enableQueryCollecting();
+        try {
+            // The count, id and object query are executed
+            PagedList<Tuple> result = crit.page(null, 0, 2).withKeysetPrefetch(2).getResultList();
+            assertQueryCount(3);
+            assertEquals(2, result.size());
+            assertEquals("doc4", result.get(0).get(0));
+            assertEquals("doc5", result.get(1).get(0));
+            PrefetchedKeysetPage keysetPage = (PrefetchedKeysetPage) result.getKeysetPage();
+            assertEquals(2, keysetPage.getPrefetchedIds().size());
+            assertFalse(keysetPage.isPrefetchedAll());
+
+            // The second page is served from the prefetched ids, so the id query is skipped and no further ids are prefetched
+            clearQueries();
+            result = crit.page(keysetPage, 2, 2).withKeysetPrefetch(2).getResultList();
+            assertQueryCount(2);
+            assertEquals(2, result.size());
+            assertEquals("doc6", result.get(0).get(0));
+            assertEquals("doc3", result.get(1).get(0));
+            keysetPage = (PrefetchedKeysetPage) result.getKeysetPage();
+            assertEquals(0, keysetPage.getPrefetchedIds().size());
+            assertFalse(keysetPage.isPrefetchedAll());
+            assertEquals("doc3", keysetPage.getHighest().getTuple()[1]);
+
+            // The prefetched ids are exhausted, so the id query is executed again
+            clearQueries();
+            result = crit.page(keysetPage, 4, 2).withKeysetPrefetch(2).getResultList();
+            assertQueryCount(3);
+            assertEquals(2, result.size());
+            assertEquals("doc2", result.get(0).get(0));
+            assertEquals("doc1", result.get(1).get(0));
+            keysetPage = (PrefetchedKeysetPage) result.getKeysetPage();
+            assertEquals(0, keysetPage.getPrefetchedIds().size());
+            assertTrue(keysetPage.isPrefetchedAll());
+        } finally {
+            disableQueryCollecting();
+        }
+    }
+
     @Test
     // Test for #641
     public void testChangingLimit() {
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.spi.CountQueryCache;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class PaginationCountQueryCacheTest extends AbstractPersonNamesTest {
+
+    @Before
+    public void clearCache() {
+        cbf.getService(CountQueryCache.class).invalidateAll();
+    }
+
+    @Test
+    public void cachedCountIsReusedUntilInvalidated() {
+        PagedList<String> firstPage = createPaginatedCriteriaBuilder("Karl%", 0).getResultList();
+        assertEquals(3L, firstPage.getTotalSize());
+        assertFalse(firstPage.isTotalSizeCached());
+
+        PagedList<String> secondPage = createPaginatedCriteriaBuilder("Karl%", 2).getResultList();
+        assertEquals(3L, secondPage.getTotalSize());
+        assertTrue(secondPage.isTotalSizeCached());
+        assertEquals(1, secondPage.size());
+
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                em.persist(new Person("Karl4"));
+            }
+        });
+
+        // The cached count is stale until it is invalidated
+        assertEquals(3L, createPaginatedCriteriaBuilder("Karl%", 0).getResultList().getTotalSize());
+        cbf.getService(CountQueryCache.class).invalidate(Person.class);
+
+        PagedList<String> refreshedPage = createPaginatedCriteriaBuilder("Karl%", 0).getResultList();
+        assertEquals(4L, refreshedPage.getTotalSize());
+        assertFalse(refreshedPage.isTotalSizeCached());
+    }
+
+    @Test
+    public void cachedCountIsKeyedByParameterValues() {
+        assertEquals(1L, createPaginatedCriteriaBuilder("Karl1", 0).getResultList().getTotalSize());
+
+        PagedList<String> otherParameterPage = createPaginatedCriteriaBuilder("Karl2", 0).getResultList();
+        assertEquals(1L, otherParameterPage.getTotalSize());
+        assertFalse(otherParameterPage.isTotalSizeCached());
+    }
+
+    @Test
+    public void cachedCountIsInvalidatedBySubqueryEntityType() {
+        assertFalse(createPaginatedCriteriaBuilderWithoutDocuments().getResultList().isTotalSizeCached());
+        assertTrue(createPaginatedCriteriaBuilderWithoutDocuments().getResultList().isTotalSizeCached());
+
+        cbf.getService(CountQueryCache.class).invalidate(Document.class);
+
+        assertFalse(createPaginatedCriteriaBuilderWithoutDocuments().getResultList().isTotalSizeCached());
+    }
+
+    @Test
+    public void cachedCountSnapshotsParameterValues() {
+        List<String> names = new ArrayList<>(Arrays.asList("Karl1"));
+        assertEquals(1L, createPaginatedCriteriaBuilder(names).getResultList().getTotalSize());
+
+        // Mutating the parameter value must not change the key of the cached count
+        names.add("Karl2");
+        PagedList<String> mutatedParameterPage = createPaginatedCriteriaBuilder(names).getResultList();
+        assertEquals(2L, mutatedParameterPage.getTotalSize());
+        assertFalse(mutatedParameterPage.isTotalSizeCached());
+    }
+
+    @Test
+    public void cachedCountIsKeyedByEntityIdentifier() {
+        Person karl1 = cbf.create(em, Person.class).where("name").eq("Karl1").getSingleResult();
+        long totalSize = createPaginatedCriteriaBuilderExcluding(karl1).getResultList().getTotalSize();
+
+        em.clear();
+        PagedList<String> otherInstancePage = createPaginatedCriteriaBuilderExcluding(em.find(Person.class, karl1.getId())).getResultList();
+        assertEquals(totalSize, otherInstancePage.getTotalSize());
+        assertTrue(otherInstancePage.isTotalSizeCached());
+    }
+
+    private PaginatedCriteriaBuilder<String> createPaginatedCriteriaBuilderWithoutDocuments() {
+        return cbf.create(em, String.class)
+                .from(Person.class, "p")
+                .select("p.name")
+                .whereNotExists().from(Document.class, "d").select("d.id").where("d.owner.id").eqExpression("p.id").end()
+                .orderByAsc("p.name")
+                .orderByAsc("p.id")
+                .page(0, 2)
+                .withCountQueryCache(true);
+    }
+
+    private PaginatedCriteriaBuilder<String> createPaginatedCriteriaBuilder(List<String> names) {
+        return cbf.create(em, String.class)
+                .from(Person.class, "p")
+                .select("p.name")
+                .where("p.name").in(names)
+                .orderByAsc("p.name")
+                .orderByAsc("p.id")
+                .page(0, 2)
+                .withCountQueryCache(true);
+    }
+
+    private PaginatedCriteriaBuilder<String> createPaginatedCriteriaBuilderExcluding(Person person) {
+        return cbf.create(em, String.class)
+                .from(Person.class, "p")
+                .select("p.name")
+                .where("p").notEqExpression(":excluded")
+                .setParameter("excluded", person)
+                .orderByAsc("p.name")
+                .orderByAsc("p.id")
+                .page(0, 2)
+                .withCountQueryCache(true);
+    }
+
+    private PaginatedCriteriaBuilder<String> createPaginatedCriteriaBuilder(String namePattern, int firstResult) {
+        return cbf.create(em, String.class)
+                .from(Person.class, "p")
+                .select("p.name")
+                .where("p.name").like().value(namePattern).noEscape()
+                .orderByAsc("p.name")
+                .orderByAsc("p.id")
+                .page(firstResult, 2)
+                .withCountQueryCache(true);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDB2;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoFirebird;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoH2;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMSSQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMySQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOracle;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoPostgreSQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoSQLite;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class PaginationEstimatedCountTest extends AbstractPersonNamesTest {
+
+    // The parameter of the restriction prevents explaining the count query, except for PostgreSQL 16+ which is tested separately
+    @Test
+    @Category({ NoPostgreSQL.class })
+    public void parameterizedQueryIsCountedExactly() {
+        PagedList<String> page = createCriteriaBuilder()
+                .where("p.name").like().value("Karl%").noEscape()
+                .page(0, 2)
+                .withEstimatedCount(true)
+                .getResultList();
+        assertEquals(3L, page.getTotalSize());
+        assertFalse(page.isTotalSizeEstimated());
+        assertEquals(2, page.size());
+    }
+
+    // PostgreSQL and MySQL might return an estimate for the unrestricted query
+    @Test
+    @Category({ NoPostgreSQL.class, NoMySQL.class })
+    public void unsupportedEstimateFallsBackToCountQuery() {
+        PagedList<String> page = createCriteriaBuilder()
+                .page(2, 2)
+                .withEstimatedCount(true)
+                .getResultList();
+        assertEquals(3L, page.getTotalSize());
+        assertFalse(page.isTotalSizeEstimated());
+        assertEquals(1, page.size());
+    }
+
+    // The literal restriction doesn't need parameters, so PostgreSQL can explain the count query
+    @Test
+    @Category({ NoH2.class, NoDB2.class, NoFirebird.class, NoMSSQL.class, NoMySQL.class, NoOracle.class, NoSQLite.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void filteredQueryIsEstimatedThroughQueryPlan() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                em.createNativeQuery("analyze person").executeUpdate();
+            }
+        });
+        PagedList<String> page = createCriteriaBuilder()
+                .whereExpression("p.name LIKE 'Karl%'")
+                .page(0, 2)
+                .withEstimatedCount(true)
+                .getResultList();
+        assertTrue(page.isTotalSizeEstimated());
+        assertTrue(page.getTotalSize() > 0L);
+        assertEquals(2, page.size());
+    }
+
+    // PostgreSQL 16+ can explain the count query with a parameter through a generic plan
+    @Test
+    @Category({ NoH2.class, NoDB2.class, NoFirebird.class, NoMSSQL.class, NoMySQL.class, NoOracle.class, NoSQLite.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void parameterizedQueryIsEstimatedThroughGenericPlan() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                em.createNativeQuery("analyze person").executeUpdate();
+            }
+        });
+        PagedList<String> page = createCriteriaBuilder()
+                .where("p.name").like().value("Karl%").noEscape()
+                .page(0, 2)
+                .withEstimatedCount(true)
+                .getResultList();
+        assertEquals(2, page.size());
+        if (cbf.getService(ExtendedQuerySupport.class).getDatabaseMajorVersion(em) >= 16) {
+            assertTrue(page.isTotalSizeEstimated());
+            assertTrue(page.getTotalSize() > 0L);
+        } else {
+            assertFalse(page.isTotalSizeEstimated());
+            assertEquals(3L, page.getTotalSize());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void estimatedCountCanNotBeInlined() {
+        createCriteriaBuilder()
+                .page(0, 2)
+                .withEstimatedCount(true)
+                .withInlineCountQuery(true);
+    }
+
+    private CriteriaBuilder<String> createCriteriaBuilder() {
+        return cbf.create(em, String.class)
+                .from(Person.class, "p")
+                .select("p.name")
+                .orderByAsc("p.name")
+                .orderByAsc("p.id");
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blazebit.persistence.impl;
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.impl.ParallelCountQueryExecutor;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.testsuite.entity.Person;
+import org.junit.Test;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class PaginationParallelCountQueryTest extends AbstractPersonNamesTest {
+
+    @Override
+    protected void configure(CriteriaBuilderConfiguration config) {
+        super.configure(config);
+        config.setProperty(ConfigurationProperties.PARALLEL_COUNT_QUERY_TIMEOUT, "2000");
+    }
+
+    @Test
+    public void parallelCountQueryComputesTotalSize() {
+        PagedList<String> firstPage = createPaginatedCriteriaBuilder("Karl%", 0).getResultList();
+        assertEquals(3L, firstPage.getTotalSize());
+        assertEquals(Arrays.asList("Karl1", "Karl2"), firstPage);
+
+        PagedList<String> secondPage = createPaginatedCriteriaBuilder("Karl%", 2).getResultList();
+        assertEquals(3L, secondPage.getTotalSize());
+        assertEquals(Arrays.asList("Karl3"), secondPage);
+    }
+
+    @Test
+    public void parallelCountQueryForEmptyPage() {
+        PagedList<String> emptyPage = createPaginatedCriteriaBuilder("Karl%", 4).getResultList();
+        assertEquals(3L, emptyPage.getTotalSize());
+        assertTrue(emptyPage.isEmpty());
+
+        PagedList<String> noResults = createPaginatedCriteriaBuilder("Franz%", 0).getResultList();
+        assertEquals(0L, noResults.getTotalSize());
+        assertTrue(noResults.isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void parallelCountQueryCanNotBeInlined() {
+        createPaginatedCriteriaBuilder("Karl%", 0).withInlineCountQuery(true);
+    }
+
+    @Test
+    public void parallelCountQueryRunsConcurrentlyOnSeparateEntityManager() {
+        final CountDownLatch objectQueryExecuted = new CountDownLatch(1);
+        final List<Thread> countThreads = Collections.synchronizedList(new ArrayList<Thread>());
+        final List<Boolean> overlapped = Collections.synchronizedList(new ArrayList<Boolean>());
+        EntityManagerFactory recordingEmf = createRecordingEntityManagerFactory(new Runnable() {
+            @Override
+            public void run() {
+                countThreads.add(Thread.currentThread());
+                try {
+                    // The count query only proceeds when the object query was executed in the meantime
+                    overlapped.add(objectQueryExecuted.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException ex) {
+                    throw new PersistenceException(ex);
+                }
+            }
+        });
+
+        PagedList<String> page = createPaginatedCriteriaBuilder(objectQueryExecuted, recordingEmf).getResultList();
+
+        assertEquals(3L, page.getTotalSize());
+        assertEquals(Arrays.asList("Karl1", "Karl2"), page);
+        assertEquals(1, countThreads.size());
+        assertNotSame(Thread.currentThread(), countThreads.get(0));
+        assertTrue(countThreads.get(0).getName().startsWith("blaze-persistence-parallel-count-query-"));
+        assertEquals(isVirtualThreadSupported(), isVirtual(countThreads.get(0)));
+        assertEquals(Arrays.asList(Boolean.TRUE), overlapped);
+    }
+
+    @Test
+    public void parallelCountQueryExecutorIsBounded() throws Exception {
+        ParallelCountQueryExecutor executor = new ParallelCountQueryExecutor(1, 1000L);
+        assertEquals(isVirtualThreadSupported(), executor.isUsingVirtualThreads());
+        final CountDownLatch released = new CountDownLatch(1);
+        FutureTask<Boolean> running = executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return released.await(10, TimeUnit.SECONDS);
+            }
+        });
+        Callable<Boolean> noop = new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return Boolean.TRUE;
+            }
+        };
+
+        assertNotNull(running);
+        // The caller has to execute the count query sequentially when the maximum is reached
+        assertNull(executor.submit(noop));
+        released.countDown();
+        assertTrue(running.get(10, TimeUnit.SECONDS));
+
+        FutureTask<Boolean> next = null;
+        // The thread or permit is only released after the task finished
+        for (int i = 0; next == null && i < 100; i++) {
+            next = executor.submit(noop);
+            if (next == null) {
+                Thread.sleep(10L);
+            }
+        }
+        assertNotNull(next);
+        assertTrue(next.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void parallelCountQueryFallsBackToSequentialCountAfterTimeout() throws InterruptedException {
+        final CountDownLatch released = new CountDownLatch(1);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        EntityManagerFactory blockingEmf = createRecordingEntityManagerFactory(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    // Simulates waiting for a connection of an exhausted pool
+                    released.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    cancelled.countDown();
+                    throw new PersistenceException(ex);
+                }
+            }
+        });
+
+        try {
+            enableQueryCollecting();
+            PagedList<String> page = createPaginatedCriteriaBuilder(new CountDownLatch(1), blockingEmf).getResultList();
+
+            assertEquals(3L, page.getTotalSize());
+            assertEquals(Arrays.asList("Karl1", "Karl2"), page);
+            // The data query and the sequential count query are executed on the connection of the entity manager
+            assertEquals(2, getExecutedQueries().size());
+            assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+        } finally {
+            released.countDown();
+            disableQueryCollecting();
+        }
+    }
+
+    @Test
+    public void parallelCountQueryBindsEntityParameterByIdentifier() {
+        Person karl1 = cbf.create(em, Person.class).where("name").eq("Karl1").getSingleResult();
+        PagedList<String> page = cbf.create(em, String.class)
+                .from(Person.class, "p")
+                .select("p.name")
+                .where("p").notEq(karl1)
+                .orderByAsc("p.name")
+                .orderByAsc("p.id")
+                .page(0, 2)
+                .withParallelCountQuery(emf)
+                .getResultList();
+
+        assertEquals(2L, page.getTotalSize());
+        assertEquals(Arrays.asList("Karl2", "Karl3"), page);
+    }
+
+    private static boolean isVirtualThreadSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual").invoke(null);
+            return true;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    private static boolean isVirtual(Thread thread) {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (NoSuchMethodException ex) {
+            return false;
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private PaginatedCriteriaBuilder<String> createPaginatedCriteriaBuilder(String namePattern, int firstResult) {
+        return cbf.create(em, String.class)
+                .from(Person.class, "p")
+                .select("p.name")
+                .where("p.name").like().value(namePattern).noEscape()
+                .orderByAsc("p.name")
+                .orderByAsc("p.id")
+                .page(firstResult, 2)
+                .withParallelCountQuery(emf);
+    }
+
+    private PaginatedCriteriaBuilder<String> createPaginatedCriteriaBuilder(final CountDownLatch objectQueryExecuted, EntityManagerFactory entityManagerFactory) {
+        CriteriaBuilder<String> cb = cbf.create(em, Person.class, "p")
+                .selectNew(new ObjectBuilder<String>() {
+                    @Override
+                    public <X extends SelectBuilder<X>> void applySelects(X selectBuilder) {
+                        selectBuilder.select("p.name");
+                    }
+
+                    @Override
+                    public String build(Object[] tuple) {
+                        objectQueryExecuted.countDown();
+                        return (String) tuple[0];
+                    }
+
+                    @Override
+                    public List<String> buildList(List<String> list) {
+                        return list;
+                    }
+                });
+        return cb.where("p.name").like().value("Karl%").noEscape()
+                .orderByAsc("p.name")
+                .orderByAsc("p.id")
+                .page(0, 2)
+                .withParallelCountQuery(entityManagerFactory);
+    }
+
+    private EntityManagerFactory createRecordingEntityManagerFactory(final Runnable onCreateEntityManager) {
+        return (EntityManagerFactory) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ EntityManagerFactory.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("createEntityManager".equals(method.getName())) {
+                    onCreateEntityManager.run();
+                }
+                try {
+                    return method.invoke(emf, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                }
+            }
+        });
+    }
+}
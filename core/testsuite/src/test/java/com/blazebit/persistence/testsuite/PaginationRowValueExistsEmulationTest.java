@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.impl.CriteriaBuilderConfigurationImpl;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.spi.DbmsDialect;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Uses a dialect without row value constructor support so that inlining the id query for multiple identifiers
+ * has to go through the EXISTS predicate emulation on every DBMS.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class PaginationRowValueExistsEmulationTest extends AbstractCoreTest {
+
+    @Override
+    protected void configure(CriteriaBuilderConfiguration config) {
+        super.configure(config);
+        Map<String, DbmsDialect> dbmsDialects = ((CriteriaBuilderConfigurationImpl) config).getDbmsDialects();
+        DbmsDialect dialect = dbmsDialects.get(dbms);
+        if (dialect == null) {
+            dialect = dbmsDialects.get(null);
+        }
+        config.registerDialect(dbms, new DelegatingDbmsDialect(dialect) {
+            @Override
+            public boolean supportsRowValueConstructor() {
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person owner = new Person("Owner");
+                em.persist(owner);
+                for (int i = 1; i <= 5; i++) {
+                    Document document = new Document("doc" + i);
+                    document.setOwner(owner);
+                    em.persist(document);
+                }
+            }
+        });
+    }
+
+    @Test
+    // The inlined id query requires non-scalar subqueries, subqueries in functions and subquery alias shadowing
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testPaginatedInlineIdQueryWithMultipleIdentifiers() {
+        CriteriaBuilder<Tuple> cb = cbf.create(em, Tuple.class).from(Document.class, "d")
+                .select("d.id").select("d.name").orderByAsc("d.name").orderByAsc("d.id");
+        PagedList<Tuple> expected = cb.pageBy(2, 2, "d.id", "d.name").withForceIdQuery(true).withInlineIdQuery(false).getResultList();
+
+        clearQueries();
+        enableQueryCollecting();
+        PagedList<Tuple> actual;
+        List<String> queries;
+        try {
+            actual = cb.pageBy(2, 2, "d.id", "d.name").withForceIdQuery(true).withInlineIdQuery(true).withInlineCountQuery(false).getResultList();
+            queries = getExecutedQueries();
+        } finally {
+            disableQueryCollecting();
+        }
+
+        // The count query and the object query with the inlined id query
+        assertEquals(2, queries.size());
+        assertTrue(queries.get(1), queries.get(1).contains("exists (select 1 from ("));
+        assertEquals(2, actual.size());
+        assertEquals(5L, actual.getTotalSize());
+        assertEquals(expected.getTotalSize(), actual.getTotalSize());
+        assertEquals("doc3", actual.get(0).get(1));
+        assertEquals("doc4", actual.get(1).get(1));
+        assertEquals(expected.get(0).get(0), actual.get(0).get(0));
+        assertEquals(expected.get(1).get(0), actual.get(1).get(0));
+    }
+}
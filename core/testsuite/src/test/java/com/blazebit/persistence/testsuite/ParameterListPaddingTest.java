@@ -0,0 +1,130 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.UpdateCriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.entity.SingularListEntity;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class ParameterListPaddingTest extends AbstractPersonNamesTest {
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return concat(super.getEntityClasses(), new Class<?>[] {
+            SingularListEntity.class
+        });
+    }
+
+    @Override
+    protected int getPersonCount() {
+        return 4;
+    }
+
+    @Test
+    public void paddedInListKeepsResult() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .from(Person.class, "p")
+                .select("p.name")
+                .where("p.name").in(Arrays.asList("Karl1", "Karl2", "Karl3"))
+                .orderByAsc("p.name");
+        cb.setProperty(ConfigurationProperties.PARAMETER_LIST_PADDING, "true");
+
+        List<String> result = cb.getResultList();
+        assertEquals(Arrays.asList("Karl1", "Karl2", "Karl3"), result);
+    }
+
+    @Test
+    public void inListsOfSameSizeBucketArePaddedToSameSize() {
+        TypedQuery<String> query3 = createNamesQuery(Arrays.asList("Karl1", "Karl2", "Karl3"));
+        TypedQuery<String> query4 = createNamesQuery(Arrays.asList("Karl1", "Karl2", "Karl3", "Karl4"));
+
+        assertEquals(Arrays.asList("Karl1", "Karl2", "Karl3", "Karl3"), new ArrayList<>((Collection<?>) query3.getParameterValue("names")));
+        assertEquals(Arrays.asList("Karl1", "Karl2", "Karl3", "Karl4"), new ArrayList<>((Collection<?>) query4.getParameterValue("names")));
+    }
+
+    private TypedQuery<String> createNamesQuery(List<String> names) {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .from(Person.class, "p")
+                .select("p.name")
+                .where("p.name").in(":names")
+                .orderByAsc("p.name");
+        cb.setProperty(ConfigurationProperties.PARAMETER_LIST_PADDING, "true");
+        cb.setParameter("names", names);
+        return cb.getQuery();
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void paddedValuesClauseKeepsResult() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.setProperty(ConfigurationProperties.PARAMETER_LIST_PADDING, "true");
+        cb.fromValues(String.class, "allowedName", Arrays.asList("Karl1", "Karl2", "Karl3"));
+        cb.from(Person.class, "p");
+        cb.where("p.name").eqExpression("allowedName");
+        cb.select("p.name");
+        cb.orderByAsc("p.name");
+
+        assertEquals("SELECT p.name FROM String(4 VALUES) allowedName, Person p WHERE p.name = allowedName ORDER BY p.name ASC", cb.getQueryString());
+        assertEquals(Arrays.asList("Karl1", "Karl2", "Karl3"), cb.getResultList());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void collectionValueInSetClauseIsNotPadded() {
+        final SingularListEntity entity = new SingularListEntity("list");
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                em.persist(entity);
+            }
+        });
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                UpdateCriteriaBuilder<SingularListEntity> cb = cbf.update(em, SingularListEntity.class, "e");
+                cb.setProperty(ConfigurationProperties.PARAMETER_LIST_PADDING, "true");
+                cb.set("list", Arrays.asList("a", "b", "c"));
+                cb.where("e.id").eq(entity.getId());
+                assertEquals(1, cb.executeUpdate());
+            }
+        });
+
+        em.clear();
+        assertEquals(Arrays.asList("a", "b", "c"), em.find(SingularListEntity.class, entity.getId()).getList());
+    }
+}
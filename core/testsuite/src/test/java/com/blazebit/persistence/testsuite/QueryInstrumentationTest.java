@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.spi.HistogramQueryInstrumentation;
+import com.blazebit.persistence.spi.QueryPhase;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class QueryInstrumentationTest extends AbstractCoreTest {
+
+    private static final HistogramQueryInstrumentation INSTRUMENTATION = new HistogramQueryInstrumentation();
+
+    @Override
+    protected void configure(CriteriaBuilderConfiguration config) {
+        super.configure(config);
+        config.registerQueryInstrumentation(INSTRUMENTATION);
+    }
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                em.persist(new Person("Karl1"));
+                em.persist(new Person("Karl2"));
+            }
+        });
+    }
+
+    @Before
+    public void resetInstrumentation() {
+        INSTRUMENTATION.reset();
+    }
+
+    @Test
+    public void recordsRenderingOfQueryString() {
+        cbf.create(em, Person.class, "p").where("p.name").eq("Karl1").getQueryString();
+
+        assertEquals(1L, INSTRUMENTATION.getSnapshot(QueryPhase.RENDER).getCount());
+        assertEquals(0L, INSTRUMENTATION.getSnapshot(QueryPhase.EXECUTE).getCount());
+    }
+
+    @Test
+    public void recordsBuildAndExecution() {
+        List<Person> result = cbf.create(em, Person.class, "p").orderByAsc("p.name").getResultList();
+
+        assertEquals(2, result.size());
+        assertEquals(1L, INSTRUMENTATION.getSnapshot(QueryPhase.BUILD).getCount());
+        assertTrue(INSTRUMENTATION.getSnapshot(QueryPhase.RENDER).getCount() >= 1L);
+        assertEquals(1L, INSTRUMENTATION.getSnapshot(QueryPhase.EXECUTE).getCount());
+        assertEquals(0L, INSTRUMENTATION.getSnapshot(QueryPhase.OBJECT_BUILD).getCount());
+    }
+
+    @Test
+    public void recordsStreamExecution() {
+        Stream<Person> stream = cbf.create(em, Person.class, "p").orderByAsc("p.name").getResultStream();
+        try {
+            assertEquals(1L, INSTRUMENTATION.getSnapshot(QueryPhase.BUILD).getCount());
+            assertEquals(1L, INSTRUMENTATION.getSnapshot(QueryPhase.EXECUTE).getCount());
+            assertEquals(2L, stream.count());
+        } finally {
+            stream.close();
+        }
+    }
+
+    @Test
+    public void recordsObjectBuilding() {
+        CriteriaBuilder<String> cb = cbf.create(em, Person.class, "p")
+                .selectNew(new ObjectBuilder<String>() {
+                    @Override
+                    public <X extends SelectBuilder<X>> void applySelects(X selectBuilder) {
+                        selectBuilder.select("p.name");
+                    }
+
+                    @Override
+                    public String build(Object[] tuple) {
+                        return (String) tuple[0];
+                    }
+
+                    @Override
+                    public List<String> buildList(List<String> list) {
+                        return list;
+                    }
+                })
+                .orderByAsc("p.name");
+        List<String> result = cb.getResultList();
+
+        assertEquals(2, result.size());
+        assertEquals(1L, INSTRUMENTATION.getSnapshot(QueryPhase.OBJECT_BUILD).getCount());
+        assertEquals(1L, INSTRUMENTATION.getSnapshot(QueryPhase.EXECUTE).getCount());
+        HistogramQueryInstrumentation.Snapshot snapshot = INSTRUMENTATION.getSnapshot(QueryPhase.EXECUTE);
+        assertTrue(snapshot.getMaxNanos() <= snapshot.getTotalNanos());
+        assertTrue(snapshot.getPercentileNanos(0.5) <= snapshot.getMaxNanos());
+    }
+}
@@ -15,6 +15,11 @@ postgresql_9_5() {
     docker run --name postgres -e POSTGRES_DB=test -e POSTGRES_PASSWORD=postgres -p5432:5432 -d postgres:9.5
 }
 
+postgresql_16() {
+    docker rm -f postgres || true
+    docker run --name postgres -e POSTGRES_DB=test -e POSTGRES_PASSWORD=postgres -p5432:5432 -d postgres:16
+}
+
 db2() {
     docker rm -f db2 || true
     docker run --name db2 --privileged -e DB2INST1_PASSWORD=db2inst1-pwd -e DBNAME=test -e LICENSE=accept -p 50000:50000 -d ibmcom/db2:11.5.0.0a
@@ -44,6 +49,7 @@ if [ -z ${1} ]; then
     echo -e "\tmysql_5_7"
     echo -e "\tmysql_8_0"
     echo -e "\tpostgresql_9_5"
+    echo -e "\tpostgresql_16"
     echo -e "\tdb2"
     echo -e "\tmssql"
     echo -e "\toracle"
@@ -257,6 +257,16 @@ public final class ConfigurationProperties {
      */
     public static final String CREATE_EMPTY_FLAT_VIEWS = "com.blazebit.persistence.view.create_empty_flat_views";
 
+    /**
+     * A boolean flag to make it possible to distribute the per-view boot work, like the scanning for static implementations, metamodels and builders,
+     * across a fork-join pool. The entity view metamodel building and proxy class generation is unaffected and still happens sequentially.
+     * By default the parallel boot is disabled i.e. the default value is <code>false</code>.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     *
+     * @since 1.6.9
+     */
+    public static final String PARALLEL_BOOT = "com.blazebit.persistence.view.parallel_boot";
+
     private ConfigurationProperties() {
     }
 }
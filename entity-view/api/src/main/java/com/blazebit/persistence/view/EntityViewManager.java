@@ -24,6 +24,8 @@ import com.blazebit.persistence.view.change.SingularChangeModel;
 import com.blazebit.persistence.view.metamodel.ViewMetamodel;
 
 import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -73,6 +75,62 @@ public interface EntityViewManager extends ServiceProvider {
      */
     public <T> T find(EntityManager entityManager, EntityViewSetting<T, CriteriaBuilder<T>> entityViewSetting, Object entityId);
 
+    /**
+     * Loads and returns the entity views of the given type having the given entity ids.
+     * The entity views are loaded in batches of the size configured via {@link ConfigurationProperties#DEFAULT_BATCH_SIZE}.
+     * The resulting list has the order of the given entity ids and contains <code>null</code> for ids that don't exist.
+     *
+     * @param entityManager The entity manager to use for querying
+     * @param entityViewClass The entity view class to use
+     * @param entityIds The ids of the entities
+     * @param <T> The type of the entity view class
+     * @return The loaded instances of the given entity view type in the order of the given ids
+     * @since 1.6.9
+     */
+    public <T> List<T> findAll(EntityManager entityManager, Class<T> entityViewClass, Collection<?> entityIds);
+
+    /**
+     * Loads and returns the entity views as determined by the given type {@link EntityViewSetting} having the given entity ids.
+     * The entity views are loaded in batches of the size configured via {@link ConfigurationProperties#DEFAULT_BATCH_SIZE}.
+     * The resulting list has the order of the given entity ids and contains <code>null</code> for ids that don't exist.
+     *
+     * @param entityManager The entity manager to use for querying
+     * @param entityViewSetting The entity view setting to use
+     * @param entityIds The ids of the entities
+     * @param <T> The type of the entity view class
+     * @return The loaded instances of the given entity view type in the order of the given ids
+     * @since 1.6.9
+     */
+    public <T> List<T> findAll(EntityManager entityManager, EntityViewSetting<T, CriteriaBuilder<T>> entityViewSetting, Collection<?> entityIds);
+
+    /**
+     * Loads and returns the entity views of the given type having the given entity ids as map keyed by the entity ids.
+     * The entity views are loaded in batches of the size configured via {@link ConfigurationProperties#DEFAULT_BATCH_SIZE}.
+     * The map iterates in the order of the given entity ids and contains no entries for ids that don't exist.
+     *
+     * @param entityManager The entity manager to use for querying
+     * @param entityViewClass The entity view class to use
+     * @param entityIds The ids of the entities
+     * @param <T> The type of the entity view class
+     * @return The loaded instances of the given entity view type by entity id
+     * @since 1.6.9
+     */
+    public <T> Map<Object, T> findMap(EntityManager entityManager, Class<T> entityViewClass, Collection<?> entityIds);
+
+    /**
+     * Loads and returns the entity views as determined by the given type {@link EntityViewSetting} having the given entity ids as map keyed by the entity ids.
+     * The entity views are loaded in batches of the size configured via {@link ConfigurationProperties#DEFAULT_BATCH_SIZE}.
+     * The map iterates in the order of the given entity ids and contains no entries for ids that don't exist.
+     *
+     * @param entityManager The entity manager to use for querying
+     * @param entityViewSetting The entity view setting to use
+     * @param entityIds The ids of the entities
+     * @param <T> The type of the entity view class
+     * @return The loaded instances of the given entity view type by entity id
+     * @since 1.6.9
+     */
+    public <T> Map<Object, T> findMap(EntityManager entityManager, EntityViewSetting<T, CriteriaBuilder<T>> entityViewSetting, Collection<?> entityIds);
+
     /**
      * Creates a reference instance of the entity view class for the given id and returns it.
      *
@@ -345,6 +403,20 @@ public interface EntityViewManager extends ServiceProvider {
      */
     public void saveFull(EntityManager entityManager, Object view);
 
+    /**
+     * Saves the entities which the given entity views map to within a single flush operation.
+     * Issues partial updates if enabled for the respective views.
+     * The views are flushed in the iteration order of the given collection and share listeners, version checks and orphan removal of the flush operation.
+     * When using the query flush strategy, the update statements for the views are grouped by view type and dirty attributes
+     * and executed as JDBC batches at the end of the operation if the JPA provider integration supports it.
+     * A view with a stale version fails the whole operation with an {@link OptimisticLockException}.
+     *
+     * @param entityManager The entity manager to use for the save
+     * @param views The views to use for saving
+     * @since 1.6.9
+     */
+    public void saveAll(EntityManager entityManager, Collection<?> views);
+
     /**
      * Saves the entity view state onto the given entity.
      * Issues a partial update if enabled for the given view.
@@ -443,6 +515,19 @@ public interface EntityViewManager extends ServiceProvider {
      */
     public void remove(EntityManager entityManager, Object view);
 
+    /**
+     * Removes the entities represented by the given views within a single flush operation.
+     * The views are removed in the iteration order of the given collection.
+     * When using the query flush strategy, the delete statements for consecutive views of the same type
+     * are executed as JDBC batches if the JPA provider integration supports it and no further deletes have to happen after the delete.
+     * Also cascades deletes to attributes that have {@link CascadeType#DELETE} enabled.
+     *
+     * @param entityManager The entity manager to use for the removing
+     * @param views The views for which the entities should be removed
+     * @since 1.6.9
+     */
+    public void removeAll(EntityManager entityManager, Collection<?> views);
+
     /**
      * Removes the entity represented by the given view.
      * Also cascades deletes to attributes that have {@link CascadeType#DELETE} enabled.
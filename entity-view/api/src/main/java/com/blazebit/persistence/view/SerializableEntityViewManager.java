@@ -24,6 +24,8 @@ import com.blazebit.persistence.view.metamodel.ViewMetamodel;
 import javax.persistence.EntityManager;
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -84,6 +86,26 @@ public class SerializableEntityViewManager implements EntityViewManager, Seriali
         return getEvm().find(entityManager, entityViewSetting, entityId);
     }
 
+    @Override
+    public <T> List<T> findAll(EntityManager entityManager, Class<T> entityViewClass, Collection<?> entityIds) {
+        return getEvm().findAll(entityManager, entityViewClass, entityIds);
+    }
+
+    @Override
+    public <T> List<T> findAll(EntityManager entityManager, EntityViewSetting<T, CriteriaBuilder<T>> entityViewSetting, Collection<?> entityIds) {
+        return getEvm().findAll(entityManager, entityViewSetting, entityIds);
+    }
+
+    @Override
+    public <T> Map<Object, T> findMap(EntityManager entityManager, Class<T> entityViewClass, Collection<?> entityIds) {
+        return getEvm().findMap(entityManager, entityViewClass, entityIds);
+    }
+
+    @Override
+    public <T> Map<Object, T> findMap(EntityManager entityManager, EntityViewSetting<T, CriteriaBuilder<T>> entityViewSetting, Collection<?> entityIds) {
+        return getEvm().findMap(entityManager, entityViewSetting, entityIds);
+    }
+
     @Override
     public <T> T getReference(Class<T> entityViewClass, Object id) {
         return getEvm().getReference(entityViewClass, id);
@@ -194,6 +216,11 @@ public class SerializableEntityViewManager implements EntityViewManager, Seriali
         getEvm().save(entityManager, view);
     }
 
+    @Override
+    public void saveAll(EntityManager entityManager, Collection<?> views) {
+        getEvm().saveAll(entityManager, views);
+    }
+
     @Override
     public void saveFull(EntityManager entityManager, Object view) {
         getEvm().saveFull(entityManager, view);
@@ -246,6 +273,11 @@ public class SerializableEntityViewManager implements EntityViewManager, Seriali
         getEvm().remove(entityManager, view);
     }
 
+    @Override
+    public void removeAll(EntityManager entityManager, Collection<?> views) {
+        getEvm().removeAll(entityManager, views);
+    }
+
     @Override
     public FlushOperationBuilder removeWith(EntityManager entityManager, Object view) {
         return getEvm().removeWith(entityManager, view);
@@ -76,6 +76,7 @@ public class EntityViewConfigurationImpl implements EntityViewConfiguration {
         properties.put(ConfigurationProperties.STATIC_IMPLEMENTATION_SCANNING_DISABLED, "false");
         properties.put(ConfigurationProperties.STATIC_METAMODEL_SCANNING_DISABLED, "false");
         properties.put(ConfigurationProperties.CREATE_EMPTY_FLAT_VIEWS, "true");
+        properties.put(ConfigurationProperties.PARALLEL_BOOT, "false");
 
         typeTestValues.put(boolean.class, true);
         typeTestValues.put(byte.class, Byte.MAX_VALUE);
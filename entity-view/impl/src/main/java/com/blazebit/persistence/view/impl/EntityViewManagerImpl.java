@@ -29,11 +29,14 @@ import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.parser.expression.MacroConfiguration;
 import com.blazebit.persistence.parser.expression.MacroFunction;
 import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
+import com.blazebit.persistence.spi.ConfigurationSource;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.JpaProvider;
 import com.blazebit.persistence.spi.JpqlFunction;
 import com.blazebit.persistence.spi.JpqlMacro;
 import com.blazebit.persistence.spi.PackageOpener;
+import com.blazebit.persistence.spi.QueryInstrumentation;
+import com.blazebit.persistence.spi.QueryPhase;
 import com.blazebit.persistence.view.AttributeFilterProvider;
 import com.blazebit.persistence.view.ConfigurationProperties;
 import com.blazebit.persistence.view.ConvertOperationBuilder;
@@ -75,6 +78,7 @@ import com.blazebit.persistence.view.filter.StartsWithIgnoreCaseFilter;
 import com.blazebit.persistence.view.impl.accessor.AttributeAccessor;
 import com.blazebit.persistence.view.impl.accessor.EntityIdAttributeAccessor;
 import com.blazebit.persistence.view.impl.change.ViewChangeModel;
+import com.blazebit.persistence.view.impl.entity.EntityTupleizer;
 import com.blazebit.persistence.view.impl.filter.BetweenFilterImpl;
 import com.blazebit.persistence.view.impl.filter.ContainsFilterImpl;
 import com.blazebit.persistence.view.impl.filter.ContainsIgnoreCaseFilterImpl;
@@ -89,6 +93,8 @@ import com.blazebit.persistence.view.impl.filter.NullFilterImpl;
 import com.blazebit.persistence.view.impl.filter.StartsWithFilterImpl;
 import com.blazebit.persistence.view.impl.filter.StartsWithIgnoreCaseFilterImpl;
 import com.blazebit.persistence.view.impl.macro.DefaultViewRootJpqlMacro;
+import com.blazebit.persistence.view.impl.macro.MutableEmbeddingViewJpqlMacro;
+import com.blazebit.persistence.view.impl.macro.MutableViewJpqlMacro;
 import com.blazebit.persistence.view.impl.mapper.ConvertOperationBuilderImpl;
 import com.blazebit.persistence.view.impl.mapper.ViewMapper;
 import com.blazebit.persistence.view.impl.metamodel.AbstractMethodAttribute;
@@ -104,12 +110,14 @@ import com.blazebit.persistence.view.impl.objectbuilder.ContainerAccumulator;
 import com.blazebit.persistence.view.impl.objectbuilder.ViewTypeObjectBuilderTemplate;
 import com.blazebit.persistence.view.impl.proxy.ProxyFactory;
 import com.blazebit.persistence.view.impl.type.DefaultBasicUserTypeRegistry;
+import com.blazebit.persistence.view.impl.update.DefaultEntityTupleizer;
 import com.blazebit.persistence.view.impl.update.DefaultUpdateContext;
 import com.blazebit.persistence.view.impl.update.EntityViewUpdater;
 import com.blazebit.persistence.view.impl.update.EntityViewUpdaterImpl;
 import com.blazebit.persistence.view.impl.update.Listeners;
 import com.blazebit.persistence.view.impl.update.SimpleUpdateContext;
 import com.blazebit.persistence.view.impl.update.UpdateContext;
+import com.blazebit.persistence.view.impl.update.UpdateQueryBatch;
 import com.blazebit.persistence.view.impl.update.flush.CompositeAttributeFlusher;
 import com.blazebit.persistence.view.impl.update.listener.ViewInstancePostCommitListener;
 import com.blazebit.persistence.view.impl.update.listener.ViewInstancePostPersistEntityListener;
@@ -152,16 +160,25 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  *
@@ -175,6 +192,8 @@ public class EntityViewManagerImpl implements EntityViewManager {
     private static final String MULTI_RELATION_CLASS_NAME_SUFFIX = "MultiRelation";
     private static final String BUILDER_CLASS_NAME_SUFFIX = "Builder";
     private static final Set<ViewTransition> VIEW_TRANSITIONS = EnumSet.allOf(ViewTransition.class);
+    // Stay below the IN predicate element limit of common DBMS like Oracle
+    private static final int DEFAULT_FIND_ALL_BATCH_SIZE = 1000;
     private static final Method SYNTHETIC_VERSION_GETTER;
 
     static {
@@ -185,11 +204,13 @@ public class EntityViewManagerImpl implements EntityViewManager {
         }
     }
 
+    private final ConfigurationSource configurationSource;
     private final CriteriaBuilderFactory cbf;
     private final JpaProvider jpaProvider;
     private final DbmsDialect dbmsDialect;
     private final ExpressionFactory expressionFactory;
     private final PackageOpener packageOpener;
+    private final QueryInstrumentation queryInstrumentation;
     private final AttributeAccessor entityIdAccessor;
     private final ViewMetamodelImpl metamodel;
     private final ProxyFactory proxyFactory;
@@ -212,17 +233,21 @@ public class EntityViewManagerImpl implements EntityViewManager {
     private final Map<ViewBuilderKey, Constructor<? extends EntityViewBuilder<?>>> viewBuilderClasses;
     private final boolean unsafeDisabled;
     private final boolean strictCascadingCheck;
+    private final int findAllBatchSize;
 
     public EntityViewManagerImpl(EntityViewConfigurationImpl config, CriteriaBuilderFactory cbf) {
+        this.configurationSource = createConfigurationSource(config, cbf);
         this.cbf = cbf;
         this.jpaProvider = cbf.getService(JpaProvider.class);
         this.dbmsDialect = cbf.getService(DbmsDialect.class);
         EntityMetamodel entityMetamodel = cbf.getService(EntityMetamodel.class);
         this.expressionFactory = cbf.getService(ExpressionFactory.class);
         this.packageOpener = cbf.getService(PackageOpener.class);
+        this.queryInstrumentation = cbf.getService(QueryInstrumentation.class);
         this.entityIdAccessor = new EntityIdAttributeAccessor(jpaProvider);
         this.unsafeDisabled = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_UNSAFE_ALLOWED)));
         this.strictCascadingCheck = Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.UPDATER_STRICT_CASCADING_CHECK)));
+        this.findAllBatchSize = getBatchSize(config.getProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE), DEFAULT_FIND_ALL_BATCH_SIZE);
         this.proxyFactory = new ProxyFactory(unsafeDisabled, strictCascadingCheck, packageOpener);
         this.transactionSupport = config.getTransactionSupport();
         this.optionalParameters = Collections.unmodifiableMap(new HashMap<>(config.getOptionalParameters()));
@@ -239,9 +264,9 @@ public class EntityViewManagerImpl implements EntityViewManager {
 
         boolean validateManagedTypes = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.MANAGED_TYPE_VALIDATION_DISABLED)));
         boolean validateExpressions = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.EXPRESSION_VALIDATION_DISABLED)));
-        boolean scanStaticBuilder = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.STATIC_BUILDER_SCANNING_DISABLED)));
-        boolean scanStaticImplementations = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.STATIC_IMPLEMENTATION_SCANNING_DISABLED)));
-        boolean scanStaticMetamodels = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.STATIC_METAMODEL_SCANNING_DISABLED)));
+        final boolean scanStaticBuilder = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.STATIC_BUILDER_SCANNING_DISABLED)));
+        final boolean scanStaticImplementations = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.STATIC_IMPLEMENTATION_SCANNING_DISABLED)));
+        final boolean scanStaticMetamodels = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.STATIC_METAMODEL_SCANNING_DISABLED)));
 
         Set<String> errors = config.getBootContext().getErrors();
         Map<String, JpqlFunction> functions = cbf.getRegisteredFunctions();
@@ -319,60 +344,78 @@ public class EntityViewManagerImpl implements EntityViewManager {
 
         this.javaTypeToManagedTypeJavaTypes = javaTypeToManagedTypeJavaTypes;
 
-        Map<Class<?>, Set<Class<?>>> convertibleManagedViewTypes = new HashMap<>();
-        Map<Class<?>, Listeners> listeners = new HashMap<>();
-        Map<ViewBuilderKey, Constructor<? extends EntityViewBuilder<?>>> viewBuilderConstructors = new HashMap<>();
-        Map<Class<?>, Constructor<?>> relationConstructors = new HashMap<>(viewMetamodel.getManagedViews().size());
-        Map<Class<?>, Constructor<?>> multiRelationConstructors = new HashMap<>(viewMetamodel.getManagedViews().size());
-        for (ManagedViewType<?> managedView : viewMetamodel.getManagedViews()) {
-            Class<?> javaType = managedView.getJavaType();
-            Listeners l = new Listeners(managedView.getEntityClass());
-            listeners.put(javaType, l);
-            if (managedView.getPrePersistMethod() != null) {
-                l.addPrePersistEntityListener(javaType, new ViewInstancePrePersistEntityListener(managedView.getPrePersistMethod()));
-            }
-            if (managedView.getPostPersistMethod() != null) {
-                l.addPostPersistEntityListener(javaType, new ViewInstancePostPersistEntityListener(managedView.getPostPersistMethod()));
-            }
-            if (managedView.getPreUpdateMethod() != null) {
-                l.addPreUpdateListener(javaType, new ViewInstancePreUpdateListener(managedView.getPreUpdateMethod()));
-            }
-            if (managedView.getPostUpdateMethod() != null) {
-                l.addPostUpdateListener(javaType, new ViewInstancePostUpdateListener(managedView.getPostUpdateMethod()));
-            }
-            if (managedView.getPreRemoveMethod() != null) {
-                l.addPreRemoveListener(javaType, new ViewInstancePreRemoveListener(managedView.getPreRemoveMethod()));
-            }
-            if (managedView.getPostRemoveMethod() != null) {
-                l.addPostRemoveListener(javaType, new ViewInstancePostRemoveListener(managedView.getPostRemoveMethod()));
-            }
-            if (managedView.getPostCommitMethod() != null) {
-                l.addPostCommitListener(javaType, new ViewInstancePostCommitListener(managedView.getPostCommitMethod()), managedView.getPostCommitTransitions());
-            }
-            if (managedView.getPostRollbackMethod() != null) {
-                l.addPostRollbackListener(javaType, new ViewInstancePostRollbackListener(managedView.getPostRollbackMethod()), managedView.getPostCommitTransitions());
-            }
+        // With parallel boot, the per-view work is distributed across a fork-join pool, so the shared maps must be concurrent
+        final boolean parallelBoot = Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PARALLEL_BOOT)));
+        final Map<Class<?>, Set<Class<?>>> convertibleManagedViewTypes = parallelBoot ? new ConcurrentHashMap<Class<?>, Set<Class<?>>>() : new HashMap<Class<?>, Set<Class<?>>>();
+        final Map<Class<?>, Listeners> listeners = parallelBoot ? new ConcurrentHashMap<Class<?>, Listeners>() : new HashMap<Class<?>, Listeners>();
+        final Map<ViewBuilderKey, Constructor<? extends EntityViewBuilder<?>>> viewBuilderConstructors = parallelBoot
+                ? new ConcurrentHashMap<ViewBuilderKey, Constructor<? extends EntityViewBuilder<?>>>() : new HashMap<ViewBuilderKey, Constructor<? extends EntityViewBuilder<?>>>();
+        final Map<Class<?>, Constructor<?>> relationConstructors = parallelBoot
+                ? new ConcurrentHashMap<Class<?>, Constructor<?>>(viewMetamodel.getManagedViews().size()) : new HashMap<Class<?>, Constructor<?>>(viewMetamodel.getManagedViews().size());
+        final Map<Class<?>, Constructor<?>> multiRelationConstructors = parallelBoot
+                ? new ConcurrentHashMap<Class<?>, Constructor<?>>(viewMetamodel.getManagedViews().size()) : new HashMap<Class<?>, Constructor<?>>(viewMetamodel.getManagedViews().size());
+        List<Callable<Set<String>>> bootTasks = new ArrayList<>(viewMetamodel.getManagedViews().size());
+        for (final ManagedViewType<?> managedView : viewMetamodel.getManagedViews()) {
+            bootTasks.add(new Callable<Set<String>>() {
+                @Override
+                public Set<String> call() {
+                    // Every view collects its own errors so that the reported errors don't depend on the execution order
+                    Set<String> viewErrors = new LinkedHashSet<>();
+                    Class<?> javaType = managedView.getJavaType();
+                    Listeners l = new Listeners(managedView.getEntityClass());
+                    listeners.put(javaType, l);
+                    if (managedView.getPrePersistMethod() != null) {
+                        l.addPrePersistEntityListener(javaType, new ViewInstancePrePersistEntityListener(managedView.getPrePersistMethod()));
+                    }
+                    if (managedView.getPostPersistMethod() != null) {
+                        l.addPostPersistEntityListener(javaType, new ViewInstancePostPersistEntityListener(managedView.getPostPersistMethod()));
+                    }
+                    if (managedView.getPreUpdateMethod() != null) {
+                        l.addPreUpdateListener(javaType, new ViewInstancePreUpdateListener(managedView.getPreUpdateMethod()));
+                    }
+                    if (managedView.getPostUpdateMethod() != null) {
+                        l.addPostUpdateListener(javaType, new ViewInstancePostUpdateListener(managedView.getPostUpdateMethod()));
+                    }
+                    if (managedView.getPreRemoveMethod() != null) {
+                        l.addPreRemoveListener(javaType, new ViewInstancePreRemoveListener(managedView.getPreRemoveMethod()));
+                    }
+                    if (managedView.getPostRemoveMethod() != null) {
+                        l.addPostRemoveListener(javaType, new ViewInstancePostRemoveListener(managedView.getPostRemoveMethod()));
+                    }
+                    if (managedView.getPostCommitMethod() != null) {
+                        l.addPostCommitListener(javaType, new ViewInstancePostCommitListener(managedView.getPostCommitMethod()), managedView.getPostCommitTransitions());
+                    }
+                    if (managedView.getPostRollbackMethod() != null) {
+                        l.addPostRollbackListener(javaType, new ViewInstancePostRollbackListener(managedView.getPostRollbackMethod()), managedView.getPostCommitTransitions());
+                    }
 
-            if (!javaType.isInterface() && !Modifier.isAbstract(javaType.getModifiers())) {
-                proxyFactory.setImplementation(javaType);
-            } else if (scanStaticImplementations) {
-                proxyFactory.loadImplementation(errors, managedView, this);
-            }
-            if (scanStaticMetamodels) {
-                initializeStaticMetamodel(errors, managedView, relationConstructors, multiRelationConstructors);
-            }
-            if (scanStaticBuilder) {
-                initializeStaticBuilder(errors, managedView, viewBuilderConstructors);
-            }
+                    if (!javaType.isInterface() && !Modifier.isAbstract(javaType.getModifiers())) {
+                        proxyFactory.setImplementation(javaType);
+                    } else if (scanStaticImplementations) {
+                        proxyFactory.loadImplementation(viewErrors, managedView, EntityViewManagerImpl.this);
+                    }
+                    if (scanStaticMetamodels) {
+                        initializeStaticMetamodel(viewErrors, managedView, relationConstructors, multiRelationConstructors);
+                    }
+                    if (scanStaticBuilder) {
+                        initializeStaticBuilder(viewErrors, managedView, viewBuilderConstructors);
+                    }
 
-            HashSet<Class<?>> classes = new HashSet<>();
-            convertibleManagedViewTypes.put(javaType, classes);
+                    HashSet<Class<?>> classes = new HashSet<>();
+                    convertibleManagedViewTypes.put(javaType, classes);
 
-            for (ManagedViewType<?> targetType : viewMetamodel.getManagedViews()) {
-                if (isConvertible(managedView, targetType)) {
-                    classes.add(targetType.getJavaType());
+                    for (ManagedViewType<?> targetType : metamodel.getManagedViews()) {
+                        if (isConvertible(managedView, targetType)) {
+                            classes.add(targetType.getJavaType());
+                        }
+                    }
+                    return viewErrors;
                 }
-            }
+            });
+        }
+
+        for (Set<String> viewErrors : runBootTasks(bootTasks, parallelBoot)) {
+            errors.addAll(viewErrors);
         }
 
         if (!errors.isEmpty()) {
@@ -433,7 +476,9 @@ public class EntityViewManagerImpl implements EntityViewManager {
 
         this.listeners = listeners;
 
-        if (Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.TEMPLATE_EAGER_LOADING)))) {
+        boolean templateEagerLoading = Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.TEMPLATE_EAGER_LOADING)));
+        boolean proxyEagerLoading = Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_EAGER_LOADING)));
+        if (templateEagerLoading) {
             for (ViewTypeImpl<?> view : metamodel.views()) {
                 // TODO: Might be a good idea to let the view root be overridden or specified via the annotation
                 String probableViewRoot = StringUtils.firstToLower(view.getEntityClass().getSimpleName());
@@ -446,8 +491,9 @@ public class EntityViewManagerImpl implements EntityViewManager {
                     getTemplate(macroAwareExpressionFactory, view, (MappingConstructorImpl) constructor, null, viewJpqlMacro, null, embeddingViewJpqlMacro);
                 }
             }
-        } else if (Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_EAGER_LOADING)))) {
+        } else if (proxyEagerLoading) {
             // Loading template will always involve also loading the proxies, so we use else if
+            // Proxies are always generated sequentially, because the Javassist ClassPool is not safe for concurrent use
             for (ViewType<?> view : metamodel.getViews()) {
                 proxyFactory.getProxy(this, (ManagedViewTypeImplementor<Object>) view);
             }
@@ -460,6 +506,55 @@ public class EntityViewManagerImpl implements EntityViewManager {
         }
     }
 
+    private static <T> List<T> runBootTasks(List<Callable<T>> tasks, boolean parallel) {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (!parallel || tasks.size() < 2) {
+            for (Callable<T> task : tasks) {
+                try {
+                    results.add(task.call());
+                } catch (Exception ex) {
+                    ExceptionUtils.doThrow(ex);
+                }
+            }
+            return results;
+        }
+
+        // Worker threads don't inherit the context class loader, so we run the tasks with the one of the caller
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        List<Callable<T>> contextTasks = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            contextTasks.add(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    Thread thread = Thread.currentThread();
+                    ClassLoader oldContextClassLoader = thread.getContextClassLoader();
+                    thread.setContextClassLoader(contextClassLoader);
+                    try {
+                        return task.call();
+                    } finally {
+                        thread.setContextClassLoader(oldContextClassLoader);
+                    }
+                }
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            // Results are collected in task order to keep error reporting deterministic
+            for (Future<T> future : pool.invokeAll(contextTasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during parallel entity view boot", ex);
+        } catch (ExecutionException ex) {
+            ExceptionUtils.doThrow(ex.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
     private static String getMetamodelClassName(Class<?> javaType) {
         return getGeneratedClassName(javaType, META_MODEL_CLASS_NAME_SUFFIX);
     }
@@ -760,6 +855,8 @@ public class EntityViewManagerImpl implements EntityViewManager {
             return (T) transactionSupport;
         } else if (CriteriaBuilderFactory.class.isAssignableFrom(serviceClass)) {
             return (T) cbf;
+        } else if (ConfigurationSource.class.equals(serviceClass)) {
+            return (T) configurationSource;
         }
         return cbf.getService(serviceClass);
     }
@@ -806,6 +903,128 @@ public class EntityViewManagerImpl implements EntityViewManager {
         return resultList.isEmpty() ? null : resultList.get(0);
     }
 
+    @Override
+    public <T> List<T> findAll(EntityManager entityManager, Class<T> entityViewClass, Collection<?> entityIds) {
+        return findAll(entityManager, EntityViewSetting.create(entityViewClass), entityIds);
+    }
+
+    @Override
+    public <T> List<T> findAll(EntityManager entityManager, EntityViewSetting<T, CriteriaBuilder<T>> entityViewSetting, Collection<?> entityIds) {
+        Map<Object, T> views = findMap(entityManager, entityViewSetting, entityIds);
+        List<T> resultList = new ArrayList<>(entityIds.size());
+        for (Object entityId : entityIds) {
+            resultList.add(views.get(entityId));
+        }
+        return resultList;
+    }
+
+    @Override
+    public <T> Map<Object, T> findMap(EntityManager entityManager, Class<T> entityViewClass, Collection<?> entityIds) {
+        return findMap(entityManager, EntityViewSetting.create(entityViewClass), entityIds);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Map<Object, T> findMap(EntityManager entityManager, EntityViewSetting<T, CriteriaBuilder<T>> entityViewSetting, Collection<?> entityIds) {
+        if (entityIds == null) {
+            throw new NullPointerException("entityIds");
+        }
+        if (entityViewSetting.isPaginated()) {
+            throw new IllegalArgumentException("Can't use a paginated entity view setting for loading entity views by ids!");
+        }
+        ViewTypeImpl<T> managedViewType = metamodel.viewOrError(entityViewSetting.getEntityViewClass());
+        EntityType<?> entityType = (EntityType<?>) managedViewType.getJpaManagedType();
+        javax.persistence.metamodel.SingularAttribute<?, ?> idAttribute = JpaMetamodelUtils.getSingleIdAttribute(entityType);
+        // The view id is compared against the entity ids to associate the loaded views, so we might have to convert the entity ids
+        SingularAttribute<?, ?> viewIdAttribute = (SingularAttribute<?, ?>) managedViewType.getIdAttribute();
+        Class<?> entityIdType;
+        EntityTupleizer idTupleizer;
+        ObjectBuilder<Object> idViewBuilder;
+        if (viewIdAttribute.isSubview()) {
+            ManagedViewTypeImplementor<?> viewIdType = (ManagedViewTypeImplementor<?>) viewIdAttribute.getType();
+            ExpressionFactory ef = cbf.getService(ExpressionFactory.class);
+            entityIdType = viewIdType.getJpaManagedType().getJavaType();
+            idTupleizer = new DefaultEntityTupleizer(this, viewIdType);
+            idViewBuilder = (ObjectBuilder<Object>) getTemplate(
+                    new MacroConfigurationExpressionFactory(ef, ef.getDefaultMacroConfiguration()),
+                    viewIdType,
+                    null,
+                    null,
+                    new MutableViewJpqlMacro(),
+                    null,
+                    new MutableEmbeddingViewJpqlMacro(),
+                    0
+            ).createObjectBuilder(null, null, null, 0, false, false);
+        } else {
+            entityIdType = ReflectionUtils.getObjectClassOfPrimitve(idAttribute.getJavaType());
+            idTupleizer = null;
+            idViewBuilder = null;
+        }
+        Map<Object, Object> entityIdsByViewId = new LinkedHashMap<>(entityIds.size());
+        for (Object entityId : entityIds) {
+            if (entityId == null) {
+                throw new IllegalArgumentException("Invalid null entity id!");
+            }
+            if (!entityIdType.isInstance(entityId)) {
+                throw new IllegalArgumentException("Invalid entity id of type " + entityId.getClass().getName() + " for entity view type " + managedViewType.getJavaType().getName() + ". Expected an id of type: " + entityIdType.getName());
+            }
+            Object viewId = entityId;
+            if (idTupleizer != null) {
+                viewId = idViewBuilder.build(idTupleizer.tupleize(entityId));
+            }
+            entityIdsByViewId.put(viewId, entityId);
+        }
+
+        int batchSize = getFindAllBatchSize(entityViewSetting);
+        Map<Object, T> views = new HashMap<>(entityIdsByViewId.size());
+        List<Object> batch = new ArrayList<>(Math.min(batchSize, entityIdsByViewId.size()));
+        Iterator<Object> iterator = entityIdsByViewId.values().iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() == batchSize || !iterator.hasNext()) {
+                CriteriaBuilder<?> cb = cbf.create(entityManager, managedViewType.getEntityClass())
+                        .where(idAttribute.getName()).in(batch);
+                for (T view : applySetting(entityViewSetting, cb).getResultList()) {
+                    views.put(entityIdsByViewId.get(((EntityViewProxy) view).$$_getId()), view);
+                }
+                batch.clear();
+            }
+        }
+
+        Map<Object, T> result = new LinkedHashMap<>(views.size());
+        for (Object entityId : entityIdsByViewId.values()) {
+            T view = views.get(entityId);
+            if (view != null) {
+                result.put(entityId, view);
+            }
+        }
+        return result;
+    }
+
+    private static ConfigurationSource createConfigurationSource(EntityViewConfigurationImpl config, CriteriaBuilderFactory cbf) {
+        // The entity view properties extend the criteria builder factory properties, so both are accessible via the entity view manager
+        Map<String, String> properties = new HashMap<>(cbf.getProperties());
+        for (Map.Entry<Object, Object> entry : config.getProperties().entrySet()) {
+            properties.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+        }
+        return new ConfigurationSourceSnapshot(Collections.unmodifiableMap(properties));
+    }
+
+    private int getFindAllBatchSize(EntityViewSetting<?, ?> entityViewSetting) {
+        return getBatchSize(entityViewSetting.getProperties().get(ConfigurationProperties.DEFAULT_BATCH_SIZE), findAllBatchSize);
+    }
+
+    private static int getBatchSize(Object batchSize, int defaultValue) {
+        if (batchSize == null) {
+            return defaultValue;
+        }
+        int value = batchSize instanceof Integer ? (Integer) batchSize : Integer.parseInt(batchSize.toString());
+        if (value < 1) {
+            throw new IllegalArgumentException("Invalid batch size configuration " + value + " for key: " + ConfigurationProperties.DEFAULT_BATCH_SIZE);
+        }
+        return value;
+    }
+
     @Override
     public <T> T getReference(Class<T> entityViewClass, Object id) {
         Constructor<T> constructor = (Constructor<T>) referenceConstructorCache.get(entityViewClass);
@@ -1085,12 +1304,66 @@ public class EntityViewManagerImpl implements EntityViewManager {
         updateTo(em, view, entity, true);
     }
 
+    @Override
+    public void saveAll(EntityManager em, Collection<?> views) {
+        if (views.isEmpty()) {
+            return;
+        }
+        // A single context for all views so that listeners, version checks and orphan removal work like for a single object graph
+        UpdateContext context = new DefaultUpdateContext(this, em, false, false, false, null, null, null);
+        // Views are flushed in iteration order, only the update statements of the views are deferred and grouped by view type and dirty attributes
+        UpdateQueryBatch batch = new UpdateQueryBatch();
+        for (Object view : views) {
+            update(context, view, batch);
+        }
+        executeBatch(context, batch);
+    }
+
     @Override
     public void remove(EntityManager entityManager, Object view) {
         remove(new DefaultUpdateContext(this, entityManager, false, false, true, null, view, null), view);
     }
 
+    @Override
+    public void removeAll(EntityManager entityManager, Collection<?> views) {
+        if (views.isEmpty()) {
+            return;
+        }
+        UpdateContext context = new DefaultUpdateContext(this, entityManager, false, false, true, null, null, null);
+        UpdateQueryBatch batch = new UpdateQueryBatch();
+        Class<?> lastEntityViewClass = null;
+        for (Object view : views) {
+            // Deletes of different view types might depend on each other, so only consecutive views of the same type are batched
+            if (view instanceof EntityViewProxy) {
+                Class<?> entityViewClass = ((EntityViewProxy) view).$$_getEntityViewClass();
+                if (lastEntityViewClass != null && lastEntityViewClass != entityViewClass) {
+                    executeBatch(context, batch);
+                }
+                lastEntityViewClass = entityViewClass;
+            }
+            remove(context, view, batch);
+        }
+        executeBatch(context, batch);
+    }
+
+    private void executeBatch(UpdateContext context, UpdateQueryBatch batch) {
+        long start = queryInstrumentation == null ? 0L : System.nanoTime();
+        try {
+            batch.execute(context);
+        } catch (Throwable t) {
+            context.getTransactionAccess().markRollbackOnly();
+            ExceptionUtils.doThrow(t);
+        }
+        if (queryInstrumentation != null) {
+            queryInstrumentation.record(QueryPhase.FLUSH, System.nanoTime() - start);
+        }
+    }
+
     public void remove(UpdateContext context, Object view) {
+        remove(context, view, null);
+    }
+
+    private void remove(UpdateContext context, Object view, UpdateQueryBatch batch) {
         if (!(view instanceof EntityViewProxy)) {
             throw new IllegalArgumentException("Can't remove non entity view object: " + view);
         }
@@ -1112,7 +1385,7 @@ public class EntityViewManagerImpl implements EntityViewManager {
                         throw new IllegalStateException("Can't remove object [" + view + "] that is still referenced by: " + updatableProxy.$$_getParent());
                     }
                 }
-                updater.remove(context, proxy);
+                updater.remove(context, proxy, batch);
             }
         } catch (Throwable t) {
             context.getTransactionAccess().markRollbackOnly();
@@ -1178,6 +1451,10 @@ public class EntityViewManagerImpl implements EntityViewManager {
     }
     
     public void update(UpdateContext context, Object view) {
+        update(context, view, null);
+    }
+
+    private void update(UpdateContext context, Object view, UpdateQueryBatch batch) {
         if (!(view instanceof MutableStateTrackable)) {
             throw new IllegalArgumentException("Can't update non-updatable entity views: " + view);
         }
@@ -1186,16 +1463,20 @@ public class EntityViewManagerImpl implements EntityViewManager {
         Class<?> entityViewClass = updatableProxy.$$_getEntityViewClass();
         ManagedViewTypeImplementor<?> viewType = metamodel.managedViewOrError(entityViewClass);
         EntityViewUpdater updater = getUpdater(null, viewType, null, null, null);
+        long start = queryInstrumentation == null ? 0L : System.nanoTime();
         try {
             if (updatableProxy.$$_isNew()) {
                 updater.executePersist(context, updatableProxy);
             } else {
-                updater.executeUpdate(context, updatableProxy);
+                updater.executeUpdate(context, updatableProxy, batch);
             }
         } catch (Throwable t) {
             context.getTransactionAccess().markRollbackOnly();
             ExceptionUtils.doThrow(t);
         }
+        if (queryInstrumentation != null) {
+            queryInstrumentation.record(QueryPhase.FLUSH, System.nanoTime() - start);
+        }
     }
 
     public void updateTo(UpdateContext context, Object view, Object entity) {
@@ -1210,12 +1491,16 @@ public class EntityViewManagerImpl implements EntityViewManager {
         Class<?> entityViewClass = updatableProxy.$$_getEntityViewClass();
         ManagedViewTypeImplementor<?> viewType = metamodel.managedViewOrError(entityViewClass);
         EntityViewUpdater updater = getUpdater(null, viewType, null, null, null);
+        long start = queryInstrumentation == null ? 0L : System.nanoTime();
         try {
             updater.executeUpdate(context, entity, updatableProxy);
         } catch (Throwable t) {
             context.getTransactionAccess().markRollbackOnly();
             ExceptionUtils.doThrow(t);
         }
+        if (queryInstrumentation != null) {
+            queryInstrumentation.record(QueryPhase.FLUSH, System.nanoTime() - start);
+        }
     }
 
     public Object persist(UpdateContext context, Object view) {
@@ -1589,4 +1874,29 @@ public class EntityViewManagerImpl implements EntityViewManager {
             return result;
         }
     }
+
+    /**
+     * An immutable snapshot of the configuration properties the entity view manager was created with.
+     *
+     * @author Christian Beikov
+     * @since 1.6.9
+     */
+    private static final class ConfigurationSourceSnapshot implements ConfigurationSource {
+
+        private final Map<String, String> properties;
+
+        public ConfigurationSourceSnapshot(Map<String, String> properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public String getProperty(String propertyName) {
+            return properties.get(propertyName);
+        }
+    }
 }
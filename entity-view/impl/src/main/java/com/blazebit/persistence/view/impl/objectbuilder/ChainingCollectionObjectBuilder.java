@@ -19,27 +19,41 @@ package com.blazebit.persistence.view.impl.objectbuilder;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.ParameterHolder;
 import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.StreamingObjectBuilder;
 import com.blazebit.persistence.view.impl.EntityViewConfiguration;
 import com.blazebit.persistence.view.impl.objectbuilder.transformator.TupleTransformator;
 import com.blazebit.persistence.view.impl.objectbuilder.transformator.TupleTransformatorFactory;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  *
  * @author Christian Beikov
  * @since 1.6.4
  */
-public class ChainingCollectionObjectBuilder<T> implements ObjectBuilder<T> {
+public class ChainingCollectionObjectBuilder<T> implements StreamingObjectBuilder<T> {
+
+    /**
+     * The number of roots for which the tuples are transformed together when streaming, to amortize the cost of a transformer pass.
+     */
+    static final int STREAM_BATCH_SIZE = 64;
 
     private final TupleTransformator transformator;
     private final ObjectBuilder<T> objectBuilder;
+    private final int[] idPositions;
 
-    public ChainingCollectionObjectBuilder(TupleTransformatorFactory transformatorFactory, ObjectBuilder<T> objectBuilder, ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration) {
+    public ChainingCollectionObjectBuilder(TupleTransformatorFactory transformatorFactory, ObjectBuilder<T> objectBuilder, ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration, int[] idPositions) {
         this.transformator = transformatorFactory.create(parameterHolder, optionalParameters, entityViewConfiguration);
         this.objectBuilder = objectBuilder;
+        this.idPositions = idPositions;
     }
 
     @Override
@@ -63,4 +77,87 @@ public class ChainingCollectionObjectBuilder<T> implements ObjectBuilder<T> {
         }
         return objectBuilder.buildList(resultList);
     }
+
+    @Override
+    public Stream<T> buildStream(Stream<Object[]> tupleStream) {
+        if (idPositions == null) {
+            throw new UnsupportedOperationException("Object builder is not streaming capable because the view has no id: " + objectBuilder);
+        }
+        return StreamSupport.stream(new ReducingSpliterator<>(this, tupleStream.iterator()), false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> buildGroup(List<Object[]> tuples) {
+        return buildList((List<T>) (List<?>) tuples);
+    }
+
+    /**
+     * Groups consecutive tuples with the same root id and emits the built objects of up to {@link #STREAM_BATCH_SIZE} roots at once,
+     * as soon as the tuples of the next root are encountered, so that the transformers only run once per batch of roots.
+     * This requires that the tuples of a root are adjacent in the result, which is ensured by ordering by the root id.
+     *
+     * @author Christian Beikov
+     * @since 1.6.9
+     */
+    private static final class ReducingSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final ChainingCollectionObjectBuilder<T> builder;
+        private final Iterator<Object[]> tupleIterator;
+        private Object[] nextTuple;
+        private TupleId nextTupleId;
+        private Iterator<T> currentObjects;
+
+        public ReducingSpliterator(ChainingCollectionObjectBuilder<T> builder, Iterator<Object[]> tupleIterator) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.builder = builder;
+            this.tupleIterator = tupleIterator;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (currentObjects == null || !currentObjects.hasNext()) {
+                List<Object[]> group = nextGroup();
+                if (group == null) {
+                    currentObjects = null;
+                    return false;
+                }
+                currentObjects = builder.buildGroup(group).iterator();
+            }
+            action.accept(currentObjects.next());
+            return true;
+        }
+
+        private List<Object[]> nextGroup() {
+            if (nextTuple == null) {
+                if (!tupleIterator.hasNext()) {
+                    return null;
+                }
+                nextTuple = tupleIterator.next();
+                nextTupleId = new TupleId(builder.idPositions, nextTuple);
+            }
+            List<Object[]> group = new ArrayList<>();
+            TupleId groupId = nextTupleId;
+            int roots = 1;
+            group.add(nextTuple);
+            nextTuple = null;
+            nextTupleId = null;
+
+            while (tupleIterator.hasNext()) {
+                Object[] tuple = tupleIterator.next();
+                TupleId tupleId = new TupleId(builder.idPositions, tuple);
+                if (!groupId.equals(tupleId)) {
+                    if (roots == STREAM_BATCH_SIZE) {
+                        nextTuple = tuple;
+                        nextTupleId = tupleId;
+                        break;
+                    }
+                    groupId = tupleId;
+                    roots++;
+                }
+                group.add(tuple);
+            }
+
+            return group;
+        }
+    }
 }
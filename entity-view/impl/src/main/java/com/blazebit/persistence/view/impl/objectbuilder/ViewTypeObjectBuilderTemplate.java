@@ -1437,7 +1437,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
 
         if (tupleTransformatorFactory.hasTransformers() && !isSubview) {
             if (tupleTransformatorFactory.hasListTransformers()) {
-                result = new ChainingCollectionObjectBuilder<T>(tupleTransformatorFactory, result, parameterHolder, optionalParameters, entityViewConfiguration);
+                result = new ChainingCollectionObjectBuilder<T>(tupleTransformatorFactory, result, parameterHolder, optionalParameters, entityViewConfiguration, hasId ? idPositions : null);
             } else {
                 result = new ChainingObjectBuilder<T>(tupleTransformatorFactory, result, parameterHolder, optionalParameters, entityViewConfiguration);
             }
@@ -99,6 +99,7 @@ import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.ManagedType;
 import javax.persistence.metamodel.SingularAttribute;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -108,6 +109,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  *
@@ -117,6 +120,8 @@ import java.util.TreeMap;
 public class EntityViewUpdaterImpl implements EntityViewUpdater {
 
     public static final String WHERE_CLAUSE_PREFIX = "_";
+    // The number of attribute combinations is exponential, so we only cache the first few that actually occur
+    private static final int MAX_PARTIAL_UPDATE_QUERY_STRINGS = 256;
 
     private final boolean rootUpdateAllowed;
     private final ManagedViewTypeImplementor<?> managedViewType;
@@ -129,6 +134,7 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
     private final String updatePostfixString;
     private final String versionedUpdatePostfixString;
     private final String fullUpdateQueryString;
+    private final ConcurrentMap<BitSet, String> partialUpdateQueryStrings = new ConcurrentHashMap<>();
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public EntityViewUpdaterImpl(EntityViewManagerImpl evm, Map<Object, EntityViewUpdaterImpl> localCache, ManagedViewTypeImplementor<?> viewType, ManagedViewTypeImplementor<?> declaredViewType, EntityViewUpdaterImpl owner, String ownerMapping) {
@@ -634,7 +640,12 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
 
     @Override
     public boolean executeUpdate(UpdateContext context, MutableStateTrackable updatableProxy) {
-        return update(context, null, updatableProxy);
+        return update(context, null, updatableProxy, null);
+    }
+
+    @Override
+    public boolean executeUpdate(UpdateContext context, MutableStateTrackable updatableProxy, UpdateQueryBatch batch) {
+        return update(context, null, updatableProxy, batch);
     }
 
     @Override
@@ -642,7 +653,7 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
         if (entity == null) {
             throw new IllegalArgumentException("Illegal null entity!");
         }
-        update(context, entity, updatableProxy);
+        update(context, entity, updatableProxy, null);
         return entity;
     }
 
@@ -654,6 +665,16 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
             queryString = fullUpdateQueryString;
             needsOptimisticLocking = fullFlusher.hasVersionFlusher();
         } else {
+            BitSet partialUpdateQueryKey = null;
+            if (flusher instanceof CompositeAttributeFlusher) {
+                partialUpdateQueryKey = ((CompositeAttributeFlusher) flusher).getUpdateQueryFragmentKey();
+                if (partialUpdateQueryKey != null) {
+                    queryString = partialUpdateQueryStrings.get(partialUpdateQueryKey);
+                    if (queryString != null) {
+                        return createUpdateQuery(context, updatableProxy, queryString, fullFlusher.hasVersionFlusher() && flusher.isOptimisticLockProtected());
+                    }
+                }
+            }
             StringBuilder sb = new StringBuilder(updatePrefixString.length() + updatePostfixString.length() + 250);
             sb.append(updatePrefixString);
             int initialLength = sb.length();
@@ -675,8 +696,15 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
                 }
                 queryString = sb.toString();
             }
+            if (queryString != null && partialUpdateQueryKey != null && partialUpdateQueryStrings.size() < MAX_PARTIAL_UPDATE_QUERY_STRINGS) {
+                partialUpdateQueryStrings.putIfAbsent(partialUpdateQueryKey, queryString);
+            }
         }
 
+        return createUpdateQuery(context, updatableProxy, queryString, needsOptimisticLocking);
+    }
+
+    private Query createUpdateQuery(UpdateContext context, MutableStateTrackable updatableProxy, String queryString, boolean needsOptimisticLocking) {
         Query query = null;
         if (queryString != null) {
             query = context.getEntityManager().createQuery(queryString);
@@ -691,7 +719,7 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
         return query;
     }
 
-    private boolean update(UpdateContext context, Object entity, MutableStateTrackable updatableProxy) {
+    private boolean update(UpdateContext context, Object entity, MutableStateTrackable updatableProxy, UpdateQueryBatch batch) {
         if (!rootUpdateAllowed && entity == null) {
             throw new IllegalArgumentException("Updating instances of the view type [" + updatableProxy.getClass().getName() + "] is not allowed because no entity id is known!");
         }
@@ -710,6 +738,12 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
             int orphanRemovalStartIndex = context.getOrphanRemovalDeleters().size();
             Query query = flusher.flushQuery(context, null, this, null, updatableProxy, updatableProxy, updatableProxy, null, flusher);
             if (query != null) {
+                String queryString = batch == null ? null : getUpdateQueryString(flusher);
+                if (queryString != null) {
+                    // The batch checks the update count and removes the orphans after executing the update
+                    batch.addUpdate(queryString, query, entity, updatableProxy, orphanRemovalStartIndex, context.getOrphanRemovalDeleters().size());
+                    return true;
+                }
                 int updated = query.executeUpdate();
 
                 if (updated != 1) {
@@ -721,6 +755,19 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
         }
     }
 
+    private String getUpdateQueryString(DirtyAttributeFlusher<?, ?, ?> flusher) {
+        // Only statements that are cached per dirty attribute mask can be batched as they are identical for the same mask
+        if (flusher == fullFlusher) {
+            return fullUpdateQueryString;
+        } else if (flusher instanceof CompositeAttributeFlusher) {
+            BitSet partialUpdateQueryKey = ((CompositeAttributeFlusher) flusher).getUpdateQueryFragmentKey();
+            if (partialUpdateQueryKey != null) {
+                return partialUpdateQueryStrings.get(partialUpdateQueryKey);
+            }
+        }
+        return null;
+    }
+
     @Override
     public Object executePersist(UpdateContext context, MutableStateTrackable updatableProxy) {
         Object entity = fullEntityLoader.toEntity(context, updatableProxy, null);
@@ -735,10 +782,15 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
 
     @Override
     public void remove(UpdateContext context, EntityViewProxy entityView) {
+        remove(context, entityView, null);
+    }
+
+    @Override
+    public void remove(UpdateContext context, EntityViewProxy entityView, UpdateQueryBatch batch) {
         if (flushStrategy == FlushStrategy.ENTITY) {
             // TODO: pre-load cascade deleted entity graph
         }
-        fullFlusher.remove(context, null, entityView, entityView);
+        fullFlusher.remove(context, null, entityView, entityView, batch);
     }
 
     @Override
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.update;
+
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.view.OptimisticLockException;
+import com.blazebit.persistence.view.impl.update.flush.PostFlushDeleter;
+import com.blazebit.persistence.view.spi.type.EntityViewProxy;
+
+import javax.persistence.Query;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the update and delete queries of the root objects of a bulk flush operation to execute them as JDBC batches.
+ * The queries are grouped by query string, which for update queries reflects the view type and the dirty attributes.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class UpdateQueryBatch {
+
+    private final Map<String, List<Entry>> groups = new LinkedHashMap<>();
+    private final List<int[]> orphanRemovalRanges = new ArrayList<>();
+
+    public void addUpdate(String queryString, Query query, Object entity, Object view, int orphanRemovalStartIndex, int orphanRemovalEndIndex) {
+        add(queryString, new Entry(query, entity, view, true, false));
+        if (orphanRemovalStartIndex != orphanRemovalEndIndex) {
+            orphanRemovalRanges.add(new int[]{ orphanRemovalStartIndex, orphanRemovalEndIndex });
+        }
+    }
+
+    public void addRemove(String queryString, Query query, Object entity, Object view, boolean checkUpdateCount) {
+        add(queryString, new Entry(query, entity, view, checkUpdateCount, true));
+    }
+
+    private void add(String queryString, Entry entry) {
+        List<Entry> group = groups.get(queryString);
+        if (group == null) {
+            group = new ArrayList<>();
+            groups.put(queryString, group);
+        }
+        group.add(entry);
+    }
+
+    public void execute(UpdateContext context) {
+        ExtendedQuerySupport extendedQuerySupport = context.getEntityViewManager().getCriteriaBuilderFactory().getService(ExtendedQuerySupport.class);
+        boolean batchUpdateSupported = extendedQuerySupport != null && extendedQuerySupport.supportsBatchUpdate();
+        for (List<Entry> group : groups.values()) {
+            int[] updateCounts;
+            if (batchUpdateSupported && group.size() > 1) {
+                List<Query> queries = new ArrayList<>(group.size());
+                for (int i = 0; i < group.size(); i++) {
+                    queries.add(group.get(i).query);
+                }
+                updateCounts = extendedQuerySupport.executeBatchUpdate(context.getEntityManager(), queries);
+            } else {
+                updateCounts = new int[group.size()];
+                for (int i = 0; i < group.size(); i++) {
+                    updateCounts[i] = group.get(i).query.executeUpdate();
+                }
+            }
+
+            for (int i = 0; i < group.size(); i++) {
+                Entry entry = group.get(i);
+                // Drivers are allowed to not report the update counts of batched statements, in which case we can't check them
+                if (entry.checkUpdateCount && updateCounts[i] != 1 && updateCounts[i] != Statement.SUCCESS_NO_INFO) {
+                    if (entry.remove) {
+                        throw new OptimisticLockException("The remove operation did not return the expected update count!", entry.entity, entry.view);
+                    } else {
+                        throw new OptimisticLockException("The update operation did not return the expected update count!", entry.entity, entry.view);
+                    }
+                }
+                if (entry.remove) {
+                    context.invokePostRemove((EntityViewProxy) entry.view);
+                }
+            }
+        }
+        groups.clear();
+
+        // Orphans can only be removed after the objects that referenced them were updated
+        List<PostFlushDeleter> orphanRemovalDeleters = context.getOrphanRemovalDeleters();
+        for (int[] range : orphanRemovalRanges) {
+            for (int i = range[0]; i < range[1]; i++) {
+                orphanRemovalDeleters.get(i).execute(context);
+            }
+        }
+        orphanRemovalRanges.clear();
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.6.9
+     */
+    private static class Entry {
+        private final Query query;
+        private final Object entity;
+        private final Object view;
+        private final boolean checkUpdateCount;
+        private final boolean remove;
+
+        public Entry(Query query, Object entity, Object view, boolean checkUpdateCount, boolean remove) {
+            this.query = query;
+            this.entity = entity;
+            this.view = view;
+            this.checkUpdateCount = checkUpdateCount;
+            this.remove = remove;
+        }
+    }
+}
@@ -36,6 +36,7 @@ import com.blazebit.persistence.view.impl.entity.ViewToEntityMapper;
 import com.blazebit.persistence.view.impl.mapper.ViewMapper;
 import com.blazebit.persistence.view.impl.update.EntityViewUpdaterImpl;
 import com.blazebit.persistence.view.impl.update.UpdateContext;
+import com.blazebit.persistence.view.impl.update.UpdateQueryBatch;
 import com.blazebit.persistence.view.impl.update.UpdateQueryFactory;
 import com.blazebit.persistence.view.spi.type.BasicDirtyTracker;
 import com.blazebit.persistence.view.spi.type.DirtyStateTrackable;
@@ -50,6 +51,7 @@ import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.ManagedType;
 import javax.persistence.metamodel.SingularAttribute;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -284,6 +286,36 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
         return versionFlusher != null;
     }
 
+    /**
+     * Returns a key that uniquely identifies the update query fragment produced by this flusher within the owning view type,
+     * or <code>null</code> if the fragment depends on more than the set of flushed attributes.
+     * The key is a bit mask with a bit for every attribute that contributes to the fragment and a bit for optimistic locking.
+     *
+     * @return the update query fragment key or <code>null</code>
+     */
+    public BitSet getUpdateQueryFragmentKey() {
+        BitSet key = new BitSet(flushers.length + 1);
+        for (int i = 0; i < flushers.length; i++) {
+            DirtyAttributeFlusher<?, Object, Object> flusher = flushers[i];
+            if (flusher != null) {
+                if (flusher.getClass() == BasicAttributeFlusher.class) {
+                    if (((BasicAttributeFlusher<?, ?>) flusher).hasUpdateQueryFragment()) {
+                        key.set(i);
+                    }
+                } else if (flusher instanceof AbstractPluralAttributeFlusher<?, ?, ?, ?, ?>) {
+                    // Plural attribute flushers don't render anything but might trigger the version increment
+                    key.set(i);
+                } else {
+                    return null;
+                }
+            }
+        }
+        if (isOptimisticLockProtected()) {
+            key.set(flushers.length);
+        }
+        return key;
+    }
+
     @Override
     public Object cloneDeep(Object view, Object oldValue, Object newValue) {
         return newValue;
@@ -879,6 +911,10 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
 
     @Override
     public List<PostFlushDeleter> remove(UpdateContext context, Object entity, Object view, Object value) {
+        return remove(context, entity, view, value, null);
+    }
+
+    public List<PostFlushDeleter> remove(UpdateContext context, Object entity, Object view, Object value, UpdateQueryBatch batch) {
         EntityViewProxy entityView = (EntityViewProxy) value;
         if (entityView instanceof MutableStateTrackable && !entityView.$$_isReference()) {
             MutableStateTrackable updatableProxy = (MutableStateTrackable) entityView;
@@ -899,7 +935,9 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
                         }
                     }
 
-                    remove(context, entity, updatableProxy, updatableProxy, updatableProxy.$$_getId(), updatableProxy.$$_getVersion(), false);
+                    // The delete can only be batched if nothing has to be deleted after it
+                    boolean batchable = batch != null && postFlushDeleters.isEmpty() && !requiresDeleteCascadeAfterRemove();
+                    remove(context, entity, updatableProxy, updatableProxy, updatableProxy.$$_getId(), updatableProxy.$$_getVersion(), false, batchable ? batch : null);
 
                     for (PostFlushDeleter postFlushDeleter : postFlushDeleters) {
                         postFlushDeleter.execute(context);
@@ -919,7 +957,7 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
         } else {
             if (context.addRemovedObject(entityView)) {
                 if (context.invokePreRemove(entityView)) {
-                    remove(context, entity, entityView, entityView, entityView.$$_getId(), entityView.$$_getVersion(), true);
+                    remove(context, entity, entityView, entityView, entityView.$$_getId(), entityView.$$_getVersion(), true, batch);
                 } else {
                     context.removeRemovedObject(entityView);
                     context.getEntityViewManager().update(context, entityView);
@@ -933,7 +971,7 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
     public void remove(UpdateContext context, Object viewId) {
         EntityViewProxy reference = (EntityViewProxy) context.getEntityViewManager().getReference(viewType, viewId);
         if (context.invokePreRemove(reference)) {
-            remove(context, null, null, reference, viewId, null, true);
+            remove(context, null, null, reference, viewId, null, true, null);
         }
     }
 
@@ -943,7 +981,16 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
         throw new UnsupportedOperationException();
     }
 
-    private boolean remove(UpdateContext context, Object entity, Object ownerView, Object view, Object viewId, Object version, boolean cascadeMappedDeletes) {
+    private boolean requiresDeleteCascadeAfterRemove() {
+        for (int i = 0; i < flushers.length; i++) {
+            if (flushers[i] != null && flushers[i].requiresDeleteCascadeAfterRemove()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean remove(UpdateContext context, Object entity, Object ownerView, Object view, Object viewId, Object version, boolean cascadeMappedDeletes, UpdateQueryBatch batch) {
         if (view != null) {
             context.getInitialStateResetter().addRemovedView((EntityViewProxy) view);
         }
@@ -1065,6 +1112,11 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
                     Query query = context.getEntityManager().createQuery(versionedDeleteQuery);
                     idFlusher.flushQuery(context, EntityViewUpdaterImpl.WHERE_CLAUSE_PREFIX, null, query, ownerView, view, viewId, null, null);
                     versionFlusher.flushQueryInitialVersion(context, EntityViewUpdaterImpl.WHERE_CLAUSE_PREFIX, query, view, version);
+                    if (batch != null && returnedValues == null && postFlushDeleters.isEmpty()) {
+                        // The batch checks the update count and invokes the post remove listeners after executing the delete
+                        batch.addRemove(versionedDeleteQuery, query, entity, view, true);
+                        return true;
+                    }
                     int updated = query.executeUpdate();
                     if (updated != 1) {
                         throw new OptimisticLockException("The remove operation did not return the expected update count!", entity, view);
@@ -1072,6 +1124,10 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
                 } else {
                     Query query = context.getEntityManager().createQuery(deleteQuery);
                     idFlusher.flushQuery(context, EntityViewUpdaterImpl.WHERE_CLAUSE_PREFIX, null, query, ownerView, view, viewId, null, null);
+                    if (batch != null && returnedValues == null && postFlushDeleters.isEmpty()) {
+                        batch.addRemove(deleteQuery, query, entity, view, false);
+                        return true;
+                    }
                     query.executeUpdate();
                 }
             }
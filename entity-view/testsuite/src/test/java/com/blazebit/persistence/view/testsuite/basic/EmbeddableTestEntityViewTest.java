@@ -43,6 +43,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import javax.persistence.EntityManager;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -180,6 +181,24 @@ public class EmbeddableTestEntityViewTest extends AbstractEntityViewTest {
         assertNull(results.get(1).getIdIntIdEntity());
     }
 
+    @Test
+    public void testFindAllIdView() {
+        EmbeddableTestEntityId2 missingId = new EmbeddableTestEntityId2(entity1.getId().getIntIdEntity(), "3");
+        List<EmbeddableTestEntityIdView> results = evm.findAll(em, EmbeddableTestEntityIdView.class, Arrays.asList(entity2.getId(), missingId, entity1.getId()));
+
+        assertEquals(3, results.size());
+        assertEquals(entity2.getId().getKey(), results.get(0).getId().getKey());
+        assertEquals(entity2.getEmbeddable().getName(), results.get(0).getName());
+        assertNull(results.get(1));
+        assertEquals(entity1.getId().getKey(), results.get(2).getId().getKey());
+        assertEquals(entity1.getEmbeddable().getName(), results.get(2).getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindAllIdViewWithInvalidIdType() {
+        evm.findAll(em, EmbeddableTestEntityIdView.class, Arrays.asList(entity1.getId().getKey()));
+    }
+
     @Test
     public void testEmbeddableViewWithSubViewRelationsFetchesIdView() {
         CriteriaBuilder<EmbeddableTestEntity2> criteria = cbf.create(em, EmbeddableTestEntity2.class, "e")
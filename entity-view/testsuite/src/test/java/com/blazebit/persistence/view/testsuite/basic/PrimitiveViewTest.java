@@ -16,6 +16,7 @@
 package com.blazebit.persistence.view.testsuite.basic;
 
 import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.spi.ConfigurationSource;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoDB2;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
@@ -23,6 +24,7 @@ import com.blazebit.persistence.testsuite.entity.PrimitiveDocument;
 import com.blazebit.persistence.testsuite.entity.PrimitivePerson;
 import com.blazebit.persistence.testsuite.entity.PrimitiveVersion;
 import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.ConfigurationProperties;
 import com.blazebit.persistence.view.EntityViewManager;
 import com.blazebit.persistence.view.EntityViewSetting;
 import com.blazebit.persistence.view.EntityViews;
@@ -38,8 +40,11 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
@@ -136,6 +141,57 @@ public class PrimitiveViewTest extends AbstractEntityViewTest {
         results.get(0).setName("Abc");
     }
 
+    @Test
+    public void testFindAll() {
+        EntityViewSetting<PrimitiveSimpleDocumentView, CriteriaBuilder<PrimitiveSimpleDocumentView>> setting = EntityViewSetting.create(PrimitiveSimpleDocumentView.class);
+        setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE, 1);
+        List<PrimitiveSimpleDocumentView> results = evm.findAll(em, setting, Arrays.asList(doc2.getId(), -1L, doc1.getId()));
+
+        assertEquals(3, results.size());
+        assertEquals(doc2.getId(), results.get(0).getId());
+        assertNull(results.get(1));
+        assertEquals(doc1.getId(), results.get(2).getId());
+    }
+
+    @Test
+    public void testFindAllWithConfiguredBatchSize() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE, "1");
+        EntityViewManager evm = build(
+                cfg,
+                PrimitiveSimpleDocumentView.class,
+                PrimitiveDocumentView.class,
+                PrimitivePersonView.class
+        );
+        ConfigurationSource configurationSource = evm.getService(ConfigurationSource.class);
+        List<PrimitiveSimpleDocumentView> results = evm.findAll(em, PrimitiveSimpleDocumentView.class, Arrays.asList(doc2.getId(), doc1.getId()));
+
+        assertEquals("1", configurationSource.getProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE));
+        assertEquals(2, results.size());
+        assertEquals(doc2.getId(), results.get(0).getId());
+        assertEquals(doc1.getId(), results.get(1).getId());
+        try {
+            configurationSource.getProperties().put(ConfigurationProperties.DEFAULT_BATCH_SIZE, "2");
+            fail("Expected the configuration to be immutable");
+        } catch (UnsupportedOperationException ex) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testFindMap() {
+        Map<Object, PrimitiveSimpleDocumentView> results = evm.findMap(em, PrimitiveSimpleDocumentView.class, Arrays.asList(doc2.getId(), -1L, doc1.getId()));
+
+        assertEquals(Arrays.<Object>asList(doc2.getId(), doc1.getId()), new ArrayList<>(results.keySet()));
+        assertEquals(doc2.getName(), results.get(doc2.getId()).getName());
+        assertEquals(doc1.getName(), results.get(doc1.getId()).getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindAllWithInvalidIdType() {
+        evm.findAll(em, PrimitiveSimpleDocumentView.class, Arrays.asList(doc1.getId(), "abc"));
+    }
+
     @Test
     // Test for issue #375
     public void primitiveBooleanAttributeMetamodelMappingIsCorrect() {
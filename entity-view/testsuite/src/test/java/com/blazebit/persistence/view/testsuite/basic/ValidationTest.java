@@ -17,8 +17,13 @@
 package com.blazebit.persistence.view.testsuite.basic;
 
 import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.view.ConfigurationProperties;
 import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.EntityViewManager;
 import com.blazebit.persistence.view.Mapping;
+import com.blazebit.persistence.view.metamodel.ManagedViewType;
+import com.blazebit.persistence.view.metamodel.MethodAttribute;
+import com.blazebit.persistence.view.metamodel.ViewMetamodel;
 import com.blazebit.persistence.view.testsuite.basic.model.IdHolderView;
 import org.junit.Assert;
 import org.junit.Test;
@@ -29,8 +34,17 @@ import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
 import com.blazebit.persistence.view.testsuite.basic.model.DocumentValidationView;
 import com.blazebit.persistence.view.testsuite.basic.model.PersonDuplicateCollectionUsageValidationView;
 import com.blazebit.persistence.view.testsuite.basic.model.PersonInvalidMappingValidationView;
+import com.blazebit.persistence.view.testsuite.basic.model.PersonStaticImplementationValidationView;
+import com.blazebit.persistence.view.testsuite.basic.model.PersonStaticImplementationValidationViewImpl;
+import com.blazebit.persistence.view.testsuite.basic.model.PersonStaticMetamodelValidationView;
+import com.blazebit.persistence.view.testsuite.basic.model.PersonStaticMetamodelValidationView_;
 import com.blazebit.persistence.view.testsuite.basic.model.PersonValidationView;
 
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+
 /**
  *
  * @author Christian Beikov
@@ -70,6 +84,66 @@ public class ValidationTest extends AbstractEntityViewTest {
         }
     }
 
+    @Test
+    public void testValidationParallelBoot() {
+        Class<?>[] views = { DocumentValidationView.class, PersonValidationView.class };
+        EntityViewManager sequentialEvm = build(createBootConfiguration(false), views);
+        EntityViewManager parallelEvm = build(createBootConfiguration(true), views);
+
+        assertEquals(describe(sequentialEvm.getMetamodel()), describe(parallelEvm.getMetamodel()));
+    }
+
+    @Test
+    public void testValidationParallelBootErrors() {
+        Class<?>[] views = { PersonInvalidMappingValidationView.class, PersonDuplicateCollectionUsageValidationView.class };
+        String sequentialErrors = getBootErrors(createBootConfiguration(false), views);
+        String parallelErrors = getBootErrors(createBootConfiguration(true), views);
+
+        Assert.assertNotNull(sequentialErrors);
+        assertEquals(sequentialErrors, parallelErrors);
+    }
+
+    @Test
+    public void testValidationParallelBootStaticClassErrors() {
+        // The static implementation and metamodel classes are scanned in the parallel phase of the boot
+        Class<?>[] views = { PersonValidationView.class, PersonStaticImplementationValidationView.class, PersonStaticMetamodelValidationView.class };
+        String sequentialErrors = getBootErrors(createBootConfiguration(false), views);
+        String parallelErrors = getBootErrors(createBootConfiguration(true), views);
+
+        Assert.assertNotNull(parallelErrors);
+        Assert.assertTrue(parallelErrors.contains("The static implementation class '" + PersonStaticImplementationValidationViewImpl.class.getName() + "'"));
+        Assert.assertTrue(parallelErrors.contains("The static metamodel class '" + PersonStaticMetamodelValidationView_.class.getName() + "'"));
+        assertEquals(sequentialErrors, parallelErrors);
+    }
+
+    private static EntityViewConfiguration createBootConfiguration(boolean parallelBoot) {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.setProperty(ConfigurationProperties.PARALLEL_BOOT, Boolean.toString(parallelBoot));
+        cfg.setProperty(ConfigurationProperties.PROXY_EAGER_LOADING, "true");
+        return cfg;
+    }
+
+    private String getBootErrors(EntityViewConfiguration cfg, Class<?>... views) {
+        try {
+            build(cfg, views);
+            return null;
+        } catch (IllegalArgumentException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    private static Map<String, String> describe(ViewMetamodel metamodel) {
+        Map<String, String> description = new TreeMap<>();
+        for (ManagedViewType<?> managedView : metamodel.getManagedViews()) {
+            Map<String, String> attributes = new TreeMap<>();
+            for (MethodAttribute<?, ?> attribute : managedView.getAttributes()) {
+                attributes.put(attribute.getName(), attribute.getJavaType().getName() + " " + attribute.getMappingType());
+            }
+            description.put(managedView.getJavaType().getName(), managedView.getEntityClass().getName() + " " + attributes + " " + managedView.getConstructors().size());
+        }
+        return description;
+    }
+
     @Test
     public void testValidationInvalidCaseMapping() {
         try {
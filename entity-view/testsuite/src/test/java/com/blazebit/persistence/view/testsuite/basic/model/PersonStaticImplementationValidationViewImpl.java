@@ -0,0 +1,29 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.basic.model;
+
+import com.blazebit.persistence.view.StaticImplementation;
+
+/**
+ * A static implementation that was defined for a different entity view type.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+@StaticImplementation(PersonValidationView.class)
+public class PersonStaticImplementationValidationViewImpl {
+}
@@ -18,10 +18,13 @@ package com.blazebit.persistence.view.testsuite.collections.subview;
 
 import static com.blazebit.persistence.view.testsuite.collections.subview.SubviewAssert.assertSubviewEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.persistence.EntityManager;
 
@@ -163,4 +166,81 @@ public class SimpleCollectionsTest<T extends SubviewDocumentCollectionsView> ext
         assertSubviewEquals(doc2.getPartners(), results.get(1).getPartners());
         assertSubviewEquals(doc2.getPersonList(), results.get(1).getPersonList());
     }
+
+    @Test
+    public void testCollectionsStream() {
+        EntityViewManager evm = build(
+                viewType,
+                SubviewPersonForCollectionsView.class
+        );
+
+        CriteriaBuilder<DocumentForCollections> criteria = cbf.create(em, DocumentForCollections.class, "d")
+            .orderByAsc("id");
+        CriteriaBuilder<T> cb = evm.applySetting(EntityViewSetting.create(viewType), criteria);
+        List<T> results;
+        try (Stream<T> stream = cb.getResultStream()) {
+            results = stream.collect(Collectors.<T>toList());
+        }
+
+        assertEquals(2, results.size());
+        // Doc1
+        assertEquals(doc1.getName(), results.get(0).getName());
+        assertSubviewEquals(doc1.getContacts(), results.get(0).getContacts());
+        assertSubviewEquals(doc1.getPartners(), results.get(0).getPartners());
+        assertSubviewEquals(doc1.getPersonList(), results.get(0).getPersonList());
+
+        // Doc2
+        assertEquals(doc2.getName(), results.get(1).getName());
+        assertSubviewEquals(doc2.getContacts(), results.get(1).getContacts());
+        assertSubviewEquals(doc2.getPartners(), results.get(1).getPartners());
+        assertSubviewEquals(doc2.getPersonList(), results.get(1).getPersonList());
+    }
+
+    @Test
+    public void testCollectionsStreamOrderedByNonIdColumn() {
+        EntityViewManager evm = build(
+                viewType,
+                SubviewPersonForCollectionsView.class
+        );
+
+        CriteriaBuilder<DocumentForCollections> criteria = cbf.create(em, DocumentForCollections.class, "d")
+            .orderByDesc("name")
+            .orderByAsc("id");
+        CriteriaBuilder<T> cb = evm.applySetting(EntityViewSetting.create(viewType), criteria);
+        List<T> results;
+        try (Stream<T> stream = cb.getResultStream()) {
+            results = stream.collect(Collectors.<T>toList());
+        }
+
+        assertEquals(2, results.size());
+        // Doc2
+        assertEquals(doc2.getName(), results.get(0).getName());
+        assertSubviewEquals(doc2.getContacts(), results.get(0).getContacts());
+        assertSubviewEquals(doc2.getPartners(), results.get(0).getPartners());
+        assertSubviewEquals(doc2.getPersonList(), results.get(0).getPersonList());
+
+        // Doc1
+        assertEquals(doc1.getName(), results.get(1).getName());
+        assertSubviewEquals(doc1.getContacts(), results.get(1).getContacts());
+        assertSubviewEquals(doc1.getPartners(), results.get(1).getPartners());
+        assertSubviewEquals(doc1.getPersonList(), results.get(1).getPersonList());
+    }
+
+    @Test
+    public void testCollectionsStreamRequiresUniqueOrdering() {
+        EntityViewManager evm = build(
+                viewType,
+                SubviewPersonForCollectionsView.class
+        );
+
+        CriteriaBuilder<DocumentForCollections> criteria = cbf.create(em, DocumentForCollections.class, "d")
+            .orderByDesc("name");
+        CriteriaBuilder<T> cb = evm.applySetting(EntityViewSetting.create(viewType), criteria);
+        try {
+            cb.getResultStream();
+            fail("Expected streaming to fail because the tuples of a document could be interleaved with the tuples of other documents");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+    }
 }
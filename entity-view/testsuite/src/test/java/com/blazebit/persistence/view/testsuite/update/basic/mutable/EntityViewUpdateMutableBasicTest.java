@@ -20,20 +20,30 @@ import com.blazebit.persistence.testsuite.base.jpa.assertion.AssertStatementBuil
 import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
 import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
 import com.blazebit.persistence.view.FlushMode;
 import com.blazebit.persistence.view.FlushStrategy;
+import com.blazebit.persistence.view.OptimisticLockException;
 import com.blazebit.persistence.view.change.ChangeModel;
 import com.blazebit.persistence.view.change.SingularChangeModel;
 import com.blazebit.persistence.view.spi.type.MutableStateTrackable;
 import com.blazebit.persistence.view.testsuite.update.basic.AbstractEntityViewUpdateBasicTest;
 import com.blazebit.persistence.view.testsuite.update.basic.mutable.model.UpdatableDocumentBasicView;
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import javax.persistence.EntityManager;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -68,6 +78,159 @@ public class EntityViewUpdateMutableBasicTest extends AbstractEntityViewUpdateBa
         assertEquals("newDoc", doc1.getName());
     }
 
+    @Test
+    public void testSaveAll() {
+        // Given
+        final UpdatableDocumentBasicView docView1 = getDoc1View();
+        final UpdatableDocumentBasicView docView2 = getDoc2View();
+
+        // When
+        docView1.setName("newDoc1");
+        docView2.setName("newDoc2");
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                evm.saveAll(em, Arrays.asList(docView1, docView2));
+                em.flush();
+            }
+        });
+
+        // Then
+        clearPersistenceContextAndReload();
+        assertEquals("newDoc1", doc1.getName());
+        assertEquals("newDoc2", doc2.getName());
+        assertEquals(doc1.getVersion(), docView1.getVersion());
+        assertEquals(doc2.getVersion(), docView2.getVersion());
+    }
+
+    @Test
+    public void testSaveAllBatchesUpdatesWithSameDirtyAttributes() {
+        Assume.assumeTrue("Only the query strategy uses update statements", isQueryStrategy());
+        // Given
+        final UpdatableDocumentBasicView docView1 = getDoc1View();
+        final UpdatableDocumentBasicView docView2 = getDoc2View();
+        clearQueries();
+
+        // When
+        docView1.setName("newDoc1");
+        docView2.setName("newDoc2");
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                evm.saveAll(em, Arrays.asList(docView1, docView2));
+                em.flush();
+            }
+        });
+
+        // Then
+        // Both updates are executed as a single JDBC batch
+        assertUnorderedQuerySequence()
+                .update(Document.class)
+                .validate();
+        clearPersistenceContextAndReload();
+        assertEquals("newDoc1", doc1.getName());
+        assertEquals("newDoc2", doc2.getName());
+    }
+
+    @Test
+    public void testSaveAllOptimisticLockFailure() {
+        Assume.assumeTrue("Optimistic locking requires a version attribute", version);
+        // Given
+        final UpdatableDocumentBasicView docView1 = getDoc1View();
+        final UpdatableDocumentBasicView docView2 = getDoc2View();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                // Concurrent modification makes the version of docView2 stale
+                em.find(Document.class, doc2.getId()).setName("concurrentDoc2");
+            }
+        });
+
+        clearQueries();
+
+        // When
+        docView1.setName("newDoc1");
+        docView2.setName("newDoc2");
+        try {
+            transactional(new TxVoidWork() {
+                @Override
+                public void work(EntityManager em) {
+                    evm.saveAll(em, Arrays.asList(docView1, docView2));
+                    em.flush();
+                }
+            });
+            fail("Expected an optimistic lock exception");
+        } catch (OptimisticLockException ex) {
+            // Expected
+            if (isQueryStrategy()) {
+                assertEquals(docView2, ex.getEntityView());
+            }
+        }
+
+        // Then
+        if (isQueryStrategy()) {
+            // The stale version is detected through the update count of the batch
+            assertUnorderedQuerySequence()
+                    .update(Document.class)
+                    .validate();
+        }
+        clearPersistenceContextAndReload();
+        // The whole flush operation is rolled back, including the update of the first view
+        assertEquals("doc1", doc1.getName());
+        assertEquals("concurrentDoc2", doc2.getName());
+    }
+
+    @Test
+    public void testPartialUpdateStatementIsReusedForSameDirtyAttributes() {
+        Assume.assumeFalse("Full mode always uses the full update statement", isFullMode());
+        Assume.assumeTrue("Only the query strategy uses update statements", isQueryStrategy());
+        // Given
+        final UpdatableDocumentBasicView docView = getDoc1View();
+
+        // When
+        docView.setName("newDoc1");
+        String firstNameUpdate = saveAndCaptureUpdateStatement(docView);
+        docView.setName("newDoc2");
+        String secondNameUpdate = saveAndCaptureUpdateStatement(docView);
+        docView.setLastModified(new Date(0));
+        String lastModifiedUpdate = saveAndCaptureUpdateStatement(docView);
+
+        // Then
+        assertNotNull(firstNameUpdate);
+        assertSame(firstNameUpdate, secondNameUpdate);
+        assertNotNull(lastModifiedUpdate);
+        assertNotEquals(firstNameUpdate, lastModifiedUpdate);
+        clearPersistenceContextAndReload();
+        assertEquals("newDoc2", doc1.getName());
+        assertEquals(0, doc1.getLastModified().getTime());
+    }
+
+    private String saveAndCaptureUpdateStatement(final UpdatableDocumentBasicView docView) {
+        final List<String> updateStatements = new ArrayList<>();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(final EntityManager em) {
+                EntityManager recordingEntityManager = (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(), new Class<?>[]{ EntityManager.class }, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("createQuery".equals(method.getName()) && args.length == 1 && args[0] instanceof String && ((String) args[0]).startsWith("UPDATE ")) {
+                            updateStatements.add((String) args[0]);
+                        }
+                        try {
+                            return method.invoke(em, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        }
+                    }
+                });
+                evm.save(recordingEntityManager, docView);
+                em.flush();
+            }
+        });
+        assertEquals(1, updateStatements.size());
+        return updateStatements.get(0);
+    }
+
     @Test
     public void testSimpleUpdate() {
         // Given & When
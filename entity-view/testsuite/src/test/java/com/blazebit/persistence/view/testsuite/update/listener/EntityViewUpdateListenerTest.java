@@ -20,6 +20,7 @@ import com.blazebit.persistence.testsuite.base.jpa.assertion.AssertStatementBuil
 import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
 import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
 import com.blazebit.persistence.view.EntityViewManager;
 import com.blazebit.persistence.view.FlushMode;
 import com.blazebit.persistence.view.FlushStrategy;
@@ -36,6 +37,7 @@ import org.junit.runners.Parameterized;
 
 import javax.persistence.EntityManager;
 
+import java.util.Arrays;
 import java.util.Date;
 
 import static org.junit.Assert.assertEquals;
@@ -98,6 +100,36 @@ public class EntityViewUpdateListenerTest extends AbstractEntityViewUpdateDocume
         assertEquals(doc1.getName(), docView.getName());
     }
 
+    @Test
+    public void testSaveAllMixedViewTypes() {
+        // Given
+        final UpdatableDocumentView docView1 = getDoc1View();
+        final UpdatableDocumentView docView2 = getDoc2View();
+        final UpdatablePersonView personView = getP2View(UpdatablePersonView.class);
+
+        // When
+        docView1.setName("newDoc1");
+        personView.setName("newPerson");
+        docView2.setName("newDoc2");
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                evm.saveAll(em, Arrays.asList(docView1, personView, docView2));
+                em.flush();
+            }
+        });
+
+        // Then
+        clearPersistenceContextAndReload();
+        assertEquals("newDoc1Updated", docView1.getName());
+        assertEquals("newDoc2Updated", docView2.getName());
+        assertEquals(POST_UPDATE_DATE, docView1.getLastModified());
+        assertEquals(POST_UPDATE_DATE, docView2.getLastModified());
+        assertEquals(doc1.getName(), docView1.getName());
+        assertEquals(doc2.getName(), docView2.getName());
+        assertEquals("newPerson", p2.getName());
+    }
+
     @Test
     public void testUpdateWithSubview() {
         // Given
@@ -22,6 +22,7 @@ import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
 import com.blazebit.persistence.testsuite.entity.Document;
 import com.blazebit.persistence.testsuite.entity.Person;
 import com.blazebit.persistence.testsuite.entity.Version;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
 import com.blazebit.persistence.view.FlushMode;
 import com.blazebit.persistence.view.FlushStrategy;
 import com.blazebit.persistence.view.spi.EntityViewConfiguration;
@@ -34,7 +35,11 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 /**
@@ -161,4 +166,35 @@ public class EntityViewRemoveNestedSubviewTest extends AbstractEntityViewRemoveD
         assertNull(p1);
         assertNull(p3);
     }
+
+    @Test
+    public void testRemoveAll() {
+        // Given
+        final UpdatableDocumentView docView1 = getDoc1View();
+        final UpdatableDocumentView docView2 = getDoc2View();
+        clearQueries();
+
+        // When
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                evm.removeAll(em, Arrays.asList(docView1, docView2));
+                em.flush();
+            }
+        });
+
+        // Then
+        clearPersistenceContextAndReload();
+        assertNull(doc1);
+        assertNull(doc2);
+        // document.responsiblePerson
+        assertNull(p1);
+        assertNull(p2);
+        // document.responsiblePerson.friend
+        assertNull(p3);
+        assertNull(p4);
+        // document.owner is not cascaded
+        assertNotNull(p5);
+        assertNotNull(p6);
+    }
 }
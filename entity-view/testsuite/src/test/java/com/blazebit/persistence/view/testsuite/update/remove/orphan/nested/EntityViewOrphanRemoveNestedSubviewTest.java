@@ -21,6 +21,7 @@ import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
 import com.blazebit.persistence.testsuite.entity.Document;
 import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
 import com.blazebit.persistence.view.FlushMode;
 import com.blazebit.persistence.view.FlushStrategy;
 import com.blazebit.persistence.view.spi.EntityViewConfiguration;
@@ -34,6 +35,8 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import javax.persistence.EntityManager;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
@@ -197,6 +200,33 @@ public class EntityViewOrphanRemoveNestedSubviewTest extends AbstractEntityViewO
         assertNull(doc1.getResponsiblePerson());
     }
 
+    @Test
+    public void testSaveAllRemovesOrphans() {
+        // Given
+        final UpdatableDocumentView docView = getDoc1View();
+        final UpdatableResponsiblePersonView personView = getPersonView(p4.getId(), UpdatableResponsiblePersonView.class);
+        clearQueries();
+
+        // When
+        docView.getResponsiblePerson().setFriend(null);
+        personView.setFriend(null);
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                evm.saveAll(em, Arrays.asList(docView, personView));
+                em.flush();
+            }
+        });
+
+        // Then
+        clearPersistenceContextAndReload();
+        assertNull(p2.getFriend());
+        assertNull(p4.getFriend());
+        assertNull(p7);
+        assertNull(p8);
+        assertEquals(p9.getId(), p6.getFriend().getId());
+    }
+
     public AssertStatementBuilder assertUpdateAndRemove() {
         AssertStatementBuilder builder = assertUnorderedQuerySequence();
 
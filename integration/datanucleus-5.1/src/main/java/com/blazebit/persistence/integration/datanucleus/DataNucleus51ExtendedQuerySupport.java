@@ -74,6 +74,11 @@ public class DataNucleus51ExtendedQuerySupport implements ExtendedQuerySupport {
         return true;
     }
 
+    @Override
+    public int getDatabaseMajorVersion(EntityManager em) {
+        return -1;
+    }
+
     public List<String> getCascadingDeleteSql(EntityManager em, Query query) {
         // TODO: implement
         throw new UnsupportedOperationException("Not yet implemeneted!");
@@ -128,6 +133,16 @@ public class DataNucleus51ExtendedQuerySupport implements ExtendedQuerySupport {
         return query.executeUpdate();
     }
 
+    @Override
+    public boolean supportsBatchUpdate() {
+        return false;
+    }
+
+    @Override
+    public int[] executeBatchUpdate(EntityManager em, List<Query> queries) {
+        throw new UnsupportedOperationException("Not yet implemeneted!");
+    }
+
     @Override
     public ReturningResult<Object[]> executeReturning(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query modificationBaseQuery, Query exampleQuery, String sqlOverride, boolean queryPlanCacheEnabled) {
         // TODO: implement
@@ -0,0 +1,403 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.graphql;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * A compact binary format for {@link GraphQLCursor} objects that avoids Java object serialization.
+ *
+ * The format starts with a version byte that can't be confused with the Java serialization stream magic,
+ * followed by the offset, the page size and the type tagged tuple elements.
+ * Only a fixed set of basic types is supported, so decoding never has to resolve classes.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public final class GraphQLCompactCursorCodec {
+
+    /**
+     * The version of the compact cursor format.
+     */
+    public static final byte VERSION_1 = 1;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_SHORT = 4;
+    private static final byte TYPE_BYTE = 5;
+    private static final byte TYPE_BOOLEAN = 6;
+    private static final byte TYPE_CHARACTER = 7;
+    private static final byte TYPE_FLOAT = 8;
+    private static final byte TYPE_DOUBLE = 9;
+    private static final byte TYPE_BIG_INTEGER = 10;
+    private static final byte TYPE_BIG_DECIMAL = 11;
+    private static final byte TYPE_UUID = 12;
+    private static final byte TYPE_LOCAL_DATE = 13;
+    private static final byte TYPE_LOCAL_TIME = 14;
+    private static final byte TYPE_LOCAL_DATE_TIME = 15;
+    private static final byte TYPE_INSTANT = 16;
+    private static final byte TYPE_OFFSET_DATE_TIME = 17;
+    private static final byte TYPE_UTIL_DATE = 18;
+    private static final byte TYPE_SQL_DATE = 19;
+    private static final byte TYPE_SQL_TIME = 20;
+    private static final byte TYPE_SQL_TIMESTAMP = 21;
+
+    private GraphQLCompactCursorCodec() {
+    }
+
+    /**
+     * Returns whether the given serialized cursor uses the compact format.
+     *
+     * @param bytes The serialized cursor
+     * @return whether the given serialized cursor uses the compact format
+     */
+    public static boolean isCompact(byte[] bytes) {
+        return bytes.length != 0 && bytes[0] == VERSION_1;
+    }
+
+    /**
+     * Returns whether all elements of the given tuple can be encoded in the compact format.
+     *
+     * @param tuple The tuple
+     * @return whether the tuple is supported by the compact format
+     */
+    public static boolean supports(Serializable[] tuple) {
+        for (Serializable element : tuple) {
+            if (element != null && getType(element) == -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes the given cursor components in the compact format.
+     *
+     * @param offset The offset
+     * @param pageSize The page size
+     * @param tuple The tuple
+     * @return the encoded cursor
+     * @throws IllegalArgumentException If the tuple contains an unsupported element type
+     */
+    public static byte[] encode(int offset, int pageSize, Serializable[] tuple) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(16 + tuple.length * 9);
+        try (DataOutputStream out = new DataOutputStream(baos)) {
+            out.writeByte(VERSION_1);
+            writeVarInt(out, offset);
+            writeVarInt(out, pageSize);
+            writeVarInt(out, tuple.length);
+            for (Serializable element : tuple) {
+                writeElement(out, element);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Decodes the given cursor that was encoded in the compact format.
+     *
+     * @param bytes The encoded cursor
+     * @return a new cursor
+     * @throws IllegalArgumentException If the cursor is not encoded in a supported compact format
+     */
+    public static GraphQLCursor decode(byte[] bytes) {
+        if (!isCompact(bytes)) {
+            throw new IllegalArgumentException("Unsupported cursor format!");
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            int offset = readVarInt(in);
+            int pageSize = readVarInt(in);
+            int length = readVarInt(in);
+            if (length > bytes.length) {
+                throw new IllegalArgumentException("Invalid cursor tuple length: " + length);
+            }
+            Serializable[] tuple = new Serializable[length];
+            for (int i = 0; i < length; i++) {
+                tuple[i] = readElement(in);
+            }
+            return new GraphQLCursor(offset, pageSize, tuple);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Couldn't read cursor", e);
+        }
+    }
+
+    private static byte getType(Serializable element) {
+        // Check the exact classes as subclasses wouldn't survive a roundtrip
+        Class<?> clazz = element.getClass();
+        if (clazz == String.class) {
+            return TYPE_STRING;
+        } else if (clazz == Integer.class) {
+            return TYPE_INTEGER;
+        } else if (clazz == Long.class) {
+            return TYPE_LONG;
+        } else if (clazz == Short.class) {
+            return TYPE_SHORT;
+        } else if (clazz == Byte.class) {
+            return TYPE_BYTE;
+        } else if (clazz == Boolean.class) {
+            return TYPE_BOOLEAN;
+        } else if (clazz == Character.class) {
+            return TYPE_CHARACTER;
+        } else if (clazz == Float.class) {
+            return TYPE_FLOAT;
+        } else if (clazz == Double.class) {
+            return TYPE_DOUBLE;
+        } else if (clazz == BigInteger.class) {
+            return TYPE_BIG_INTEGER;
+        } else if (clazz == BigDecimal.class) {
+            return TYPE_BIG_DECIMAL;
+        } else if (clazz == UUID.class) {
+            return TYPE_UUID;
+        } else if (clazz == LocalDate.class) {
+            return TYPE_LOCAL_DATE;
+        } else if (clazz == LocalTime.class) {
+            return TYPE_LOCAL_TIME;
+        } else if (clazz == LocalDateTime.class) {
+            return TYPE_LOCAL_DATE_TIME;
+        } else if (clazz == Instant.class) {
+            return TYPE_INSTANT;
+        } else if (clazz == OffsetDateTime.class) {
+            return TYPE_OFFSET_DATE_TIME;
+        } else if (clazz == java.util.Date.class) {
+            return TYPE_UTIL_DATE;
+        } else if (clazz == java.sql.Date.class) {
+            return TYPE_SQL_DATE;
+        } else if (clazz == java.sql.Time.class) {
+            return TYPE_SQL_TIME;
+        } else if (clazz == java.sql.Timestamp.class) {
+            return TYPE_SQL_TIMESTAMP;
+        }
+        return -1;
+    }
+
+    private static void writeElement(DataOutputStream out, Serializable element) throws IOException {
+        if (element == null) {
+            out.writeByte(TYPE_NULL);
+            return;
+        }
+        byte type = getType(element);
+        out.writeByte(type);
+        switch (type) {
+            case TYPE_STRING:
+                byte[] bytes = ((String) element).getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, bytes.length);
+                out.write(bytes);
+                break;
+            case TYPE_INTEGER:
+                writeVarLong(out, zigZag((Integer) element));
+                break;
+            case TYPE_LONG:
+                writeVarLong(out, zigZag((Long) element));
+                break;
+            case TYPE_SHORT:
+                out.writeShort((Short) element);
+                break;
+            case TYPE_BYTE:
+                out.writeByte((Byte) element);
+                break;
+            case TYPE_BOOLEAN:
+                out.writeBoolean((Boolean) element);
+                break;
+            case TYPE_CHARACTER:
+                out.writeChar((Character) element);
+                break;
+            case TYPE_FLOAT:
+                out.writeFloat((Float) element);
+                break;
+            case TYPE_DOUBLE:
+                out.writeDouble((Double) element);
+                break;
+            case TYPE_BIG_INTEGER:
+                writeBytes(out, ((BigInteger) element).toByteArray());
+                break;
+            case TYPE_BIG_DECIMAL:
+                BigDecimal bigDecimal = (BigDecimal) element;
+                writeVarLong(out, zigZag(bigDecimal.scale()));
+                writeBytes(out, bigDecimal.unscaledValue().toByteArray());
+                break;
+            case TYPE_UUID:
+                UUID uuid = (UUID) element;
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+                break;
+            case TYPE_LOCAL_DATE:
+                writeVarLong(out, zigZag(((LocalDate) element).toEpochDay()));
+                break;
+            case TYPE_LOCAL_TIME:
+                writeVarLong(out, ((LocalTime) element).toNanoOfDay());
+                break;
+            case TYPE_LOCAL_DATE_TIME:
+                LocalDateTime localDateTime = (LocalDateTime) element;
+                writeVarLong(out, zigZag(localDateTime.toEpochSecond(ZoneOffset.UTC)));
+                writeVarInt(out, localDateTime.getNano());
+                break;
+            case TYPE_INSTANT:
+                Instant instant = (Instant) element;
+                writeVarLong(out, zigZag(instant.getEpochSecond()));
+                writeVarInt(out, instant.getNano());
+                break;
+            case TYPE_OFFSET_DATE_TIME:
+                OffsetDateTime offsetDateTime = (OffsetDateTime) element;
+                writeVarLong(out, zigZag(offsetDateTime.toEpochSecond()));
+                writeVarInt(out, offsetDateTime.getNano());
+                writeVarLong(out, zigZag(offsetDateTime.getOffset().getTotalSeconds()));
+                break;
+            case TYPE_UTIL_DATE:
+            case TYPE_SQL_DATE:
+            case TYPE_SQL_TIME:
+                writeVarLong(out, zigZag(((java.util.Date) element).getTime()));
+                break;
+            case TYPE_SQL_TIMESTAMP:
+                java.sql.Timestamp timestamp = (java.sql.Timestamp) element;
+                writeVarLong(out, zigZag(timestamp.getTime()));
+                writeVarInt(out, timestamp.getNanos());
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported cursor element type: " + element.getClass().getName());
+        }
+    }
+
+    private static Serializable readElement(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case TYPE_INTEGER:
+                return (int) unZigZag(readVarLong(in));
+            case TYPE_LONG:
+                return unZigZag(readVarLong(in));
+            case TYPE_SHORT:
+                return in.readShort();
+            case TYPE_BYTE:
+                return in.readByte();
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_CHARACTER:
+                return in.readChar();
+            case TYPE_FLOAT:
+                return in.readFloat();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_BIG_INTEGER:
+                return new BigInteger(readBytes(in));
+            case TYPE_BIG_DECIMAL:
+                int scale = (int) unZigZag(readVarLong(in));
+                return new BigDecimal(new BigInteger(readBytes(in)), scale);
+            case TYPE_UUID:
+                return new UUID(in.readLong(), in.readLong());
+            case TYPE_LOCAL_DATE:
+                return LocalDate.ofEpochDay(unZigZag(readVarLong(in)));
+            case TYPE_LOCAL_TIME:
+                return LocalTime.ofNanoOfDay(readVarLong(in));
+            case TYPE_LOCAL_DATE_TIME:
+                long localEpochSecond = unZigZag(readVarLong(in));
+                return LocalDateTime.ofEpochSecond(localEpochSecond, readVarInt(in), ZoneOffset.UTC);
+            case TYPE_INSTANT:
+                long epochSecond = unZigZag(readVarLong(in));
+                return Instant.ofEpochSecond(epochSecond, readVarInt(in));
+            case TYPE_OFFSET_DATE_TIME:
+                long offsetEpochSecond = unZigZag(readVarLong(in));
+                int nano = readVarInt(in);
+                ZoneOffset zoneOffset = ZoneOffset.ofTotalSeconds((int) unZigZag(readVarLong(in)));
+                return OffsetDateTime.ofInstant(Instant.ofEpochSecond(offsetEpochSecond, nano), zoneOffset);
+            case TYPE_UTIL_DATE:
+                return new java.util.Date(unZigZag(readVarLong(in)));
+            case TYPE_SQL_DATE:
+                return new java.sql.Date(unZigZag(readVarLong(in)));
+            case TYPE_SQL_TIME:
+                return new java.sql.Time(unZigZag(readVarLong(in)));
+            case TYPE_SQL_TIMESTAMP:
+                java.sql.Timestamp timestamp = new java.sql.Timestamp(unZigZag(readVarLong(in)));
+                timestamp.setNanos(readVarInt(in));
+                return timestamp;
+            default:
+                throw new IllegalArgumentException("Unsupported cursor element type tag: " + type);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length > in.available()) {
+            throw new IllegalArgumentException("Invalid cursor element length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable length number in cursor");
+    }
+}
@@ -123,6 +123,7 @@ public class GraphQLEntityViewSupport {
     private final String pageElementsName;
     private final String pageElementObjectName;
     private final String elementCursorName;
+    private final boolean compactCursors;
 
     /**
      * A default constructor to make this class proxyable.
@@ -188,6 +189,27 @@ public class GraphQLEntityViewSupport {
      * @param elementCursorName The name of the cursor field within elements
      */
     public GraphQLEntityViewSupport(Map<String, ManagedViewType<?>> typeNameToViewType, Map<String, Map<String, String>> typeNameToFieldMapping, Set<String> serializableBasicTypes, String pageSizeName, String offsetName, String beforeCursorName, String afterCursorName, String totalCountName, String pageElementsName, String pageElementObjectName, String elementCursorName) {
+        this(typeNameToViewType, typeNameToFieldMapping, serializableBasicTypes, pageSizeName, offsetName, beforeCursorName, afterCursorName, totalCountName, pageElementsName, pageElementObjectName, elementCursorName, false);
+    }
+
+    /**
+     * Creates a new {@link GraphQLEntityViewSupport} instance with the given type name to class mapping and serializable basic type whitelist.
+     *
+     * @param typeNameToViewType The mapping from GraphQL type names to entity view metamodels
+     * @param typeNameToFieldMapping The mapping from GraphQL type names to a map from GraphQL field name to entity view attribute name
+     * @param serializableBasicTypes The whitelist of allowed serializable basic types to use for cursor deserialization
+     * @param pageSizeName The name of the page size field
+     * @param offsetName The name of the offset field
+     * @param beforeCursorName The name of the beforeCursor field
+     * @param afterCursorName The name of the afterCursor field
+     * @param totalCountName The name of the totalCount field
+     * @param pageElementsName The name of the elements field
+     * @param pageElementObjectName The name of the element object field within elements
+     * @param elementCursorName The name of the cursor field within elements
+     * @param compactCursors Whether to serialize cursors with the {@link GraphQLCompactCursorCodec} instead of Java serialization
+     * @since 1.6.9
+     */
+    public GraphQLEntityViewSupport(Map<String, ManagedViewType<?>> typeNameToViewType, Map<String, Map<String, String>> typeNameToFieldMapping, Set<String> serializableBasicTypes, String pageSizeName, String offsetName, String beforeCursorName, String afterCursorName, String totalCountName, String pageElementsName, String pageElementObjectName, String elementCursorName, boolean compactCursors) {
         this.pageSizeName = pageSizeName;
         this.offsetName = offsetName;
         this.beforeCursorName = beforeCursorName;
@@ -199,6 +221,7 @@ public class GraphQLEntityViewSupport {
         this.serializableBasicTypes = serializableBasicTypes;
         this.pageElementObjectName = pageElementObjectName;
         this.elementCursorName = elementCursorName;
+        this.compactCursors = compactCursors;
     }
 
     /**
@@ -677,12 +700,26 @@ public class GraphQLEntityViewSupport {
 
     /**
      * Deserializes the given Base64 encoded cursor to a {@link GraphQLCursor} object.
+     * Cursors in the compact format as well as Java serialized cursors are supported.
      *
      * @param beforeCursor The Base64 encoded cursor
      * @return a new cursor
      */
     protected GraphQLCursor deserialize(String beforeCursor) {
-        try (ObjectInputStream ois = new GraphQLCursorObjectInputStream(Base64.getDecoder().wrap(new ByteArrayInputStream(beforeCursor.getBytes())), serializableBasicTypes)) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getDecoder().decode(beforeCursor);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Couldn't read cursor", e);
+        }
+        if (GraphQLCompactCursorCodec.isCompact(bytes)) {
+            try {
+                return GraphQLCompactCursorCodec.decode(bytes);
+            } catch (Exception e) {
+                throw new RuntimeException("Couldn't read cursor", e);
+            }
+        }
+        try (ObjectInputStream ois = new GraphQLCursorObjectInputStream(new ByteArrayInputStream(bytes), serializableBasicTypes)) {
             int offset = ois.read();
             int pageSize = ois.read();
             Serializable[] tuple = (Serializable[]) ois.readObject();
@@ -701,6 +738,9 @@ public class GraphQLEntityViewSupport {
      * @return the serialized form of the cursor
      */
     protected byte[] serializeCursor(int offset, int pageSize, Serializable[] tuple) {
+        if (compactCursors && GraphQLCompactCursorCodec.supports(tuple)) {
+            return GraphQLCompactCursorCodec.encode(offset, pageSize, tuple);
+        }
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
             oos.write(offset);
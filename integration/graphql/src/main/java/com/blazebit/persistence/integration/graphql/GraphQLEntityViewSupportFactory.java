@@ -295,6 +295,7 @@ public class GraphQLEntityViewSupportFactory {
     private Pattern typeFilterPattern;
     private Map<String, GraphQLScalarType> scalarTypeMap;
     private Set<String> registeredScalarTypeNames;
+    private boolean compactCursors;
 
     /**
      * Creates a new entity view support factory with the given configuration.
@@ -449,6 +450,27 @@ public class GraphQLEntityViewSupportFactory {
         this.typeFilterPattern = typeFilterPattern;
     }
 
+    /**
+     * Returns whether cursors are serialized with the {@link GraphQLCompactCursorCodec} instead of Java serialization.
+     *
+     * @return whether cursors are serialized in the compact format
+     * @since 1.6.9
+     */
+    public boolean isCompactCursors() {
+        return compactCursors;
+    }
+
+    /**
+     * Sets whether cursors should be serialized with the {@link GraphQLCompactCursorCodec} instead of Java serialization.
+     * Java serialized cursors can still be read when the compact format is enabled.
+     *
+     * @param compactCursors Whether cursors should be serialized in the compact format
+     * @since 1.6.9
+     */
+    public void setCompactCursors(boolean compactCursors) {
+        this.compactCursors = compactCursors;
+    }
+
     /**
      * Returns a new {@link GraphQLEntityViewSupport} after registering the entity view types from {@link EntityViewManager}
      * on the given {@link TypeDefinitionRegistry}.
@@ -577,7 +599,20 @@ public class GraphQLEntityViewSupportFactory {
 
         serializableBasicTypes.add(Serializable[].class.getName());
         serializableBasicTypes.add(GraphQLCursor.class.getName());
-        return new GraphQLEntityViewSupport(typeNameToViewType, typeNameToFieldMapping, serializableBasicTypes);
+        return new GraphQLEntityViewSupport(
+            typeNameToViewType,
+            typeNameToFieldMapping,
+            serializableBasicTypes,
+            GraphQLEntityViewSupport.PAGE_SIZE_NAME,
+            GraphQLEntityViewSupport.OFFSET_NAME,
+            GraphQLEntityViewSupport.BEFORE_CURSOR_NAME,
+            GraphQLEntityViewSupport.AFTER_CURSOR_NAME,
+            GraphQLEntityViewSupport.TOTAL_COUNT_NAME,
+            GraphQLEntityViewSupport.EDGES_NAME,
+            GraphQLEntityViewSupport.EDGE_NODE_NAME,
+            GraphQLEntityViewSupport.EDGE_CURSOR_NAME,
+            compactCursors
+        );
     }
 
     /**
@@ -769,7 +804,20 @@ public class GraphQLEntityViewSupportFactory {
                 schemaBuilder.additionalType(additionalType);
             }
         }
-        return new GraphQLEntityViewSupport(typeNameToViewType, typeNameToFieldMapping, serializableBasicTypes);
+        return new GraphQLEntityViewSupport(
+            typeNameToViewType,
+            typeNameToFieldMapping,
+            serializableBasicTypes,
+            GraphQLEntityViewSupport.PAGE_SIZE_NAME,
+            GraphQLEntityViewSupport.OFFSET_NAME,
+            GraphQLEntityViewSupport.BEFORE_CURSOR_NAME,
+            GraphQLEntityViewSupport.AFTER_CURSOR_NAME,
+            GraphQLEntityViewSupport.TOTAL_COUNT_NAME,
+            GraphQLEntityViewSupport.EDGES_NAME,
+            GraphQLEntityViewSupport.EDGE_NODE_NAME,
+            GraphQLEntityViewSupport.EDGE_CURSOR_NAME,
+            compactCursors
+        );
     }
 
     private GraphQLList getListType(GraphQLType elementType) {
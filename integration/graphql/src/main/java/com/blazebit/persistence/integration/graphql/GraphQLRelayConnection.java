@@ -71,7 +71,18 @@ public class GraphQLRelayConnection<T> implements Serializable {
      * @param list The paged list
      */
     public GraphQLRelayConnection(PagedList<T> list) {
-        this.pageInfo = new GraphQLRelayPageInfo(list);
+        this(list, false);
+    }
+
+    /**
+     * Creates a GraphQL page from the given paged list.
+     *
+     * @param list The paged list
+     * @param compactCursors Whether to serialize cursors with the {@link GraphQLCompactCursorCodec} instead of Java serialization
+     * @since 1.6.9
+     */
+    public GraphQLRelayConnection(PagedList<T> list, boolean compactCursors) {
+        this.pageInfo = new GraphQLRelayPageInfo(list, compactCursors);
         this.totalCount = list.getTotalSize();
         this.edges = createEdges(list, pageInfo);
     }
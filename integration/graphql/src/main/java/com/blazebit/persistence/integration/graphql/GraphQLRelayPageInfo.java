@@ -39,12 +39,14 @@ public class GraphQLRelayPageInfo implements Serializable {
     private final boolean hasPreviousPage;
     private final String startCursor;
     private final String endCursor;
+    private final transient boolean compactCursors;
 
     private GraphQLRelayPageInfo() {
         this.hasNextPage = true;
         this.hasPreviousPage = true;
         this.startCursor = null;
         this.endCursor = null;
+        this.compactCursors = false;
     }
 
     /**
@@ -53,6 +55,18 @@ public class GraphQLRelayPageInfo implements Serializable {
      * @param data The paged list
      */
     public GraphQLRelayPageInfo(PagedList<?> data) {
+        this(data, false);
+    }
+
+    /**
+     * Creates a new page info object from the given paged list.
+     *
+     * @param data The paged list
+     * @param compactCursors Whether to serialize cursors with the {@link GraphQLCompactCursorCodec} instead of Java serialization
+     * @since 1.6.9
+     */
+    public GraphQLRelayPageInfo(PagedList<?> data, boolean compactCursors) {
+        this.compactCursors = compactCursors;
         this.hasPreviousPage = data.getFirstResult() != 0;
         this.hasNextPage = data.getTotalSize() == -1 || data.getFirstResult() + data.getMaxResults() < data.getTotalSize();
         KeysetPage keysetPage = data.getKeysetPage();
@@ -111,7 +125,7 @@ public class GraphQLRelayPageInfo implements Serializable {
      * @return the serialized form of the cursor
      */
     protected byte[] serialize(GraphQLCursor cursor) {
-        return serializeCursor(cursor.getOffset(), cursor.getPageSize(), cursor.getTuple());
+        return serialize(cursor.getOffset(), cursor.getPageSize(), cursor.getTuple());
     }
 
     /**
@@ -123,6 +137,9 @@ public class GraphQLRelayPageInfo implements Serializable {
      * @return the serialized form of the cursor
      */
     protected byte[] serialize(int offset, int pageSize, Serializable[] tuple) {
+        if (compactCursors && GraphQLCompactCursorCodec.supports(tuple)) {
+            return GraphQLCompactCursorCodec.encode(offset, pageSize, tuple);
+        }
         return serializeCursor(offset, pageSize, tuple);
     }
 
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.graphql;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class GraphQLCompactCursorCodecTest {
+
+    @Test
+    public void testRoundtrip() {
+        Serializable[] tuple = new Serializable[]{
+            1,
+            -5L,
+            null,
+            "abc",
+            UUID.randomUUID(),
+            new BigDecimal("-12.345"),
+            LocalDate.of(2020, 2, 29),
+            LocalDateTime.of(2020, 2, 29, 12, 30, 15, 123456789),
+            Instant.ofEpochSecond(1234567890L, 987),
+            OffsetDateTime.of(2020, 2, 29, 12, 30, 15, 0, ZoneOffset.ofHours(2)),
+            new java.sql.Timestamp(1234567890123L)
+        };
+        byte[] bytes = GraphQLCompactCursorCodec.encode(300, 20, tuple);
+
+        Assert.assertTrue(GraphQLCompactCursorCodec.isCompact(bytes));
+        GraphQLCursor cursor = GraphQLCompactCursorCodec.decode(bytes);
+        Assert.assertEquals(300, cursor.getOffset());
+        Assert.assertEquals(20, cursor.getPageSize());
+        Assert.assertArrayEquals(tuple, cursor.getTuple());
+    }
+
+    @Test
+    public void testSupports() {
+        Assert.assertTrue(GraphQLCompactCursorCodec.supports(new Serializable[]{ 1L, "a" }));
+        Assert.assertFalse(GraphQLCompactCursorCodec.supports(new Serializable[]{ 1L, new StringBuilder() }));
+    }
+
+    @Test
+    public void testJavaSerializedCursorIsNotCompact() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.write(0);
+            oos.write(10);
+            oos.writeObject(new Serializable[]{ 1L });
+        }
+
+        Assert.assertFalse(GraphQLCompactCursorCodec.isCompact(baos.toByteArray()));
+    }
+}
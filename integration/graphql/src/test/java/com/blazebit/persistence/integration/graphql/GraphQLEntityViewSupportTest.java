@@ -17,6 +17,7 @@
 package com.blazebit.persistence.integration.graphql;
 
 import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.PaginatedCriteriaBuilder;
 import com.blazebit.persistence.integration.graphql.views.AnimalView;
 import com.blazebit.persistence.integration.graphql.views.DocumentView;
@@ -28,7 +29,12 @@ import graphql.schema.GraphQLFieldDefinition;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashSet;
 
 import static com.blazebit.persistence.integration.graphql.TestSchemaHelpers.animalUnionType;
@@ -98,4 +104,36 @@ public class GraphQLEntityViewSupportTest {
 
         Assert.assertEquals(new HashSet<>(Arrays.asList("name", "animal.name")), setting.getFetches());
     }
+
+    @Test
+    public void testReadJavaSerializedCursorWithCompactCursors() throws Exception {
+        GraphQLEntityViewSupport compactSupport = new GraphQLEntityViewSupport(
+                Collections.emptyMap(),
+                Collections.emptyMap(),
+                new HashSet<>(Arrays.asList(Serializable[].class.getName(), Number.class.getName(), Long.class.getName())),
+                GraphQLEntityViewSupport.PAGE_SIZE_NAME,
+                GraphQLEntityViewSupport.OFFSET_NAME,
+                GraphQLEntityViewSupport.BEFORE_CURSOR_NAME,
+                GraphQLEntityViewSupport.AFTER_CURSOR_NAME,
+                GraphQLEntityViewSupport.TOTAL_COUNT_NAME,
+                GraphQLEntityViewSupport.EDGES_NAME,
+                GraphQLEntityViewSupport.EDGE_NODE_NAME,
+                GraphQLEntityViewSupport.EDGE_CURSOR_NAME,
+                true
+        );
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.write(20);
+            oos.write(10);
+            oos.writeObject(new Serializable[]{ 5L });
+        }
+        String legacyCursor = Base64.getEncoder().encodeToString(baos.toByteArray());
+
+        KeysetPage keysetPage = compactSupport.extractKeysetPage(null, null, null, legacyCursor);
+
+        Assert.assertEquals(20, keysetPage.getFirstResult());
+        Assert.assertEquals(10, keysetPage.getMaxResults());
+        Assert.assertNull(keysetPage.getLowest());
+        Assert.assertArrayEquals(new Serializable[]{ 5L }, keysetPage.getHighest().getTuple());
+    }
 }
@@ -25,11 +25,14 @@ import com.blazebit.persistence.spi.CteQueryWrapper;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.DbmsStatementType;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.spi.QueryInstrumentation;
+import com.blazebit.persistence.spi.QueryPhase;
 import com.blazebit.reflection.ReflectionUtils;
 import org.hibernate.HibernateException;
 import org.hibernate.LockMode;
 import org.hibernate.LockOptions;
 import org.hibernate.TypeMismatchException;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
 import org.hibernate.engine.query.spi.HQLQueryPlan;
 import org.hibernate.engine.query.spi.QueryPlanCache;
 import org.hibernate.engine.spi.QueryParameters;
@@ -59,6 +62,7 @@ import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
 import org.hibernate.loader.hql.QueryLoader;
 import org.hibernate.param.ParameterSpecification;
 import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.Queryable;
 import org.hibernate.type.ManyToOneType;
 import org.hibernate.type.Type;
 
@@ -68,7 +72,12 @@ import javax.persistence.NonUniqueResultException;
 import javax.persistence.PersistenceException;
 import javax.persistence.Query;
 import java.io.Serializable;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
@@ -84,6 +93,7 @@ import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /**
@@ -96,8 +106,9 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
     private static final Logger LOG = Logger.getLogger(HibernateExtendedQuerySupport.class.getName());
     private static final String[] KNOWN_STATEMENTS = { "select ", "insert ", "update ", "delete " };
     
-    private final ConcurrentMap<SessionFactoryImplementor, BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue>> queryPlanCachesCache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<SessionFactoryImplementor, CustomQueryPlanCache> queryPlanCachesCache = new ConcurrentHashMap<>();
     private final ConcurrentMap<FieldKey, Field> fieldCache = new ConcurrentHashMap<>();
+    private volatile Method parameterSpecificationBindMethod;
     private final HibernateAccess hibernateAccess;
     
     public HibernateExtendedQuerySupport() {
@@ -163,6 +174,16 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         return false;
     }
 
+    @Override
+    public int getDatabaseMajorVersion(EntityManager em) {
+        try {
+            return em.unwrap(SessionImplementor.class).connection().getMetaData().getDatabaseMajorVersion();
+        } catch (SQLException ex) {
+            LOG.warning("Could not determine the database version: " + ex.getMessage());
+            return -1;
+        }
+    }
+
     @Override
     public List<String> getCascadingDeleteSql(EntityManager em, Query query) {
         SessionImplementor session = em.unwrap(SessionImplementor.class);
@@ -443,14 +464,14 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         QueryParameters queryParameters = queryParametersEntry.queryParameters;
 
         QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(finalSql, participatingQueries, queryStrings) : null;
-        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(sfi, query, cacheKey);
+        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(serviceProvider, sfi, query, cacheKey);
         QueryPlanCacheValue queryPlanCacheValue = queryPlanEntry.getValue();
         HQLQueryPlan queryPlan = queryPlanCacheValue.getQueryPlan();
         
         if (!queryPlanEntry.isFromCache()) {
             prepareQueryPlan(queryPlan, queryParametersEntry.specifications, finalSql, session, null, false, serviceProvider.getService(DbmsDialect.class));
             if (queryPlanCacheEnabled) {
-                putQueryPlanIfAbsent(sfi, cacheKey, queryPlanCacheValue);
+                putQueryPlanIfAbsent(serviceProvider, sfi, cacheKey, queryPlanCacheValue);
             }
         }
 
@@ -474,14 +495,14 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         QueryParameters queryParameters = queryParametersEntry.queryParameters;
 
         QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(finalSql, participatingQueries, queryStrings) : null;
-        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(sfi, query, cacheKey);
+        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(serviceProvider, sfi, query, cacheKey);
         QueryPlanCacheValue queryPlanCacheValue = queryPlanEntry.getValue();
         HQLQueryPlan queryPlan = queryPlanCacheValue.getQueryPlan();
 
         if (!queryPlanEntry.isFromCache()) {
             prepareQueryPlan(queryPlan, queryParametersEntry.specifications, finalSql, session, null, false, serviceProvider.getService(DbmsDialect.class));
             if (queryPlanCacheEnabled) {
-                putQueryPlanIfAbsent(sfi, cacheKey, queryPlanCacheValue);
+                putQueryPlanIfAbsent(serviceProvider, sfi, cacheKey, queryPlanCacheValue);
             }
         }
 
@@ -517,7 +538,7 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         QueryParameters queryParameters = queryParametersEntry.queryParameters;
 
         QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(finalSql, participatingQueries, queryStrings, firstResult, maxResults) : null;
-        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(sfi, query, cacheKey);
+        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(serviceProvider, sfi, query, cacheKey);
         QueryPlanCacheValue queryPlanCacheValue = queryPlanEntry.getValue();
         HQLQueryPlan queryPlan = queryPlanCacheValue.getQueryPlan();
 
@@ -541,7 +562,7 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         if (!queryPlanEntry.isFromCache()) {
             prepareQueryPlan(queryPlan, queryParametersEntry.specifications, finalSql, session, baseQuery, true, dbmsDialect);
             if (queryPlanCacheEnabled) {
-                putQueryPlanIfAbsent(sfi, cacheKey, new QueryPlanCacheValue(queryPlan, returningColumns, returningColumnTypes));
+                putQueryPlanIfAbsent(serviceProvider, sfi, cacheKey, new QueryPlanCacheValue(queryPlan, returningColumns, returningColumnTypes));
             }
         }
 
@@ -574,6 +595,117 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         }
     }
 
+    @Override
+    public boolean supportsBatchUpdate() {
+        return true;
+    }
+
+    @Override
+    public int[] executeBatchUpdate(EntityManager em, List<Query> queries) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor sfi = session.getFactory();
+
+        if (session.isClosed()) {
+            throw new PersistenceException("Entity manager is closed!");
+        }
+
+        Set<String> querySpaces = new HashSet<>();
+        List<QueryParamEntry> queryParamEntries = getQueryParamEntries(em, queries, querySpaces);
+        String queryString = queryParamEntries.get(0).queryString;
+        for (int i = 1; i < queryParamEntries.size(); i++) {
+            if (!queryString.equals(queryParamEntries.get(i).queryString)) {
+                throw new IllegalArgumentException("Only queries with the same query string can be batched but got: " + queryString + " and " + queryParamEntries.get(i).queryString);
+            }
+        }
+
+        HQLQueryPlan queryPlan = sfi.getQueryPlanCache().getHQLQueryPlan(queryString, false, Collections.EMPTY_MAP);
+        StatementExecutor executor = getStatementExecutor(queryPlan.getTranslators()[0]);
+        if (!(executor instanceof BasicExecutor)) {
+            throw new IllegalArgumentException("Batching polymorphic deletes/updates is not yet supported");
+        }
+        String sql = getField(executor, "sql");
+        Method bindMethod = getParameterSpecificationBindMethod(session);
+
+        hibernateAccess.checkTransactionSynchStatus(session);
+        autoFlush(querySpaces, session);
+        scheduleBulkOperationCleanup(session, (Queryable) getField(executor, "persister"));
+
+        boolean success = false;
+        PreparedStatement statement = null;
+        try {
+            statement = session.connection().prepareStatement(sql);
+            for (QueryParamEntry queryParamEntry : queryParamEntries) {
+                int position = 1;
+                for (ParameterSpecification specification : queryParamEntry.specifications) {
+                    position += (Integer) bindMethod.invoke(specification, statement, queryParamEntry.queryParameters, session, position);
+                }
+                statement.addBatch();
+            }
+            int[] updateCounts = statement.executeBatch();
+            success = true;
+            return updateCounts;
+        } catch (InvocationTargetException ex) {
+            if (ex.getCause() instanceof SQLException) {
+                return throwBatchUpdateException(em, session, (SQLException) ex.getCause(), sql);
+            }
+            throw new RuntimeException(ex.getCause());
+        } catch (IllegalAccessException ex) {
+            throw new RuntimeException(ex);
+        } catch (SQLException ex) {
+            return throwBatchUpdateException(em, session, ex, sql);
+        } finally {
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (SQLException ex) {
+                    // Ignore
+                }
+            }
+            hibernateAccess.afterTransaction(session, success);
+        }
+    }
+
+    private int[] throwBatchUpdateException(EntityManager em, SessionImplementor session, SQLException ex, String sql) {
+        LOG.severe("Could not execute the following SQL batch: " + sql);
+        hibernateAccess.throwPersistenceException(em, session.getFactory().getJdbcServices().getSqlExceptionHelper().convert(ex, "could not execute batch", sql));
+        return null;
+    }
+
+    private Method getParameterSpecificationBindMethod(SessionImplementor session) {
+        Method bindMethod = parameterSpecificationBindMethod;
+        if (bindMethod == null) {
+            // The session parameter type changed from SessionImplementor to SharedSessionContractImplementor in Hibernate 5.2
+            for (Method method : ParameterSpecification.class.getMethods()) {
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                if ("bind".equals(method.getName()) && parameterTypes.length == 4 && parameterTypes[2].isInstance(session)) {
+                    bindMethod = method;
+                    break;
+                }
+            }
+            if (bindMethod == null) {
+                throw new IllegalStateException("Could not find the bind method of ParameterSpecification!");
+            }
+            parameterSpecificationBindMethod = bindMethod;
+        }
+        return bindMethod;
+    }
+
+    private void scheduleBulkOperationCleanup(SessionImplementor session, Queryable persister) {
+        // Invalidate the second level cache regions of the entity like Hibernate does for executing a DML query
+        for (Constructor<?> constructor : BulkOperationCleanupAction.class.getConstructors()) {
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            if (parameterTypes.length == 2 && parameterTypes[0].isInstance(session) && parameterTypes[1] == Queryable[].class) {
+                try {
+                    ((EventSource) session).getActionQueue().addAction((BulkOperationCleanupAction) constructor.newInstance(session, new Queryable[]{ persister }));
+                    return;
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        }
+        throw new IllegalStateException("Could not find a suitable constructor of BulkOperationCleanupAction!");
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public ReturningResult<Object[]> executeReturning(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query modificationBaseQuery, Query exampleQuery, String sqlOverride, boolean queryPlanCacheEnabled) {
@@ -594,7 +726,7 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         
         // Create plan for example query
         QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(sqlOverride, participatingQueries, queryStrings) : null;
-        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(sfi, exampleQuery, cacheKey);
+        CacheEntry<QueryPlanCacheValue> queryPlanEntry = getQueryPlan(serviceProvider, sfi, exampleQuery, cacheKey);
         QueryPlanCacheValue queryPlanCacheValue = queryPlanEntry.getValue();
         HQLQueryPlan queryPlan = queryPlanCacheValue.getQueryPlan();
 
@@ -619,7 +751,7 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
             if (!queryPlanEntry.isFromCache()) {
                 prepareQueryPlan(queryPlan, queryParametersEntry.specifications, finalSql, session, modificationBaseQuery, true, dbmsDialect);
                 if (queryPlanCacheEnabled) {
-                    putQueryPlanIfAbsent(sfi, cacheKey, new QueryPlanCacheValue(queryPlan, returningColumns, returningColumnTypes));
+                    putQueryPlanIfAbsent(serviceProvider, sfi, cacheKey, new QueryPlanCacheValue(queryPlan, returningColumns, returningColumnTypes));
                 }
             }
 
@@ -1112,29 +1244,36 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         return i;
     }
 
-    private CacheEntry<QueryPlanCacheValue> getQueryPlan(SessionFactoryImplementor sfi, Query query, QueryPlanCacheKey cacheKey) {
+    private CacheEntry<QueryPlanCacheValue> getQueryPlan(com.blazebit.persistence.spi.ServiceProvider serviceProvider, SessionFactoryImplementor sfi, Query query, QueryPlanCacheKey cacheKey) {
+        QueryInstrumentation queryInstrumentation = serviceProvider.getService(QueryInstrumentation.class);
+        long start = queryInstrumentation == null ? 0L : System.nanoTime();
         QueryPlanCacheValue queryPlan;
         boolean fromCache;
         if (cacheKey == null) {
             fromCache = false;
             queryPlan = createQueryPlan(sfi, query);
         } else {
-            BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue> queryPlanCache = getQueryPlanCache(sfi);
-            queryPlan = queryPlanCache.get(cacheKey);
+            CustomQueryPlanCache queryPlanCache = getQueryPlanCache(serviceProvider, sfi);
+            queryPlan = queryPlanCache.cache.get(cacheKey);
             if (queryPlan == null) {
                 fromCache = false;
+                queryPlanCache.missCount.incrementAndGet();
                 queryPlan = createQueryPlan(sfi, query);
             } else {
                 fromCache = true;
+                queryPlanCache.hitCount.incrementAndGet();
             }
         }
-        
+
+        if (queryInstrumentation != null) {
+            queryInstrumentation.record(fromCache ? QueryPhase.PLAN_CACHE_HIT : QueryPhase.PLAN_CACHE_MISS, System.nanoTime() - start);
+        }
         return new CacheEntry<>(queryPlan, fromCache);
     }
     
-    private QueryPlanCacheValue putQueryPlanIfAbsent(SessionFactoryImplementor sfi, QueryPlanCacheKey cacheKey, QueryPlanCacheValue queryPlan) {
-        BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue> queryPlanCache = getQueryPlanCache(sfi);
-        return queryPlanCache.putIfAbsent(cacheKey, queryPlan);
+    private QueryPlanCacheValue putQueryPlanIfAbsent(com.blazebit.persistence.spi.ServiceProvider serviceProvider, SessionFactoryImplementor sfi, QueryPlanCacheKey cacheKey, QueryPlanCacheValue queryPlan) {
+        CustomQueryPlanCache queryPlanCache = getQueryPlanCache(serviceProvider, sfi);
+        return queryPlanCache.cache.putIfAbsent(cacheKey, queryPlan);
     }
     
     private QueryPlanCacheValue createQueryPlan(SessionFactoryImplementor sfi, Query query) {
@@ -1143,11 +1282,11 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         return new QueryPlanCacheValue(new HQLQueryPlan(queryString, false, Collections.EMPTY_MAP, sfi), null, null);
     }
     
-    private BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue> getQueryPlanCache(SessionFactoryImplementor sfi) {
-        BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue> queryPlanCache = queryPlanCachesCache.get(sfi);
+    private CustomQueryPlanCache getQueryPlanCache(com.blazebit.persistence.spi.ServiceProvider serviceProvider, SessionFactoryImplementor sfi) {
+        CustomQueryPlanCache queryPlanCache = queryPlanCachesCache.get(sfi);
         if (queryPlanCache == null) {
-            queryPlanCache = new BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue>(QueryPlanCache.DEFAULT_QUERY_PLAN_MAX_COUNT, 20, BoundedConcurrentHashMap.Eviction.LIRS);
-            BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue> oldQueryPlanCache = queryPlanCachesCache.putIfAbsent(sfi, queryPlanCache);
+            queryPlanCache = new CustomQueryPlanCache(getQueryPlanCacheMaxSize(serviceProvider));
+            CustomQueryPlanCache oldQueryPlanCache = queryPlanCachesCache.putIfAbsent(sfi, queryPlanCache);
             if (oldQueryPlanCache != null) {
                 queryPlanCache = oldQueryPlanCache;
             }
@@ -1156,6 +1295,41 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         return queryPlanCache;
     }
 
+    private int getQueryPlanCacheMaxSize(com.blazebit.persistence.spi.ServiceProvider serviceProvider) {
+        ConfigurationSource configurationSource = serviceProvider.getService(ConfigurationSource.class);
+        String maxSize = configurationSource == null ? null : configurationSource.getProperty(ConfigurationProperties.QUERY_PLAN_CACHE_MAX_SIZE);
+        if (maxSize == null) {
+            return QueryPlanCache.DEFAULT_QUERY_PLAN_MAX_COUNT;
+        }
+        int size = Integer.parseInt(maxSize);
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid query plan cache max size: " + maxSize);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the statistics of the query plan cache for queries that require SQL replacement of the session factory of the given entity manager,
+     * or <code>null</code> if no such query was executed yet.
+     *
+     * @param em The entity manager
+     * @return The query plan cache statistics or <code>null</code>
+     * @since 1.6.9
+     */
+    public QueryPlanCacheStatistics getQueryPlanCacheStatistics(EntityManager em) {
+        CustomQueryPlanCache queryPlanCache = queryPlanCachesCache.get(em.unwrap(SessionImplementor.class).getFactory());
+        if (queryPlanCache == null) {
+            return null;
+        }
+        return new QueryPlanCacheStatistics(
+                queryPlanCache.maxSize,
+                queryPlanCache.cache.size(),
+                queryPlanCache.hitCount.get(),
+                queryPlanCache.missCount.get(),
+                queryPlanCache.evictionCount.get()
+        );
+    }
+
     private QueryPlanCacheKey createCacheKey(String sql, List<Query> queries, List<String> queryStrings) {
         return createCacheKey(sql, queries, queryStrings, null, null);
     }
@@ -1317,6 +1491,32 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         }
     }
 
+    /**
+     * @author Christian Beikov
+     * @since 1.6.9
+     */
+    private static final class CustomQueryPlanCache {
+
+        private final int maxSize;
+        private final AtomicLong hitCount = new AtomicLong();
+        private final AtomicLong missCount = new AtomicLong();
+        private final AtomicLong evictionCount = new AtomicLong();
+        private final BoundedConcurrentHashMap<QueryPlanCacheKey, QueryPlanCacheValue> cache;
+
+        public CustomQueryPlanCache(int maxSize) {
+            this.maxSize = maxSize;
+            this.cache = new BoundedConcurrentHashMap<>(maxSize, 20, BoundedConcurrentHashMap.Eviction.LIRS, new BoundedConcurrentHashMap.EvictionListener<QueryPlanCacheKey, QueryPlanCacheValue>() {
+                public void onEntryEviction(Map<QueryPlanCacheKey, QueryPlanCacheValue> evicted) {
+                    evictionCount.addAndGet(evicted.size());
+                }
+
+                public void onEntryChosenForEviction(QueryPlanCacheValue internalCacheEntry) {
+                    // Only evictions that actually happened are counted
+                }
+            });
+        }
+    }
+
     /**
      * @author Moritz Becker
      * @since 1.6.0
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.hibernate.base;
+
+/**
+ * A snapshot of the statistics of the query plan cache that is used for queries that require SQL replacement.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public final class QueryPlanCacheStatistics {
+
+    private final int maxSize;
+    private final int size;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    QueryPlanCacheStatistics(int maxSize, int size, long hitCount, long missCount, long evictionCount) {
+        this.maxSize = maxSize;
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * Returns the configured maximum number of cached query plans.
+     *
+     * @return The maximum number of cached query plans
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the current number of cached query plans.
+     *
+     * @return The current number of cached query plans
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of lookups that found a cached query plan.
+     *
+     * @return The number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that had to create a query plan.
+     *
+     * @return The number of cache misses
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of query plans that were evicted from the cache.
+     *
+     * @return The number of evictions
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the ratio of hits to lookups or <code>0</code> if there were no lookups yet.
+     *
+     * @return The hit ratio
+     */
+    public double getHitRatio() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0d : (double) hitCount / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryPlanCacheStatistics{" +
+                "maxSize=" + maxSize +
+                ", size=" + size +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+}
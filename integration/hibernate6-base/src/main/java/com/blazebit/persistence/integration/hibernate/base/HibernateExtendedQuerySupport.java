@@ -22,6 +22,8 @@ import com.blazebit.persistence.ReturningResult;
 import com.blazebit.persistence.spi.ConfigurationSource;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.spi.QueryInstrumentation;
+import com.blazebit.persistence.spi.QueryPhase;
 import com.blazebit.reflection.ReflectionUtils;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
@@ -32,6 +34,7 @@ import jakarta.persistence.TupleElement;
 import jakarta.persistence.criteria.CompoundSelection;
 import org.hibernate.HibernateException;
 import org.hibernate.NonUniqueResultException;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
 import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.engine.spi.EntityKey;
@@ -70,6 +73,7 @@ import org.hibernate.query.sqm.spi.SqmParameterMappingModelResolutionAccess;
 import org.hibernate.query.sqm.sql.SqmTranslation;
 import org.hibernate.query.sqm.sql.SqmTranslator;
 import org.hibernate.query.sqm.sql.SqmTranslatorFactory;
+import org.hibernate.query.sqm.tree.SqmDmlStatement;
 import org.hibernate.query.sqm.tree.SqmStatement;
 import org.hibernate.query.sqm.tree.delete.SqmDeleteStatement;
 import org.hibernate.query.sqm.tree.expression.SqmParameter;
@@ -129,6 +133,7 @@ import org.hibernate.type.Type;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -204,6 +209,17 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         return true;
     }
 
+    @Override
+    public int getDatabaseMajorVersion(EntityManager em) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        try {
+            return session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection().getMetaData().getDatabaseMajorVersion();
+        } catch (SQLException ex) {
+            LOG.warning("Could not determine the database version: " + ex.getMessage());
+            return -1;
+        }
+    }
+
     @Override
     public List<String> getCascadingDeleteSql(EntityManager em, Query query) {
         SessionFactoryImplementor sfi = em.unwrap(SessionImplementor.class).getSessionFactory();
@@ -531,7 +547,7 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         }
 
         // todo: avoid double translation
-        CacheableSqmInterpretation interpretation = buildQueryPlan(query);
+        CacheableSqmInterpretation interpretation = buildQueryPlan(serviceProvider, query);
         final JdbcSelect jdbcSelect = sqlAstTranslatorFactory.buildSelectTranslator(sessionFactory, (SelectStatement) interpretation.getSqmTranslation().getSqlAst())
                 .translate(jdbcParameterBindings, executionContext.getQueryOptions());
         final JdbcSelect realJdbcSelect = new JdbcSelect(
@@ -644,7 +660,7 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
             }
         }
 
-        CacheableSqmInterpretation interpretation = buildQueryPlan(query);
+        CacheableSqmInterpretation interpretation = buildQueryPlan(serviceProvider, query);
         final JdbcSelect jdbcSelect = sqlAstTranslatorFactory.buildSelectTranslator(sessionFactory, (SelectStatement) interpretation.getSqmTranslation().getSqlAst())
                 .translate(jdbcParameterBindings, executionContext.getQueryOptions());
         final JdbcSelect realJdbcSelect = new JdbcSelect(
@@ -825,7 +841,7 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
 
         QuerySqmImpl<?> hqlQuery = query.unwrap(QuerySqmImpl.class);
         SqmStatement<?> sqmStatement = hqlQuery.getSqmStatement();
-        CacheableSqmInterpretation interpretation = buildQueryPlan(query);
+        CacheableSqmInterpretation interpretation = buildQueryPlan(serviceProvider, query);
         final JdbcMutation realJdbcStatement;
         if (sqmStatement instanceof SqmUpdateStatement<?>) {
 //            final JdbcUpdate jdbcUpdate = sqlAstTranslatorFactory.buildUpdateTranslator(sessionFactory, (UpdateStatement) interpretation.getSqmTranslation().getSqlAst())
@@ -881,6 +897,87 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         }
     }
 
+    @Override
+    public boolean supportsBatchUpdate() {
+        return true;
+    }
+
+    @Override
+    public int[] executeBatchUpdate(EntityManager em, List<Query> queries) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        if (session.isClosed()) {
+            throw new PersistenceException("Entity manager is closed!");
+        }
+        final SessionFactoryImplementor sessionFactory = session.getSessionFactory();
+
+        QuerySqmImpl<?> firstQuery = queries.get(0).unwrap(QuerySqmImpl.class);
+        String queryString = firstQuery.getQueryString();
+        SqmStatement<?> sqmStatement = firstQuery.getSqmStatement();
+        if (!(sqmStatement instanceof SqmDmlStatement<?>)) {
+            throw new IllegalArgumentException("Unsupported sqm statement: " + sqmStatement);
+        }
+        JdbcOperation firstJdbcOperation = getJdbcOperation(sessionFactory, buildQueryPlan(queries.get(0)), firstQuery);
+        String sql = firstJdbcOperation.getSql();
+
+        session.autoFlushIfRequired(firstJdbcOperation.getAffectedTableNames());
+        // Invalidate the second level cache regions of the entity like Hibernate does for executing a DML query
+        BulkOperationCleanupAction.schedule(session, (SqmDmlStatement<?>) sqmStatement);
+
+        PreparedStatement statement = session.getJdbcCoordinator().getStatementPreparer().prepareStatement(sql);
+        try {
+            for (Query query : queries) {
+                QuerySqmImpl<?> hqlQuery = query.unwrap(QuerySqmImpl.class);
+                if (!queryString.equals(hqlQuery.getQueryString())) {
+                    throw new IllegalArgumentException("Only queries with the same query string can be batched but got: " + queryString + " and " + hqlQuery.getQueryString());
+                }
+                CacheableSqmInterpretation interpretation = buildQueryPlan(query);
+                JdbcOperation jdbcOperation = getJdbcOperation(sessionFactory, interpretation, hqlQuery);
+                final Map<QueryParameterImplementor<?>, Map<SqmParameter<?>, List<List<JdbcParameter>>>> jdbcParamsXref = SqmUtil.generateJdbcParamsXref(
+                        interpretation.domainParameterXref,
+                        interpretation.getSqmTranslation()::getJdbcParamsBySqmParam
+                );
+
+                final JdbcParameterBindings jdbcParameterBindings = SqmUtil.createJdbcParameterBindings(
+                        query.unwrap(DomainQueryExecutionContext.class).getQueryParameterBindings(),
+                        interpretation.domainParameterXref,
+                        jdbcParamsXref,
+                        session.getFactory().getRuntimeMetamodels().getMappingMetamodel(),
+                        interpretation.tableGroupAccess::findTableGroup,
+                        new SqmParameterMappingModelResolutionAccess() {
+                            @Override
+                            @SuppressWarnings("unchecked")
+                            public <T> MappingModelExpressible<T> getResolvedMappingModelType(SqmParameter<T> parameter) {
+                                return (MappingModelExpressible<T>) interpretation.sqmTranslation.getSqmParameterMappingModelTypeResolutions().get(parameter);
+                            }
+                        },
+                        session
+                );
+                ExecutionContext executionContext = SqmJdbcExecutionContextAdapter.usingLockingAndPaging(query.unwrap(DomainQueryExecutionContext.class));
+                try {
+                    int position = 1;
+                    for (JdbcParameterBinder parameterBinder : jdbcOperation.getParameterBinders()) {
+                        parameterBinder.bindParameterValue(statement, position++, jdbcParameterBindings, executionContext);
+                    }
+                } finally {
+                    interpretation.domainParameterXref.clearExpansions();
+                }
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        } catch (SQLException e) {
+            LOG.severe("Could not execute the following SQL batch: " + sql);
+            HibernateException he = sessionFactory.getJdbcServices().getSqlExceptionHelper().convert(e, "could not execute batch", sql);
+            if (session.getFactory().getSessionFactoryOptions().isJpaBootstrap()) {
+                throw session.getExceptionConverter().convert(he);
+            } else {
+                throw he;
+            }
+        } finally {
+            session.getJdbcCoordinator().getLogicalConnection().getResourceRegistry().release(statement);
+            session.getJdbcCoordinator().afterStatementExecution();
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public ReturningResult<Object[]> executeReturning(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query modificationBaseQuery, Query exampleQuery, String sqlOverride, boolean queryPlanCacheEnabled) {
@@ -988,7 +1085,7 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
             boolean success = false;
 
             // todo: avoid double translation
-            CacheableSqmInterpretation interpretation = buildQueryPlan(exampleQuery);
+            CacheableSqmInterpretation interpretation = buildQueryPlan(serviceProvider, exampleQuery);
             DomainQueryExecutionContext domainQueryExecutionContext = exampleQuery.unwrap(DomainQueryExecutionContext.class);
             final JdbcSelect jdbcSelect = sqlAstTranslatorFactory.buildSelectTranslator(sessionFactory, (SelectStatement) interpretation.getSqmTranslation().getSqlAst())
                     .translate(jdbcParameterBindings, domainQueryExecutionContext.getQueryOptions());
@@ -1285,6 +1382,18 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         throw new UnsupportedOperationException();
     }
 
+    private static CacheableSqmInterpretation buildQueryPlan(com.blazebit.persistence.spi.ServiceProvider serviceProvider, Query query) {
+        QueryInstrumentation queryInstrumentation = serviceProvider.getService(QueryInstrumentation.class);
+        if (queryInstrumentation == null) {
+            return buildQueryPlan(query);
+        }
+        // There is no query plan cache for Hibernate 6 yet, so the translation happens on every execution and is reported as miss
+        long start = System.nanoTime();
+        CacheableSqmInterpretation interpretation = buildQueryPlan(query);
+        queryInstrumentation.record(QueryPhase.PLAN_CACHE_MISS, System.nanoTime() - start);
+        return interpretation;
+    }
+
     private static CacheableSqmInterpretation buildQueryPlan(Query query) {
         QuerySqmImpl<?> hqlQuery = query.unwrap(QuerySqmImpl.class);
         SqmQuerySpec<?> querySpec;
@@ -21,13 +21,15 @@ import com.blazebit.persistence.view.metamodel.ManagedViewType;
 import com.blazebit.persistence.view.metamodel.MethodAttribute;
 import com.blazebit.persistence.view.metamodel.ViewType;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.util.JsonParserSequence;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 import java.io.IOException;
 import java.util.Set;
@@ -71,53 +73,99 @@ public class EntityViewReferenceDeserializer extends JsonDeserializer {
 
     @Override
     public Object deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
-        Object reference = null;
-        ObjectCodec codec = jsonParser.getCodec();
-        JsonNode treeNode = codec.readTree(jsonParser);
-        // Consume (i.e. remove from the payload json tree) the id if we are going to use getReference
-        Object id = retrieveId(jsonParser, codec, treeNode, !creatable || updatable);
-
+        Object reference;
         // We create also creatable & updatable views if no id is given
         // If an id is given in such a case, we create a reference for updates
-        if (creatable && (!updatable || id == null)) {
+        if (idAttribute == null || idType == null || creatable && !updatable) {
+            if (creatable) {
+                reference = entityViewManager.create(entityViewClass);
+            } else {
+                skipObject(jsonParser);
+                return null;
+            }
+            return deserializationContext.findNonContextualValueDeserializer(deserializationContext.constructType(reference.getClass()))
+                    .deserialize(jsonParser, deserializationContext, reference);
+        }
+
+        boolean inRoot = isRootObject(jsonParser);
+        ObjectCodec codec = jsonParser.getCodec();
+        // Only buffer the properties that precede the id, so that we can stream the rest of the object into the reference
+        TokenBuffer buffer = new TokenBuffer(jsonParser, deserializationContext);
+        buffer.writeStartObject();
+        String idAttributeName = idAttribute.getName();
+        Object id = null;
+        boolean idFound = false;
+        JsonToken token = jsonParser.getCurrentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = jsonParser.nextToken();
+        }
+        for (; token == JsonToken.FIELD_NAME; token = jsonParser.nextToken()) {
+            String fieldName = jsonParser.getCurrentName();
+            token = jsonParser.nextToken();
+            if (deserializeIdFromJson && idAttributeName.equals(fieldName)) {
+                idFound = true;
+                if (token == JsonToken.VALUE_NULL) {
+                    buffer.writeFieldName(fieldName);
+                    buffer.writeNull();
+                } else {
+                    // Consume (i.e. don't pass on to the view deserializer) the id as we are going to use getReference
+                    id = deserializationContext.readValue(jsonParser, idType);
+                }
+                break;
+            }
+            buffer.writeFieldName(fieldName);
+            buffer.copyCurrentStructure(jsonParser);
+        }
+
+        if (!idFound) {
+            buffer.writeEndObject();
+            if (inRoot && entityViewIdValueAccessor != null) {
+                id = entityViewIdValueAccessor.getValue(jsonParser, idType.getRawClass());
+            }
+        }
+
+        if (creatable && id == null) {
             reference = entityViewManager.create(entityViewClass);
         } else if (id != null) {
             reference = entityViewManager.getReference(entityViewClass, id);
-        }
-
-        if (reference == null) {
+        } else {
+            if (idFound) {
+                skipFields(jsonParser, jsonParser.nextToken());
+            }
             return null;
         }
 
-        jsonParser = codec.treeAsTokens(treeNode);
-        jsonParser.nextToken();
+        JsonParser referenceParser;
+        if (idFound) {
+            referenceParser = JsonParserSequence.createFlattened(false, buffer.asParser(codec), jsonParser);
+        } else {
+            referenceParser = buffer.asParser(codec);
+        }
+        referenceParser.nextToken();
         return deserializationContext.findNonContextualValueDeserializer(deserializationContext.constructType(reference.getClass()))
-                .deserialize(jsonParser, deserializationContext, reference);
+                .deserialize(referenceParser, deserializationContext, reference);
     }
 
-    private Object retrieveId(JsonParser rootJsonParser, ObjectCodec codec, JsonNode treeNode, boolean consume) throws IOException {
-        Object id;
-        if (idAttribute == null || idType == null) {
-            id = null;
-        } else {
-            String idAttributeName = idAttribute.getName();
-            JsonNode jsonNode;
-            if (deserializeIdFromJson && (jsonNode = treeNode.get(idAttributeName)) != null) {
-                if (jsonNode.isNull()) {
-                    id = null;
-                } else {
-                    id = codec.readValue(codec.treeAsTokens(jsonNode), idType);
-                    if (consume) {
-                        ((ObjectNode) treeNode).without(idAttributeName);
-                    }
-                }
-            } else if (rootJsonParser.getParsingContext().inRoot() && entityViewIdValueAccessor != null) {
-                id = entityViewIdValueAccessor.getValue(rootJsonParser, idType.getRawClass());
-            } else {
-                id = null;
-            }
+    private static boolean isRootObject(JsonParser jsonParser) {
+        JsonStreamContext parsingContext = jsonParser.getParsingContext();
+        if (jsonParser.getCurrentToken() == JsonToken.START_OBJECT || jsonParser.getCurrentToken() == JsonToken.FIELD_NAME) {
+            parsingContext = parsingContext.getParent();
+        }
+        return parsingContext != null && parsingContext.inRoot();
+    }
+
+    private static void skipObject(JsonParser jsonParser) throws IOException {
+        JsonToken token = jsonParser.getCurrentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = jsonParser.nextToken();
         }
+        skipFields(jsonParser, token);
+    }
 
-        return id;
+    private static void skipFields(JsonParser jsonParser, JsonToken token) throws IOException {
+        for (; token == JsonToken.FIELD_NAME; token = jsonParser.nextToken()) {
+            jsonParser.nextToken();
+            jsonParser.skipChildren();
+        }
     }
 }
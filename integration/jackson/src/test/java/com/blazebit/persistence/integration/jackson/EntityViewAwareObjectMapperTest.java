@@ -149,6 +149,28 @@ public class EntityViewAwareObjectMapperTest {
         assertEquals(2L, view.getParent().getId());
     }
 
+    @Test
+    public void testUpdatableViewWithIdAfterProperties() throws Exception {
+        EntityViewAwareObjectMapper mapper = mapper(UpdateViewWithSetters.class, NameView.class);
+        ObjectReader objectReader = mapper.readerFor(mapper.getObjectMapper().constructType(UpdateViewWithSetters.class));
+        UpdateViewWithSetters view = objectReader.readValue("{\"parent\": {\"name\": \"parent\", \"id\": 2}, \"id\": 1, \"name\": \"test\"}");
+        assertFalse(((EntityViewProxy) view).$$_isNew());
+        assertEquals(1L, view.getId());
+        assertEquals("test", view.getName());
+        assertEquals(2L, view.getParent().getId());
+    }
+
+    @Test
+    public void testUpdatableViewListWithNullId() throws Exception {
+        EntityViewAwareObjectMapper mapper = mapper(UpdateViewWithSetters.class, NameView.class);
+        ObjectReader objectReader = mapper.readerFor(mapper.getObjectMapper().getTypeFactory().constructCollectionType(List.class, UpdateViewWithSetters.class));
+        List<UpdateViewWithSetters> views = objectReader.readValue("[{\"id\": null, \"name\": \"test\", \"parent\": {\"id\": 2}}, {\"name\": \"test\", \"id\": 1}]");
+        assertEquals(2, views.size());
+        assertNull(views.get(0));
+        assertEquals(1L, views.get(1).getId());
+        assertEquals("test", views.get(1).getName());
+    }
+
     @EntityView(SomeEntity.class)
     @UpdatableEntityView
     interface UpdateViewWithSetters {
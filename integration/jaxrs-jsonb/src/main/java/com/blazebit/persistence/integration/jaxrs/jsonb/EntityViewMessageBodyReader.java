@@ -63,6 +63,8 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -386,6 +388,22 @@ public class EntityViewMessageBodyReader implements MessageBodyReader<Object> {
             return entityViewManager.get().find(entityManager, entityViewSetting, entityId);
         }
 
+        public <T> List<T> findAll(EntityManager entityManager, Class<T> entityViewClass, Collection<?> entityIds) {
+            return entityViewManager.get().findAll(entityManager, entityViewClass, entityIds);
+        }
+
+        public <T> List<T> findAll(EntityManager entityManager, EntityViewSetting<T, CriteriaBuilder<T>> entityViewSetting, Collection<?> entityIds) {
+            return entityViewManager.get().findAll(entityManager, entityViewSetting, entityIds);
+        }
+
+        public <T> Map<Object, T> findMap(EntityManager entityManager, Class<T> entityViewClass, Collection<?> entityIds) {
+            return entityViewManager.get().findMap(entityManager, entityViewClass, entityIds);
+        }
+
+        public <T> Map<Object, T> findMap(EntityManager entityManager, EntityViewSetting<T, CriteriaBuilder<T>> entityViewSetting, Collection<?> entityIds) {
+            return entityViewManager.get().findMap(entityManager, entityViewSetting, entityIds);
+        }
+
         public <T> T getReference(Class<T> entityViewClass, Object id) {
             return entityViewManager.get().getReference(entityViewClass, id);
         }
@@ -474,6 +492,10 @@ public class EntityViewMessageBodyReader implements MessageBodyReader<Object> {
             entityViewManager.get().save(entityManager, view);
         }
 
+        public void saveAll(EntityManager entityManager, Collection<?> views) {
+            entityViewManager.get().saveAll(entityManager, views);
+        }
+
         public void saveFull(EntityManager entityManager, Object view) {
             entityViewManager.get().saveFull(entityManager, view);
         }
@@ -516,6 +538,10 @@ public class EntityViewMessageBodyReader implements MessageBodyReader<Object> {
             entityViewManager.get().remove(entityManager, view);
         }
 
+        public void removeAll(EntityManager entityManager, Collection<?> views) {
+            entityViewManager.get().removeAll(entityManager, views);
+        }
+
         public FlushOperationBuilder removeWith(EntityManager entityManager, Object view) {
             return entityViewManager.get().removeWith(entityManager, view);
         }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blazebit.persistence.integration.quarkus.deployment.view;
+
+package com.blazebit.persistence.integration.quarkus.deployment;
+
+import com.blazebit.persistence.integration.quarkus.deployment.entity.Document;
+import com.blazebit.persistence.integration.quarkus.deployment.entity.Person;
+import com.blazebit.persistence.integration.quarkus.deployment.view.DocumentUnresolvableMappingView;
+import com.blazebit.persistence.view.EntityViewManager;
+import io.quarkus.test.QuarkusUnitTest;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class ExpressionValidationDisabledTest {
+
+    @RegisterExtension
+    final static QuarkusUnitTest RUNNER = new QuarkusUnitTest()
+            .setArchiveProducer(() -> ShrinkWrap.create(JavaArchive.class)
+                    .addClasses(Document.class, Person.class)
+                    .addClasses(DocumentUnresolvableMappingView.class)
+                    .addAsResource("application-expression-validation-disabled.properties", "application.properties")
+                    .addAsResource("META-INF/persistence.xml")
+            );
+
+    @Inject
+    EntityViewManager evm;
+
+    @Test
+    public void testBootSkipsExpressionValidation() {
+        // The unresolvable mapping would fail the boot if the expressions were validated
+        assertNotNull(evm.getMetamodel().view(DocumentUnresolvableMappingView.class));
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blazebit.persistence.integration.quarkus.deployment.view;
+
+package com.blazebit.persistence.integration.quarkus.deployment.view;
+
+import com.blazebit.persistence.integration.quarkus.deployment.entity.Document;
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.IdMapping;
+import com.blazebit.persistence.view.Mapping;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+@EntityView(Document.class)
+public interface DocumentUnresolvableMappingView {
+
+    @IdMapping
+    Long getId();
+
+    // Only rejected by the expression validation
+    @Mapping("nonExistingAttribute")
+    String getNonExisting();
+}
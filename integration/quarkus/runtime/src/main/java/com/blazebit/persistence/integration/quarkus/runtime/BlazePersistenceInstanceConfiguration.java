@@ -62,6 +62,23 @@ public class BlazePersistenceInstanceConfiguration {
     @ConfigItem(defaultValue = "false")
     public boolean managedTypeValidationDisabled;
 
+    /**
+     * A boolean flag to make it possible to disable the expression validation.
+     * By default the expression validation is enabled, but since it requires parsing and resolving every mapping expression on startup,
+     * it can be disabled for deployments that were already validated e.g. in a test run, to have a better startup performance.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     */
+    @ConfigItem(defaultValue = "false")
+    public boolean expressionValidationDisabled;
+
+    /**
+     * A boolean flag to make it possible to distribute the per-view boot work across a fork-join pool.
+     * By default the parallel boot is disabled.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     */
+    @ConfigItem(defaultValue = "false")
+    public boolean parallelBoot;
+
     /**
      * An integer value that defines the default batch size for entity view attributes.
      * By default the value is 1 and can be overridden either via {@linkplain com.blazebit.persistence.view.BatchFetch#size()}
@@ -133,6 +150,13 @@ public class BlazePersistenceInstanceConfiguration {
     @ConfigItem(defaultValue = "com.blazebit.persistence.parser.expression.ConcurrentHashMapExpressionCache")
     public String expressionCacheClass;
 
+    /**
+     * The maximum number of entries per cache name when using a bounded expression cache implementation.
+     * By default the maximum size is <code>2048</code>.
+     */
+    @ConfigItem(defaultValue = "2048")
+    public int expressionCacheMaxSize;
+
     /**
      * If set to true, the CTE queries are inlined by default.
      * Valid values for this property are <code>true</code>, <code>false</code> or <code>auto</code>.
@@ -160,6 +184,7 @@ public class BlazePersistenceInstanceConfiguration {
 
     public void apply(CriteriaBuilderConfiguration criteriaBuilderConfiguration) {
         criteriaBuilderConfiguration.setProperty(ConfigurationProperties.EXPRESSION_CACHE_CLASS, expressionCacheClass);
+        criteriaBuilderConfiguration.setProperty(ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE, Integer.toString(expressionCacheMaxSize));
         criteriaBuilderConfiguration.setProperty(ConfigurationProperties.INLINE_CTES, Boolean.toString(inlineCtes));
         criteriaBuilderConfiguration.setProperty(ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED, Boolean.toString(queryPlanCacheEnabled));
     }
@@ -167,6 +192,8 @@ public class BlazePersistenceInstanceConfiguration {
     public void apply(EntityViewConfiguration entityViewConfiguration) {
         entityViewConfiguration.setProperty(com.blazebit.persistence.view.ConfigurationProperties.TEMPLATE_EAGER_LOADING, Boolean.toString(templateEagerLoading));
         entityViewConfiguration.setProperty(com.blazebit.persistence.view.ConfigurationProperties.MANAGED_TYPE_VALIDATION_DISABLED, Boolean.toString(managedTypeValidationDisabled));
+        entityViewConfiguration.setProperty(com.blazebit.persistence.view.ConfigurationProperties.EXPRESSION_VALIDATION_DISABLED, Boolean.toString(expressionValidationDisabled));
+        entityViewConfiguration.setProperty(com.blazebit.persistence.view.ConfigurationProperties.PARALLEL_BOOT, Boolean.toString(parallelBoot));
         entityViewConfiguration.setProperty(com.blazebit.persistence.view.ConfigurationProperties.DEFAULT_BATCH_SIZE, Integer.toString(defaultBatchSize));
         entityViewConfiguration.setProperty(com.blazebit.persistence.view.ConfigurationProperties.EXPECT_BATCH_MODE, expectBatchMode);
         entityViewConfiguration.setProperty(com.blazebit.persistence.view.ConfigurationProperties.UPDATER_EAGER_LOADING, Boolean.toString(updaterEagerLoading));
@@ -181,12 +208,15 @@ public class BlazePersistenceInstanceConfiguration {
                 defaultBatchSize != 1 ||
                 !"values".equals(expectBatchMode) ||
                 !"com.blazebit.persistence.parser.expression.ConcurrentHashMapExpressionCache".equals(expressionCacheClass) ||
+                expressionCacheMaxSize != 2048 ||
                 !queryPlanCacheEnabled ||
                 !inlineCtes ||
                 persistenceUnit.isPresent() ||
                 packages.isPresent() ||
                 templateEagerLoading ||
                 managedTypeValidationDisabled ||
+                expressionValidationDisabled ||
+                parallelBoot ||
                 !updaterDisallowOwnedUpdatableSubview ||
                 updaterEagerLoading ||
                 updaterErrorOnInvalidPluralSetter ||
@@ -88,6 +88,8 @@ public abstract class AbstractBlazeJPAQuery<T, Q extends AbstractBlazeJPAQuery<T
 
     protected boolean cacheable = false;
 
+    protected CriteriaBuilderTemplateCache templateCache;
+
     protected final Binds<T> binds = new Binds<>();
 
     public AbstractBlazeJPAQuery(CriteriaBuilderFactory criteriaBuilderFactory) {
@@ -221,9 +223,19 @@ public abstract class AbstractBlazeJPAQuery<T, Q extends AbstractBlazeJPAQuery<T
     }
 
     protected Queryable<T, ?> getQueryable(@Nullable QueryModifiers modifiers) {
-        BlazeCriteriaBuilderRenderer<T> blazeCriteriaBuilderRenderer = new BlazeCriteriaBuilderRenderer<T>(criteriaBuilderFactory, entityManager, getTemplates());
-        Queryable<T, ?> queryable = blazeCriteriaBuilderRenderer.render(this);
-        CriteriaBuilder<T> criteriaBuilder = blazeCriteriaBuilderRenderer.getCriteriaBuilder();
+        Queryable<T, ?> queryable;
+        CriteriaBuilder<T> criteriaBuilder = null;
+        if (templateCache != null) {
+            criteriaBuilder = templateCache.createCriteriaBuilder(criteriaBuilderFactory, entityManager, getTemplates(), this);
+        }
+
+        if (criteriaBuilder == null) {
+            BlazeCriteriaBuilderRenderer<T> blazeCriteriaBuilderRenderer = new BlazeCriteriaBuilderRenderer<T>(criteriaBuilderFactory, entityManager, getTemplates());
+            queryable = blazeCriteriaBuilderRenderer.render(this);
+            criteriaBuilder = blazeCriteriaBuilderRenderer.getCriteriaBuilder();
+        } else {
+            queryable = criteriaBuilder;
+        }
 
         if (modifiers != null) {
             if (modifiers.getLimitAsInteger() != null) {
@@ -250,6 +262,7 @@ public abstract class AbstractBlazeJPAQuery<T, Q extends AbstractBlazeJPAQuery<T
     protected void clone(Q query) {
         super.clone(query);
         this.cacheable = query.cacheable;
+        this.templateCache = query.templateCache;
         this.binds.addBinds(((FactoryExpression) query.binds.accept(new ReplaceVisitor<Void>(), null)).getArgs());
     }
 
@@ -428,6 +441,18 @@ public abstract class AbstractBlazeJPAQuery<T, Q extends AbstractBlazeJPAQuery<T
         return queryMixin.getSelf();
     }
 
+    /**
+     * Sets the cache for criteria builder templates that is used to skip rendering queries of an already rendered structure.
+     *
+     * @param templateCache The template cache or <code>null</code> to always render the query
+     * @return this query
+     * @since 1.6.9
+     */
+    public Q setTemplateCache(CriteriaBuilderTemplateCache templateCache) {
+        this.templateCache = templateCache;
+        return queryMixin.getSelf();
+    }
+
     @Override
     protected JPQLSerializer serialize(boolean forCountRow) {
         return super.serialize(forCountRow);
@@ -943,6 +943,10 @@ public class BlazeCriteriaBuilderRenderer<T> {
         return criteriaBuilder;
     }
 
+    Map<Object, String> getConstantToLabel() {
+        return constantToLabel;
+    }
+
     /**
      * Visitor that extracts the alias for a join target expression.
      */
@@ -45,15 +45,30 @@ public class BlazeJPAQueryFactory implements JPQLNextQueryFactory {
     private final EntityManager entityManager;
     private final CriteriaBuilderFactory criteriaBuilderFactory;
     private final JPQLNextTemplates templates;
+    private final CriteriaBuilderTemplateCache templateCache;
 
     public BlazeJPAQueryFactory(EntityManager entityManager, CriteriaBuilderFactory criteriaBuilderFactory) {
         this(JPQLNextTemplates.DEFAULT, entityManager, criteriaBuilderFactory);
     }
 
     public BlazeJPAQueryFactory(JPQLNextTemplates templates, EntityManager entityManager, CriteriaBuilderFactory criteriaBuilderFactory) {
+        this(templates, entityManager, criteriaBuilderFactory, null);
+    }
+
+    /**
+     * Creates a query factory for queries that use the given template cache.
+     *
+     * @param templates The templates
+     * @param entityManager The entity manager
+     * @param criteriaBuilderFactory The criteria builder factory
+     * @param templateCache The template cache or <code>null</code>
+     * @since 1.6.9
+     */
+    public BlazeJPAQueryFactory(JPQLNextTemplates templates, EntityManager entityManager, CriteriaBuilderFactory criteriaBuilderFactory, CriteriaBuilderTemplateCache templateCache) {
         this.templates = templates;
         this.entityManager = entityManager;
         this.criteriaBuilderFactory = criteriaBuilderFactory;
+        this.templateCache = templateCache;
     }
 
     @Override
@@ -168,7 +183,7 @@ public class BlazeJPAQueryFactory implements JPQLNextQueryFactory {
 
     @Override
     public BlazeJPAQuery<?> query() {
-        return new BlazeJPAQuery<>(entityManager, templates, criteriaBuilderFactory);
+        return new BlazeJPAQuery<>(entityManager, templates, criteriaBuilderFactory).setTemplateCache(templateCache);
     }
 
     @Override
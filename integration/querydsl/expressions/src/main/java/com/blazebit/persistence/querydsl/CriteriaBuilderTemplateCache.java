@@ -0,0 +1,411 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.querydsl;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.Queryable;
+import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.impl.AbstractFullQueryBuilder;
+import com.blazebit.persistence.impl.ParameterManager;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.QueryFlag;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import com.querydsl.jpa.JPQLTemplates;
+
+import javax.annotation.Nullable;
+import javax.persistence.EntityManager;
+import javax.persistence.Parameter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache for {@link CriteriaBuilder} templates of {@link BlazeJPAQuery} instances that have the same structure.
+ * The cache is keyed by the structure of the Querydsl expression with constants lifted to parameters.
+ * Queries of a cached structure are created by copying the template and binding the constants of the query as
+ * parameter values, which skips rendering the Querydsl expression and parsing the rendered expressions again.
+ *
+ * Only queries that render to a plain {@link CriteriaBuilder} and render all constants as parameters are cached.
+ * Templates are created with an {@link EntityManager} of the same {@link javax.persistence.EntityManagerFactory}
+ * that is closed right after the template was prepared, so that no persistence context is retained by the cache.
+ * The parameter values of the query a template was prepared for are removed from the template, as they are bound for every query anyway.
+ * When the maximum number of query structures is exceeded, the template of the least recently used structure is evicted.
+ * Instances of this class are thread safe and are usually shared through a {@link BlazeJPAQueryFactory}.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class CriteriaBuilderTemplateCache {
+
+    /**
+     * The default maximum number of templates.
+     */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final Template UNCACHEABLE = new Template(null, null);
+
+    private final int maxSize;
+    private final LinkedHashMap<List<Object>, Template> templates;
+
+    /**
+     * Creates a template cache for at most {@link #DEFAULT_MAX_SIZE} query structures.
+     */
+    public CriteriaBuilderTemplateCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a template cache for at most the given number of query structures.
+     *
+     * @param maxSize The maximum number of query structures to cache
+     */
+    public CriteriaBuilderTemplateCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Invalid max size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.templates = new LinkedHashMap<List<Object>, Template>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Template> eldest) {
+                return size() > CriteriaBuilderTemplateCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of cached query structures.
+     *
+     * @return the number of cached query structures
+     */
+    public int size() {
+        synchronized (templates) {
+            return templates.size();
+        }
+    }
+
+    /**
+     * Removes all cached templates.
+     */
+    public void clear() {
+        synchronized (templates) {
+            templates.clear();
+        }
+    }
+
+    /**
+     * Creates a criteria builder for the given query from a cached template or returns <code>null</code> if the query structure can't be cached.
+     *
+     * @param criteriaBuilderFactory The criteria builder factory
+     * @param entityManager The entity manager for the criteria builder
+     * @param jpqlTemplates The templates to use for rendering expressions
+     * @param query The query to create a criteria builder for
+     * @param <T> The query result type
+     * @return The criteria builder or <code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    <T> CriteriaBuilder<T> createCriteriaBuilder(CriteriaBuilderFactory criteriaBuilderFactory, EntityManager entityManager, JPQLTemplates jpqlTemplates, SubQueryExpression<T> query) {
+        if (entityManager == null) {
+            return null;
+        }
+        ShapeVisitor shapeVisitor = new ShapeVisitor();
+        shapeVisitor.key.add(criteriaBuilderFactory);
+        shapeVisitor.key.add(jpqlTemplates);
+        shapeVisitor.visitRoot(query);
+        if (!shapeVisitor.cacheable) {
+            return null;
+        }
+
+        Template template;
+        synchronized (templates) {
+            template = templates.get(shapeVisitor.key);
+        }
+        if (template == null) {
+            template = createTemplate(criteriaBuilderFactory, entityManager, jpqlTemplates, query, shapeVisitor.constantIndexes);
+            synchronized (templates) {
+                templates.put(shapeVisitor.key, template);
+            }
+        }
+        if (template == UNCACHEABLE) {
+            return null;
+        }
+
+        Expression<?> projection = query.getMetadata().getProjection();
+        ObjectBuilder<Object> objectBuilder = null;
+        if (projection instanceof FactoryExpression<?>) {
+            objectBuilder = new TemplateObjectBuilder((FactoryExpression<Object>) projection);
+        }
+        CriteriaBuilder<Object> criteriaBuilder = template.criteriaBuilder.copyCriteriaBuilder(entityManager, Object.class, objectBuilder);
+        for (int i = 0; i < template.parameterNames.length; i++) {
+            for (String parameterName : template.parameterNames[i]) {
+                criteriaBuilder.setParameter(parameterName, shapeVisitor.constants.get(i));
+            }
+        }
+        // The template doesn't retain the parameter values of the query it was rendered for, so parameters must be bound just like constants
+        for (Map.Entry<ParamExpression<?>, Object> entry : shapeVisitor.params.entrySet()) {
+            criteriaBuilder.setParameter(entry.getKey().getName(), entry.getValue());
+        }
+        return (CriteriaBuilder<T>) criteriaBuilder;
+    }
+
+    private static Template createTemplate(CriteriaBuilderFactory criteriaBuilderFactory, EntityManager entityManager, JPQLTemplates jpqlTemplates, SubQueryExpression<?> query, Map<Object, Integer> constantIndexes) {
+        EntityManager templateEntityManager = entityManager.getEntityManagerFactory().createEntityManager();
+        try {
+            BlazeCriteriaBuilderRenderer<?> renderer = new BlazeCriteriaBuilderRenderer<>(criteriaBuilderFactory, templateEntityManager, jpqlTemplates);
+            Queryable<?, ?> queryable = renderer.render(query);
+            // Set operations render to a different builder type which can't be copied
+            if (queryable != renderer.getCriteriaBuilder() || !(queryable instanceof AbstractFullQueryBuilder<?, ?, ?, ?, ?>)) {
+                return UNCACHEABLE;
+            }
+            // Every constant must be rendered as parameter so that it can be replaced with the constants of other queries.
+            // Equal constants share an index, but the renderer might still use multiple parameters for them
+            List<List<String>> labels = new ArrayList<>(constantIndexes.size());
+            for (int i = 0; i < constantIndexes.size(); i++) {
+                labels.add(new ArrayList<String>(1));
+            }
+            for (Map.Entry<Object, String> entry : renderer.getConstantToLabel().entrySet()) {
+                Integer index = constantIndexes.get(entry.getKey());
+                if (index == null) {
+                    return UNCACHEABLE;
+                }
+                labels.get(index).add(entry.getValue());
+            }
+            String[][] parameterNames = new String[labels.size()][];
+            for (int i = 0; i < parameterNames.length; i++) {
+                if (labels.get(i).isEmpty()) {
+                    return UNCACHEABLE;
+                }
+                parameterNames[i] = labels.get(i).toArray(new String[0]);
+            }
+            // Prepare the template so that copying it doesn't modify it
+            queryable.getQueryString();
+            AbstractFullQueryBuilder<?, ?, ?, ?, ?> criteriaBuilder = (AbstractFullQueryBuilder<?, ?, ?, ?, ?>) queryable;
+            // Explicit parameters are bound for every copy, so the template must not retain the values of this query which might be managed entities
+            for (Parameter<?> parameter : criteriaBuilder.getParameters()) {
+                ParameterManager.ParameterImpl<?> parameterImpl = (ParameterManager.ParameterImpl<?>) parameter;
+                if (!parameterImpl.isImplicit()) {
+                    parameterImpl.clearValue();
+                }
+            }
+            return new Template(criteriaBuilder, parameterNames);
+        } finally {
+            templateEntityManager.close();
+        }
+    }
+
+    /**
+     * A prepared criteria builder with the parameter names for every constant index of the query structure.
+     */
+    private static final class Template {
+
+        private final AbstractFullQueryBuilder<?, ?, ?, ?, ?> criteriaBuilder;
+        private final String[][] parameterNames;
+
+        private Template(AbstractFullQueryBuilder<?, ?, ?, ?, ?> criteriaBuilder, String[][] parameterNames) {
+            this.criteriaBuilder = criteriaBuilder;
+            this.parameterNames = parameterNames;
+        }
+    }
+
+    /**
+     * Object builder for factory expression projections of copied templates which already contain the select items.
+     */
+    private static final class TemplateObjectBuilder implements ObjectBuilder<Object> {
+
+        private final FactoryExpression<Object> factoryExpression;
+
+        private TemplateObjectBuilder(FactoryExpression<Object> factoryExpression) {
+            this.factoryExpression = factoryExpression;
+        }
+
+        @Override
+        public <X extends SelectBuilder<X>> void applySelects(X selectBuilder) {
+        }
+
+        @Override
+        public Object build(Object[] tuple) {
+            return factoryExpression.newInstance(tuple);
+        }
+
+        @Override
+        public List<Object> buildList(List<Object> list) {
+            return list;
+        }
+    }
+
+    /**
+     * Visitor that collects the structure of a query as key and the constants of the query in visiting order.
+     * Constants are represented by their position and type in the key, so that queries which only differ in constants have the same key.
+     * Equal constants share a position, so the key also captures which constants are equal.
+     * Parameters are represented by the parameter expressions, their values are bound like constants.
+     */
+    private static final class ShapeVisitor implements Visitor<Void, Void> {
+
+        private final List<Object> key = new ArrayList<>();
+        private final List<Object> constants = new ArrayList<>();
+        private final Map<Object, Integer> constantIndexes = new HashMap<>();
+        private final Map<ParamExpression<?>, Object> params = new HashMap<>();
+        private boolean cacheable = true;
+
+        public void visitRoot(SubQueryExpression<?> query) {
+            // Limit and offset of the root query are applied to the criteria builder after rendering
+            visitMetadata(query.getMetadata(), false);
+        }
+
+        @Override
+        public Void visit(Constant<?> expr, @Nullable Void context) {
+            Object constant = expr.getConstant();
+            Integer index = constantIndexes.get(constant);
+            if (index == null) {
+                index = constants.size();
+                constantIndexes.put(constant, index);
+                constants.add(constant);
+            }
+            key.add(Constant.class);
+            key.add(index);
+            key.add(constant.getClass());
+            // An empty collection is rendered differently in an IN predicate
+            key.add(constant instanceof Collection<?> && ((Collection<?>) constant).isEmpty());
+            return null;
+        }
+
+        @Override
+        public Void visit(FactoryExpression<?> expr, @Nullable Void context) {
+            key.add(FactoryExpression.class);
+            key.add(expr.getClass());
+            key.add(expr.getType());
+            visit(expr.getArgs());
+            return null;
+        }
+
+        @Override
+        public Void visit(Operation<?> expr, @Nullable Void context) {
+            key.add(Operation.class);
+            key.add(expr.getOperator());
+            key.add(expr.getType());
+            visit(expr.getArgs());
+            return null;
+        }
+
+        @Override
+        public Void visit(ParamExpression<?> expr, @Nullable Void context) {
+            key.add(expr);
+            return null;
+        }
+
+        @Override
+        public Void visit(Path<?> expr, @Nullable Void context) {
+            key.add(expr);
+            return null;
+        }
+
+        @Override
+        public Void visit(SubQueryExpression<?> expr, @Nullable Void context) {
+            key.add(SubQueryExpression.class);
+            visitMetadata(expr.getMetadata(), true);
+            return null;
+        }
+
+        @Override
+        public Void visit(TemplateExpression<?> expr, @Nullable Void context) {
+            key.add(TemplateExpression.class);
+            key.add(expr.getTemplate().toString());
+            key.add(expr.getType());
+            key.add(expr.getArgs().size());
+            for (Object arg : expr.getArgs()) {
+                if (arg instanceof Expression<?>) {
+                    visit((Expression<?>) arg);
+                } else {
+                    key.add(arg);
+                }
+            }
+            return null;
+        }
+
+        private void visitMetadata(QueryMetadata metadata, boolean withModifiers) {
+            key.add(metadata.getJoins().size());
+            for (JoinExpression join : metadata.getJoins()) {
+                Expression<?> target = join.getTarget();
+                if (target instanceof Operation<?> && ((Operation<?>) target).getOperator() == Ops.ALIAS) {
+                    target = ((Operation<?>) target).getArg(0);
+                }
+                // Values are rendered as part of the from clause
+                if (target instanceof ValuesExpression<?>) {
+                    cacheable = false;
+                }
+                key.add(join.getType());
+                key.add(join.getFlags());
+                visit(join.getTarget());
+                visit(join.getCondition());
+            }
+            key.add(metadata.getFlags().size());
+            for (QueryFlag flag : metadata.getFlags()) {
+                key.add(flag.getClass());
+                key.add(flag.getPosition());
+                visit(flag.getFlag());
+            }
+            key.add(metadata.isDistinct());
+            key.add(metadata.isUnique());
+            visit(metadata.getWhere());
+            visit(metadata.getGroupBy());
+            visit(metadata.getHaving());
+            visit(metadata.getProjection());
+            key.add(metadata.getOrderBy().size());
+            for (OrderSpecifier<?> orderSpecifier : metadata.getOrderBy()) {
+                key.add(orderSpecifier.getOrder());
+                key.add(orderSpecifier.getNullHandling());
+                visit(orderSpecifier.getTarget());
+            }
+            key.add(new HashSet<>(metadata.getParams().keySet()));
+            params.putAll(metadata.getParams());
+            if (withModifiers) {
+                key.add(metadata.getModifiers());
+            }
+        }
+
+        private void visit(List<? extends Expression<?>> expressions) {
+            key.add(expressions.size());
+            for (Expression<?> expression : expressions) {
+                visit(expression);
+            }
+        }
+
+        private void visit(Expression<?> expression) {
+            if (expression == null) {
+                key.add(null);
+            } else {
+                expression.accept(this, null);
+            }
+        }
+    }
+}
@@ -60,9 +60,14 @@ import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -124,6 +129,111 @@ public class BasicQueryTest extends AbstractCoreTest {
         });
     }
 
+    @Test
+    public void testTemplateCache() {
+        doInJPA(em -> {
+            CriteriaBuilderTemplateCache templateCache = new CriteriaBuilderTemplateCache();
+            BlazeJPAQueryFactory queryFactory = new BlazeJPAQueryFactory(JPQLNextTemplates.DEFAULT, em, cbf, templateCache);
+
+            for (int i = 0; i < 3; i++) {
+                BlazeJPAQuery<Tuple> query = queryFactory.select(document.name, person.name)
+                        .from(document)
+                        .innerJoin(document.owner, person)
+                        .where(person.name.eq("Person " + i));
+
+                String expected = new BlazeJPAQuery<>(em, cbf)
+                        .select(document.name, person.name)
+                        .from(document)
+                        .innerJoin(document.owner, person)
+                        .where(person.name.eq("Person " + i))
+                        .getQueryString();
+
+                assertEquals(expected, query.getQueryString());
+                List<Tuple> result = query.fetch();
+                assertEquals(1, result.size());
+                assertEquals("bogus " + i, result.get(0).get(document.name));
+                assertEquals("Person " + i, result.get(0).get(person.name));
+            }
+            assertEquals(1, templateCache.size());
+
+            assertEquals(10L, queryFactory.selectFrom(document).where(document.name.startsWith("bogus")).fetchCount());
+            assertEquals(2, templateCache.size());
+        });
+    }
+
+    @Test
+    public void testTemplateCacheBindsParametersAndEqualConstants() {
+        doInJPA(em -> {
+            CriteriaBuilderTemplateCache templateCache = new CriteriaBuilderTemplateCache(1);
+            BlazeJPAQueryFactory queryFactory = new BlazeJPAQueryFactory(JPQLNextTemplates.DEFAULT, em, cbf, templateCache);
+            Param<String> name = new Param<>(String.class, "name");
+
+            for (int i = 0; i < 3; i++) {
+                List<String> result = queryFactory.select(person.name)
+                        .from(person)
+                        .where(person.name.eq(name))
+                        .set(name, "Person " + i)
+                        .fetch();
+                assertEquals(Collections.singletonList("Person " + i), result);
+            }
+            assertEquals(1, templateCache.size());
+
+            // Equal constants that are distinct instances share a position of the structure
+            for (int i = 0; i < 3; i++) {
+                String personName = "Person " + i;
+                List<String> result = queryFactory.select(person.name)
+                        .from(person)
+                        .where(person.name.eq(new String(personName)).or(person.name.eq(new String(personName))))
+                        .fetch();
+                assertEquals(Collections.singletonList(personName), result);
+            }
+            List<String> result = queryFactory.select(person.name)
+                    .from(person)
+                    .where(person.name.eq("Person 1").or(person.name.eq("Person 2")))
+                    .orderBy(person.name.asc())
+                    .fetch();
+            assertEquals(Arrays.asList("Person 1", "Person 2"), result);
+            // Only the least recently used structure is retained
+            assertEquals(1, templateCache.size());
+        });
+    }
+
+    @Test
+    public void testTemplateCacheConcurrentCopies() throws Exception {
+        CriteriaBuilderTemplateCache templateCache = new CriteriaBuilderTemplateCache();
+        int threads = 4;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                futures.add(executorService.submit(() -> {
+                    EntityManager em = emf.createEntityManager();
+                    try {
+                        BlazeJPAQueryFactory queryFactory = new BlazeJPAQueryFactory(JPQLNextTemplates.DEFAULT, em, cbf, templateCache);
+                        for (int i = 0; i < 20; i++) {
+                            int index = (offset + i) % 10;
+                            List<String> result = queryFactory.select(document.name)
+                                    .from(document)
+                                    .innerJoin(document.owner, person)
+                                    .where(person.name.eq("Person " + index))
+                                    .fetch();
+                            assertEquals(Collections.singletonList("bogus " + index), result);
+                        }
+                    } finally {
+                        em.close();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        assertEquals(1, templateCache.size());
+    }
+
     @Test
     public void testSubqueryInCase() {
         doInJPA(em -> {
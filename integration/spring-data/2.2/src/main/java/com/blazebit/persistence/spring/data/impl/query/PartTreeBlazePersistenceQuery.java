@@ -27,6 +27,7 @@ import com.blazebit.persistence.spring.data.base.query.ParameterBinder;
 import com.blazebit.persistence.spring.data.base.query.ParameterMetadataProvider;
 import com.blazebit.persistence.spring.data.repository.KeysetPageable;
 import com.blazebit.persistence.view.EntityViewManager;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.provider.PersistenceProvider;
 import org.springframework.data.jpa.repository.query.AbstractJpaQuery;
@@ -35,6 +36,7 @@ import org.springframework.data.jpa.repository.query.Jpa21Utils;
 import org.springframework.data.jpa.repository.query.JpaEntityGraph;
 import org.springframework.data.jpa.repository.query.JpaParametersParameterAccessor;
 import org.springframework.data.jpa.repository.query.JpaQueryExecution;
+import org.springframework.data.repository.core.support.SurroundingTransactionDetectorMethodInterceptor;
 import org.springframework.data.repository.query.ParameterAccessor;
 import org.springframework.data.repository.query.Parameters;
 import org.springframework.data.repository.query.ParametersParameterAccessor;
@@ -79,6 +81,8 @@ public class PartTreeBlazePersistenceQuery extends AbstractPartTreeBlazePersiste
             return new PartTreeBlazePersistenceQuery.DeleteExecution(getEntityManager());
         } else if (isExists()) {
             return new PartTreeBlazePersistenceQuery.ExistsExecution();
+        } else if (getQueryMethod().isStreamQuery()) {
+            return new PartTreeBlazePersistenceQuery.StreamExecution();
         } else {
             return super.getExecution();
         }
@@ -98,6 +102,26 @@ public class PartTreeBlazePersistenceQuery extends AbstractPartTreeBlazePersiste
         }
     }
 
+    /**
+     * {@link JpaQueryExecution} streaming the results of the query with a JDBC fetch size applied within a surrounding transaction.
+     *
+     * @author Christian Beikov
+     * @since 1.6.9
+     */
+    private static class StreamExecution extends JpaQueryExecution {
+
+        private static final String NO_SURROUNDING_TRANSACTION = "You're trying to execute a streaming query method without a surrounding transaction that keeps the connection open so that the Stream can actually be consumed; Make sure the code consuming the stream uses @Transactional or any other way of declaring a (read-only) transaction.";
+
+        @Override
+        protected Object doExecute(AbstractJpaQuery repositoryQuery, JpaParametersParameterAccessor jpaParametersParameterAccessor) {
+            if (!SurroundingTransactionDetectorMethodInterceptor.INSTANCE.isSurroundingTransactionActive()) {
+                throw new InvalidDataAccessApiUsageException(NO_SURROUNDING_TRANSACTION);
+            }
+
+            return ((PartTreeBlazePersistenceQuery) repositoryQuery).createStreamQuery(jpaParametersParameterAccessor.getValues()).getResultStream();
+        }
+    }
+
     /**
      * Uses the {@link com.blazebit.persistence.PaginatedCriteriaBuilder} API for executing the query.
      *
@@ -24,6 +24,9 @@ import com.blazebit.persistence.PaginatedCriteriaBuilder;
 import com.blazebit.persistence.criteria.BlazeCriteria;
 import com.blazebit.persistence.criteria.BlazeCriteriaBuilder;
 import com.blazebit.persistence.criteria.BlazeCriteriaQuery;
+import com.blazebit.persistence.parser.EntityMetamodel;
+import com.blazebit.persistence.spi.ExtendedAttribute;
+import com.blazebit.persistence.spi.ExtendedManagedType;
 import com.blazebit.persistence.spring.data.base.EntityViewSortUtil;
 import com.blazebit.persistence.spring.data.base.query.JpaParameters.JpaParameter;
 import com.blazebit.persistence.spring.data.repository.BlazeSpecification;
@@ -32,6 +35,9 @@ import com.blazebit.persistence.spring.data.repository.KeysetPageable;
 import com.blazebit.persistence.view.EntityViewManager;
 import com.blazebit.persistence.view.EntityViewSetting;
 import com.blazebit.persistence.view.Sorter;
+import com.blazebit.persistence.view.metamodel.ManagedViewType;
+import com.blazebit.persistence.view.metamodel.MappingAttribute;
+import com.blazebit.persistence.view.metamodel.MethodAttribute;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
@@ -52,10 +58,15 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -88,6 +99,13 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
     private static final String DELETE_PATTERN = "delete|remove";
     private static final Pattern PREFIX_TEMPLATE = Pattern.compile( //
                     "^(" + QUERY_PATTERN + "|" + COUNT_PATTERN + "|" + EXISTS_PATTERN + "|" + DELETE_PATTERN + ")((\\p{Lu}.*?))??By");
+    private static final String HIBERNATE_FETCH_SIZE_HINT = "org.hibernate.fetchSize";
+    private static final String ECLIPSELINK_FETCH_SIZE_HINT = "eclipselink.jdbc.fetch-size";
+
+    /**
+     * The JDBC fetch size that is used for stream queries if the query method doesn't define one via query hints.
+     */
+    public static final int DEFAULT_STREAM_FETCH_SIZE = 100;
 
     private final EntityViewAwareJpaQueryMethod method;
     private final Class<?> domainClass;
@@ -98,6 +116,7 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
     private final AbstractPartTreeBlazePersistenceQuery.QueryPreparer query;
     private final CriteriaBuilderFactory cbf;
     private final Object escape;
+    private final PersistenceProvider persistenceProvider;
     protected final EntityViewManager evm;
 
     public AbstractPartTreeBlazePersistenceQuery(EntityViewAwareJpaQueryMethod method, EntityManager em, PersistenceProvider persistenceProvider, Object escape, CriteriaBuilderFactory cbf, EntityViewManager evm) {
@@ -106,6 +125,7 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
 
         this.method = method;
         this.escape = escape;
+        this.persistenceProvider = persistenceProvider;
         this.cbf = cbf;
         this.evm = evm;
 
@@ -162,25 +182,53 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
     }
 
     public Query createPaginatedQuery(Object[] values, boolean withCount) {
-        Query paginatedQuery = query.createPaginatedQuery(values, withCount);
+        return applyQueryMethodSettings(query.createPaginatedQuery(values, withCount));
+    }
+
+    /**
+     * Creates the query for a query method returning a stream. Apart from the lock mode, entity graph and query hints
+     * of the query method, a JDBC fetch size hint is applied unless the query method defines one,
+     * so that the results are fetched in chunks while the stream is consumed rather than all at once.
+     * The id of the entity is appended as last order item, so that the order of the streamed results is deterministic.
+     *
+     * @param values The query method parameter values
+     * @return The query to stream the results from
+     * @since 1.6.9
+     */
+    public Query createStreamQuery(Object[] values) {
+        Query streamQuery = applyQueryMethodSettings(query.createQuery(values, true));
+        Map<String, String> hints = method.getHints();
+        if (persistenceProvider == PersistenceProvider.HIBERNATE) {
+            if (!hints.containsKey(HIBERNATE_FETCH_SIZE_HINT)) {
+                streamQuery.setHint(HIBERNATE_FETCH_SIZE_HINT, DEFAULT_STREAM_FETCH_SIZE);
+            }
+        } else if (persistenceProvider == PersistenceProvider.ECLIPSELINK) {
+            if (!hints.containsKey(ECLIPSELINK_FETCH_SIZE_HINT)) {
+                streamQuery.setHint(ECLIPSELINK_FETCH_SIZE_HINT, DEFAULT_STREAM_FETCH_SIZE);
+            }
+        }
+        return streamQuery;
+    }
+
+    private Query applyQueryMethodSettings(Query jpaQuery) {
         if (method.getLockModeType() != null) {
-            paginatedQuery.setLockMode(method.getLockModeType());
+            jpaQuery.setLockMode(method.getLockModeType());
         }
 
         JpaEntityGraph entityGraph = method.getEntityGraph();
         if (entityGraph != null) {
             Map<String, Object> hints = tryGetFetchGraphHints(method.getEntityGraph(), this.getQueryMethod().getEntityInformation().getJavaType());
             for (Map.Entry<String, Object> entry : hints.entrySet()) {
-                paginatedQuery.setHint(entry.getKey(), entry.getValue());
+                jpaQuery.setHint(entry.getKey(), entry.getValue());
             }
         }
         Map<String, String> hints = method.getHints();
         if (!hints.isEmpty()) {
             for (Map.Entry<String, String> entry : hints.entrySet()) {
-                paginatedQuery.setHint(entry.getKey(), entry.getValue());
+                jpaQuery.setHint(entry.getKey(), entry.getValue());
             }
         }
-        return paginatedQuery;
+        return jpaQuery;
     }
 
     public TypedQuery<Long> doCreateCountQuery(Object[] values) {
@@ -213,16 +261,16 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
          * Moritz Becker, Christian Beikov:
          * The following methods were modified to work with entity views.
          ******************************************/
-        private TypedQuery<?> createQuery(CriteriaQuery<?> criteriaQuery, Object[] values) {
+        private TypedQuery<?> createQuery(CriteriaQuery<?> criteriaQuery, Object[] values, boolean orderById) {
             if (this.cachedCriteriaQuery != null) {
                 synchronized (this.cachedCriteriaQuery) {
-                    return createQuery0(criteriaQuery, values);
+                    return createQuery0(criteriaQuery, values, orderById);
                 }
             }
-            return createQuery0(criteriaQuery, values);
+            return createQuery0(criteriaQuery, values, orderById);
         }
 
-        protected TypedQuery<?> createQuery0(CriteriaQuery<?> criteriaQuery, Object[] values) {
+        protected TypedQuery<?> createQuery0(CriteriaQuery<?> criteriaQuery, Object[] values, boolean orderById) {
             processSpecification(criteriaQuery, values);
 
             com.blazebit.persistence.CriteriaBuilder<?> cb = ((BlazeCriteriaQuery<?>) criteriaQuery).createCriteriaBuilder(getEntityManager());
@@ -240,6 +288,9 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
                 }
             }
             if (entityViewClass == null) {
+                if (orderById) {
+                    processIdSort(cb, getSortedPaths(null, values, Collections.<String>emptySet()));
+                }
                 return cb.getQuery();
             } else {
                 EntityViewSetting<?, ?> setting = EntityViewSetting.create(entityViewClass);
@@ -251,6 +302,9 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
                 setting.getAttributeSorters().clear();
                 FullQueryBuilder<?, ?> fqb = evm.applySetting(setting, cb);
                 processSort(fqb, values, entityViewClass, settingProcessorAttributeSorters);
+                if (orderById) {
+                    processIdSort(fqb, getSortedPaths(entityViewClass, values, settingProcessorAttributeSorters.keySet()));
+                }
                 return fqb.getQuery();
             }
         }
@@ -375,6 +429,98 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
             }
         }
 
+        protected void processIdSort(FullQueryBuilder<?, ?> cb, Set<String> sortedPaths) {
+            String rootAlias = cb.getRoots().iterator().next().getAlias();
+            for (String idPath : getIdPaths()) {
+                if (!isSorted(sortedPaths, idPath)) {
+                    cb.orderByAsc(rootAlias + "." + idPath);
+                }
+            }
+        }
+
+        /**
+         * Returns the entity paths of the basic id attributes of the domain type, expanding embedded ids into their leaf paths.
+         *
+         * @return the id paths
+         */
+        private List<String> getIdPaths() {
+            ExtendedManagedType<?> managedType = cbf.getService(EntityMetamodel.class).getManagedType(ExtendedManagedType.class, domainClass);
+            List<String> idPaths = new ArrayList<>();
+            for (SingularAttribute<?, ?> idAttribute : managedType.getIdAttributes()) {
+                if (idAttribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+                    idPaths.add(idAttribute.getName());
+                } else {
+                    String prefix = idAttribute.getName() + ".";
+                    List<String> leafPaths = new ArrayList<>();
+                    for (Map.Entry<String, ? extends ExtendedAttribute<?, ?>> entry : managedType.getAttributes().entrySet()) {
+                        if (entry.getKey().startsWith(prefix) && entry.getValue().getAttribute().getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+                            leafPaths.add(entry.getKey());
+                        }
+                    }
+                    if (leafPaths.isEmpty()) {
+                        idPaths.add(idAttribute.getName());
+                    } else {
+                        // Sort the leaf paths so that the order is deterministic
+                        Collections.sort(leafPaths);
+                        idPaths.addAll(leafPaths);
+                    }
+                }
+            }
+            return idPaths;
+        }
+
+        /**
+         * Collects the entity paths that are already sorted by the method name, the dynamic sort or the entity view setting processor.
+         *
+         * @param entityViewClass The entity view class or <code>null</code>
+         * @param values The query method parameter values
+         * @param attributeSorterNames The entity view attribute names for which attribute sorters are applied
+         * @return the sorted entity paths
+         */
+        private Set<String> getSortedPaths(Class<?> entityViewClass, Object[] values, Set<String> attributeSorterNames) {
+            Set<String> sortedPaths = new HashSet<>();
+            ManagedViewType<?> viewType = entityViewClass == null ? null : evm.getMetamodel().managedView(entityViewClass);
+            Sort treeSort = tree.getSort();
+            if (treeSort != null) {
+                for (Sort.Order order : treeSort) {
+                    sortedPaths.add(order.getProperty());
+                }
+            }
+            Sort dynamicSort = getDynamicSort(values);
+            if (dynamicSort != null) {
+                for (Sort.Order order : dynamicSort) {
+                    sortedPaths.add(resolveEntityPath(viewType, order.getProperty()));
+                }
+            }
+            for (String attributeSorterName : attributeSorterNames) {
+                sortedPaths.add(resolveEntityPath(viewType, attributeSorterName));
+            }
+            return sortedPaths;
+        }
+
+        private String resolveEntityPath(ManagedViewType<?> viewType, String property) {
+            if (viewType != null) {
+                MethodAttribute<?, ?> attribute = viewType.getAttribute(property);
+                if (attribute instanceof MappingAttribute<?, ?>) {
+                    return ((MappingAttribute<?, ?>) attribute).getMapping();
+                }
+            }
+            return property;
+        }
+
+        private boolean isSorted(Set<String> sortedPaths, String path) {
+            if (sortedPaths.contains(path)) {
+                return true;
+            }
+            // Sorting by an embeddable implicitly sorts by all its leaf paths
+            for (String sortedPath : sortedPaths) {
+                if (path.startsWith(sortedPath + ".")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         @SuppressWarnings({ "rawtypes", "unchecked" })
         protected void processSpecification(CriteriaQuery<?> criteriaQuery, Object[] values) {
             BlazeCriteriaQuery<?> blazeCriteriaQuery = (BlazeCriteriaQuery<?>) criteriaQuery;
@@ -424,6 +570,18 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
          * @return
          */
         public Query createQuery(Object[] values) {
+            return createQuery(values, false);
+        }
+
+        /**
+         * Creates a new {@link Query} for the given parameter values, optionally ordered by the entity id last.
+         *
+         * @param values The query method parameter values
+         * @param orderById Whether to append the entity id as last order item
+         * @return The query
+         * @since 1.6.9
+         */
+        public Query createQuery(Object[] values, boolean orderById) {
             CriteriaQuery<?> criteriaQuery = cachedCriteriaQuery;
             List<ParameterMetadataProvider.ParameterMetadata<?>> expressions = this.expressions;
             ParametersParameterAccessor accessor = new ParametersParameterAccessor(parameters, values);
@@ -434,7 +592,7 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
                 expressions = creator.getParameterExpressions();
             }
 
-            TypedQuery<?> jpaQuery = createQuery(criteriaQuery, values);
+            TypedQuery<?> jpaQuery = createQuery(criteriaQuery, values, orderById);
 
             return restrictMaxResultsIfNecessary(invokeBinding(getBinder(values, expressions), jpaQuery));
         }
@@ -537,7 +695,7 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
         }
 
         @Override
-        protected TypedQuery<?> createQuery0(CriteriaQuery<?> criteriaQuery, Object[] values) {
+        protected TypedQuery<?> createQuery0(CriteriaQuery<?> criteriaQuery, Object[] values, boolean orderById) {
             return getEntityManager().createQuery(criteriaQuery);
         }
 
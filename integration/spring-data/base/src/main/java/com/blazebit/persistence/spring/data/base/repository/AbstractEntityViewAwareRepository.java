@@ -18,12 +18,14 @@ package com.blazebit.persistence.spring.data.base.repository;
 
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.ConfigurationProperties;
 import com.blazebit.persistence.PagedList;
 import com.blazebit.persistence.PaginatedCriteriaBuilder;
 import com.blazebit.persistence.criteria.BlazeCriteriaBuilder;
 import com.blazebit.persistence.criteria.BlazeCriteriaQuery;
 import com.blazebit.persistence.criteria.BlazeCriteria;
 import com.blazebit.persistence.parser.EntityMetamodel;
+import com.blazebit.persistence.spi.ConfigurationSource;
 import com.blazebit.persistence.spi.ExtendedManagedType;
 import com.blazebit.persistence.spring.data.base.EntityViewSortUtil;
 import com.blazebit.persistence.spring.data.base.query.KeysetAwarePageImpl;
@@ -61,8 +63,10 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.springframework.data.jpa.repository.query.QueryUtils.applyAndBind;
 import static org.springframework.data.jpa.repository.query.QueryUtils.getQueryString;
@@ -75,6 +79,14 @@ import static org.springframework.data.jpa.repository.query.QueryUtils.getQueryS
 @Transactional(readOnly = true)
 public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Serializable> {
 
+    /**
+     * The default maximum number of ids that are queried at once by {@link #findAll(Iterable)} if
+     * {@value com.blazebit.persistence.view.ConfigurationProperties#DEFAULT_BATCH_SIZE} is not configured for the entity view manager.
+     *
+     * @since 1.6.9
+     */
+    public static final int DEFAULT_FIND_ALL_BY_ID_BATCH_SIZE = 512;
+
     private static final String ID_MUST_NOT_BE_NULL = "The given id must not be null!";
     private static final String DELETE_ALL_QUERY_STRING = "delete from %s x";
     private static final String DELETE_ALL_QUERY_BY_ID_STRING = "delete from %s x where %s in :ids";
@@ -94,6 +106,7 @@ public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Seriali
     }
 
     protected EscapeCharacter escapeCharacter = DEFAULT;
+    protected int findAllByIdBatchSize;
 
     private final JpaEntityInformation<E, ?> entityInformation;
     private final EntityManager entityManager;
@@ -111,6 +124,7 @@ public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Seriali
         this.evm = evm;
         this.entityViewClass = entityViewClass;
         this.idAttributeName = getIdAttribute(getDomainClass());
+        this.findAllByIdBatchSize = getConfiguredBatchSize(evm);
     }
 
     public void setRepositoryMethodMetadata(EntityViewAwareCrudMethodMetadata crudMethodMetadata) {
@@ -121,6 +135,19 @@ public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Seriali
         this.escapeCharacter = escapeCharacter;
     }
 
+    /**
+     * Sets the maximum number of ids that are queried at once by {@link #findAll(Iterable)}, overriding the
+     * {@value com.blazebit.persistence.view.ConfigurationProperties#DEFAULT_BATCH_SIZE} configured for the entity view manager.
+     * The ids are queried in batches of this size, so that the number of bind parameters stays within database limits.
+     *
+     * @param findAllByIdBatchSize The maximum number of ids per query
+     * @since 1.6.9
+     */
+    public void setFindAllByIdBatchSize(int findAllByIdBatchSize) {
+        Assert.isTrue(findAllByIdBatchSize > 0, "The batch size must be greater than 0!");
+        this.findAllByIdBatchSize = findAllByIdBatchSize;
+    }
+
     protected EntityViewAwareCrudMethodMetadata getRepositoryMethodMetadata() {
         return metadata;
     }
@@ -476,11 +503,30 @@ public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Seriali
     public List<V> findAll(Iterable<ID> idIterable) {
         Assert.notNull(idIterable, ID_MUST_NOT_BE_NULL);
 
-        List<ID> idList = new ArrayList<>();
+        Set<ID> idSet = new LinkedHashSet<>();
         for (ID id : idIterable) {
-            idList.add(id);
+            idSet.add(id);
+        }
+        if (idSet.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<ID> idList = new ArrayList<>(idSet);
+        int size = idList.size();
+        if (size <= findAllByIdBatchSize) {
+            return findAllByIds(idList);
         }
+
+        List<V> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i += findAllByIdBatchSize) {
+            result.addAll(findAllByIds(idList.subList(i, Math.min(i + findAllByIdBatchSize, size))));
+        }
+        return result;
+    }
+
+    private List<V> findAllByIds(List<ID> idList) {
+        // Padding the id list limits the number of distinct query plans for the varying batch sizes
         CriteriaBuilder<?> cb = cbf.create(entityManager, getDomainClass())
+                .setProperty(ConfigurationProperties.PARAMETER_LIST_PADDING, "true")
                 .where(idAttributeName).in(idList);
 
         String[] fetches = EMPTY;
@@ -500,6 +546,17 @@ public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Seriali
         return findAllByIdsQuery.getResultList();
     }
 
+    private static int getConfiguredBatchSize(EntityViewManager evm) {
+        ConfigurationSource configuration = evm == null ? null : evm.getService(ConfigurationSource.class);
+        String batchSize = configuration == null ? null : configuration.getProperty(com.blazebit.persistence.view.ConfigurationProperties.DEFAULT_BATCH_SIZE);
+        if (batchSize == null) {
+            return DEFAULT_FIND_ALL_BY_ID_BATCH_SIZE;
+        }
+        int value = Integer.parseInt(batchSize);
+        Assert.isTrue(value > 0, "The batch size must be greater than 0!");
+        return value;
+    }
+
     private String getIdAttribute(Class<?> entityClass) {
         return cbf.getService(EntityMetamodel.class)
                 .getManagedType(ExtendedManagedType.class, entityClass)
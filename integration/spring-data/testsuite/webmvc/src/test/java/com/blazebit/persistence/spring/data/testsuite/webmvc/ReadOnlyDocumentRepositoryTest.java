@@ -17,6 +17,7 @@
 package com.blazebit.persistence.spring.data.testsuite.webmvc;
 
 import com.blazebit.persistence.integration.view.spring.EnableEntityViews;
+import com.blazebit.persistence.spring.data.base.query.AbstractPartTreeBlazePersistenceQuery;
 import com.blazebit.persistence.spring.data.repository.BlazeSpecification;
 import com.blazebit.persistence.spring.data.repository.EntityViewSettingProcessor;
 import com.blazebit.persistence.spring.data.repository.KeysetAwarePage;
@@ -24,6 +25,7 @@ import com.blazebit.persistence.spring.data.repository.KeysetPageRequest;
 import com.blazebit.persistence.spring.data.repository.config.EnableBlazeRepositories;
 import com.blazebit.persistence.spring.data.testsuite.webmvc.accessor.DocumentAccessor;
 import com.blazebit.persistence.spring.data.testsuite.webmvc.accessor.DocumentAccessors;
+import com.blazebit.persistence.spring.data.testsuite.webmvc.config.QueryCollectingRepositoryFactoryBean;
 import com.blazebit.persistence.spring.data.testsuite.webmvc.config.SystemPropertyBasedActiveProfilesResolver;
 import com.blazebit.persistence.spring.data.testsuite.webmvc.entity.Document;
 import com.blazebit.persistence.spring.data.testsuite.webmvc.entity.Person;
@@ -57,6 +59,7 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.ImportResource;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
@@ -65,6 +68,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
@@ -73,7 +77,9 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -266,6 +272,48 @@ public class ReadOnlyDocumentRepositoryTest extends AbstractSpringTest {
         assertTrue(actualIds.contains(d2.getId()));
     }
 
+    @Test
+    public void testFindAllByIdsInBatches() {
+        // ignored with EclipseLink due to IN collection rendering bug
+        Assume.assumeFalse(isEntityRepository() && isEclipseLink());
+        // Given
+        final Document d1 = createDocument("D1");
+        final Document d2 = createDocument("D2");
+        List<Long> ids = new ArrayList<>();
+        ids.add(d1.getId());
+        for (long i = 1; i <= 1000; i++) {
+            ids.add(-i);
+        }
+        ids.add(d2.getId());
+
+        // When
+        Iterable<DocumentAccessor> actual = DocumentAccessors.of(readOnlyDocumentRepository.findAll(ids));
+        List<Long> actualIds = getIdsFromViews(actual);
+
+        // Then
+        assertEquals(2, actualIds.size());
+        assertTrue(actualIds.contains(d1.getId()));
+        assertTrue(actualIds.contains(d2.getId()));
+    }
+
+    @Test
+    public void testFindAllByIdsWithDuplicates() {
+        // ignored with EclipseLink due to IN collection rendering bug
+        Assume.assumeFalse(isEntityRepository() && isEclipseLink());
+        // Given
+        final Document d1 = createDocument("D1");
+        final Document d2 = createDocument("D2");
+
+        // When
+        Iterable<DocumentAccessor> actual = DocumentAccessors.of(readOnlyDocumentRepository.findAll(Arrays.asList(d1.getId(), d2.getId(), d1.getId())));
+        List<Long> actualIds = getIdsFromViews(actual);
+
+        // Then
+        assertEquals(2, actualIds.size());
+        assertTrue(actualIds.contains(d1.getId()));
+        assertTrue(actualIds.contains(d2.getId()));
+    }
+
     @Test
     public void testCount() {
         // Given
@@ -476,6 +524,111 @@ public class ReadOnlyDocumentRepositoryTest extends AbstractSpringTest {
         assertTrue(actualIds.contains(d3.getId()));
     }
 
+    @Test
+    public void testStreamByAgeGreaterThanEqual() {
+        // Given
+        final Document d1 = createDocument("d1", null, 3L, null);
+        final Document d2 = createDocument("d2", null, 4L, null);
+        final Document d3 = createDocument("d3", null, 5L, null);
+
+        // When
+        List<Long> actualIds = transactionalWorkService.doTxWork(new TxWork<List<Long>>() {
+            @Override
+            public List<Long> work(EntityManager em, EntityViewManager evm) {
+                try (Stream<?> stream = readOnlyDocumentRepository.streamByAgeGreaterThanEqualOrderByAgeAsc(4L)) {
+                    List<Long> ids = new ArrayList<>();
+                    Iterator<?> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        ids.add(DocumentAccessors.of(iterator.next()).getId());
+                    }
+                    return ids;
+                }
+            }
+        });
+
+        // Then
+        assertEquals(Arrays.asList(d2.getId(), d3.getId()), actualIds);
+    }
+
+    @Test
+    public void testStreamOrdersByIdLast() {
+        // Given
+        final Document d1 = createDocument("d1", null, 4L, null);
+        final Document d2 = createDocument("d2", null, 4L, null);
+        final Document d3 = createDocument("d3", null, 4L, null);
+
+        // When
+        List<Long> actualIds = transactionalWorkService.doTxWork(new TxWork<List<Long>>() {
+            @Override
+            public List<Long> work(EntityManager em, EntityViewManager evm) {
+                try (Stream<?> stream = readOnlyDocumentRepository.streamByAgeGreaterThanEqualOrderByAgeAsc(4L)) {
+                    List<Long> ids = new ArrayList<>();
+                    Iterator<?> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        ids.add(DocumentAccessors.of(iterator.next()).getId());
+                    }
+                    return ids;
+                }
+            }
+        });
+
+        // Then
+        assertEquals(Arrays.asList(d1.getId(), d2.getId(), d3.getId()), actualIds);
+    }
+
+    @Test
+    public void testStreamOrderedByIdSkipsIdOrder() {
+        // Given
+        final Document d1 = createDocument("d1", null, 4L, null);
+        final Document d2 = createDocument("d2", null, 4L, null);
+        final Document d3 = createDocument("d3", null, 4L, null);
+
+        // When
+        List<Long> actualIds = transactionalWorkService.doTxWork(new TxWork<List<Long>>() {
+            @Override
+            public List<Long> work(EntityManager em, EntityViewManager evm) {
+                try (Stream<?> stream = readOnlyDocumentRepository.streamByAgeGreaterThanEqualOrderByIdDesc(4L)) {
+                    List<Long> ids = new ArrayList<>();
+                    Iterator<?> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        ids.add(DocumentAccessors.of(iterator.next()).getId());
+                    }
+                    return ids;
+                }
+            }
+        });
+
+        // Then
+        assertEquals(Arrays.asList(d3.getId(), d2.getId(), d1.getId()), actualIds);
+    }
+
+    // NOTE: The fetch size hint checked here is specific to Hibernate
+    @Test
+    @Category({ NoEclipselink.class, NoDatanucleus.class })
+    public void testStreamAppliesDefaultFetchSize() {
+        // When
+        Query query = createStreamQuery("streamByAgeGreaterThanEqualOrderByAgeAsc", 4L);
+
+        // Then
+        assertEquals(String.valueOf(AbstractPartTreeBlazePersistenceQuery.DEFAULT_STREAM_FETCH_SIZE), String.valueOf(query.getHints().get("org.hibernate.fetchSize")));
+    }
+
+    // NOTE: The fetch size hint checked here is specific to Hibernate
+    @Test
+    @Category({ NoEclipselink.class, NoDatanucleus.class })
+    public void testStreamQueryMethodHintOverridesDefaultFetchSize() {
+        // When
+        Query query = createStreamQuery("streamByAgeGreaterThanEqualOrderByIdDesc", 4L);
+
+        // Then
+        assertEquals("10", String.valueOf(query.getHints().get("org.hibernate.fetchSize")));
+    }
+
+    @Test(expected = InvalidDataAccessApiUsageException.class)
+    public void testStreamWithoutTransactionFails() {
+        readOnlyDocumentRepository.streamByAgeGreaterThanEqualOrderByAgeAsc(4L);
+    }
+
     @Test
     public void testFindFirstByOrderByNameAsc() {
         // Given
@@ -915,6 +1068,11 @@ public class ReadOnlyDocumentRepositoryTest extends AbstractSpringTest {
         });
     }
 
+    private Query createStreamQuery(String methodName, Object... values) {
+        AbstractPartTreeBlazePersistenceQuery repositoryQuery = (AbstractPartTreeBlazePersistenceQuery) QueryCollectingRepositoryFactoryBean.getQuery(repositoryClass, methodName);
+        return repositoryQuery.createStreamQuery(values);
+    }
+
     private boolean isEntityRepository() {
         return repositoryClass == ReadOnlyDocumentEntityRepository.class;
     }
@@ -929,7 +1087,8 @@ public class ReadOnlyDocumentRepositoryTest extends AbstractSpringTest {
     @EnableEntityViews(basePackages = "com.blazebit.persistence.spring.data.testsuite.webmvc.view")
     @EnableBlazeRepositories(
             basePackages = "com.blazebit.persistence.spring.data.testsuite.webmvc.repository",
-            entityManagerFactoryRef = "myEmf"
+            entityManagerFactoryRef = "myEmf",
+            repositoryFactoryBeanClass = QueryCollectingRepositoryFactoryBean.class
     )
     static class TestConfig {
     }
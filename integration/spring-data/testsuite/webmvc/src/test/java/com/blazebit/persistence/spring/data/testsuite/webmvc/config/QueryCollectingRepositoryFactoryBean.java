@@ -0,0 +1,63 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.spring.data.testsuite.webmvc.config;
+
+import com.blazebit.persistence.spring.data.impl.repository.BlazePersistenceRepositoryFactory;
+import com.blazebit.persistence.spring.data.impl.repository.BlazePersistenceRepositoryFactoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.QueryCreationListener;
+import org.springframework.data.repository.query.RepositoryQuery;
+
+import javax.persistence.EntityManager;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A repository factory bean that collects the created repository queries so that tests can inspect them.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class QueryCollectingRepositoryFactoryBean<T extends Repository<S, ID>, S, ID extends Serializable> extends BlazePersistenceRepositoryFactoryBean<T, S, ID> {
+
+    private static final Map<String, RepositoryQuery> QUERIES = new ConcurrentHashMap<>();
+
+    public QueryCollectingRepositoryFactoryBean() {
+    }
+
+    public QueryCollectingRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
+        super(repositoryInterface);
+    }
+
+    public static RepositoryQuery getQuery(Class<?> repositoryInterface, String methodName) {
+        return QUERIES.get(repositoryInterface.getName() + "." + methodName);
+    }
+
+    @Override
+    protected BlazePersistenceRepositoryFactory createRepositoryFactory(EntityManager entityManager) {
+        BlazePersistenceRepositoryFactory factory = super.createRepositoryFactory(entityManager);
+        final Class<?> repositoryInterface = getObjectType();
+        factory.addQueryCreationListener(new QueryCreationListener<RepositoryQuery>() {
+            @Override
+            public void onCreation(RepositoryQuery query) {
+                QUERIES.put(repositoryInterface.getName() + "." + query.getQueryMethod().getName(), query);
+            }
+        });
+        return factory;
+    }
+}
@@ -31,11 +31,14 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * @author Moritz Becker
@@ -88,6 +91,11 @@ public interface ReadOnlyDocumentRepository<T> extends EntityViewRepository<T, L
 
     Slice<T> findSliceByAgeGreaterThanEqual(long age, Pageable pageable);
 
+    Stream<T> streamByAgeGreaterThanEqualOrderByAgeAsc(long age);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "10"))
+    Stream<T> streamByAgeGreaterThanEqualOrderByIdDesc(long age);
+
     T findFirstByOrderByNameAsc();
 
     List<DocumentView> findByName(String name, @OptionalParam("optionalParameter") String optionalParameter);
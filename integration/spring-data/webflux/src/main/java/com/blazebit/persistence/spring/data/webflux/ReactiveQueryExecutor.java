@@ -0,0 +1,141 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.spring.data.webflux;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.FullQueryBuilder;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.Queryable;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.stream.Stream;
+
+/**
+ * Executes query builders and entity view queries on a dedicated {@link Scheduler} and exposes the results as {@link Mono} or {@link Flux}.
+ *
+ * JDBC and thus JPA query execution is blocking, so the execution is deferred until subscription and then happens on
+ * a thread of the given scheduler, which should be sized according to the connection pool. The event loop threads of
+ * WebFlux are never blocked by the query execution. Note that a query builder must not be used concurrently, so the
+ * builder should be created for every execution on a shared, container managed {@code EntityManager}.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class ReactiveQueryExecutor {
+
+    private final Scheduler scheduler;
+
+    /**
+     * Creates a new executor that executes queries on the given scheduler.
+     *
+     * @param scheduler The scheduler on which the blocking query execution happens
+     */
+    public ReactiveQueryExecutor(Scheduler scheduler) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Invalid null scheduler!");
+        }
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the scheduler on which the blocking query execution happens.
+     *
+     * @return The scheduler
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Returns a {@link Flux} emitting the elements of {@link Queryable#getResultList()}.
+     *
+     * @param queryable The query to execute
+     * @param <T> The element type
+     * @return The flux of the result list elements
+     */
+    public <T> Flux<T> getResultList(Queryable<T, ?> queryable) {
+        return Flux.defer(() -> Flux.fromIterable(queryable.getResultList())).subscribeOn(scheduler);
+    }
+
+    /**
+     * Returns a {@link Mono} emitting the result of {@link Queryable#getSingleResult()}.
+     *
+     * @param queryable The query to execute
+     * @param <T> The result type
+     * @return The mono of the single result
+     */
+    public <T> Mono<T> getSingleResult(Queryable<T, ?> queryable) {
+        return Mono.fromCallable(queryable::getSingleResult).subscribeOn(scheduler);
+    }
+
+    /**
+     * Returns a {@link Flux} emitting the elements of {@link Queryable#getResultStream()}.
+     * The underlying stream is closed when the flux terminates or is cancelled.
+     *
+     * @param queryable The query to execute
+     * @param <T> The element type
+     * @return The flux of the result stream elements
+     */
+    public <T> Flux<T> getResultStream(Queryable<T, ?> queryable) {
+        return Flux.using(queryable::getResultStream, Flux::fromStream, Stream::close).subscribeOn(scheduler);
+    }
+
+    /**
+     * Returns a {@link Mono} emitting the {@link PagedList} of {@link PaginatedCriteriaBuilder#getResultList()}.
+     *
+     * @param criteriaBuilder The paginated query to execute
+     * @param <T> The element type
+     * @return The mono of the paged list
+     */
+    public <T> Mono<PagedList<T>> getPagedList(PaginatedCriteriaBuilder<T> criteriaBuilder) {
+        return Mono.fromCallable(criteriaBuilder::getResultList).subscribeOn(scheduler);
+    }
+
+    /**
+     * Applies the entity view setting to the criteria builder and returns a {@link Flux} emitting the elements of the result list.
+     *
+     * @param evm The entity view manager
+     * @param setting The entity view setting to apply
+     * @param criteriaBuilder The criteria builder to apply the setting to
+     * @param <T> The entity view type
+     * @param <Q> The query builder type
+     * @return The flux of the result list elements
+     * @see EntityViewManager#applySetting(EntityViewSetting, CriteriaBuilder)
+     */
+    public <T, Q extends FullQueryBuilder<T, Q>> Flux<T> getResultList(EntityViewManager evm, EntityViewSetting<T, Q> setting, CriteriaBuilder<?> criteriaBuilder) {
+        return Flux.defer(() -> Flux.fromIterable(evm.applySetting(setting, criteriaBuilder).getResultList())).subscribeOn(scheduler);
+    }
+
+    /**
+     * Applies the paginated entity view setting to the criteria builder and returns a {@link Mono} emitting the {@link PagedList}.
+     *
+     * @param evm The entity view manager
+     * @param setting The entity view setting to apply
+     * @param criteriaBuilder The criteria builder to apply the setting to
+     * @param <T> The entity view type
+     * @return The mono of the paged list
+     * @see EntityViewManager#applySetting(EntityViewSetting, CriteriaBuilder)
+     */
+    public <T> Mono<PagedList<T>> getPagedList(EntityViewManager evm, EntityViewSetting<T, PaginatedCriteriaBuilder<T>> setting, CriteriaBuilder<?> criteriaBuilder) {
+        return Mono.fromCallable(() -> evm.applySetting(setting, criteriaBuilder).getResultList()).subscribeOn(scheduler);
+    }
+}
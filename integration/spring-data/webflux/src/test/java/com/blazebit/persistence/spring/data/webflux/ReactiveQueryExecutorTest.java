@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blazebit.persistence.integration.quarkus.deployment.view;
+
+package com.blazebit.persistence.spring.data.webflux;
+
+import com.blazebit.persistence.Queryable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public class ReactiveQueryExecutorTest {
+
+    private static final String SCHEDULER_NAME = "jpa-test";
+
+    private Scheduler scheduler;
+    private ReactiveQueryExecutor executor;
+    private final AtomicInteger executions = new AtomicInteger();
+    private final AtomicReference<Thread> executionThread = new AtomicReference<>();
+
+    @Before
+    public void setUp() {
+        scheduler = Schedulers.newParallel(SCHEDULER_NAME, 2);
+        executor = new ReactiveQueryExecutor(scheduler);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullSchedulerIsRejected() {
+        new ReactiveQueryExecutor(null);
+    }
+
+    @Test
+    public void testResultListIsExecutedOnSubscription() {
+        Flux<Integer> flux = executor.getResultList(queryable(Arrays.asList(1, 2, 3), null, null));
+        assertEquals(0, executions.get());
+
+        assertEquals(Arrays.asList(1, 2, 3), flux.collectList().block());
+        assertEquals(1, executions.get());
+        assertEquals(Arrays.asList(1, 2, 3), flux.collectList().block());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testResultListIsExecutedOnScheduler() {
+        executor.getResultList(queryable(Arrays.asList(1, 2, 3), null, null)).blockLast();
+
+        assertNotSame(Thread.currentThread(), executionThread.get());
+        assertTrue(executionThread.get().getName().startsWith(SCHEDULER_NAME));
+    }
+
+    @Test
+    public void testSingleResultIsExecutedOnScheduler() {
+        Mono<Integer> mono = executor.getSingleResult(queryable(null, 1, null));
+        assertEquals(0, executions.get());
+
+        assertEquals(Integer.valueOf(1), mono.block());
+        assertEquals(1, executions.get());
+        assertTrue(executionThread.get().getName().startsWith(SCHEDULER_NAME));
+    }
+
+    @Test
+    public void testSingleResultErrorIsPropagated() {
+        IllegalStateException exception = new IllegalStateException("Query failed");
+        try {
+            executor.getSingleResult(queryable(null, null, exception)).block();
+            fail("Expected the query exception to be propagated");
+        } catch (IllegalStateException ex) {
+            assertSame(exception, ex);
+        }
+    }
+
+    @Test
+    public void testResultStreamIsClosedOnCompletion() {
+        AtomicBoolean closed = new AtomicBoolean();
+        List<Integer> result = executor.getResultStream(streamQueryable(closed)).collectList().block();
+
+        assertEquals(Arrays.asList(1, 2, 3), result);
+        assertTrue(closed.get());
+        assertTrue(executionThread.get().getName().startsWith(SCHEDULER_NAME));
+    }
+
+    @Test
+    public void testResultStreamIsClosedOnCancel() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Integer first = executor.getResultStream(streamQueryable(closed)).take(1).blockLast();
+
+        assertEquals(Integer.valueOf(1), first);
+        assertTrue(closed.get());
+    }
+
+    private Queryable<Integer, ?> streamQueryable(AtomicBoolean closed) {
+        return queryable(Arrays.asList(1, 2, 3), null, null, closed);
+    }
+
+    private Queryable<Integer, ?> queryable(List<Integer> resultList, Integer singleResult, RuntimeException exception) {
+        return queryable(resultList, singleResult, exception, new AtomicBoolean());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Queryable<Integer, ?> queryable(List<Integer> resultList, Integer singleResult, RuntimeException exception, AtomicBoolean closed) {
+        return (Queryable<Integer, ?>) Proxy.newProxyInstance(Queryable.class.getClassLoader(), new Class<?>[]{ Queryable.class }, (proxy, method, args) -> {
+            executions.incrementAndGet();
+            executionThread.set(Thread.currentThread());
+            if (exception != null) {
+                throw exception;
+            }
+            switch (method.getName()) {
+                case "getResultList":
+                    return resultList;
+                case "getSingleResult":
+                    return singleResult;
+                case "getResultStream":
+                    return resultList.stream().onClose(() -> closed.set(true));
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
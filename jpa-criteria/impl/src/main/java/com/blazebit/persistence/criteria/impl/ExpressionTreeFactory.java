@@ -0,0 +1,181 @@
+/*
+ * Copyright 2014 - 2023 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.criteria.impl;
+
+import com.blazebit.persistence.criteria.impl.expression.AbstractPredicate;
+import com.blazebit.persistence.criteria.impl.expression.ComparisonPredicate;
+import com.blazebit.persistence.criteria.impl.expression.CompoundPredicate;
+import com.blazebit.persistence.criteria.impl.expression.IsNullPredicate;
+import com.blazebit.persistence.criteria.impl.expression.NotPredicate;
+import com.blazebit.persistence.criteria.impl.expression.ParameterExpressionImpl;
+import com.blazebit.persistence.criteria.impl.path.AbstractFrom;
+import com.blazebit.persistence.criteria.impl.path.AbstractPath;
+import com.blazebit.persistence.criteria.impl.path.PluralAttributePath;
+import com.blazebit.persistence.criteria.impl.path.SingularAttributePath;
+import com.blazebit.persistence.criteria.impl.path.TreatedPath;
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.ParameterExpression;
+import com.blazebit.persistence.parser.expression.PathElementExpression;
+import com.blazebit.persistence.parser.expression.PathExpression;
+import com.blazebit.persistence.parser.expression.PropertyExpression;
+import com.blazebit.persistence.parser.predicate.EqPredicate;
+import com.blazebit.persistence.parser.predicate.GePredicate;
+import com.blazebit.persistence.parser.predicate.GtPredicate;
+import com.blazebit.persistence.parser.predicate.LePredicate;
+import com.blazebit.persistence.parser.predicate.LtPredicate;
+import com.blazebit.persistence.parser.predicate.Predicate;
+
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates expression trees for the subset of criteria expressions that can be attached to a query builder directly,
+ * i.e. paths, parameters and comparison, null check and logical predicates of these. For all other expressions the
+ * string rendering and parsing must be used. The support check is side effect free, whereas the creation of an
+ * expression tree registers parameters and aliases in the render context just like rendering does.
+ *
+ * @author Christian Beikov
+ * @since 1.6.9
+ */
+public final class ExpressionTreeFactory {
+
+    private ExpressionTreeFactory() {
+    }
+
+    public static boolean isSupportedOperand(Selection<?> selection) {
+        if (selection instanceof AbstractPath<?>) {
+            return isSupportedPath((AbstractPath<?>) selection);
+        }
+        return selection instanceof ParameterExpressionImpl<?>;
+    }
+
+    public static boolean isSupportedPredicate(Selection<?> selection) {
+        if (selection instanceof ComparisonPredicate) {
+            ComparisonPredicate predicate = (ComparisonPredicate) selection;
+            return isSupportedOperand(predicate.getLeftHandSide()) && isSupportedOperand(predicate.getRightHandSide());
+        } else if (selection instanceof IsNullPredicate) {
+            return isSupportedOperand(((IsNullPredicate) selection).getOperand());
+        } else if (selection instanceof NotPredicate) {
+            return isSupportedPredicate(((NotPredicate) selection).getPredicate());
+        } else if (selection instanceof CompoundPredicate) {
+            List<javax.persistence.criteria.Expression<Boolean>> expressions = ((CompoundPredicate) selection).getExpressions();
+            // An empty compound predicate is rendered as constant comparison
+            if (expressions.isEmpty()) {
+                return false;
+            }
+            for (javax.persistence.criteria.Expression<Boolean> expression : expressions) {
+                if (!(expression instanceof AbstractPredicate) || !isSupportedPredicate(expression)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isSupportedPath(AbstractPath<?> path) {
+        if (path instanceof TreatedPath<?>) {
+            return false;
+        } else if (path instanceof AbstractFrom<?, ?>) {
+            return true;
+        } else if (path.getClass() != SingularAttributePath.class && path.getClass() != PluralAttributePath.class) {
+            return false;
+        }
+        AbstractPath<?> basePath = path.getBasePath();
+        return basePath == null || isSupportedPath(basePath);
+    }
+
+    public static Expression createOperand(Selection<?> selection, RenderContext context) {
+        if (selection instanceof AbstractPath<?>) {
+            List<PathElementExpression> pathElements = new ArrayList<>();
+            addPathElements((AbstractPath<?>) selection, context, pathElements);
+            return new PathExpression(pathElements);
+        } else if (selection instanceof ParameterExpressionImpl<?>) {
+            return new ParameterExpression(((ParameterExpressionImpl<?>) selection).registerParameter(context));
+        }
+        throw new IllegalArgumentException("Unsupported operand: " + selection);
+    }
+
+    private static void addPathElements(AbstractPath<?> path, RenderContext context, List<PathElementExpression> pathElements) {
+        if (path instanceof AbstractFrom<?, ?>) {
+            // The alias of an embeddable join is a path
+            for (String property : ((AbstractFrom<?, ?>) path).resolveAlias(context).split("\\.")) {
+                pathElements.add(new PropertyExpression(property));
+            }
+        } else {
+            AbstractPath<?> basePath = path.getBasePath();
+            if (basePath != null) {
+                addPathElements(basePath, context, pathElements);
+            }
+            pathElements.add(new PropertyExpression(path.getAttribute().getName()));
+        }
+    }
+
+    public static Predicate createPredicate(Selection<?> selection, RenderContext context) {
+        if (selection instanceof ComparisonPredicate) {
+            ComparisonPredicate predicate = (ComparisonPredicate) selection;
+            Expression left = createOperand(predicate.getLeftHandSide(), context);
+            Expression right = createOperand(predicate.getRightHandSide(), context);
+            switch (predicate.getComparisonOperator()) {
+                case EQUAL:
+                    return new EqPredicate(left, right);
+                case NOT_EQUAL:
+                    return new EqPredicate(left, right, true);
+                case LESS_THAN:
+                    return new LtPredicate(left, right);
+                case LESS_THAN_OR_EQUAL:
+                    return new LePredicate(left, right);
+                case GREATER_THAN:
+                    return new GtPredicate(left, right);
+                case GREATER_THAN_OR_EQUAL:
+                    return new GePredicate(left, right);
+                default:
+                    throw new IllegalArgumentException("Unsupported comparison operator: " + predicate.getComparisonOperator());
+            }
+        } else if (selection instanceof IsNullPredicate) {
+            IsNullPredicate predicate = (IsNullPredicate) selection;
+            return new com.blazebit.persistence.parser.predicate.IsNullPredicate(createOperand(predicate.getOperand(), context), predicate.isNegated());
+        } else if (selection instanceof NotPredicate) {
+            Predicate predicate = createPredicate(((NotPredicate) selection).getPredicate(), context);
+            if (predicate.isNegated()) {
+                // Wrap to maintain the negation structure like the parser does
+                predicate = new com.blazebit.persistence.parser.predicate.CompoundPredicate(com.blazebit.persistence.parser.predicate.CompoundPredicate.BooleanOperator.AND, predicate);
+            }
+            predicate.negate();
+            return predicate;
+        } else if (selection instanceof CompoundPredicate) {
+            CompoundPredicate compoundPredicate = (CompoundPredicate) selection;
+            List<javax.persistence.criteria.Expression<Boolean>> expressions = compoundPredicate.getExpressions();
+            if (expressions.size() == 1) {
+                return createPredicate(expressions.get(0), context);
+            }
+            List<Predicate> children = new ArrayList<>(expressions.size());
+            for (javax.persistence.criteria.Expression<Boolean> expression : expressions) {
+                children.add(createPredicate(expression, context));
+            }
+            com.blazebit.persistence.parser.predicate.CompoundPredicate.BooleanOperator operator;
+            if (compoundPredicate.getOperator() == javax.persistence.criteria.Predicate.BooleanOperator.AND) {
+                operator = com.blazebit.persistence.parser.predicate.CompoundPredicate.BooleanOperator.AND;
+            } else {
+                operator = com.blazebit.persistence.parser.predicate.CompoundPredicate.BooleanOperator.OR;
+            }
+            return new com.blazebit.persistence.parser.predicate.CompoundPredicate(operator, children);
+        }
+        throw new IllegalArgumentException("Unsupported predicate: " + selection);
+    }
+}
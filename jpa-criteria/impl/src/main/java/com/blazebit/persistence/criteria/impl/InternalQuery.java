@@ -44,6 +44,7 @@ import com.blazebit.persistence.criteria.impl.path.AbstractJoin;
 import com.blazebit.persistence.criteria.impl.path.EntityJoin;
 import com.blazebit.persistence.criteria.impl.path.RootImpl;
 import com.blazebit.persistence.criteria.impl.path.TreatedPath;
+import com.blazebit.persistence.parser.expression.ExpressionTreeSupport;
 
 import javax.persistence.Tuple;
 import javax.persistence.criteria.Expression;
@@ -407,6 +408,14 @@ public class InternalQuery<T> implements Serializable {
 
             ((SubqueryExpression<?>) s).renderSubquery(context);
             context.popSubqueryInitiator();
+        } else if (cb instanceof ExpressionTreeSupport && ExpressionTreeFactory.isSupportedOperand(s)) {
+            // Attach the expression tree directly to avoid rendering and parsing the expression again
+            com.blazebit.persistence.parser.expression.Expression expression = ExpressionTreeFactory.createOperand(s, context);
+            if (s.getAlias() != null && !(s instanceof AbstractFrom<?, ?>)) {
+                ((ExpressionTreeSupport) cb).selectExpression(expression, s.getAlias());
+            } else {
+                ((ExpressionTreeSupport) cb).selectExpression(expression, null);
+            }
         } else {
             if (s instanceof TreatedPath<?>) {
                 TreatedPath<?> treatedPath = (TreatedPath<?>) s;
@@ -651,6 +660,10 @@ public class InternalQuery<T> implements Serializable {
 
         context.setClauseType(ClauseType.WHERE);
         context.getBuffer().setLength(0);
+        if (treatedSelections.isEmpty() && wb instanceof ExpressionTreeSupport && ExpressionTreeFactory.isSupportedPredicate(restriction)) {
+            ((ExpressionTreeSupport) wb).setWherePredicate(ExpressionTreeFactory.createPredicate(restriction, context));
+            return;
+        }
         ((AbstractSelection<?>) restriction).render(context);
         renderTreatTypeRestrictions(context, treatedSelections);
         String expression = context.takeBuffer();
@@ -751,18 +764,22 @@ public class InternalQuery<T> implements Serializable {
 
         context.setClauseType(ClauseType.ORDER_BY);
         for (Order order : orderList) {
+            boolean nullsFirst = false;
+
+            if (order instanceof BlazeOrder) {
+                nullsFirst = ((BlazeOrder) order).isNullsFirst();
+            }
+
             context.getBuffer().setLength(0);
+            if (ob instanceof ExpressionTreeSupport && ExpressionTreeFactory.isSupportedOperand(order.getExpression())) {
+                ((ExpressionTreeSupport) ob).orderByExpression(ExpressionTreeFactory.createOperand(order.getExpression(), context), order.isAscending(), nullsFirst);
+                continue;
+            }
             ((AbstractSelection<?>) order.getExpression()).render(context);
             String expression = context.takeBuffer();
             Map<String, InternalQuery<?>> aliasToSubqueries = context.takeAliasToSubqueryMap();
 
             if (aliasToSubqueries.isEmpty()) {
-                boolean nullsFirst = false;
-
-                if (order instanceof BlazeOrder) {
-                    nullsFirst = ((BlazeOrder) order).isNullsFirst();
-                }
-
                 ob.orderBy(expression, order.isAscending(), nullsFirst);
             } else {
                 throw new IllegalArgumentException("Subqueries are not supported in the order by clause!");
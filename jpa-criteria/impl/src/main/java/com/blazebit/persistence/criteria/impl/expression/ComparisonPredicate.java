@@ -106,6 +106,18 @@ public class ComparisonPredicate extends AbstractSimplePredicate {
         public abstract ComparisonOperator getNegated();
     }
 
+    public ComparisonOperator getComparisonOperator() {
+        return comparisonOperator;
+    }
+
+    public Expression<?> getLeftHandSide() {
+        return leftHandSide;
+    }
+
+    public Expression<?> getRightHandSide() {
+        return rightHandSide;
+    }
+
     @Override
     public AbstractPredicate copyNegated() {
         return new ComparisonPredicate(criteriaBuilder, comparisonOperator.getNegated(), leftHandSide, rightHandSide);
@@ -32,6 +32,10 @@ public class NotPredicate extends AbstractSimplePredicate {
         this.predicate = predicate;
     }
 
+    public AbstractPredicate getPredicate() {
+        return predicate;
+    }
+
     @Override
     public AbstractPredicate copyNegated() {
         return new NotPredicate(criteriaBuilder, this);
@@ -84,17 +84,19 @@ public class ParameterExpressionImpl<T> extends AbstractExpression<T> implements
         visitor.add(this);
     }
 
-    @Override
-    public void render(RenderContext context) {
-        final String paramName;
+    public String registerParameter(RenderContext context) {
         if (value == null) {
-            paramName = context.registerExplicitParameter(this);
+            return context.registerExplicitParameter(this);
         } else if (value == NULL_VALUE) {
-            paramName = context.registerLiteralParameterBinding(null, getJavaType());
+            return context.registerLiteralParameterBinding(null, getJavaType());
         } else {
-            paramName = context.registerLiteralParameterBinding(value, getJavaType());
+            return context.registerLiteralParameterBinding(value, getJavaType());
         }
-        context.getBuffer().append(':').append(paramName);
+    }
+
+    @Override
+    public void render(RenderContext context) {
+        context.getBuffer().append(':').append(registerParameter(context));
     }
 
     @Override
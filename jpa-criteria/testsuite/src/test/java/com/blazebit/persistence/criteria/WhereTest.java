@@ -20,12 +20,19 @@ import com.blazebit.persistence.Criteria;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.CriteriaBuilderFactory;
 import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.criteria.impl.ExpressionTreeFactory;
 import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
 import com.blazebit.persistence.testsuite.AbstractCoreTest;
 import com.blazebit.persistence.testsuite.entity.Document;
 import com.blazebit.persistence.testsuite.entity.Document_;
 import com.blazebit.persistence.testsuite.entity.NameObject_;
 import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.entity.PolymorphicBase;
+import com.blazebit.persistence.testsuite.entity.PolymorphicBaseContainer;
+import com.blazebit.persistence.testsuite.entity.PolymorphicBase_;
+import com.blazebit.persistence.testsuite.entity.PolymorphicSub1;
+import com.blazebit.persistence.testsuite.entity.PolymorphicSub1_;
+import com.blazebit.persistence.testsuite.entity.PolymorphicSub2;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -45,6 +52,16 @@ public class WhereTest extends AbstractCoreTest {
 
     private CriteriaBuilderFactory cbfUnoptimized;
 
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return concat(super.getEntityClasses(), new Class<?>[] {
+                PolymorphicBase.class,
+                PolymorphicSub1.class,
+                PolymorphicSub2.class,
+                PolymorphicBaseContainer.class
+        });
+    }
+
     @Before
     public void initNonOptimized() {
         CriteriaBuilderConfiguration config = Criteria.getDefault();
@@ -212,6 +229,79 @@ public class WhereTest extends AbstractCoreTest {
         assertEquals(Long.class, criteriaBuilder.getParameter("param").getParameterType());
     }
 
+    @Test
+    public void simplePathAndParameterPredicates() {
+        BlazeCriteriaQuery<Document> cq = BlazeCriteria.get(cbf, Document.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        Root<Document> root = cq.from(Document.class, "document");
+        ParameterExpression<Long> param = cb.parameter(Long.class, "param");
+
+        cq.select(root);
+        cq.where(cb.or(
+                cb.and(
+                        cb.notEqual(root.get(Document_.id), param),
+                        cb.lessThanOrEqualTo(root.get(Document_.age), param)
+                ),
+                cb.not(cb.isNull(root.get(Document_.name))),
+                cb.equal(root.get(Document_.nameObject).get(NameObject_.primaryName), "abc")
+        ));
+        cq.orderBy(cb.asc(root.get(Document_.name)), cb.desc(root.get(Document_.id)));
+
+        CriteriaBuilder<?> criteriaBuilder = cq.createCriteriaBuilder(em);
+        assertEquals("SELECT document FROM Document document " +
+                "WHERE document.id <> :param AND document.age <= :param " +
+                "OR document.name IS NOT NULL " +
+                "OR document.nameObject.primaryName = :generated_param_0 " +
+                "ORDER BY document.name ASC, document.id DESC", criteriaBuilder.getQueryString());
+        assertEquals(2, criteriaBuilder.getParameters().size());
+        assertEquals(Long.class, criteriaBuilder.getParameter("param").getParameterType());
+        assertEquals("abc", criteriaBuilder.getParameterValue("generated_param_0"));
+    }
+
+    @Test
+    public void treatedPathPredicatesAreRendered() {
+        BlazeCriteriaQuery<PolymorphicBase> cq = BlazeCriteria.get(cbf, PolymorphicBase.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        BlazeRoot<PolymorphicBase> root = cq.from(PolymorphicBase.class, "base");
+        ParameterExpression<Long> param = cb.parameter(Long.class, "param");
+        Predicate restriction = cb.and(
+                cb.equal(root.get(PolymorphicBase_.id), param),
+                cb.treat(root, PolymorphicSub1.class).get(PolymorphicSub1_.sub1Value).isNotNull()
+        );
+        cq.where(restriction);
+
+        // Treated paths need the type restrictions of the string rendering
+        assertFalse(ExpressionTreeFactory.isSupportedPredicate(restriction));
+        CriteriaBuilder<?> criteriaBuilder = cq.createCriteriaBuilder(em);
+        assertEquals("SELECT base FROM PolymorphicBase base " +
+                "WHERE base.id = :param AND " + treatRoot("base", PolymorphicSub1.class, "sub1Value", true) + " IS NOT NULL", criteriaBuilder.getQueryString());
+        criteriaBuilder.setParameter("param", 1L).getResultList();
+    }
+
+    @Test
+    public void subqueryPredicatesAreRendered() {
+        BlazeCriteriaQuery<Document> cq = BlazeCriteria.get(cbf, Document.class);
+        BlazeCriteriaBuilder cb = cq.getCriteriaBuilder();
+        Root<Document> root = cq.from(Document.class, "document");
+        ParameterExpression<Long> param = cb.parameter(Long.class, "param");
+        BlazeSubquery<Long> subquery = cq.subquery(Long.class);
+        Root<Document> subRoot = subquery.from(Document.class, "sub");
+        subquery.select(cb.max(subRoot.get(Document_.age)));
+        Predicate restriction = cb.and(
+                cb.notEqual(root.get(Document_.id), param),
+                cb.equal(root.get(Document_.age), subquery)
+        );
+        cq.select(root);
+        cq.where(restriction);
+
+        // Subqueries must be registered through a subquery initiator of the string rendering
+        assertFalse(ExpressionTreeFactory.isSupportedPredicate(restriction));
+        CriteriaBuilder<?> criteriaBuilder = cq.createCriteriaBuilder(em);
+        assertEquals("SELECT document FROM Document document " +
+                "WHERE document.id <> :param AND document.age = (SELECT MAX(sub.age) FROM Document sub)", criteriaBuilder.getQueryString());
+        criteriaBuilder.setParameter("param", 1L).getResultList();
+    }
+
     @Test
     public void multipleNegations() {
         BlazeCriteriaQuery<Integer> cq = BlazeCriteria.get(cbfUnoptimized, Integer.class);
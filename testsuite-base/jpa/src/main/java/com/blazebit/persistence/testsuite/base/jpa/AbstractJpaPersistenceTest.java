@@ -780,6 +780,10 @@ public abstract class AbstractJpaPersistenceTest {
         QueryInspectorListener.EXECUTED_QUERIES.clear();
     }
 
+    public static List<String> getExecutedQueries() {
+        return new ArrayList<>(QueryInspectorListener.EXECUTED_QUERIES);
+    }
+
     public static void assertUnorderedEquals(List<?> list1, List<?> list2) {
         assertEquals(list1.size(), list2.size());
         assertTrue(list1.containsAll(list2));
@@ -933,11 +937,16 @@ public abstract class AbstractJpaPersistenceTest {
         private final Properties properties;
         private final Map<String, Class<?>> macros;
         private final Map<String, Class<?>> functions;
+        private final Map<String, Class<?>> dbmsDialects;
 
         private CriteriaBuilderConfigurationEqualityWrapper(CriteriaBuilderConfigurationImpl cfg) {
             this.properties = cfg.getProperties();
             this.macros = cfg.getMacros().entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getClass()));
             this.functions = cfg.getFunctions().entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getClass()));
+            this.dbmsDialects = new HashMap<>();
+            for (Map.Entry<String, DbmsDialect> entry : cfg.getDbmsDialects().entrySet()) {
+                dbmsDialects.put(entry.getKey(), entry.getValue().getClass());
+            }
         }
 
         @Override
@@ -951,12 +960,13 @@ public abstract class AbstractJpaPersistenceTest {
             CriteriaBuilderConfigurationEqualityWrapper that = (CriteriaBuilderConfigurationEqualityWrapper) o;
             return properties.equals(that.properties) &&
                     macros.equals(that.macros) &&
-                    functions.equals(that.functions);
+                    functions.equals(that.functions) &&
+                    dbmsDialects.equals(that.dbmsDialects);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(properties, macros, functions);
+            return Objects.hash(properties, macros, functions, dbmsDialects);
         }
     }
 }